@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator;
+
+/**
+ * Destination buckets of an archive extraction.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public enum ExtractionBucket {
+  WEB_XML("web.xml"),
+  JARS("jars"),
+  JSPS("jsps"),
+  RESOURCES("resources"),
+  WEB_INF_RESOURCES("web-inf-resources"),
+  CLASSES("classes");
+
+  private final String location;
+
+  /**
+   * ExtractionBucket constructor.
+   *
+   * @param location Location of the bucket inside the output folder.
+   */
+  ExtractionBucket(String location) {
+    this.location = location;
+  }
+
+  /**
+   * Location of the bucket inside the output folder.
+   *
+   * @return Location of the bucket inside the output folder.
+   */
+  public String getLocation() {
+    return location;
+  }
+
+  /**
+   * Test if an archive entry belongs to the bucket.
+   *
+   * @param entryName Archive entry name.
+   * @return True if the entry belongs to the bucket.
+   */
+  public boolean accepts(String entryName) {
+    boolean result;
+    switch (this) {
+      case WEB_XML:
+        result = entryName.equals("WEB-INF/web.xml");
+        break;
+      case JARS:
+        result = entryName.endsWith(".jar");
+        break;
+      case JSPS:
+        result = entryName.endsWith(".jsp");
+        break;
+      case RESOURCES:
+        result = !entryName.endsWith(".jsp") && !entryName.startsWith("WEB-INF") && !entryName.startsWith("META-INF");
+        break;
+      case WEB_INF_RESOURCES:
+        result = entryName.startsWith("WEB-INF") && !entryName.endsWith(".class") && !entryName.endsWith(".jar");
+        break;
+      case CLASSES:
+        result = entryName.endsWith(".class");
+        break;
+      default:
+        result = false;
+        break;
+    }
+    return result;
+  }
+
+  /**
+   * Relative path of an archive entry once extracted in the bucket.
+   *
+   * @param entryName Archive entry name.
+   * @return Relative path inside the output folder.
+   */
+  public String getTargetPath(String entryName) {
+    String result;
+    switch (this) {
+      case WEB_XML:
+        result = location;
+        break;
+      case JARS:
+        result = location + "/" + entryName.substring(entryName.lastIndexOf('/') + 1);
+        break;
+      case WEB_INF_RESOURCES:
+        result = location + "/" + entryName.replace("WEB-INF/", "");
+        break;
+      case CLASSES:
+        result = location + "/" + entryName.replace("WEB-INF/classes/", "");
+        break;
+      default:
+        result = location + "/" + entryName;
+        break;
+    }
+    return result;
+  }
+
+  /**
+   * True if the bucket is a folder inside the output folder.
+   *
+   * @return True if the bucket is a folder.
+   */
+  public boolean isFolder() {
+    return this != WEB_XML;
+  }
+}
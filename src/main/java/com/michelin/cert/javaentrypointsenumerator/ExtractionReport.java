@@ -0,0 +1,147 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Extraction report, entries and bytes extracted per bucket.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ExtractionReport {
+
+  private final Map<ExtractionBucket, Long> entries;
+  private final Map<ExtractionBucket, Long> bytes;
+  private final Map<ExtractionBucket, Long> unchanged;
+  private final Map<ExtractionBucket, Long> deleted;
+  private boolean completed;
+
+  /**
+   * Default constructor.
+   */
+  public ExtractionReport() {
+    this.entries = new EnumMap<>(ExtractionBucket.class);
+    this.bytes = new EnumMap<>(ExtractionBucket.class);
+    this.unchanged = new EnumMap<>(ExtractionBucket.class);
+    this.deleted = new EnumMap<>(ExtractionBucket.class);
+    for (ExtractionBucket bucket : ExtractionBucket.values()) {
+      this.entries.put(bucket, 0L);
+      this.bytes.put(bucket, 0L);
+      this.unchanged.put(bucket, 0L);
+      this.deleted.put(bucket, 0L);
+    }
+  }
+
+  /**
+   * Record an extracted entry.
+   *
+   * @param bucket Destination bucket.
+   * @param size Extracted bytes.
+   */
+  public synchronized void addEntry(ExtractionBucket bucket, long size) {
+    this.entries.put(bucket, this.entries.get(bucket) + 1);
+    this.bytes.put(bucket, this.bytes.get(bucket) + size);
+  }
+
+  /**
+   * Record an entry left untouched because it did not change since the previous extraction.
+   *
+   * @param bucket Destination bucket.
+   */
+  public synchronized void addUnchanged(ExtractionBucket bucket) {
+    this.unchanged.put(bucket, this.unchanged.get(bucket) + 1);
+  }
+
+  /**
+   * Record a file deleted because its entry disappeared from the archive.
+   *
+   * @param bucket Destination bucket.
+   */
+  public synchronized void addDeleted(ExtractionBucket bucket) {
+    this.deleted.put(bucket, this.deleted.get(bucket) + 1);
+  }
+
+  /**
+   * Number of entries extracted in a bucket.
+   *
+   * @param bucket Bucket.
+   * @return Number of entries extracted.
+   */
+  public synchronized long getEntries(ExtractionBucket bucket) {
+    return this.entries.get(bucket);
+  }
+
+  /**
+   * Number of bytes extracted in a bucket.
+   *
+   * @param bucket Bucket.
+   * @return Number of bytes extracted.
+   */
+  public synchronized long getBytes(ExtractionBucket bucket) {
+    return this.bytes.get(bucket);
+  }
+
+  /**
+   * Number of entries of a bucket left untouched.
+   *
+   * @param bucket Bucket.
+   * @return Number of entries left untouched.
+   */
+  public synchronized long getUnchanged(ExtractionBucket bucket) {
+    return this.unchanged.get(bucket);
+  }
+
+  /**
+   * Number of files of a bucket deleted.
+   *
+   * @param bucket Bucket.
+   * @return Number of files deleted.
+   */
+  public synchronized long getDeleted(ExtractionBucket bucket) {
+    return this.deleted.get(bucket);
+  }
+
+  /**
+   * True if the extraction pass went through the whole archive.
+   *
+   * @return True if the extraction is completed.
+   */
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  /**
+   * True if the extraction pass went through the whole archive.
+   *
+   * @param completed True if the extraction is completed.
+   */
+  public void setCompleted(boolean completed) {
+    this.completed = completed;
+  }
+
+  @Override
+  public synchronized String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (ExtractionBucket bucket : ExtractionBucket.values()) {
+      builder.append(String.format("%-18s %8d entries %12d bytes %8d unchanged %8d deleted%n",
+          bucket.getLocation(), entries.get(bucket), bytes.get(bucket), unchanged.get(bucket), deleted.get(bucket)));
+    }
+    return builder.toString();
+  }
+}
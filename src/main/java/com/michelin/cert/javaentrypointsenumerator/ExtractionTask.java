@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator;
+
+import java.nio.file.Path;
+
+/**
+ * Extraction of one archive entry to one target file.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ExtractionTask {
+
+  private final String entryName;
+  private final long size;
+  private final long crc;
+  private final long time;
+  private final ExtractionBucket bucket;
+  private final Path target;
+
+  /**
+   * ExtractionTask constructor.
+   *
+   * @param entryName Archive entry name.
+   * @param size Uncompressed size of the entry, -1 if unknown.
+   * @param crc CRC32 of the entry, -1 if unknown.
+   * @param time Modification time of the entry, -1 if unknown.
+   * @param bucket Destination bucket.
+   * @param target Target file.
+   */
+  public ExtractionTask(String entryName, long size, long crc, long time, ExtractionBucket bucket, Path target) {
+    this.entryName = entryName;
+    this.size = size;
+    this.crc = crc;
+    this.time = time;
+    this.bucket = bucket;
+    this.target = target;
+  }
+
+  /**
+   * Archive entry name.
+   *
+   * @return Archive entry name.
+   */
+  public String getEntryName() {
+    return entryName;
+  }
+
+  /**
+   * Uncompressed size of the entry.
+   *
+   * @return Uncompressed size of the entry, -1 if unknown.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * CRC32 of the entry.
+   *
+   * @return CRC32 of the entry, -1 if unknown.
+   */
+  public long getCrc() {
+    return crc;
+  }
+
+  /**
+   * Modification time of the entry.
+   *
+   * @return Modification time of the entry, -1 if unknown.
+   */
+  public long getTime() {
+    return time;
+  }
+
+  /**
+   * Destination bucket.
+   *
+   * @return Destination bucket.
+   */
+  public ExtractionBucket getBucket() {
+    return bucket;
+  }
+
+  /**
+   * Target file.
+   *
+   * @return Target file.
+   */
+  public Path getTarget() {
+    return target;
+  }
+
+  /**
+   * Test if another task extracts the same entry content to the same target.
+   *
+   * @param other Other task.
+   * @return True if both tasks produce the same file.
+   */
+  public boolean isSameAs(ExtractionTask other) {
+    return other != null
+        && entryName.equals(other.entryName)
+        && size == other.size
+        && crc == other.crc
+        && time == other.time
+        && size >= 0
+        && crc >= 0
+        && bucket == other.bucket
+        && target.equals(other.target);
+  }
+}
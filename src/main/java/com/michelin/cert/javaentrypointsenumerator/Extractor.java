@@ -16,21 +16,41 @@
 
 package com.michelin.cert.javaentrypointsenumerator;
 
-import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Enumeration;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
+import org.zeroturnaround.zip.FileSource;
+import org.zeroturnaround.zip.ZipEntrySource;
 import org.zeroturnaround.zip.ZipUtil;
 
 /**
@@ -40,42 +60,154 @@ import org.zeroturnaround.zip.ZipUtil;
  */
 public class Extractor {
 
+  private static final int BUFFER_SIZE = 256 * 1024;
+  private static final String MANIFEST_NAME = ".extraction-manifest";
+  private static final String MANIFEST_HEADER = "# JavaEntrypointsEnumerator extraction manifest v1";
+
   private final File file;
   private final File outputFolder;
+  private final Path root;
+  private final int threads;
+  private final boolean incremental;
+  private final List<ExtractionTask> changedClasses;
+  private final List<ExtractionTask> deletedClasses;
+  private boolean fullExtraction;
+  private ExtractionReport report;
+  private Consumer<ExtractionTask> extractionListener;
 
   /**
-   * JavaArchiveExtractor constructor.
+   * JavaArchiveExtractor constructor, extracting every entry on a single worker.
    *
    * @param file Jar/War file to analyze.
    * @param outputFolder Output folder.
    */
   public Extractor(File file, File outputFolder) {
+    this(file, outputFolder, 1, false);
+  }
+
+  /**
+   * JavaArchiveExtractor constructor.
+   *
+   * @param file Jar/War file to analyze.
+   * @param outputFolder Output folder.
+   * @param threads Number of extraction workers.
+   * @param incremental True to only extract entries changed since the previous extraction in the output folder, false to extract every entry again.
+   */
+  public Extractor(File file, File outputFolder, int threads, boolean incremental) {
     this.file = file;
     this.outputFolder = outputFolder;
+    this.root = outputFolder.getAbsoluteFile().toPath().normalize();
+    this.threads = Math.max(1, threads);
+    this.incremental = incremental;
+    this.changedClasses = new ArrayList<>();
+    this.deletedClasses = new ArrayList<>();
 
     if (!outputFolder.exists()) {
       outputFolder.mkdirs();
     }
   }
 
+  /**
+   * Listener told about every target file ready, extracted or left unchanged.
+   *
+   * @return Extraction listener or null.
+   */
+  public Consumer<ExtractionTask> getExtractionListener() {
+    return extractionListener;
+  }
+
+  /**
+   * Listener told about every target file ready, extracted or left unchanged, to set before extracting. It is called by the extraction workers and may block them.
+   *
+   * @param extractionListener Extraction listener or null.
+   */
+  public void setExtractionListener(Consumer<ExtractionTask> extractionListener) {
+    this.extractionListener = extractionListener;
+  }
+
+  /**
+   * Extract the whole archive in a single pass.
+   *
+   * <p>
+   * The central directory is enumerated once and every entry is sorted into its destination buckets. The target directories are then created in one batch and the entries are copied, in parallel if
+   * several workers are configured. When several entries target the same file the last one wins, so the output does not depend on the number of workers. The pass is only run once, next calls return
+   * the same report.
+   * </p>
+   *
+   * <p>
+   * The output folder is a persistent cache: the CRC32, size and time of every extracted entry are kept in a manifest. In incremental mode entries matching the manifest are left untouched, every
+   * entry is extracted again otherwise. In both modes files of entries which disappeared from the archive since the previous extraction are deleted.
+   * </p>
+   *
+   * @return Extraction report.
+   */
+  public synchronized ExtractionReport extract() {
+    if (report == null) {
+      report = new ExtractionReport();
+      try {
+        List<ExtractionTask> tasks = plan();
+        Map<Path, ExtractionTask> previousTasks = readManifest();
+        fullExtraction = !incremental || previousTasks.isEmpty();
+
+        //Keep unchanged files.
+        List<ExtractionTask> changedTasks = new ArrayList<>();
+        for (ExtractionTask task : tasks) {
+          ExtractionTask previousTask = previousTasks.remove(task.getTarget());
+          if (incremental && task.isSameAs(previousTask) && Files.isRegularFile(task.getTarget()) && Files.size(task.getTarget()) == task.getSize()) {
+            report.addUnchanged(task.getBucket());
+            notifyListener(task);
+          } else {
+            changedTasks.add(task);
+            if (task.getBucket() == ExtractionBucket.CLASSES) {
+              changedClasses.add(task);
+            }
+          }
+        }
+
+        //Delete files of removed entries.
+        for (ExtractionTask previousTask : previousTasks.values()) {
+          if (Files.deleteIfExists(previousTask.getTarget())) {
+            report.addDeleted(previousTask.getBucket());
+          }
+          if (previousTask.getBucket() == ExtractionBucket.CLASSES) {
+            deletedClasses.add(previousTask);
+          }
+        }
+
+        createDirectories(changedTasks);
+        Set<ExtractionTask> failedTasks = ConcurrentHashMap.newKeySet();
+        if (threads > 1) {
+          extractParallel(changedTasks, failedTasks);
+        } else {
+          extractSequential(changedTasks, failedTasks);
+        }
+
+        //Failed entries are left out of the manifest, to be extracted again next time.
+        List<ExtractionTask> extractedTasks = new ArrayList<>();
+        for (ExtractionTask task : tasks) {
+          if (!failedTasks.contains(task)) {
+            extractedTasks.add(task);
+          } else if (task.getBucket() == ExtractionBucket.CLASSES) {
+            changedClasses.remove(task);
+            deletedClasses.add(task);
+          }
+        }
+        writeManifest(extractedTasks);
+        report.setCompleted(true);
+      } catch (IOException ex) {
+        Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, null, ex);
+      }
+    }
+    return report;
+  }
+
   /**
    * Extract the web.xml file from the archive.
    *
    * @return True if the Web.xml files is well extracts.
    */
   public boolean extractWebXml() {
-    boolean result = false;
-    try {
-      JarFile jarFile = new JarFile(file);
-      ZipEntry entry = jarFile.getEntry("WEB-INF/web.xml");
-      if (entry != null) {
-        extractFile(jarFile.getInputStream(entry), this.outputFolder.getAbsolutePath() + File.separator + "web.xml");
-        result = true;
-      }
-    } catch (IOException ex) {
-      Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, null, ex);
-    }
-    return result;
+    return extract().getEntries(ExtractionBucket.WEB_XML) > 0;
   }
 
   /**
@@ -84,26 +216,7 @@ public class Extractor {
    * @return true if jar files was extracted.
    */
   public boolean extractJars() {
-    boolean result = false;
-    try {
-      File extractFolder = new File(this.outputFolder.getAbsolutePath() + File.separator + "jars");
-      extractFolder.mkdir();
-
-      JarFile jarFile = new JarFile(file);
-      Enumeration<JarEntry> entries = jarFile.entries();
-      while (entries.hasMoreElements()) {
-        JarEntry je = entries.nextElement();
-        if (je.isDirectory() || !je.getName().endsWith(".jar")) {
-          continue;
-        }
-        String[] temp = je.getName().split("/");
-        extractFile(jarFile.getInputStream(je), extractFolder.getAbsolutePath() + File.separator + temp[temp.length - 1]);
-      }
-      result = true;
-    } catch (IOException ex) {
-      Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, null, ex);
-    }
-    return result;
+    return extract().isCompleted();
   }
 
   /**
@@ -112,27 +225,7 @@ public class Extractor {
    * @return true if jsp files was extracted.
    */
   public boolean extractJsps() {
-    boolean result = false;
-    try {
-      File extractFolder = new File(this.outputFolder.getAbsolutePath() + File.separator + "jsps");
-      extractFolder.mkdir();
-
-      JarFile jarFile = new JarFile(file);
-      Enumeration<JarEntry> entries = jarFile.entries();
-      while (entries.hasMoreElements()) {
-        JarEntry je = entries.nextElement();
-        if (je.isDirectory() || !je.getName().endsWith(".jsp")) {
-          continue;
-        }
-        File extracted = new File(extractFolder.getAbsolutePath() + File.separator + je.getName());
-        extracted.getParentFile().mkdirs();
-        extractFile(jarFile.getInputStream(je), extracted.getAbsolutePath());
-      }
-      result = true;
-    } catch (IOException ex) {
-      Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, null, ex);
-    }
-    return result;
+    return extract().isCompleted();
   }
 
   /**
@@ -141,122 +234,285 @@ public class Extractor {
    * @return true if resources files was extracted.
    */
   public boolean extractResources() {
-    boolean result = false;
-    try {
-      File extractFolder = new File(this.outputFolder.getAbsolutePath() + File.separator + "resources");
-      extractFolder.mkdir();
+    return extract().isCompleted();
+  }
 
-      JarFile jarFile = new JarFile(file);
-      Enumeration<JarEntry> entries = jarFile.entries();
-      while (entries.hasMoreElements()) {
-        JarEntry je = entries.nextElement();
-        if (je.isDirectory() || je.getName().endsWith(".jsp") || je.getName().startsWith("WEB-INF") || je.getName().startsWith("META-INF")) {
-          continue;
+  /**
+   * Extract all classes present in War file.
+   *
+   * @return true if class files was extracted.
+   */
+  public boolean extractClasses() {
+    return extract().isCompleted();
+  }
+
+  /**
+   * Extract all resources present in WEB-INF folder.
+   *
+   * @return true if class files was extracted.
+   */
+  public boolean extractWebInfResources() {
+    return extract().isCompleted();
+  }
+
+  /**
+   * Generate a specific jar for classes contained in war file.
+   *
+   * <p>
+   * When the jar already exists and the classes were extracted incrementally, only the changed and removed classes are updated in the jar.
+   * </p>
+   *
+   * @return true.
+   */
+  public boolean generateClassJar() {
+    File inputFolder = new File(this.outputFolder.getAbsolutePath() + File.separator + "classes" + File.separator);
+    File classJar = new File(this.outputFolder.getAbsolutePath() + File.separator + "classes.jar");
+    boolean emptyFolder = !inputFolder.exists() || isEmptyDirectory(inputFolder.toPath().toAbsolutePath());
+    if (emptyFolder) {
+      classJar.delete();
+    } else if (report == null || !report.isCompleted() || fullExtraction || !classJar.exists()) {
+      ZipUtil.pack(inputFolder, classJar);
+    } else {
+      Path classesRoot = inputFolder.getAbsoluteFile().toPath().normalize();
+      if (!deletedClasses.isEmpty()) {
+        String[] paths = new String[deletedClasses.size()];
+        for (int i = 0; i < paths.length; ++i) {
+          paths[i] = toEntryName(classesRoot.relativize(deletedClasses.get(i).getTarget()));
         }
-        File extracted = new File(extractFolder.getAbsolutePath() + File.separator + je.getName());
-        extracted.getParentFile().mkdirs();
-        extractFile(jarFile.getInputStream(je), extracted.getAbsolutePath());
+        ZipUtil.removeEntries(classJar, paths);
+      }
+      if (!changedClasses.isEmpty()) {
+        ZipEntrySource[] sources = new ZipEntrySource[changedClasses.size()];
+        for (int i = 0; i < sources.length; ++i) {
+          Path target = changedClasses.get(i).getTarget();
+          sources[i] = new FileSource(toEntryName(classesRoot.relativize(target)), target.toFile());
+        }
+        ZipUtil.addOrReplaceEntries(classJar, sources);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Read the manifest of the previous extraction.
+   *
+   * @return Previous extraction tasks per target, empty if there is no manifest.
+   */
+  private Map<Path, ExtractionTask> readManifest() {
+    Map<Path, ExtractionTask> result = new LinkedHashMap<>();
+    Path manifest = root.resolve(MANIFEST_NAME);
+    if (Files.isRegularFile(manifest)) {
+      try ( BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+        String line = reader.readLine();
+        if (MANIFEST_HEADER.equals(line)) {
+          while ((line = reader.readLine()) != null) {
+            //bucket, crc, size, time, target, entry name.
+            String[] fields = line.split("\t", 6);
+            if (fields.length == 6) {
+              Path target = root.resolve(fields[4]).normalize();
+              if (target.startsWith(root) && !target.equals(root)) {
+                result.put(target, new ExtractionTask(fields[5], Long.parseLong(fields[2]), Long.parseLong(fields[1]), Long.parseLong(fields[3]), ExtractionBucket.valueOf(fields[0]), target));
+              } else {
+                Logger.getLogger(Extractor.class.getName()).log(Level.WARNING, "Manifest entry outside of the output folder ignored : {0}", fields[4]);
+              }
+            }
+          }
+        }
+      } catch (IOException | IllegalArgumentException ex) {
+        Logger.getLogger(Extractor.class.getName()).log(Level.WARNING, "Extraction manifest ignored : {0}", ex.getMessage());
+        result.clear();
       }
-      result = true;
-    } catch (IOException ex) {
-      Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, null, ex);
     }
     return result;
   }
 
   /**
-   * Extract all classes present in War file.
+   * Write the manifest of the current extraction.
    *
-   * @return true if class files was extracted.
+   * @param tasks Extraction tasks.
+   * @throws IOException IOException.
    */
-  public boolean extractClasses() {
-    boolean result = false;
-    try {
-      File extractFolder = new File(this.outputFolder.getAbsolutePath() + File.separator + "classes");
-      extractFolder.mkdir();
+  private void writeManifest(List<ExtractionTask> tasks) throws IOException {
+    try ( BufferedWriter writer = Files.newBufferedWriter(root.resolve(MANIFEST_NAME), StandardCharsets.UTF_8)) {
+      writer.write(MANIFEST_HEADER);
+      writer.newLine();
+      for (ExtractionTask task : tasks) {
+        writer.write(task.getBucket().name() + "\t" + task.getCrc() + "\t" + task.getSize() + "\t" + task.getTime() + "\t" + toEntryName(root.relativize(task.getTarget())) + "\t" + task.getEntryName());
+        writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Portable name of a relative path.
+   *
+   * @param path Relative path.
+   * @return Path with / separators.
+   */
+  private static String toEntryName(Path path) {
+    return path.toString().replace(File.separatorChar, '/');
+  }
 
-      JarFile jarFile = new JarFile(file);
-      Enumeration<JarEntry> entries = jarFile.entries();
+  /**
+   * Build the extraction tasks from the archive central directory.
+   *
+   * @return Extraction tasks, one per target file.
+   * @throws IOException IOException.
+   */
+  private List<ExtractionTask> plan() throws IOException {
+    Map<Path, ExtractionTask> tasks = new LinkedHashMap<>();
+    try ( ZipFile zipFile = new ZipFile(file)) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
       while (entries.hasMoreElements()) {
-        JarEntry je = entries.nextElement();
-        if (je.isDirectory() || !je.getName().endsWith(".class")) {
+        ZipEntry entry = entries.nextElement();
+        if (entry.isDirectory()) {
           continue;
         }
-        File extracted = new File(extractFolder.getAbsolutePath() + File.separator + je.getName().replaceAll("WEB-INF/classes", ""));
-        extracted.getParentFile().mkdirs();
-        extractFile(jarFile.getInputStream(je), extracted.getAbsolutePath());
+        for (ExtractionBucket bucket : ExtractionBucket.values()) {
+          if (bucket.accepts(entry.getName())) {
+            Path target = root.resolve(bucket.getTargetPath(entry.getName())).normalize();
+            if (target.startsWith(root)) {
+              tasks.put(target, new ExtractionTask(entry.getName(), entry.getSize(), entry.getCrc(), entry.getTime(), bucket, target));
+            } else {
+              Logger.getLogger(Extractor.class.getName()).log(Level.WARNING, "Entry outside of the output folder : {0}", entry.getName());
+            }
+          }
+        }
       }
-      result = true;
-    } catch (IOException ex) {
-      Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, null, ex);
     }
-    return result;
+    return new ArrayList<>(tasks.values());
   }
 
   /**
-   * Extract all resources present in WEB-INF folder.
+   * Create bucket folders and all target directories in one batch.
    *
-   * @return true if class files was extracted.
+   * @param tasks Extraction tasks.
+   * @throws IOException IOException.
    */
-  public boolean extractWebInfResources() {
-    boolean result = false;
-    try {
-      File extractFolder = new File(this.outputFolder.getAbsolutePath() + File.separator + "web-inf-resources");
-      extractFolder.mkdir();
+  private void createDirectories(List<ExtractionTask> tasks) throws IOException {
+    Set<Path> directories = new TreeSet<>();
+    for (ExtractionBucket bucket : ExtractionBucket.values()) {
+      if (bucket.isFolder()) {
+        directories.add(root.resolve(bucket.getLocation()));
+      }
+    }
+    for (ExtractionTask task : tasks) {
+      directories.add(task.getTarget().getParent());
+    }
+    for (Path directory : directories) {
+      Files.createDirectories(directory);
+    }
+  }
 
-      JarFile jarFile = new JarFile(file);
-      Enumeration<JarEntry> entries = jarFile.entries();
-      while (entries.hasMoreElements()) {
-        JarEntry je = entries.nextElement();
-        if (je.isDirectory() || !je.getName().startsWith("WEB-INF") || je.getName().endsWith(".class") || je.getName().endsWith(".jar")) {
-          continue;
+  /**
+   * Extract all tasks on the calling thread.
+   *
+   * @param tasks Extraction tasks.
+   * @param failedTasks Tasks not extracted, filled.
+   * @throws IOException IOException.
+   */
+  private void extractSequential(List<ExtractionTask> tasks, Set<ExtractionTask> failedTasks) throws IOException {
+    try ( ZipFile zipFile = new ZipFile(file)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      for (ExtractionTask task : tasks) {
+        if (!extractTask(zipFile, task, buffer)) {
+          failedTasks.add(task);
         }
-        File extracted = new File(extractFolder.getAbsolutePath() + File.separator + je.getName().replaceAll("WEB-INF/", ""));
-        extracted.getParentFile().mkdirs();
-        extractFile(jarFile.getInputStream(je), extracted.getAbsolutePath());
       }
-      result = true;
-    } catch (IOException ex) {
-      Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, null, ex);
     }
-    return result;
   }
 
   /**
-   * Generate a specific jar for classes contained in war file.
+   * Extract all tasks with a pool of workers, each worker owning its own archive handle.
    *
-   * @return true.
+   * @param tasks Extraction tasks.
+   * @param failedTasks Tasks not extracted, filled.
+   * @throws IOException IOException.
    */
-  public boolean generateClassJar() {
-    File inputFolder = new File(this.outputFolder.getAbsolutePath() + File.separator + "classes" + File.separator);
-    if (inputFolder.exists() && !isEmptyDirectory(inputFolder.toPath().toAbsolutePath())) {
-      ZipUtil.pack(new File(this.outputFolder.getAbsolutePath() + File.separator + "classes" + File.separator), new File(this.outputFolder.getAbsolutePath() + File.separator + "classes.jar"));
+  private void extractParallel(List<ExtractionTask> tasks, Set<ExtractionTask> failedTasks) throws IOException {
+    //Biggest entries first to balance the workers.
+    List<ExtractionTask> orderedTasks = new ArrayList<>(tasks);
+    orderedTasks.sort(Comparator.comparingLong(ExtractionTask::getSize).reversed());
+    AtomicInteger nextTask = new AtomicInteger();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Void>> workers = new ArrayList<>();
+      for (int i = 0; i < threads; ++i) {
+        workers.add(executor.submit(() -> {
+          try ( ZipFile zipFile = new ZipFile(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int index;
+            while ((index = nextTask.getAndIncrement()) < orderedTasks.size()) {
+              if (!extractTask(zipFile, orderedTasks.get(index), buffer)) {
+                failedTasks.add(orderedTasks.get(index));
+              }
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<Void> worker : workers) {
+        worker.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Extraction interrupted");
+    } catch (ExecutionException ex) {
+      throw new IOException("Extraction worker failed", ex.getCause());
+    } finally {
+      executor.shutdownNow();
     }
-    return true;
   }
 
   /**
    * Extracts a zip entry (file entry)
    *
-   * @param zipIn Zip input stream.
-   * @param filePath File path inside zip.
-   * @return True is extraction succeed.
+   * @param zipFile Archive handle.
+   * @param task Extraction task.
+   * @param buffer Copy buffer.
+   * @return True if the entry is extracted. A partly written target is deleted.
    */
-  private boolean extractFile(InputStream zipIn, String filePath) {
-    boolean success = false;
-    try {
-      BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(filePath));
-      byte[] bytesIn = new byte[2048];
+  private boolean extractTask(ZipFile zipFile, ExtractionTask task, byte[] buffer) {
+    ZipEntry entry = zipFile.getEntry(task.getEntryName());
+    try ( InputStream inputStream = zipFile.getInputStream(entry);
+        FileChannel outputChannel = FileChannel.open(task.getTarget(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      long size = 0;
+      int filled = 0;
       int read = 0;
-      while ((read = zipIn.read(bytesIn)) != -1) {
-        bos.write(bytesIn, 0, read);
+      while (read != -1) {
+        //Fill the whole buffer before writing it to the channel.
+        read = inputStream.read(buffer, filled, buffer.length - filled);
+        if (read > 0) {
+          filled += read;
+        }
+        if (filled == buffer.length || (read == -1 && filled > 0)) {
+          ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, filled);
+          while (byteBuffer.hasRemaining()) {
+            outputChannel.write(byteBuffer);
+          }
+          size += filled;
+          filled = 0;
+        }
       }
-      bos.close();
-      success = true;
+      report.addEntry(task.getBucket(), size);
     } catch (IOException ex) {
-      Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, null, ex);
+      Logger.getLogger(Extractor.class.getName()).log(Level.SEVERE, "Entry not extracted : " + task.getEntryName(), ex);
+      try {
+        Files.deleteIfExists(task.getTarget());
+      } catch (IOException deleteEx) {
+        Logger.getLogger(Extractor.class.getName()).log(Level.WARNING, "Partly extracted file not deleted : {0}", task.getTarget());
+      }
+      return false;
+    }
+    notifyListener(task);
+    return true;
+  }
+
+  private void notifyListener(ExtractionTask task) {
+    if (extractionListener != null) {
+      extractionListener.accept(task);
     }
-    return success;
   }
 
   /**
@@ -16,24 +16,56 @@
 
 package com.michelin.cert.javaentrypointsenumerator;
 
+import com.michelin.cert.javaentrypointsenumerator.analyzer.AnalysisEngine;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.Analyzer;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.JspAnalyzer;
 import com.michelin.cert.javaentrypointsenumerator.analyzer.RestEndpointAnalyzer;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.ServletAnnotationAnalyzer;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.SoapEndpointAnalyzer;
 import com.michelin.cert.javaentrypointsenumerator.analyzer.SpringbootRestEndpointAnalyzer;
 import com.michelin.cert.javaentrypointsenumerator.analyzer.WebXmlAnalyzer;
+import com.michelin.cert.javaentrypointsenumerator.archive.ArchiveLayout;
+import com.michelin.cert.javaentrypointsenumerator.archive.WarArchive;
+import com.michelin.cert.javaentrypointsenumerator.batch.BatchReport;
+import com.michelin.cert.javaentrypointsenumerator.batch.BatchScheduler;
 import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.index.DescriptorIndexCache;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.CompositeEntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.export.CsvExporter;
+import com.michelin.cert.javaentrypointsenumerator.export.ExcelExportSink;
 import com.michelin.cert.javaentrypointsenumerator.export.ExcelExporter;
+import com.michelin.cert.javaentrypointsenumerator.export.ExportFormat;
+import com.michelin.cert.javaentrypointsenumerator.export.JsonLinesExporter;
+import com.michelin.cert.javaentrypointsenumerator.export.StreamingExportSink;
+import com.michelin.cert.javaentrypointsenumerator.export.StreamingExporter;
 import com.michelin.cert.javaentrypointsenumerator.input.Analyze;
+import com.michelin.cert.javaentrypointsenumerator.input.Output;
+import com.michelin.cert.javaentrypointsenumerator.pipeline.JarIndexingStage;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Main class.
  *
- * @TODO: Manage SOAP
- *
  * @author Maxime ESCOURBIAC
  */
 public class JavaEntrypointsEnumerator {
@@ -41,60 +73,283 @@ public class JavaEntrypointsEnumerator {
   /**
    * Main method.
    *
-   * @param args Arguments.
+   * @param args Arguments: the job file, sample.xml by default.
    */
   public static void main(String[] args) {
+    String xml = (args.length > 0) ? args[0] : "sample.xml";
+    Analyze analyze = Analyze.loadFromXml(new File(xml));
+    if (analyze == null) {
+      return;
+    }
     try {
+      if (analyze.isBatch()) {
+        System.out.println("Load analyze from xml: " + xml);
+        runBatch(analyze);
+      } else {
+        //Progress goes to the error output when the standard output carries results.
+        final PrintStream standardOutput = System.out;
+        if (analyze.isStandardOutputUsed()) {
+          System.setOut(System.err);
+        }
+        System.out.println("Load analyze from xml: " + xml);
+        analyzeWar(analyze, createIndexCache(analyze, System.out), System.out, standardOutput);
+      }
+    } catch (IOException ex) {
+      Logger.getLogger(JavaEntrypointsEnumerator.class.getName()).log(Level.SEVERE, null, ex);
+    }
+  }
 
-      String xml = "sample.xml";
+  /**
+   * Analyze every war of a batch job, each with its own class loader and outputs, sharing the index cache.
+   *
+   * <p>
+   * The progress of a war is printed as a whole once it is analyzed, wars being analyzed concurrently.
+   * </p>
+   *
+   * @param analyze Batch job.
+   * @throws IOException If the index cache can not be opened.
+   */
+  private static void runBatch(Analyze analyze) throws IOException {
+    BatchScheduler scheduler = new BatchScheduler(analyze.getBatchThreads());
+    System.out.println("Analyze " + analyze.getWarFiles().size() + " war(s) with " + scheduler.getThreads() + " worker(s)...");
+    if (analyze.isStandardOutputUsed()) {
+      Logger.getLogger(JavaEntrypointsEnumerator.class.getName()).log(Level.WARNING, "Standard outputs are ignored in batch mode");
+    }
+    DescriptorIndexCache indexCache = createIndexCache(analyze, System.out);
 
-      System.out.println("Load analyze from xml: " + xml);
-      Analyze analyze = Analyze.loadFromXml(new File(xml));
-      System.out.println("War file to analyze: " + analyze.getWarFile().getAbsolutePath());
-      System.out.println("Exploded war folder: " + analyze.getExplodedWarLocation().getAbsolutePath());
-      for (String lib : analyze.getLibsToAnalyze()) {
-        System.out.println("Extra library to analyze: " + lib);
+    BatchReport report = scheduler.run(analyze.getWarFiles(), (warFile, name) -> {
+      Analyze warAnalyze = analyze.forWar(warFile, name);
+      for (Output output : warAnalyze.getOutputs()) {
+        output.getFile().getParentFile().mkdirs();
       }
+      ByteArrayOutputStream log = new ByteArrayOutputStream();
+      try ( PrintStream progress = new PrintStream(log, true, StandardCharsets.UTF_8.name())) {
+        analyzeWar(warAnalyze, indexCache, progress, null);
+      } finally {
+        synchronized (System.out) {
+          System.out.println("Analysis of " + name + ":");
+          System.out.print(new String(log.toByteArray(), StandardCharsets.UTF_8));
+        }
+      }
+    });
+    if (indexCache != null) {
+      System.out.println("Jar index cache: " + indexCache);
+    }
+    System.out.print(report);
+  }
 
-      Extractor extractor = new Extractor(analyze.getWarFile(), analyze.getExplodedWarLocation());
+  /**
+   * Open the jar index cache of a job.
+   *
+   * @param analyze Job.
+   * @param progress Progress output.
+   * @return Jar index cache or null if not configured.
+   * @throws IOException If the cache folder can not be created.
+   */
+  private static DescriptorIndexCache createIndexCache(Analyze analyze, PrintStream progress) throws IOException {
+    DescriptorIndexCache result = null;
+    if (analyze.getIndexCacheLocation() != null) {
+      progress.println("Jar index cache: " + analyze.getIndexCacheLocation().getAbsolutePath());
+      result = new DescriptorIndexCache(analyze.getIndexCacheLocation(), analyze.getIndexCacheMaxSize() * 1024L * 1024L, analyze.getIndexCacheMaxEntries());
+    }
+    return result;
+  }
+
+  /**
+   * Analyze a war and export its entrypoints.
+   *
+   * @param analyze Single war job.
+   * @param indexCache Jar index cache or null.
+   * @param progress Progress output.
+   * @param standardOutput Standard output, for the outputs written to it.
+   * @throws IOException If the war can not be read or an output can not be written.
+   */
+  private static void analyzeWar(Analyze analyze, DescriptorIndexCache indexCache, PrintStream progress, PrintStream standardOutput) throws IOException {
+    progress.println("War file to analyze: " + analyze.getWarFile().getAbsolutePath());
+    for (String lib : analyze.getLibsToAnalyze()) {
+      progress.println("Extra library to analyze: " + lib);
+    }
+
+    //Spring Boot jars do not follow the war layout the extraction relies on, they are always read in place.
+    boolean bootJar = ArchiveLayout.of(analyze.getWarFile()) == ArchiveLayout.BOOT_JAR;
+    if (bootJar) {
+      progress.println("Spring Boot jar detected, read in place");
+    }
+
+    Classloader classloader;
+    if (analyze.isExtractWar() && !bootJar) {
+      progress.println("Exploded war folder: " + analyze.getExplodedWarLocation().getAbsolutePath());
+      Extractor extractor = new Extractor(analyze.getWarFile(), analyze.getExplodedWarLocation(), analyze.getExtractionThreads(), analyze.isIncrementalExtraction());
+
+      //Describe the analyzed libraries as soon as they are extracted.
+      JarIndexingStage indexingStage = null;
+      if (analyze.getIndexingThreads() > 0) {
+        progress.println("Index analyzed libraries with " + analyze.getIndexingThreads() + " worker(s) while extracting...");
+        indexingStage = startIndexingStage(analyze, extractor, indexCache);
+      }
 
       //Prepare the war file to be analyzed.
-      System.out.println("Explode war file...");
-      extractor.extractWebXml();
-      extractor.extractJars();
-      extractor.extractJsps();
-      extractor.extractResources();
-      extractor.extractWebInfResources();
-      extractor.extractClasses();
-      extractor.generateClassJar();
-
-      //Load classes.
-      System.out.println("Load war classes...");
-      Classloader classloader = new Classloader(analyze.getExplodedWarLocation());
-      classloader.loadClassesFromJar(new File(analyze.getExplodedWarLocation().getAbsolutePath() + File.separator + "classes.jar"));
+      progress.println("Explode war file with " + analyze.getExtractionThreads() + " worker(s)...");
+      Map<File, List<ClassDescriptor>> indexedJars = Collections.emptyMap();
+      try {
+        ExtractionReport extractionReport = extractor.extract();
+        progress.print(extractionReport);
+        extractor.generateClassJar();
+      } finally {
+        if (indexingStage != null) {
+          indexedJars = indexingStage.finish();
+          progress.println(indexingStage.getQueue());
+        }
+      }
+      classloader = new Classloader(analyze.getExplodedWarLocation());
+      classloader.addIndexedJars(indexedJars);
+    } else {
+      //Read the war file in place.
+      progress.println("Index war file...");
+      classloader = new Classloader(new WarArchive(analyze.getWarFile()));
+    }
+    classloader.setScanningMode(analyze.getScanningMode());
+    classloader.setLoadingThreads(analyze.getLoadingThreads());
+    classloader.setIndexCache(indexCache);
+
+    try {
+      analyzeClasses(analyze, classloader, bootJar, progress, standardOutput);
+    } finally {
+      classloader.close();
+    }
+  }
+
+  /**
+   * Load the classes of a war, run the analyzers and export the entrypoints.
+   *
+   * @param analyze Single war job.
+   * @param classloader Class loader of the war.
+   * @param bootJar True if the war is a Spring Boot jar read in place.
+   * @param progress Progress output.
+   * @param standardOutput Standard output, for the outputs written to it.
+   * @throws IOException If an output can not be written.
+   */
+  private static void analyzeClasses(Analyze analyze, Classloader classloader, boolean bootJar, PrintStream progress, PrintStream standardOutput) throws IOException {
+    List<Analyzer> analyzers = new ArrayList<>();
+    WebXmlAnalyzer webXmlAnalyzer = new WebXmlAnalyzer(classloader, analyze.getExplodedWarLocation());
+    analyzers.add(webXmlAnalyzer);
+    analyzers.add(new ServletAnnotationAnalyzer(classloader, analyze.getExplodedWarLocation(), webXmlAnalyzer));
+    analyzers.add(new RestEndpointAnalyzer(classloader, analyze.getExplodedWarLocation()));
+    analyzers.add(new SpringbootRestEndpointAnalyzer(classloader, analyze.getExplodedWarLocation()));
+    analyzers.add(new SoapEndpointAnalyzer(classloader, analyze.getExplodedWarLocation(), webXmlAnalyzer));
+    analyzers.add(new JspAnalyzer(classloader, analyze.getExplodedWarLocation()));
+
+    AnalysisEngine engine = new AnalysisEngine(classloader, analyzers);
+    engine.setThreads(analyze.getAnalysisThreads());
+
+    //Only load classes carrying an annotation one of the analyzers looks for.
+    if (analyze.isClassPrefilter()) {
+      classloader.setPrefilter(engine.createPrefilter());
+    }
+
+    //Load classes.
+    progress.println("Load war classes (" + analyze.getScanningMode() + ") with " + analyze.getLoadingThreads() + " worker(s)...");
+    for (String lib : analyze.getLibsToAnalyze()) {
+      progress.println("Load lib: " + lib);
+    }
+    if (analyze.isExtractWar() && !bootJar) {
+      List<File> jars = new ArrayList<>();
+      jars.add(new File(analyze.getExplodedWarLocation().getAbsolutePath() + File.separator + "classes.jar"));
       for (String lib : analyze.getLibsToAnalyze()) {
-        System.out.println("Load lib: " + lib);
-        classloader.loadClassesFromJar(new File(analyze.getExplodedWarLocation().getAbsolutePath() + File.separator + "jars" + File.separator + lib));
+        jars.add(new File(analyze.getExplodedWarLocation().getAbsolutePath() + File.separator + "jars" + File.separator + lib));
       }
+      classloader.loadClassesFromJars(jars);
+    } else {
+      classloader.loadClassesFromArchive(analyze.getLibsToAnalyze());
+    }
+    progress.print(classloader.getLoadingReport());
+    if (classloader.getIndexCache() != null) {
+      progress.println("Jar index cache: " + classloader.getIndexCache());
+    }
+    if (classloader.getPrefilter() != null) {
+      progress.println("Prefilter: " + classloader.getPrefilter());
+    }
 
-      //Analyze war.
-      System.out.println("Analyze war...");
-      Entrypoints entrypoints = new Entrypoints();
-      WebXmlAnalyzer webXmlAnalyzer = new WebXmlAnalyzer(classloader, entrypoints, analyze.getExplodedWarLocation());
-      RestEndpointAnalyzer restEndpointAnalyzer = new RestEndpointAnalyzer(classloader, entrypoints, analyze.getExplodedWarLocation());
-      SpringbootRestEndpointAnalyzer springbootRestEndpointAnalyzer = new SpringbootRestEndpointAnalyzer(classloader, entrypoints, analyze.getExplodedWarLocation());
+    //Analyze war, outputs are written while the classes are visited.
+    progress.println("Analyze war with " + engine.getThreads() + " worker(s)...");
+    analyzeAndExport(analyze, engine, standardOutput);
+    progress.println("Export queue: depth max " + engine.getMaxWaitingBuffers() + " task buffer(s), sink busy " + engine.getSinkMillis() + " ms");
+    progress.println("Class metadata cache: " + classloader.getMetadataCache());
+    progress.println("End of analyze");
+  }
 
-      webXmlAnalyzer.analyze();
-      restEndpointAnalyzer.analyze();
-      springbootRestEndpointAnalyzer.analyze();
+  /**
+   * Start the stage describing the analyzed libraries, fed by the extraction workers.
+   *
+   * @param analyze Analyze holding the libraries and the stage settings.
+   * @param extractor Extractor feeding the stage.
+   * @param indexCache Index cache or null.
+   * @return Started indexing stage.
+   */
+  private static JarIndexingStage startIndexingStage(Analyze analyze, Extractor extractor, DescriptorIndexCache indexCache) {
+    JarIndexingStage result = new JarIndexingStage(analyze.getIndexingThreads(), analyze.getPipelineQueueDepth(), indexCache);
+    Set<String> libs = new HashSet<>(analyze.getLibsToAnalyze());
+    extractor.setExtractionListener(task -> {
+      if (task.getBucket() == ExtractionBucket.JARS && libs.contains(task.getTarget().getFileName().toString())) {
+        result.submit(task.getTarget().toFile());
+      }
+    });
+    result.start();
+    return result;
+  }
 
-      //Display results.
-      ExcelExporter excelExporter = new ExcelExporter();
-      excelExporter.export(analyze.getOutputFile(), entrypoints);
-      System.out.println("End of analyze");
+  /**
+   * Run the analysis, streaming the entrypoints to every output as they are found. Excel workbooks are written once the analysis is over.
+   *
+   * @param analyze Analyze holding the outputs.
+   * @param engine Analysis engine.
+   * @param standardOutput Standard output.
+   * @throws IOException If an output can not be written.
+   */
+  private static void analyzeAndExport(Analyze analyze, AnalysisEngine engine, PrintStream standardOutput) throws IOException {
+    Map<Writer, StreamingExporter> targets = new LinkedHashMap<>();
+    List<ExcelExportSink> excelSinks = new ArrayList<>();
+    Writer standardWriter = null;
+    try {
+      for (Output output : analyze.getOutputs()) {
+        if (output.getFormat() == ExportFormat.XLSX) {
+          if (output.isStandardOutput()) {
+            Logger.getLogger(JavaEntrypointsEnumerator.class.getName()).log(Level.WARNING, "Excel export to the standard output is not supported");
+          } else {
+            excelSinks.add(new ExcelExporter(analyze.getExcelRowWindow(), analyze.isExcelCompressTempFiles()).createSink(output.getFile()));
+          }
+          continue;
+        }
+        Writer writer;
+        if (output.isStandardOutput()) {
+          if (standardWriter == null) {
+            standardWriter = new BufferedWriter(new OutputStreamWriter(standardOutput, StandardCharsets.UTF_8));
+          }
+          writer = standardWriter;
+        } else {
+          writer = Files.newBufferedWriter(output.getFile().toPath(), StandardCharsets.UTF_8);
+        }
+        targets.putIfAbsent(writer, (output.getFormat() == ExportFormat.JSONL) ? new JsonLinesExporter() : new CsvExporter());
+      }
 
-    } catch (IOException ex) {
-      Logger.getLogger(JavaEntrypointsEnumerator.class.getName()).log(Level.SEVERE, null, ex);
+      StreamingExportSink textSink = new StreamingExportSink(targets);
+      List<EntrypointSink> sinks = new ArrayList<>(excelSinks);
+      sinks.add(textSink);
+      engine.run(new CompositeEntrypointSink(sinks));
+      textSink.flush();
+      for (ExcelExportSink excelSink : excelSinks) {
+        excelSink.write();
+      }
+    } finally {
+      for (Writer writer : targets.keySet()) {
+        //The standard output stays open.
+        if (writer != standardWriter) {
+          writer.close();
+        }
+      }
+      for (ExcelExportSink excelSink : excelSinks) {
+        excelSink.close();
+      }
     }
   }
 }
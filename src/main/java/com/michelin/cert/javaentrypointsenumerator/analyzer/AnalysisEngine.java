@@ -0,0 +1,530 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.ClassMetadata;
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ConstantPoolFilter;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Analysis engine, walking the loaded classes once for all the analyzers.
+ *
+ * <p>
+ * Each analyzer registers the class-level and method-level annotations it looks for. The engine resolves once per annotation type the analyzers registered for it, then dispatches every class and
+ * public method to the analyzers registered for one of its annotations only.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class AnalysisEngine {
+
+  private static final int MIN_PARTITION_SIZE = 256;
+  private static final int PARTITIONS_PER_THREAD = 4;
+  private static final int PENDING_TASKS_PER_THREAD = 2;
+
+  private final Classloader classloader;
+  private final List<Analyzer> analyzers;
+  private final List<Set<String>> classAnnotationTypes;
+  private final List<Set<String>> methodAnnotationTypes;
+  private final Map<String, int[]> classAnalyzers;
+  private final Map<String, int[]> methodAnalyzers;
+  private final boolean[] everyClass;
+  private final boolean[] everyMethod;
+  private final boolean[] visitsMethods;
+  private final boolean[] composed;
+  private int threads;
+  private int maxWaitingBuffers;
+  private long sinkMillis;
+
+  /**
+   * AnalysisEngine constructor.
+   *
+   * @param classloader Classloader util instance.
+   * @param analyzers Analyzers, in dispatch order.
+   */
+  public AnalysisEngine(Classloader classloader, List<Analyzer> analyzers) {
+    this.classloader = classloader;
+    this.analyzers = new ArrayList<>(analyzers);
+    this.classAnnotationTypes = new ArrayList<>();
+    this.methodAnnotationTypes = new ArrayList<>();
+    this.classAnalyzers = new ConcurrentHashMap<>();
+    this.methodAnalyzers = new ConcurrentHashMap<>();
+    this.everyClass = new boolean[analyzers.size()];
+    this.everyMethod = new boolean[analyzers.size()];
+    this.visitsMethods = new boolean[analyzers.size()];
+    this.composed = new boolean[analyzers.size()];
+    this.threads = 1;
+
+    for (int i = 0; i < this.analyzers.size(); ++i) {
+      Analyzer analyzer = this.analyzers.get(i);
+      Set<String> classTypes = analyzer.getAnnotationTypes();
+      Set<String> methodTypes = analyzer.getMethodAnnotationTypes();
+      classAnnotationTypes.add(classTypes);
+      methodAnnotationTypes.add(methodTypes);
+      everyClass[i] = (classTypes == null);
+      visitsMethods[i] = !methodTypes.isEmpty();
+      everyMethod[i] = visitsMethods[i] && classTypes != null && classTypes.isEmpty();
+      composed[i] = analyzer.matchesComposedAnnotations();
+    }
+  }
+
+  /**
+   * Create the constant pool prefilter from the annotations the analyzers look for.
+   *
+   * @return Constant pool prefilter or null if one of the analyzers visits every class.
+   */
+  public ConstantPoolFilter createPrefilter() {
+    Set<String> annotationTypes = new HashSet<>();
+    for (Analyzer analyzer : analyzers) {
+      Set<String> classTypes = analyzer.getAnnotationTypes();
+      if (classTypes == null) {
+        return null;
+      }
+      annotationTypes.addAll(classTypes);
+      if (classTypes.isEmpty()) {
+        //Methods of every class are visited.
+        annotationTypes.addAll(analyzer.getMethodAnnotationTypes());
+      }
+    }
+    ConstantPoolFilter result = new ConstantPoolFilter(annotationTypes);
+    //Keep the classes inheriting the annotations from a supertype or carrying composed annotations.
+    result.setTypeHierarchy(classloader.getTypeHierarchy());
+    result.setMetaAnnotationGraph(classloader.getMetaAnnotationGraph());
+    return result;
+  }
+
+  /**
+   * Number of workers running the analyzers.
+   *
+   * @return Number of analysis workers.
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Number of workers running the analyzers, also the number of workers each global analysis may fan out to.
+   *
+   * @param threads Number of analysis workers.
+   */
+  public void setThreads(int threads) {
+    this.threads = Math.max(1, threads);
+    for (Analyzer analyzer : analyzers) {
+      analyzer.setThreads(this.threads);
+    }
+  }
+
+  /**
+   * Highest number of completed task buffers waiting for an earlier task before being pushed to the sink, during the last run. It stays below two per worker.
+   *
+   * @return Maximum depth of the export queue.
+   */
+  public int getMaxWaitingBuffers() {
+    return maxWaitingBuffers;
+  }
+
+  /**
+   * Time spent pushing entrypoints to the sink during the last run, in milliseconds.
+   *
+   * @return Sink time.
+   */
+  public long getSinkMillis() {
+    return sinkMillis;
+  }
+
+  /**
+   * Run the analyzers: their global analysis first, then a single walk over the loaded classes.
+   *
+   * <p>
+   * The global analyses and partitions of the class list are independent tasks, claimed in order by the workers. Each task records the entrypoints it finds in its own buffer. As soon as a task and
+   * all the tasks before it are completed, its buffer is replayed to the sink then dropped: the sink receives the same sequence whatever the number of workers, global analyses in analyzer order
+   * first then classes in order, and starts receiving it while the next partitions are still being visited.
+   * </p>
+   *
+   * <p>
+   * A worker starts a task only while fewer than two tasks per worker separate it from the oldest task not released yet. A slow task, such as the JSP scan among the global analyses, thus holds
+   * back the workers once that many buffers are pending instead of letting every partition pile up behind it. Buffers are replayed by the worker completing the task, under a lock, so a slow sink
+   * holds back the workers as well.
+   * </p>
+   *
+   * @param sink Entrypoints sink receiving the results.
+   */
+  public void run(EntrypointSink sink) {
+    List<ClassDescriptor> classDescriptors = new ArrayList<>(classloader.getClassDescriptors());
+    int partitionSize = Math.max(MIN_PARTITION_SIZE, (classDescriptors.size() + threads * PARTITIONS_PER_THREAD - 1) / (threads * PARTITIONS_PER_THREAD));
+    int partitionCount = (classDescriptors.size() + partitionSize - 1) / partitionSize;
+
+    List<TaskBuffer> taskBuffers = new ArrayList<>();
+    for (int i = 0; i < analyzers.size() + partitionCount; ++i) {
+      taskBuffers.add(new TaskBuffer());
+    }
+    OrderedRelease release = new OrderedRelease(taskBuffers, sink, threads * PENDING_TASKS_PER_THREAD);
+
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < analyzers.size(); ++i) {
+      final Analyzer analyzer = analyzers.get(i);
+      final int taskIndex = tasks.size();
+      final TaskBuffer buffer = taskBuffers.get(taskIndex);
+      tasks.add(() -> {
+        try {
+          analyzer.analyze(buffer);
+        } finally {
+          release.complete(taskIndex);
+        }
+        return null;
+      });
+    }
+    for (int p = 0; p < partitionCount; ++p) {
+      final int taskIndex = tasks.size();
+      final TaskBuffer buffer = taskBuffers.get(taskIndex);
+      final List<ClassDescriptor> partition = classDescriptors.subList(p * partitionSize, Math.min(classDescriptors.size(), (p + 1) * partitionSize));
+      tasks.add(() -> {
+        try {
+          visitPartition(partition, buffer);
+        } finally {
+          release.complete(taskIndex);
+        }
+        return null;
+      });
+    }
+
+    if (threads > 1) {
+      runParallel(tasks, release);
+    } else {
+      runTasks(tasks, new AtomicInteger(), release);
+    }
+    maxWaitingBuffers = release.maxWaiting;
+    sinkMillis = release.sinkNanos / 1000000;
+  }
+
+  /**
+   * Run tasks on the analysis workers and wait for all of them.
+   *
+   * <p>
+   * Workers are plain threads claiming tasks in order, the release keeping them at most two tasks per worker ahead. A global analysis fanning out does not borrow them: it runs its own tasks on the
+   * pool of its analyzer, sized by the same number of threads, so a worker blocked on it never waits for another worker.
+   * </p>
+   *
+   * @param tasks Tasks, in release order.
+   * @param release Release of the task buffers.
+   */
+  private void runParallel(List<Callable<Void>> tasks, OrderedRelease release) {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      AtomicInteger nextTask = new AtomicInteger();
+      List<Future<?>> workers = new ArrayList<>();
+      for (int i = 0; i < threads; ++i) {
+        workers.add(executor.submit(() -> runTasks(tasks, nextTask, release)));
+      }
+      for (Future<?> worker : workers) {
+        try {
+          worker.get();
+        } catch (ExecutionException ex) {
+          Logger.getLogger(AnalysisEngine.class.getName()).log(Level.SEVERE, "Analysis worker failed", ex.getCause());
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      Logger.getLogger(AnalysisEngine.class.getName()).log(Level.SEVERE, "Analysis interrupted");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Claim tasks in order and run them, waiting for the release to catch up when too many tasks are pending.
+   *
+   * @param tasks Tasks, in release order.
+   * @param nextTask Index of the next task to claim, shared by the workers.
+   * @param release Release of the task buffers.
+   */
+  private void runTasks(List<Callable<Void>> tasks, AtomicInteger nextTask, OrderedRelease release) {
+    int index;
+    while ((index = nextTask.getAndIncrement()) < tasks.size()) {
+      release.awaitTurn(index);
+      runTask(tasks.get(index));
+    }
+  }
+
+  /**
+   * Run a task on the current thread.
+   *
+   * @param task Task.
+   */
+  private void runTask(Callable<Void> task) {
+    try {
+      task.call();
+    } catch (Exception ex) {
+      Logger.getLogger(AnalysisEngine.class.getName()).log(Level.SEVERE, "Analysis task failed", ex);
+    }
+  }
+
+  /**
+   * Visit a partition of the class list.
+   *
+   * @param partition Classes of the partition.
+   * @param buffer Entrypoints buffer of the partition.
+   */
+  private void visitPartition(List<ClassDescriptor> partition, EntrypointSink buffer) {
+    boolean[] matched = new boolean[analyzers.size()];
+    boolean[] dispatched = new boolean[analyzers.size()];
+    for (ClassDescriptor classDescriptor : partition) {
+      visitClass(classDescriptor, matched, dispatched, buffer);
+    }
+  }
+
+  /**
+   * Dispatch a class and its public methods to the interested analyzers.
+   *
+   * @param classDescriptor Class descriptor.
+   * @param matched Analyzers interested in the class, scratch array.
+   * @param dispatched Analyzers interested in the current method, scratch array.
+   * @param buffer Entrypoints buffer.
+   */
+  private void visitClass(ClassDescriptor classDescriptor, boolean[] matched, boolean[] dispatched, EntrypointSink buffer) {
+    if (classDescriptor.isAnnotation()) {
+      checkPrefilter(classDescriptor);
+    }
+    ClassMetadata metadata = classloader.getClassMetadata(classDescriptor);
+    System.arraycopy(everyClass, 0, matched, 0, matched.length);
+    for (String annotationType : metadata.getAnnotations().keySet()) {
+      for (int index : resolve(annotationType, classAnnotationTypes, classAnalyzers)) {
+        matched[index] = true;
+      }
+    }
+
+    boolean needMethods = false;
+    for (int i = 0; i < matched.length; ++i) {
+      if (matched[i]) {
+        analyzers.get(i).visitClass(classDescriptor, buffer);
+      }
+      needMethods |= visitsMethods[i] && (matched[i] || everyMethod[i]);
+    }
+    if (!needMethods) {
+      return;
+    }
+
+    if (!carriesMethodAnnotation(metadata)) {
+      return;
+    }
+    for (MethodDescriptor methodDescriptor : metadata.getPublicMethods()) {
+      Arrays.fill(dispatched, false);
+      for (String annotationType : methodDescriptor.getAnnotations().keySet()) {
+        for (int index : resolve(annotationType, methodAnnotationTypes, methodAnalyzers)) {
+          dispatched[index] |= matched[index] || everyMethod[index];
+        }
+      }
+      //Once per analyzer, in registration order.
+      for (int i = 0; i < dispatched.length; ++i) {
+        if (dispatched[i]) {
+          analyzers.get(i).visitMethod(classDescriptor, methodDescriptor, buffer);
+        }
+      }
+    }
+  }
+
+  /**
+   * Test if one of the public methods carries an annotation some analyzer looks for.
+   *
+   * @param metadata Class metadata.
+   * @return True if the methods must be walked.
+   */
+  private boolean carriesMethodAnnotation(ClassMetadata metadata) {
+    for (String annotationType : metadata.getMethodAnnotationTypes()) {
+      if (resolve(annotationType, methodAnnotationTypes, methodAnalyzers).length > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Analyzers registered for an annotation type, directly or, for the analyzers matching composed annotations, through its meta-annotations.
+   *
+   * @param annotationType Annotation type name.
+   * @param registeredTypes Annotation types registered per analyzer.
+   * @param resolved Analyzers already resolved per annotation type.
+   * @return Analyzer indexes, in registration order.
+   */
+  private int[] resolve(String annotationType, List<Set<String>> registeredTypes, Map<String, int[]> resolved) {
+    int[] result = resolved.get(annotationType);
+    if (result == null) {
+      List<Integer> indexes = new ArrayList<>();
+      for (int i = 0; i < registeredTypes.size(); ++i) {
+        Set<String> types = registeredTypes.get(i);
+        if (types != null && (types.contains(annotationType) || (composed[i] && isComposedFrom(annotationType, types)))) {
+          indexes.add(i);
+        }
+      }
+      result = new int[indexes.size()];
+      for (int i = 0; i < result.length; ++i) {
+        result[i] = indexes.get(i);
+      }
+      resolved.put(annotationType, result);
+    }
+    return result;
+  }
+
+  private boolean isComposedFrom(String annotationType, Set<String> types) {
+    Set<String> metaAnnotations = classloader.getMetaAnnotationGraph().getMetaAnnotations(annotationType);
+    for (String type : types) {
+      if (metaAnnotations.contains(type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Warn about composed annotations a constant pool prefilter without meta-annotation graph does not know, classes carrying only those were not loaded.
+   *
+   * @param annotationDescriptor Descriptor of an annotation type.
+   */
+  private void checkPrefilter(ClassDescriptor annotationDescriptor) {
+    ConstantPoolFilter prefilter = classloader.getPrefilter();
+    String annotationType = annotationDescriptor.getName();
+    if (prefilter != null && prefilter.getMetaAnnotationGraph() == null && !prefilter.getAnnotationTypes().contains(annotationType)
+        && (resolve(annotationType, classAnnotationTypes, classAnalyzers).length > 0 || resolve(annotationType, methodAnnotationTypes, methodAnalyzers).length > 0)) {
+      Logger.getLogger(AnalysisEngine.class.getName()).log(Level.WARNING, "Composed annotation unknown to the class prefilter, classes only carrying it were skipped : {0}", annotationType);
+    }
+  }
+
+  /**
+   * Release of the task buffers to the sink, in task order.
+   */
+  private static class OrderedRelease {
+
+    private final List<TaskBuffer> taskBuffers;
+    private final boolean[] completed;
+    private final EntrypointSink sink;
+    private final int maxPending;
+    private int next;
+    private int waiting;
+    private int maxWaiting;
+    private long sinkNanos;
+
+    OrderedRelease(List<TaskBuffer> taskBuffers, EntrypointSink sink, int maxPending) {
+      this.taskBuffers = taskBuffers;
+      this.completed = new boolean[taskBuffers.size()];
+      this.sink = sink;
+      this.maxPending = Math.max(1, maxPending);
+      this.next = 0;
+    }
+
+    /**
+     * Wait until fewer than maxPending tasks separate a task from the oldest task not released yet. All the earlier tasks are claimed, so the oldest one is running and the wait ends.
+     *
+     * @param taskIndex Index of the task about to start.
+     */
+    synchronized void awaitTurn(int taskIndex) {
+      try {
+        while (taskIndex - next >= maxPending) {
+          wait();
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Mark a task completed, then replay the buffers of the completed tasks no earlier task is waited for.
+     *
+     * @param taskIndex Index of the completed task.
+     */
+    synchronized void complete(int taskIndex) {
+      completed[taskIndex] = true;
+      ++waiting;
+      long start = System.nanoTime();
+      try {
+        while (next < completed.length && completed[next]) {
+          TaskBuffer buffer = taskBuffers.set(next, null);
+          ++next;
+          --waiting;
+          buffer.replay(sink);
+        }
+      } finally {
+        sinkNanos += System.nanoTime() - start;
+        maxWaiting = Math.max(maxWaiting, waiting);
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Entrypoints found by a task, recorded in the order they are found.
+   */
+  private static class TaskBuffer implements EntrypointSink {
+
+    private final List<Consumer<EntrypointSink>> calls = new ArrayList<>();
+
+    @Override
+    public void addFilter(Filter filter) {
+      calls.add(sink -> sink.addFilter(filter));
+    }
+
+    @Override
+    public void addServlet(Servlet servlet) {
+      calls.add(sink -> sink.addServlet(servlet));
+    }
+
+    @Override
+    public void addRestEndpoint(RestEndpoint restEndpoint) {
+      calls.add(sink -> sink.addRestEndpoint(restEndpoint));
+    }
+
+    @Override
+    public void addSoapEndpoint(SoapEndpoint soapEndpoint) {
+      calls.add(sink -> sink.addSoapEndpoint(soapEndpoint));
+    }
+
+    @Override
+    public void addJsp(Jsp jsp) {
+      calls.add(sink -> sink.addJsp(jsp));
+    }
+
+    void replay(EntrypointSink sink) {
+      for (Consumer<EntrypointSink> call : calls) {
+        call.accept(sink);
+      }
+    }
+  }
+}
@@ -16,37 +16,199 @@
 
 package com.michelin.cert.javaentrypointsenumerator.analyzer;
 
+import com.michelin.cert.javaentrypointsenumerator.ExtractionBucket;
+import com.michelin.cert.javaentrypointsenumerator.archive.WarArchive;
 import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Analyzer class.
  *
+ * <p>
+ * Analyzers may be called concurrently on different classes, they keep no state between calls and only write to the sink they are given.
+ * </p>
+ *
  * @author Maxime ESCOURBIAC
  */
 public abstract class Analyzer {
 
   protected final Classloader classloader;
-  protected final Entrypoints inputs;
   protected final File outputFolder;
+  private int threads;
 
   /**
    * Analyzer constructor.
    *
    * @param classloader Classloader util instance.
-   * @param entrypoints Entrypoints.
    * @param outputFolder Output folder.
    */
-  public Analyzer(Classloader classloader, Entrypoints entrypoints, File outputFolder) {
+  public Analyzer(Classloader classloader, File outputFolder) {
     this.classloader = classloader;
-    this.inputs = entrypoints;
     this.outputFolder = outputFolder;
+    this.threads = 1;
   }
 
   /**
-   * Analyzer implementation.
+   * Number of workers the analysis not driven by the loaded classes may fan out to.
+   *
+   * @return Number of workers.
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Number of workers the analysis not driven by the loaded classes may fan out to, set by the analysis engine.
+   *
+   * @param threads Number of workers.
    */
-  public abstract void analyze();
+  public void setThreads(int threads) {
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * Analysis not driven by the loaded classes, run before the classes are visited.
+   *
+   * @param entrypoints Entrypoints sink.
+   */
+  public void analyze(EntrypointSink entrypoints) {
+  }
+
+  /**
+   * Class-level annotations of the classes to visit, also used to prefilter classes before loading them.
+   *
+   * @return Annotation class names, empty if the analyzer visits no class, or null if it visits every class.
+   */
+  public Set<String> getAnnotationTypes() {
+    return null;
+  }
+
+  /**
+   * Method-level annotations of the methods to visit. Only public methods of the visited classes are considered, or of every class if no class-level annotation is registered.
+   *
+   * @return Annotation class names, empty if the analyzer visits no method.
+   */
+  public Set<String> getMethodAnnotationTypes() {
+    return Collections.emptySet();
+  }
+
+  /**
+   * True if annotations composed from the registered ones, that is meta-annotated with one of them directly or transitively, match as well.
+   *
+   * @return True if composed annotations match.
+   */
+  public boolean matchesComposedAnnotations() {
+    return false;
+  }
+
+  /**
+   * Visit a class carrying one of the class-level annotations, possibly inherited from a supertype.
+   *
+   * @param classDescriptor Class descriptor.
+   * @param entrypoints Entrypoints sink.
+   */
+  public void visitClass(ClassDescriptor classDescriptor, EntrypointSink entrypoints) {
+  }
+
+  /**
+   * Visit a public method carrying one of the method-level annotations, possibly inherited from an overridden declaration. Called once per method, even if it carries several of them.
+   *
+   * @param classDescriptor Descriptor of the visited class.
+   * @param methodDescriptor Method descriptor, possibly inherited.
+   * @param entrypoints Entrypoints sink.
+   */
+  public void visitMethod(ClassDescriptor classDescriptor, MethodDescriptor methodDescriptor, EntrypointSink entrypoints) {
+  }
+
+  /**
+   * Run independent tasks on a bounded pool of its own, whatever thread calls it, and wait for all of them.
+   *
+   * @param <T> Result type.
+   * @param tasks Tasks.
+   * @return Results in task order, null for the failed tasks.
+   */
+  protected <T> List<T> invokeAll(List<Callable<T>> tasks) {
+    List<T> result = new ArrayList<>(tasks.size());
+    int workers = Math.min(threads, tasks.size());
+    if (workers <= 1) {
+      for (Callable<T> task : tasks) {
+        T value = null;
+        try {
+          value = task.call();
+        } catch (Exception ex) {
+          Logger.getLogger(Analyzer.class.getName()).log(Level.WARNING, "Analysis task failed", ex);
+        }
+        result.add(value);
+      }
+      return result;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(workers);
+    try {
+      List<Future<T>> futures = new ArrayList<>(tasks.size());
+      for (Callable<T> task : tasks) {
+        futures.add(executor.submit(task));
+      }
+      for (Future<T> future : futures) {
+        T value = null;
+        try {
+          value = future.get();
+        } catch (ExecutionException ex) {
+          Logger.getLogger(Analyzer.class.getName()).log(Level.WARNING, "Analysis task failed", ex.getCause());
+        }
+        result.add(value);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      Logger.getLogger(Analyzer.class.getName()).log(Level.SEVERE, "Analysis interrupted");
+    } finally {
+      executor.shutdownNow();
+    }
+    return result;
+  }
+
+  /**
+   * Open a war entry, from the archive when it is read in place or from the exploded war otherwise.
+   *
+   * @param entryName War entry name, for instance WEB-INF/web.xml.
+   * @return Entry content.
+   * @throws IOException If the entry is not found.
+   */
+  protected InputStream openWarEntry(String entryName) throws IOException {
+    InputStream result = null;
+    WarArchive archive = classloader.getArchive();
+    if (archive != null) {
+      result = archive.getInputStream(entryName);
+    } else {
+      for (ExtractionBucket bucket : ExtractionBucket.values()) {
+        if (bucket.accepts(entryName)) {
+          result = new FileInputStream(new File(outputFolder, bucket.getTargetPath(entryName)));
+          break;
+        }
+      }
+    }
+    if (result == null) {
+      throw new FileNotFoundException(entryName);
+    }
+    return result;
+  }
 
 }
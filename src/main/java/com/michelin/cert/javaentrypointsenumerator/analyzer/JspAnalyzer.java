@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import com.michelin.cert.javaentrypointsenumerator.ExtractionBucket;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.jsp.JspScanner;
+import com.michelin.cert.javaentrypointsenumerator.archive.WarArchive;
+import com.michelin.cert.javaentrypointsenumerator.archive.ZipIndexEntry;
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * JSP analyzer class.
+ *
+ * <p>
+ * Every JSP served by the war is reported with the request parameters it reads. JSPs are scanned on a pool of their own, sized by the analysis workers, each of them streamed through a fixed size buffer.
+ * JSPs under WEB-INF, META-INF and BOOT-INF are not served directly and are left out.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class JspAnalyzer extends Analyzer {
+
+  /**
+   * Analyzer constructor.
+   *
+   * @param classloader Classloader util instance.
+   * @param outputFolder Output folder.
+   */
+  public JspAnalyzer(Classloader classloader, File outputFolder) {
+    super(classloader, outputFolder);
+  }
+
+  @Override
+  public Set<String> getAnnotationTypes() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public void analyze(EntrypointSink entrypoints) {
+    TreeMap<String, Callable<InputStream>> sources = new TreeMap<>();
+    WarArchive archive = classloader.getArchive();
+    if (archive != null) {
+      for (ZipIndexEntry entry : archive.getIndex().getEntries()) {
+        if (!entry.isDirectory() && ExtractionBucket.JSPS.accepts(entry.getName())) {
+          sources.put(entry.getName(), entry::getInputStream);
+        }
+      }
+    } else {
+      Path jspFolder = new File(outputFolder, ExtractionBucket.JSPS.getLocation()).toPath();
+      if (Files.isDirectory(jspFolder)) {
+        try ( Stream<Path> paths = Files.walk(jspFolder)) {
+          for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+            sources.put(jspFolder.relativize(path).toString().replace(File.separatorChar, '/'), () -> Files.newInputStream(path));
+          }
+        } catch (IOException ex) {
+          Logger.getLogger(JspAnalyzer.class.getName()).log(Level.SEVERE, null, ex);
+        }
+      }
+    }
+    sources.keySet().removeIf(name -> name.startsWith("WEB-INF/") || name.startsWith("META-INF/") || name.startsWith("BOOT-INF/"));
+
+    List<Callable<Jsp>> tasks = new ArrayList<>();
+    for (String name : sources.keySet()) {
+      Callable<InputStream> source = sources.get(name);
+      tasks.add(() -> scan(name, source));
+    }
+    for (Jsp jsp : invokeAll(tasks)) {
+      if (jsp != null) {
+        entrypoints.addJsp(jsp);
+      }
+    }
+  }
+
+  /**
+   * Scan a JSP.
+   *
+   * @param name War entry name.
+   * @param source JSP content opener.
+   * @return JSP entrypoint, or null if it can not be read.
+   */
+  private static Jsp scan(String name, Callable<InputStream> source) {
+    Jsp result = new Jsp("/" + name);
+    try ( InputStream inputStream = source.call()) {
+      for (String parameter : new JspScanner(inputStream).scan()) {
+        result.addParameter(parameter);
+      }
+    } catch (Exception ex) {
+      Logger.getLogger(JspAnalyzer.class.getName()).log(Level.WARNING, "JSP not read : " + name, ex);
+      result = null;
+    }
+    return result;
+  }
+}
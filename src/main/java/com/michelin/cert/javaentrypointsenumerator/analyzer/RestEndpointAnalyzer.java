@@ -17,19 +17,18 @@
 package com.michelin.cert.javaentrypointsenumerator.analyzer;
 
 import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.AnnotationDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
 
 import java.io.File;
-
-import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-
-import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Rest Endpoint analyzer class.
@@ -39,102 +38,85 @@ import java.util.logging.Logger;
  */
 public class RestEndpointAnalyzer extends Analyzer {
 
+  private static final String PATH_ANNOTATION = "javax.ws.rs.Path";
+
+  private static final String[] METHODS_ANNOTATIONS = {
+    "javax.ws.rs.DELETE",
+    "javax.ws.rs.GET",
+    "javax.ws.rs.HEAD",
+    "javax.ws.rs.OPTIONS",
+    "javax.ws.rs.POST",
+    "javax.ws.rs.PUT"
+  };
+
+  private static final HttpMethod[] HTTP_METHODS = {
+    HttpMethod.DELETE,
+    HttpMethod.GET,
+    HttpMethod.HEAD,
+    HttpMethod.OPTIONS,
+    HttpMethod.POST,
+    HttpMethod.PUT
+  };
+
   /**
    * Analyzer constructor.
    *
    * @param classloader Classloader util instance.
-   * @param entrypoints Entrypoints.
    * @param outputFolder Output folder.
    */
-  public RestEndpointAnalyzer(Classloader classloader, Entrypoints entrypoints, File outputFolder) {
-    super(classloader, entrypoints, outputFolder);
+  public RestEndpointAnalyzer(Classloader classloader, File outputFolder) {
+    super(classloader, outputFolder);
+  }
+
+  @Override
+  public Set<String> getAnnotationTypes() {
+    return Collections.singleton(PATH_ANNOTATION);
+  }
+
+  @Override
+  public Set<String> getMethodAnnotationTypes() {
+    return new HashSet<>(Arrays.asList(METHODS_ANNOTATIONS));
   }
 
   @Override
-  public void analyze() {
-
-    List<Class> loadedClassesList = classloader.getLoadedClasses();
-    Class pathAnnotationClass = classloader.getClass("javax.ws.rs.Path");
-    Class deleteAnnotationClass = classloader.getClass("javax.ws.rs.DELETE");
-    Class getAnnotationClass = classloader.getClass("javax.ws.rs.GET");
-    Class headAnnotationClass = classloader.getClass("javax.ws.rs.HEAD");
-    Class optionsAnnotationClass = classloader.getClass("javax.ws.rs.OPTIONS");
-    Class postAnnotationClass = classloader.getClass("javax.ws.rs.POST");
-    Class putAnnotationClass = classloader.getClass("javax.ws.rs.PUT");
-
-    if (pathAnnotationClass != null
-        && deleteAnnotationClass != null
-        && getAnnotationClass != null
-        && headAnnotationClass != null
-        && optionsAnnotationClass != null
-        && postAnnotationClass != null
-        && putAnnotationClass != null) {
-      try {
-
-        Method value = pathAnnotationClass.getMethod("value", (Class[]) null);
-        Class[] methodsAnnotationClasses = {
-          deleteAnnotationClass,
-          getAnnotationClass,
-          headAnnotationClass,
-          optionsAnnotationClass,
-          postAnnotationClass,
-          putAnnotationClass
-        };
-
-        HttpMethod[] httpMethods = {
-          HttpMethod.DELETE,
-          HttpMethod.GET,
-          HttpMethod.HEAD,
-          HttpMethod.OPTIONS,
-          HttpMethod.POST,
-          HttpMethod.PUT
-        };
-
-        for (Class loadedClass : loadedClassesList) {
-          Annotation annotation = loadedClass.getAnnotation(pathAnnotationClass);
-          if (annotation != null) {
-            try {
-              String classPath;
-              classPath = (String) value.invoke(annotation);
-              classPath = (classPath.startsWith("/")) ? classPath : "/" + classPath;
-
-              //Look for all GET, POST etc in all methods.
-              Method[] loadedClassMethods = loadedClass.getMethods();
-              for (Method loadedClassMethod : loadedClassMethods) {
-                for (int i = 0; i < 6; ++i) {
-                  Annotation loadedClassMethodAnnotation = loadedClassMethod.getAnnotation(methodsAnnotationClasses[i]);
-                  if (loadedClassMethodAnnotation != null) {
-
-                    //HTTP ENDPOINT FOUND
-                    RestEndpoint restEndpoint = new RestEndpoint();
-                    restEndpoint.setClassName(loadedClass.getName());
-                    restEndpoint.setMethodName(loadedClassMethod.getName());
-                    restEndpoint.setMethod(httpMethods[i]);
-                    String path = classPath;
-                    loadedClassMethodAnnotation = loadedClassMethod.getAnnotation(pathAnnotationClass);
-                    if (loadedClassMethodAnnotation != null) {
-                      path = (String) value.invoke(loadedClassMethodAnnotation);
-                      path = (path.startsWith("/")) ? path : "/" + path;
-                    }
-                    restEndpoint.setUrl(path);
-
-                    inputs.addRestEndpoint(restEndpoint);
-                  }
-                }
-              }
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-              Logger.getLogger(RestEndpointAnalyzer.class.getName()).log(Level.SEVERE, "Error in invoke operation");
-            }
-          }
+  public void visitMethod(ClassDescriptor loadedClass, MethodDescriptor loadedClassMethod, EntrypointSink entrypoints) {
+    //Resource interfaces and abstract bases are reported through their implementations.
+    if (loadedClass.isInterface() || loadedClass.isAbstract()) {
+      return;
+    }
+    String classPath = getPath(classloader.getClassMetadata(loadedClass).getAnnotation(PATH_ANNOTATION));
+
+    //Look for all GET, POST etc.
+    for (int i = 0; i < METHODS_ANNOTATIONS.length; ++i) {
+      if (loadedClassMethod.getAnnotation(METHODS_ANNOTATIONS[i]) != null) {
+
+        //HTTP ENDPOINT FOUND
+        RestEndpoint restEndpoint = new RestEndpoint();
+        restEndpoint.setClassName(loadedClass.getName());
+        restEndpoint.setMethodName(loadedClassMethod.getName());
+        restEndpoint.setMethod(HTTP_METHODS[i]);
+        String path = classPath;
+        AnnotationDescriptor methodPathAnnotation = loadedClassMethod.getAnnotation(PATH_ANNOTATION);
+        if (methodPathAnnotation != null) {
+          path = getPath(methodPathAnnotation);
         }
-      } catch (NoSuchMethodException ex) {
-        Logger.getLogger(RestEndpointAnalyzer.class.getName()).log(Level.SEVERE, "Value method was not found in javax.ws.rs.Path");
-      } catch (SecurityException ex) {
-        Logger.getLogger(RestEndpointAnalyzer.class.getName()).log(Level.SEVERE, "Value method found in javax.ws.rs.Path raised security exception");
+        restEndpoint.setUrl(path);
+
+        entrypoints.addRestEndpoint(restEndpoint);
       }
-    } else {
-      Logger.getLogger(RestEndpointAnalyzer.class.getName()).log(Level.WARNING, "PathAnnotationClass or HttpMethodAnnotationClass was null");
     }
   }
 
+  /**
+   * Get the path of a javax.ws.rs.Path annotation.
+   *
+   * @param annotation javax.ws.rs.Path annotation.
+   * @return Path, starting with a slash.
+   */
+  private String getPath(AnnotationDescriptor annotation) {
+    String path = annotation.getString("value");
+    path = (path == null) ? "" : path;
+    return (path.startsWith("/")) ? path : "/" + path;
+  }
+
 }
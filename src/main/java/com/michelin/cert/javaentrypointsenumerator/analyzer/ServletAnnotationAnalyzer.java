@@ -0,0 +1,143 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import com.michelin.cert.javaentrypointsenumerator.analyzer.webxml.WebDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.AnnotationDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Servlet 3.0 annotations analyzer class.
+ *
+ * <p>
+ * Reports the classes annotated with javax.servlet.annotation.WebServlet or WebFilter, found during the class walk shared with the other analyzers. As defined by the servlet specification, section
+ * 8.2.3, annotations are ignored when web.xml is metadata complete, and a name declared by the deployment descriptors wins over the annotation.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ * @TODO: Add listeners.
+ * @TODO: Add filter servlet names.
+ */
+public class ServletAnnotationAnalyzer extends Analyzer {
+
+  private static final String WEB_SERVLET_ANNOTATION = "javax.servlet.annotation.WebServlet";
+  private static final String WEB_FILTER_ANNOTATION = "javax.servlet.annotation.WebFilter";
+
+  private final WebXmlAnalyzer webXmlAnalyzer;
+
+  /**
+   * Analyzer constructor.
+   *
+   * @param classloader Classloader util instance.
+   * @param outputFolder Output folder.
+   * @param webXmlAnalyzer Analyzer reading the deployment descriptors.
+   */
+  public ServletAnnotationAnalyzer(Classloader classloader, File outputFolder, WebXmlAnalyzer webXmlAnalyzer) {
+    super(classloader, outputFolder);
+    this.webXmlAnalyzer = webXmlAnalyzer;
+  }
+
+  @Override
+  public Set<String> getAnnotationTypes() {
+    return new HashSet<>(Arrays.asList(WEB_SERVLET_ANNOTATION, WEB_FILTER_ANNOTATION));
+  }
+
+  @Override
+  public void visitClass(ClassDescriptor loadedClass, EntrypointSink entrypoints) {
+    //Annotations are not inherited, only the class itself counts.
+    AnnotationDescriptor webServlet = loadedClass.getAnnotation(WEB_SERVLET_ANNOTATION);
+    AnnotationDescriptor webFilter = loadedClass.getAnnotation(WEB_FILTER_ANNOTATION);
+    if ((webServlet == null && webFilter == null) || webXmlAnalyzer.isMetadataComplete()) {
+      return;
+    }
+
+    if (webServlet != null) {
+      String servletName = getName(webServlet, "name", loadedClass);
+      if (!isDeclared(servletName, true)) {
+        Servlet servlet = new Servlet(servletName, loadedClass.getName());
+        for (String urlPattern : getUrlPatterns(webServlet)) {
+          servlet.addUrl(urlPattern);
+        }
+        servlet.addMethods(webXmlAnalyzer.getServletMethodResolver().getMethods(loadedClass.getName()));
+        entrypoints.addServlet(servlet);
+      }
+    }
+
+    if (webFilter != null) {
+      String filterName = getName(webFilter, "filterName", loadedClass);
+      if (!isDeclared(filterName, false)) {
+        Filter filter = new Filter(filterName, loadedClass.getName());
+        for (String urlPattern : getUrlPatterns(webFilter)) {
+          filter.addUrl(urlPattern);
+        }
+        entrypoints.addFilter(filter);
+      }
+    }
+  }
+
+  /**
+   * Name given by an annotation, defaulting to the fully qualified class name.
+   *
+   * @param annotation WebServlet or WebFilter annotation.
+   * @param attribute Name attribute.
+   * @param loadedClass Annotated class.
+   * @return Servlet or filter name.
+   */
+  private static String getName(AnnotationDescriptor annotation, String attribute, ClassDescriptor loadedClass) {
+    String name = annotation.getString(attribute);
+    return (name == null || name.isEmpty()) ? loadedClass.getName() : name;
+  }
+
+  /**
+   * URL patterns of an annotation, value and urlPatterns being interchangeable.
+   *
+   * @param annotation WebServlet or WebFilter annotation.
+   * @return URL patterns.
+   */
+  private static Set<String> getUrlPatterns(AnnotationDescriptor annotation) {
+    Set<String> result = new LinkedHashSet<>(annotation.getStrings("value"));
+    result.addAll(annotation.getStrings("urlPatterns"));
+    return result;
+  }
+
+  /**
+   * Test if a deployment descriptor declares a servlet or a filter name.
+   *
+   * @param name Servlet or filter name.
+   * @param servlet True for a servlet, false for a filter.
+   * @return True if the name is declared.
+   */
+  private boolean isDeclared(String name, boolean servlet) {
+    for (WebDescriptor descriptor : webXmlAnalyzer.getDescriptors()) {
+      if ((servlet ? descriptor.getServlets() : descriptor.getFilters()).containsKey(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
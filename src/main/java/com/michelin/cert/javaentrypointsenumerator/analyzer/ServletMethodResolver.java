@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP methods handled by servlet classes, memoized per class.
+ *
+ * <p>
+ * Only the doXxx and service methods overridden below HttpServlet and GenericServlet count: the default implementations answer an error. The methods of a class are built from the memoized
+ * methods of its super class, so base servlets shared by several servlets are resolved once.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ServletMethodResolver {
+
+  private static final Set<String> BASE_SERVLETS = new HashSet<>(Arrays.asList(
+      "java.lang.Object",
+      "javax.servlet.GenericServlet",
+      "javax.servlet.http.HttpServlet"
+  ));
+
+  private final Classloader classloader;
+  private final Map<String, Set<HttpMethod>> methods;
+
+  /**
+   * ServletMethodResolver constructor.
+   *
+   * @param classloader Classloader util instance, resolving the servlet classes.
+   */
+  public ServletMethodResolver(Classloader classloader) {
+    this.classloader = classloader;
+    this.methods = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * HTTP methods handled by a servlet class.
+   *
+   * @param className Servlet class name.
+   * @return Read-only HTTP methods, empty if the class is not found or overrides none of them.
+   */
+  public Set<HttpMethod> getMethods(String className) {
+    Set<HttpMethod> result = methods.get(className);
+    if (result == null) {
+      //Walk up to a resolved or base class, then resolve the chain downwards.
+      List<ClassDescriptor> chain = new ArrayList<>();
+      Set<String> visited = new HashSet<>();
+      String name = className;
+      Set<HttpMethod> inherited = EnumSet.noneOf(HttpMethod.class);
+      while (name != null && !BASE_SERVLETS.contains(name) && visited.add(name)) {
+        Set<HttpMethod> resolved = methods.get(name);
+        if (resolved != null) {
+          inherited = resolved;
+          break;
+        }
+        ClassDescriptor classDescriptor = classloader.getClassDescriptor(name);
+        if (classDescriptor == null) {
+          break;
+        }
+        chain.add(classDescriptor);
+        name = classDescriptor.getSuperName();
+      }
+
+      result = Collections.unmodifiableSet(inherited);
+      for (int i = chain.size() - 1; i >= 0; --i) {
+        EnumSet<HttpMethod> classMethods = EnumSet.noneOf(HttpMethod.class);
+        classMethods.addAll(inherited);
+        addDeclaredMethods(chain.get(i), classMethods);
+        inherited = classMethods;
+        result = Collections.unmodifiableSet(classMethods);
+        Set<HttpMethod> previous = methods.putIfAbsent(chain.get(i).getName(), result);
+        result = (previous == null) ? result : previous;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Number of classes resolved.
+   *
+   * @return Number of classes resolved.
+   */
+  public int size() {
+    return methods.size();
+  }
+
+  /**
+   * Add the HTTP methods of the doXxx and service methods declared by a class.
+   *
+   * @param classDescriptor Class descriptor.
+   * @param classMethods HTTP methods filled.
+   */
+  private static void addDeclaredMethods(ClassDescriptor classDescriptor, Set<HttpMethod> classMethods) {
+    for (MethodDescriptor method : classDescriptor.getMethods()) {
+      if (method.getParameterCount() == 2 && !method.isStatic()) {
+        switch (method.getName()) {
+          case "doGet":
+            classMethods.add(HttpMethod.GET);
+            break;
+          case "doDelete":
+            classMethods.add(HttpMethod.DELETE);
+            break;
+          case "doHead":
+            classMethods.add(HttpMethod.HEAD);
+            break;
+          case "doOptions":
+            classMethods.add(HttpMethod.OPTIONS);
+            break;
+          case "doPost":
+            classMethods.add(HttpMethod.POST);
+            break;
+          case "doPut":
+            classMethods.add(HttpMethod.PUT);
+            break;
+          case "doTrace":
+            classMethods.add(HttpMethod.TRACE);
+            break;
+          case "service":
+            classMethods.add(HttpMethod.ALL);
+            break;
+          default:
+            break;
+        }
+      }
+    }
+  }
+}
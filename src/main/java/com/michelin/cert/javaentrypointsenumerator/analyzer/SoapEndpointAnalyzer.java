@@ -0,0 +1,216 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import com.michelin.cert.javaentrypointsenumerator.analyzer.soap.SoapDescriptorParser;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.webxml.WebDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.AnnotationDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * SOAP endpoint analyzer class.
+ *
+ * <p>
+ * Reports the operations of the classes annotated with javax.jws.WebService, found during the class walk shared with the other analyzers. Endpoint urls come from WEB-INF/sun-jaxws.xml, or from
+ * WEB-INF/cxf-servlet.xml below the mapping of the CXF servlet. Endpoints declared by neither are reported at the default url of the service.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ * @TODO: Add javax.xml.ws.WebServiceProvider endpoints.
+ */
+public class SoapEndpointAnalyzer extends Analyzer {
+
+  private static final String WEB_SERVICE_ANNOTATION = "javax.jws.WebService";
+  private static final String WEB_METHOD_ANNOTATION = "javax.jws.WebMethod";
+  private static final String SUN_JAXWS_XML = "WEB-INF/sun-jaxws.xml";
+  private static final String CXF_SERVLET_XML = "WEB-INF/cxf-servlet.xml";
+  private static final String CXF_SERVLET = "org.apache.cxf.transport.servlet.CXFServlet";
+  private static final int ACC_SYNTHETIC = 0x1000;
+
+  private final WebXmlAnalyzer webXmlAnalyzer;
+  private volatile Map<String, List<String>> addresses;
+
+  /**
+   * Analyzer constructor.
+   *
+   * @param classloader Classloader util instance.
+   * @param outputFolder Output folder.
+   * @param webXmlAnalyzer Analyzer reading the deployment descriptors, mapping the CXF servlet.
+   */
+  public SoapEndpointAnalyzer(Classloader classloader, File outputFolder, WebXmlAnalyzer webXmlAnalyzer) {
+    super(classloader, outputFolder);
+    this.webXmlAnalyzer = webXmlAnalyzer;
+  }
+
+  @Override
+  public Set<String> getAnnotationTypes() {
+    return Collections.singleton(WEB_SERVICE_ANNOTATION);
+  }
+
+  @Override
+  public void visitClass(ClassDescriptor loadedClass, EntrypointSink entrypoints) {
+    //Endpoint implementations carry the annotation themselves, service endpoint interfaces are not endpoints.
+    AnnotationDescriptor webService = loadedClass.getAnnotation(WEB_SERVICE_ANNOTATION);
+    if (webService == null || loadedClass.isInterface() || loadedClass.isAbstract()) {
+      return;
+    }
+
+    //Simple name, nested classes included.
+    String className = loadedClass.getName();
+    String simpleName = className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+    String serviceName = getString(webService, "serviceName", simpleName + "Service");
+    List<String> urls = getAddresses().get(loadedClass.getName());
+    if (urls == null) {
+      urls = Collections.singletonList("/" + serviceName);
+    }
+
+    //Operations are the ones of the endpoint interface when it is given.
+    ClassDescriptor operationsClass = loadedClass;
+    String endpointInterface = webService.getString("endpointInterface");
+    if (endpointInterface != null && !endpointInterface.isEmpty()) {
+      ClassDescriptor endpointInterfaceDescriptor = classloader.getClassDescriptor(endpointInterface);
+      if (endpointInterfaceDescriptor != null) {
+        operationsClass = endpointInterfaceDescriptor;
+      }
+    }
+
+    Set<String> operationNames = new HashSet<>();
+    for (MethodDescriptor method : classloader.getPublicMethods(operationsClass)) {
+      if (method.isStatic() || method.getName().startsWith("<") || (method.getAccess() & ACC_SYNTHETIC) != 0) {
+        continue;
+      }
+      AnnotationDescriptor webMethod = method.getAnnotation(WEB_METHOD_ANNOTATION);
+      if (webMethod != null && "true".equals(webMethod.getString("exclude"))) {
+        continue;
+      }
+      String operationName = (webMethod == null) ? method.getName() : getString(webMethod, "operationName", method.getName());
+      if (operationNames.add(operationName)) {
+        for (String url : urls) {
+          SoapEndpoint soapEndpoint = new SoapEndpoint();
+          soapEndpoint.setClassName(loadedClass.getName());
+          soapEndpoint.setServiceName(serviceName);
+          soapEndpoint.setMethodName(method.getName());
+          soapEndpoint.setOperationName(operationName);
+          soapEndpoint.setUrl(url);
+          entrypoints.addSoapEndpoint(soapEndpoint);
+        }
+      }
+    }
+  }
+
+  /**
+   * Endpoint urls declared by the descriptors, read once.
+   *
+   * @return Urls per implementation class name.
+   */
+  private Map<String, List<String>> getAddresses() {
+    Map<String, List<String>> result = addresses;
+    if (result == null) {
+      synchronized (this) {
+        if (addresses == null) {
+          addresses = readAddresses();
+        }
+        result = addresses;
+      }
+    }
+    return result;
+  }
+
+  private Map<String, List<String>> readAddresses() {
+    Map<String, List<String>> result = new HashMap<>();
+    SoapDescriptorParser parser = new SoapDescriptorParser();
+    //sun-jaxws.xml url patterns are servlet paths.
+    merge(result, readDescriptor(parser, SUN_JAXWS_XML), "");
+    //CXF addresses are relative to the CXF servlet.
+    merge(result, readDescriptor(parser, CXF_SERVLET_XML), getCxfServletPath());
+    return result;
+  }
+
+  private Map<String, List<String>> readDescriptor(SoapDescriptorParser parser, String entryName) {
+    Map<String, List<String>> result = Collections.emptyMap();
+    try ( InputStream inputStream = openWarEntry(entryName)) {
+      result = parser.parse(inputStream);
+    } catch (FileNotFoundException ex) {
+      //Optional descriptor.
+    } catch (XMLStreamException | IOException ex) {
+      Logger.getLogger(SoapEndpointAnalyzer.class.getName()).log(Level.SEVERE, "Descriptor not read : " + entryName, ex);
+    }
+    return result;
+  }
+
+  private static void merge(Map<String, List<String>> addresses, Map<String, List<String>> descriptorAddresses, String prefix) {
+    for (Map.Entry<String, List<String>> entry : descriptorAddresses.entrySet()) {
+      List<String> urls = addresses.computeIfAbsent(entry.getKey(), key -> new ArrayList<>());
+      for (String address : entry.getValue()) {
+        String url = address.contains("://") ? address : prefix + (address.startsWith("/") ? address : "/" + address);
+        if (!urls.contains(url)) {
+          urls.add(url);
+        }
+      }
+    }
+  }
+
+  /**
+   * Path the CXF servlet is mapped to, from its first url pattern.
+   *
+   * @return Servlet path without the trailing wildcard, empty if the servlet is not mapped.
+   */
+  private String getCxfServletPath() {
+    List<WebDescriptor> descriptors = webXmlAnalyzer.getDescriptors();
+    for (WebDescriptor descriptor : descriptors) {
+      for (Servlet servlet : descriptor.getServlets().values()) {
+        if (CXF_SERVLET.equals(servlet.getServletClass())) {
+          for (WebDescriptor mappingDescriptor : descriptors) {
+            List<String> urlPatterns = mappingDescriptor.getServletMappings().get(servlet.getServletName());
+            if (urlPatterns != null && !urlPatterns.isEmpty()) {
+              String urlPattern = urlPatterns.get(0);
+              return urlPattern.endsWith("/*") ? urlPattern.substring(0, urlPattern.length() - 2) : "";
+            }
+          }
+        }
+      }
+    }
+    return "";
+  }
+
+  private static String getString(AnnotationDescriptor annotation, String attribute, String defaultValue) {
+    String value = annotation.getString(attribute);
+    return (value == null || value.isEmpty()) ? defaultValue : value;
+  }
+}
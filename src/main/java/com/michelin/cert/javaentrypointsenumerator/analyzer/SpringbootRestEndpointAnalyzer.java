@@ -17,197 +17,301 @@
 package com.michelin.cert.javaentrypointsenumerator.analyzer;
 
 import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.classloader.MetaAnnotationGraph;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.AnnotationDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ParameterDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameter;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameterType;
 
 import java.io.File;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Springboot Rest Endpoint analyzer class.
  *
+ * <p>
+ * Composed annotations such as RestController or GetMapping, and in-house ones, are recognized through their meta-annotations. Their attributes are mapped to the RequestMapping ones with
+ * AliasFor.
+ * </p>
+ *
  * @author Maxime ESCOURBIAC
- * @TODO: Add RestController annotation
  */
 public class SpringbootRestEndpointAnalyzer extends Analyzer {
 
+  private static final String CONTROLLER_ANNOTATION = "org.springframework.stereotype.Controller";
+  private static final String REQUEST_MAPPING_ANNOTATION = "org.springframework.web.bind.annotation.RequestMapping";
+  private static final String ALIAS_FOR_ANNOTATION = "org.springframework.core.annotation.AliasFor";
+
+  /**
+   * Composed annotations shipped with Spring, registered as well for the constant pool prefilter.
+   */
+  private static final Set<String> CONTROLLER_ANNOTATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+      CONTROLLER_ANNOTATION,
+      "org.springframework.web.bind.annotation.RestController"
+  )));
+
+  private static final Set<String> REQUEST_MAPPING_ANNOTATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+      REQUEST_MAPPING_ANNOTATION,
+      "org.springframework.web.bind.annotation.GetMapping",
+      "org.springframework.web.bind.annotation.PostMapping",
+      "org.springframework.web.bind.annotation.PutMapping",
+      "org.springframework.web.bind.annotation.DeleteMapping",
+      "org.springframework.web.bind.annotation.PatchMapping"
+  )));
+
+  /**
+   * Bound to the meta-annotation chain, guarding against annotation cycles.
+   */
+  private static final int MAX_COMPOSITION_DEPTH = 16;
+
+  private static final String[] PARAMETERS_ANNOTATIONS = {
+    "org.springframework.web.bind.annotation.PathVariable",
+    "org.springframework.web.bind.annotation.RequestParam",
+    "org.springframework.web.bind.annotation.RequestBody"
+  };
+
+  private static final HttpParameterType[] HTTP_PARAMETER_TYPES = {
+    HttpParameterType.PATH,
+    HttpParameterType.REQUEST,
+    HttpParameterType.BODY
+  };
+
   /**
    * Analyzer constructor.
    *
    * @param classloader Classloader util instance.
-   * @param entrypoints Entrypoints.
    * @param outputFolder Output folder.
    */
-  public SpringbootRestEndpointAnalyzer(Classloader classloader, Entrypoints entrypoints, File outputFolder) {
-    super(classloader, entrypoints, outputFolder);
+  public SpringbootRestEndpointAnalyzer(Classloader classloader, File outputFolder) {
+    super(classloader, outputFolder);
   }
 
   @Override
-  public void analyze() {
-
-    List<Class> loadedClassesList = classloader.getLoadedClasses();
-
-    //Load Springboot annotation class.
-    Class controllerClass = classloader.getClass("org.springframework.stereotype.Controller");
-    Class requestMappingClass = classloader.getClass("org.springframework.web.bind.annotation.RequestMapping");
-    Class requestMethodClass = classloader.getClass("org.springframework.web.bind.annotation.RequestMethod");
-    Class pathVariableAnnotationClass = classloader.getClass("org.springframework.web.bind.annotation.PathVariable");
-    Class requestParamAnnotationClass = classloader.getClass("org.springframework.web.bind.annotation.RequestParam");
-    Class requestBodyAnnotationClass = classloader.getClass("org.springframework.web.bind.annotation.RequestBody");
-
-    if (controllerClass != null
-        && requestMappingClass != null
-        && requestMethodClass != null
-        && pathVariableAnnotationClass != null
-        && requestParamAnnotationClass != null
-        && requestBodyAnnotationClass != null) {
-
-      try {
-        Class[] parameterClasses = {
-          pathVariableAnnotationClass,
-          requestParamAnnotationClass,
-          requestBodyAnnotationClass
-        };
-
-        HttpParameterType[] httpParameterTypes = {
-          HttpParameterType.PATH,
-          HttpParameterType.REQUEST,
-          HttpParameterType.BODY
-        };
-
-        //Load Springboot annotation methods.
-        Method requestMappingClassValueMethod = requestMappingClass.getMethod("value", (Class[]) null);
-        Method requestMappingClassMethodMethod = requestMappingClass.getMethod("method", (Class[]) null);
-        Method requestMethodClassNameMethod = requestMethodClass.getMethod("name", (Class[]) null);
-
-        for (Class loadedClass : loadedClassesList) {
-          //Get @Controller annotation.
-          Annotation annotation = loadedClass.getAnnotation(controllerClass);
-          if (annotation != null) {
-            String[] paths = {""};
-            HttpMethod[] classHttpMethods = {HttpMethod.ALL};
-            //Check if @RequestMapping is used on the class.
-            annotation = loadedClass.getAnnotation(requestMappingClass);
-            if (annotation != null) {
-              paths = getPathFromRequestMapping(requestMappingClassValueMethod, annotation);
-
-              classHttpMethods = getMethodsFromRequestMapping(requestMappingClassMethodMethod, requestMethodClassNameMethod, annotation);
-              classHttpMethods = (classHttpMethods == null) ? new HttpMethod[]{HttpMethod.ALL} : classHttpMethods;
-            }
-
-            //Look for all GET, POST etc in all methods.
-            Method[] loadedClassMethods = loadedClass.getMethods();
-            for (Method loadedClassMethod : loadedClassMethods) {
-              annotation = loadedClassMethod.getAnnotation(requestMappingClass);
-              if (annotation != null) {
-                //Endpoint found.
-                String[] methodPaths = getPathFromRequestMapping(requestMappingClassValueMethod, annotation);
-
-                HttpMethod[] methodHttpMethods = getMethodsFromRequestMapping(requestMappingClassMethodMethod, requestMethodClassNameMethod, annotation);
-                methodHttpMethods = (methodHttpMethods == null) ? classHttpMethods : methodHttpMethods;
-
-                Parameter[] loadedClassParameters = loadedClassMethod.getParameters();
-
-                List<HttpParameter> httpParameters = new ArrayList<>();
-                for (Parameter loadedClassParameter : loadedClassParameters) {
-                  for (int i = 0; i < parameterClasses.length; ++i) {
-                    Annotation paramAnnotation = loadedClassParameter.getAnnotation(parameterClasses[i]);
-                    if (paramAnnotation != null) {
-                      HttpParameter httpParameter = new HttpParameter();
-                      httpParameter.setModel(loadedClassParameter.getType());
-                      httpParameter.setName(loadedClassParameter.getName());
-                      httpParameter.setType(httpParameterTypes[i]);
-                      httpParameters.add(httpParameter);
-                    }
-                  }
-                }
-
-                for (String path : paths) {
-                  for (String methodPath : methodPaths) {
-                    for (HttpMethod httpMethod : methodHttpMethods) {
-                      RestEndpoint restEndpoint = new RestEndpoint();
-                      restEndpoint.setClassName(loadedClass.getName());
-                      restEndpoint.setMethodName(loadedClassMethod.getName());
-                      restEndpoint.setMethod(httpMethod);
-                      restEndpoint.setUrl(path + methodPath);
-                      restEndpoint.setParameters(httpParameters);
-                      inputs.addRestEndpoint(restEndpoint);
-                    }
-                  }
-                }
-              }
-            }
-          }
+  public Set<String> getAnnotationTypes() {
+    return CONTROLLER_ANNOTATIONS;
+  }
+
+  @Override
+  public Set<String> getMethodAnnotationTypes() {
+    return REQUEST_MAPPING_ANNOTATIONS;
+  }
+
+  @Override
+  public boolean matchesComposedAnnotations() {
+    return true;
+  }
+
+  @Override
+  public void visitMethod(ClassDescriptor loadedClass, MethodDescriptor loadedClassMethod, EntrypointSink entrypoints) {
+    //Controller interfaces and abstract bases are reported through their implementations.
+    if (loadedClass.isInterface() || loadedClass.isAbstract()) {
+      return;
+    }
+    String[] paths = {""};
+    //Check if @RequestMapping is used on the class.
+    AnnotationDescriptor annotation = findRequestMapping(classloader.getClassMetadata(loadedClass).getAnnotations());
+    if (annotation != null) {
+      paths = getPathFromRequestMapping(annotation);
+    }
+
+    //Endpoint found.
+    annotation = findRequestMapping(loadedClassMethod.getAnnotations());
+    if (annotation == null) {
+      return;
+    }
+    String[] methodPaths = getPathFromRequestMapping(annotation);
+    HttpMethod[] methodHttpMethods = getMethodsFromRequestMapping(annotation);
+
+    List<HttpParameter> httpParameters = new ArrayList<>();
+    for (ParameterDescriptor loadedClassParameter : loadedClassMethod.getParameters()) {
+      for (int i = 0; i < PARAMETERS_ANNOTATIONS.length; ++i) {
+        if (loadedClassParameter.getAnnotation(PARAMETERS_ANNOTATIONS[i]) != null) {
+          HttpParameter httpParameter = new HttpParameter();
+          httpParameter.setModel(loadedClassParameter.getType());
+          httpParameter.setName(loadedClassParameter.getName());
+          httpParameter.setType(HTTP_PARAMETER_TYPES[i]);
+          httpParameters.add(httpParameter);
+        }
+      }
+    }
+
+    for (String path : paths) {
+      for (String methodPath : methodPaths) {
+        for (HttpMethod httpMethod : methodHttpMethods) {
+          RestEndpoint restEndpoint = new RestEndpoint();
+          restEndpoint.setClassName(loadedClass.getName());
+          restEndpoint.setMethodName(loadedClassMethod.getName());
+          restEndpoint.setMethod(httpMethod);
+          restEndpoint.setUrl(path + methodPath);
+          restEndpoint.setParameters(httpParameters);
+          entrypoints.addRestEndpoint(restEndpoint);
         }
-      } catch (NoSuchMethodException | SecurityException ex) {
-        Logger.getLogger(SpringbootRestEndpointAnalyzer.class.getName()).log(Level.SEVERE, "", ex);
       }
     }
   }
 
-  private String[] getPathFromRequestMapping(Method requestMappingClassValueMethod, Annotation annotation) {
-    String[] paths = null;
-    try {
-      paths = (String[]) requestMappingClassValueMethod.invoke(annotation);
-      for (int i = 0; i < paths.length; ++i) {
-        paths[i] = (paths[i].startsWith("/")) ? paths[i] : "/" + paths[i];
+  /**
+   * Find the RequestMapping among annotations, possibly through a composed annotation.
+   *
+   * @param annotations Annotations per type name.
+   * @return RequestMapping, merged with the attributes of the composed annotation, or null if not found.
+   */
+  private AnnotationDescriptor findRequestMapping(Map<String, AnnotationDescriptor> annotations) {
+    AnnotationDescriptor result = annotations.get(REQUEST_MAPPING_ANNOTATION);
+    MetaAnnotationGraph graph = classloader.getMetaAnnotationGraph();
+    for (Iterator<AnnotationDescriptor> iterator = annotations.values().iterator(); result == null && iterator.hasNext();) {
+      AnnotationDescriptor annotation = iterator.next();
+      if (graph.isAnnotatedWith(annotation.getType(), REQUEST_MAPPING_ANNOTATION)) {
+        result = synthesize(annotation, REQUEST_MAPPING_ANNOTATION, 0);
       }
-      return paths;
-    } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-      Logger.getLogger(SpringbootRestEndpointAnalyzer.class.getName()).log(Level.SEVERE, "Error in getPathFromRequestMapping : {0}", ex.getMessage());
     }
-    return paths;
+    return result;
+  }
+
+  /**
+   * Synthesize a meta-annotation from a composed annotation, following the meta-annotation chain down to the target.
+   *
+   * @param annotation Composed annotation.
+   * @param target Meta-annotation type name.
+   * @param depth Depth in the meta-annotation chain.
+   * @return Target annotation with the aliased attributes overridden, or null if not reachable.
+   */
+  private AnnotationDescriptor synthesize(AnnotationDescriptor annotation, String target, int depth) {
+    if (annotation.getType().equals(target)) {
+      return annotation;
+    }
+    ClassDescriptor annotationType = classloader.getClassDescriptor(annotation.getType());
+    if (annotationType == null || depth >= MAX_COMPOSITION_DEPTH) {
+      return null;
+    }
+    MetaAnnotationGraph graph = classloader.getMetaAnnotationGraph();
+    for (AnnotationDescriptor metaAnnotation : annotationType.getAnnotations().values()) {
+      if (graph.isAnnotatedWith(metaAnnotation.getType(), target)) {
+        AnnotationDescriptor result = synthesize(applyAliases(annotation, annotationType, metaAnnotation), target, depth + 1);
+        if (result != null && !metaAnnotation.getType().equals(target)) {
+          //Aliases may also skip the intermediate annotations.
+          result = applyAliases(annotation, annotationType, result);
+        }
+        if (result != null) {
+          return result;
+        }
+      }
+    }
+    return null;
   }
 
-  private HttpMethod[] getMethodsFromRequestMapping(Method requestMappingMethod, Method requestMethodClassNameMethod, Annotation annotation) {
-    HttpMethod[] httpMethods = null;
-    try {
-      Object[] methods = (Object[]) requestMappingMethod.invoke(annotation);
-      httpMethods = new HttpMethod[methods.length];
-      for (int i = 0; i < methods.length; ++i) {
-        String methodStr = (String) requestMethodClassNameMethod.invoke(methods[i]);
-        switch (methodStr) {
-          case "GET":
-            httpMethods[i] = HttpMethod.GET;
-            break;
-          case "DELETE":
-            httpMethods[i] = HttpMethod.DELETE;
-            break;
-          case "HEAD":
-            httpMethods[i] = HttpMethod.HEAD;
-            break;
-          case "OPTIONS":
-            httpMethods[i] = HttpMethod.OPTIONS;
-            break;
-          case "PATCH":
-            httpMethods[i] = HttpMethod.PATCH;
-            break;
-          case "POST":
-            httpMethods[i] = HttpMethod.POST;
-            break;
-          case "PUT":
-            httpMethods[i] = HttpMethod.PUT;
-            break;
-          case "TRACE":
-            httpMethods[i] = HttpMethod.TRACE;
-            break;
-          default:
-            break;
+  /**
+   * Override the attributes of a meta-annotation with the composed annotation attributes declared as their alias.
+   *
+   * @param annotation Composed annotation.
+   * @param annotationType Descriptor of the composed annotation type.
+   * @param metaAnnotation Meta-annotation.
+   * @return Meta-annotation with the aliased attributes overridden.
+   */
+  private static AnnotationDescriptor applyAliases(AnnotationDescriptor annotation, ClassDescriptor annotationType, AnnotationDescriptor metaAnnotation) {
+    Map<String, Object> values = null;
+    for (MethodDescriptor attribute : annotationType.getMethods()) {
+      AnnotationDescriptor aliasFor = attribute.getAnnotation(ALIAS_FOR_ANNOTATION);
+      if (aliasFor != null && metaAnnotation.getType().equals(aliasFor.getString("annotation"))) {
+        Object value = annotation.getValue(attribute.getName());
+        if (isSet(value)) {
+          if (values == null) {
+            values = new LinkedHashMap<>(metaAnnotation.getValues());
+          }
+          values.put(getAliasedAttribute(aliasFor, attribute.getName()), value);
         }
       }
-      return httpMethods;
-    } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-      Logger.getLogger(SpringbootRestEndpointAnalyzer.class.getName()).log(Level.SEVERE, "Error in getMethodsFromRequestMapping : {0}", ex.getMessage());
+    }
+    return (values == null) ? metaAnnotation : new AnnotationDescriptor(metaAnnotation.getType(), values);
+  }
+
+  /**
+   * Attribute name an AliasFor points to, attribute and value being aliases and defaulting to the annotated attribute name.
+   *
+   * @param aliasFor AliasFor annotation.
+   * @param attributeName Annotated attribute name.
+   * @return Aliased attribute name.
+   */
+  private static String getAliasedAttribute(AnnotationDescriptor aliasFor, String attributeName) {
+    String result = aliasFor.getString("attribute");
+    if (result == null || result.isEmpty()) {
+      result = aliasFor.getString("value");
+    }
+    return (result == null || result.isEmpty()) ? attributeName : result;
+  }
+
+  /**
+   * Test if an attribute value is set, empty strings and arrays being the usual defaults.
+   *
+   * @param value Attribute value.
+   * @return True if the value is set.
+   */
+  private static boolean isSet(Object value) {
+    return value != null && !"".equals(value) && !(value instanceof List && ((List<?>) value).isEmpty());
+  }
+
+  private String[] getPathFromRequestMapping(AnnotationDescriptor annotation) {
+    List<String> values = annotation.getStrings("value");
+    if (values.isEmpty()) {
+      //path is an alias of value.
+      values = annotation.getStrings("path");
+    }
+    if (values.isEmpty()) {
+      //Mapped to the class path, for instance a bare @GetMapping.
+      return new String[]{""};
+    }
+    String[] paths = new String[values.size()];
+    for (int i = 0; i < paths.length; ++i) {
+      paths[i] = (values.get(i).startsWith("/")) ? values.get(i) : "/" + values.get(i);
+    }
+    return paths;
+  }
+
+  private HttpMethod[] getMethodsFromRequestMapping(AnnotationDescriptor annotation) {
+    List<String> methods = annotation.getStrings("method");
+    HttpMethod[] httpMethods = new HttpMethod[methods.size()];
+    for (int i = 0; i < httpMethods.length; ++i) {
+      switch (methods.get(i)) {
+        case "GET":
+          httpMethods[i] = HttpMethod.GET;
+          break;
+        case "DELETE":
+          httpMethods[i] = HttpMethod.DELETE;
+          break;
+        case "HEAD":
+          httpMethods[i] = HttpMethod.HEAD;
+          break;
+        case "OPTIONS":
+          httpMethods[i] = HttpMethod.OPTIONS;
+          break;
+        case "PATCH":
+          httpMethods[i] = HttpMethod.PATCH;
+          break;
+        case "POST":
+          httpMethods[i] = HttpMethod.POST;
+          break;
+        case "PUT":
+          httpMethods[i] = HttpMethod.PUT;
+          break;
+        case "TRACE":
+          httpMethods[i] = HttpMethod.TRACE;
+          break;
+        default:
+          break;
+      }
     }
     return httpMethods;
   }
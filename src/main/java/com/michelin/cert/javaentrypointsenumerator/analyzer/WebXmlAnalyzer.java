@@ -16,33 +16,44 @@
 
 package com.michelin.cert.javaentrypointsenumerator.analyzer;
 
+import com.michelin.cert.javaentrypointsenumerator.ExtractionBucket;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.webxml.WebDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.webxml.WebDescriptorParser;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.webxml.WebFragmentOrdering;
+import com.michelin.cert.javaentrypointsenumerator.archive.WarArchive;
+import com.michelin.cert.javaentrypointsenumerator.archive.ZipIndexEntry;
 import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.lang.reflect.Method;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
-import javax.xml.XMLConstants;
-
-import org.jdom2.Document;
-import org.jdom2.Element;
-import org.jdom2.JDOMException;
-import org.jdom2.input.SAXBuilder;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * Web xml analyzer class.
  *
+ * <p>
+ * Reads web.xml and the web-fragment.xml of the libraries, then merges them in the order defined by the servlet specification.
+ * </p>
+ *
  * @author Maxime ESCOURBIAC
  * @TODO: Add listeners.
  * @TODO: Add error list.
@@ -51,165 +62,217 @@ import org.jdom2.input.SAXBuilder;
  */
 public class WebXmlAnalyzer extends Analyzer {
 
+  private static final String WEB_XML = "WEB-INF/web.xml";
+  private static final String WEB_FRAGMENT = "META-INF/web-fragment.xml";
+
+  private final ServletMethodResolver servletMethodResolver;
+  private volatile List<WebDescriptor> descriptors;
+
   /**
    * Analyzer constructor.
    *
    * @param classloader Classloader util instance.
-   * @param entrypoints Entrypoints.
    * @param outputFolder Output folder.
    */
-  public WebXmlAnalyzer(Classloader classloader, Entrypoints entrypoints, File outputFolder) {
-    super(classloader, entrypoints, outputFolder);
+  public WebXmlAnalyzer(Classloader classloader, File outputFolder) {
+    super(classloader, outputFolder);
+    this.servletMethodResolver = new ServletMethodResolver(classloader);
   }
 
   @Override
-  public void analyze() {
-    try {
-      SAXBuilder sax = new SAXBuilder();
-
-      // https://rules.sonarsource.com/java/RSPEC-2755
-      // prevent xxe
-      sax.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-      sax.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-
-      //XML is a local file
-      Document doc = sax.build(new File(outputFolder.getAbsolutePath() + File.separator + "web.xml"));
-      Element rootNode = doc.getRootElement();
-
-      Map<String, Filter> filters = new LinkedHashMap<>();
-      Map<String, Servlet> servlets = new LinkedHashMap<>();
-
-      List<Element> children = rootNode.getChildren();
-      for (Element child : children) {
-        switch (child.getName()) {
-          case "filter":
-            String filterName = "";
-            String filterClass = "";
-            for (Element field : child.getChildren()) {
-              switch (field.getName()) {
-                case "filter-name":
-                  filterName = field.getTextTrim();
-                  break;
-                case "filter-class":
-                  filterClass = field.getTextTrim();
-                  break;
-                default:
-                  break;
-              }
-            }
-            filters.put(filterName, new Filter(filterName, filterClass));
-            break;
-          case "filter-mapping":
-            filterName = "";
-            List<String> urlPatterns = new ArrayList<>();
-            for (Element field : child.getChildren()) {
-              switch (field.getName()) {
-                case "filter-name":
-                  filterName = field.getTextTrim();
-                  break;
-                case "url-pattern":
-                  urlPatterns.add(field.getTextTrim());
-                  break;
-                default:
-                  break;
-              }
+  public Set<String> getAnnotationTypes() {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public void analyze(EntrypointSink entrypoints) {
+    merge(getDescriptors(), entrypoints);
+  }
+
+  /**
+   * Deployment descriptors, read once and shared with the analyzers depending on them. They must not be modified.
+   *
+   * @return web.xml, if found, then the fragments in merge order.
+   */
+  public List<WebDescriptor> getDescriptors() {
+    List<WebDescriptor> result = descriptors;
+    if (result == null) {
+      synchronized (this) {
+        if (descriptors == null) {
+          descriptors = Collections.unmodifiableList(readDescriptors());
+        }
+        result = descriptors;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * True if web.xml is complete: fragments and annotations are then ignored.
+   *
+   * @return True if web.xml is complete.
+   */
+  public boolean isMetadataComplete() {
+    List<WebDescriptor> webDescriptors = getDescriptors();
+    return !webDescriptors.isEmpty() && !webDescriptors.get(0).isFragment() && webDescriptors.get(0).isMetadataComplete();
+  }
+
+  /**
+   * Read web.xml and, unless it is complete, the fragments.
+   *
+   * @return web.xml, if found, then the fragments in merge order.
+   */
+  private List<WebDescriptor> readDescriptors() {
+    WebDescriptorParser parser = new WebDescriptorParser();
+    WebDescriptor webXml = null;
+    try ( InputStream inputStream = openWarEntry(WEB_XML)) {
+      webXml = parser.parse(inputStream, WEB_XML);
+    } catch (FileNotFoundException ex) {
+      Logger.getLogger(WebXmlAnalyzer.class.getName()).log(Level.WARNING, "No web.xml found");
+    } catch (XMLStreamException | IOException ex) {
+      Logger.getLogger(WebXmlAnalyzer.class.getName()).log(Level.SEVERE, null, ex);
+    }
+
+    List<WebDescriptor> result = new ArrayList<>();
+    if (webXml != null) {
+      result.add(webXml);
+    }
+    //Fragments are ignored when web.xml is complete.
+    if (webXml == null || !webXml.isMetadataComplete()) {
+      result.addAll(WebFragmentOrdering.sort(webXml, readFragments(parser)));
+    }
+    return result;
+  }
+
+  /**
+   * Parse the web-fragment.xml of the libraries, on the pool of the analyzer.
+   *
+   * @param parser Descriptor parser.
+   * @return Fragments, in library name order.
+   */
+  private List<WebDescriptor> readFragments(WebDescriptorParser parser) {
+    List<Callable<WebDescriptor>> tasks = new ArrayList<>();
+    WarArchive archive = classloader.getArchive();
+    if (archive != null) {
+      List<String> libNames = new ArrayList<>(archive.getLibNames());
+      Collections.sort(libNames);
+      for (String libName : libNames) {
+        ZipIndexEntry entry = archive.getLib(libName).getEntry(WEB_FRAGMENT);
+        if (entry != null) {
+          tasks.add(() -> {
+            try ( InputStream inputStream = entry.getInputStream()) {
+              return parseFragment(parser, inputStream, libName);
             }
-            filters.get(filterName).setUrls(urlPatterns);
-            break;
-          case "servlet":
-            String servletName = "";
-            String servletClass = "";
-            for (Element field : child.getChildren()) {
-              switch (field.getName()) {
-                case "servlet-name":
-                  servletName = field.getTextTrim();
-                  break;
-                case "servlet-class":
-                  servletClass = field.getTextTrim();
-                  break;
-                default:
-                  break;
+          });
+        }
+      }
+    } else {
+      File[] jars = new File(outputFolder, ExtractionBucket.JARS.getLocation()).listFiles((dir, name) -> name.endsWith(".jar"));
+      if (jars != null) {
+        Arrays.sort(jars);
+        for (File jar : jars) {
+          tasks.add(() -> {
+            try ( ZipFile zipFile = new ZipFile(jar)) {
+              ZipEntry entry = zipFile.getEntry(WEB_FRAGMENT);
+              if (entry == null) {
+                return null;
               }
-            }
-            servlets.put(servletName, new Servlet(servletName, servletClass));
-            break;
-          case "servlet-mapping":
-            servletName = "";
-            urlPatterns = new ArrayList<>();
-            for (Element field : child.getChildren()) {
-              switch (field.getName()) {
-                case "servlet-name":
-                  servletName = field.getTextTrim();
-                  break;
-                case "url-pattern":
-                  urlPatterns.add(field.getTextTrim());
-                  break;
-                default:
-                  break;
+              try ( InputStream inputStream = zipFile.getInputStream(entry)) {
+                return parseFragment(parser, inputStream, jar.getName());
               }
             }
-            servlets.get(servletName).setUrls(urlPatterns);
-            break;
-          default:
-            break;
+          });
         }
       }
+    }
 
-      Collection<Filter> filterValues = filters.values();
-      for (Filter filter : filterValues) {
-        this.inputs.addFilter(filter);
+    List<WebDescriptor> result = new ArrayList<>();
+    for (WebDescriptor fragment : invokeAll(tasks)) {
+      if (fragment != null) {
+        result.add(fragment);
       }
+    }
+    return result;
+  }
 
-      Collection<Servlet> servletValues = servlets.values();
-      for (Servlet servlet : servletValues) {
-        analyzeServletClass(servlet);
-        this.inputs.addServlet(servlet);
-      }
-    } catch (JDOMException | IOException ex) {
-      Logger.getLogger(WebXmlAnalyzer.class.getName()).log(Level.SEVERE, null, ex);
+  private static WebDescriptor parseFragment(WebDescriptorParser parser, InputStream inputStream, String libName) throws XMLStreamException {
+    WebDescriptor result = parser.parse(inputStream, libName);
+    if (!result.isFragment()) {
+      Logger.getLogger(WebXmlAnalyzer.class.getName()).log(Level.WARNING, "Invalid web-fragment.xml root element in {0}", libName);
+      result = null;
     }
+    return result;
   }
 
   /**
-   * Analyze servlet class.
+   * Merge the descriptors as defined by the servlet specification, section 8.2.3.
+   *
+   * <p>
+   * The first declaration of a filter or servlet name wins, web.xml coming first. Filter mappings add up in descriptor order. Servlet mappings of web.xml replace the fragment ones for the same
+   * servlet, fragment servlet mappings add up otherwise. The winning declarations are copied, the parsed descriptors are shared and stay read-only.
+   * </p>
    *
-   * @param servlet Servlet to analyze.
+   * @param descriptors web.xml then the fragments, in merge order.
+   * @param entrypoints Entrypoints sink.
    */
-  private void analyzeServletClass(Servlet servlet) {
-    Class servletClass = classloader.getClass(servlet.getServletClass());
-    if (servletClass != null) {
-      for (Method method : servletClass.getMethods()) {
-        if (method.getParameterCount() == 2) {
-          switch (method.getName()) {
-            case "doGet":
-              servlet.addMethod(HttpMethod.GET);
-              break;
-            case "doDelete":
-              servlet.addMethod(HttpMethod.DELETE);
-              break;
-            case "doHead":
-              servlet.addMethod(HttpMethod.HEAD);
-              break;
-            case "doOptions":
-              servlet.addMethod(HttpMethod.OPTIONS);
-              break;
-            case "doPost":
-              servlet.addMethod(HttpMethod.POST);
-              break;
-            case "doPut":
-              servlet.addMethod(HttpMethod.PUT);
-              break;
-            case "doTrace":
-              servlet.addMethod(HttpMethod.TRACE);
-              break;
-            case "service":
-              servlet.addMethod(HttpMethod.ALL);
-              break;
-            default:
-              break;
+  private void merge(List<WebDescriptor> descriptors, EntrypointSink entrypoints) {
+    Map<String, Filter> filters = new LinkedHashMap<>();
+    Map<String, Servlet> servlets = new LinkedHashMap<>();
+    for (WebDescriptor descriptor : descriptors) {
+      for (Filter filter : descriptor.getFilters().values()) {
+        if (!filters.containsKey(filter.getFilterName())) {
+          filters.put(filter.getFilterName(), new Filter(filter.getFilterName(), filter.getFilterClass()));
+        }
+      }
+      for (Servlet servlet : descriptor.getServlets().values()) {
+        if (!servlets.containsKey(servlet.getServletName())) {
+          servlets.put(servlet.getServletName(), new Servlet(servlet.getServletName(), servlet.getServletClass()));
+        }
+      }
+    }
+
+    Set<String> mappedByWebXml = new HashSet<>();
+    for (WebDescriptor descriptor : descriptors) {
+      for (Map.Entry<String, List<String>> mapping : descriptor.getFilterMappings().entrySet()) {
+        Filter filter = filters.get(mapping.getKey());
+        if (filter == null) {
+          Logger.getLogger(WebXmlAnalyzer.class.getName()).log(Level.WARNING, "Mapping of an undeclared filter : {0}", mapping.getKey());
+        } else {
+          for (String urlPattern : mapping.getValue()) {
+            filter.addUrl(urlPattern);
+          }
+        }
+      }
+      for (Map.Entry<String, List<String>> mapping : descriptor.getServletMappings().entrySet()) {
+        Servlet servlet = servlets.get(mapping.getKey());
+        if (servlet == null) {
+          Logger.getLogger(WebXmlAnalyzer.class.getName()).log(Level.WARNING, "Mapping of an undeclared servlet : {0}", mapping.getKey());
+        } else if (!descriptor.isFragment() || !mappedByWebXml.contains(mapping.getKey())) {
+          if (!descriptor.isFragment()) {
+            mappedByWebXml.add(mapping.getKey());
+          }
+          for (String urlPattern : mapping.getValue()) {
+            servlet.addUrl(urlPattern);
           }
         }
       }
     }
+
+    for (Filter filter : filters.values()) {
+      entrypoints.addFilter(filter);
+    }
+    for (Servlet servlet : servlets.values()) {
+      servlet.addMethods(servletMethodResolver.getMethods(servlet.getServletClass()));
+      entrypoints.addServlet(servlet);
+    }
+  }
+
+  /**
+   * Resolver of the HTTP methods handled by the servlet classes, shared with the analyzers depending on web.xml.
+   *
+   * @return Servlet method resolver.
+   */
+  public ServletMethodResolver getServletMethodResolver() {
+    return servletMethodResolver;
   }
 }
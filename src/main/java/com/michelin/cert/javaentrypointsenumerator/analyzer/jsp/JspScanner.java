@@ -0,0 +1,251 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer.jsp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Streaming scanner of the request parameters read by a JSP.
+ *
+ * <p>
+ * The JSP is read once through a fixed size buffer, without building the whole file. Parameters read by scriptlets, for instance request.getParameter("name"), and by expressions, for instance
+ * ${param.name} or ${paramValues['name']}, are reported. Tokens are capped in length, so memory use does not depend on the file size.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class JspScanner {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final int MAX_TOKEN_LENGTH = 256;
+  private static final int EOF = -1;
+
+  private static final Set<String> GET_PARAMETER_METHODS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("getParameter", "getParameterValues")));
+  private static final Set<String> PARAMETER_OBJECTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("param", "paramValues")));
+
+  private final Reader reader;
+  private final char[] buffer;
+  private final Set<String> parameters;
+  private int position;
+  private int limit;
+  private int pending;
+  private int previous;
+  private int expressionDepth;
+
+  /**
+   * JspScanner constructor, reading the JSP as UTF-8.
+   *
+   * @param inputStream JSP content, not closed by the scanner.
+   */
+  public JspScanner(InputStream inputStream) {
+    this(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * JspScanner constructor.
+   *
+   * @param reader JSP content, not closed by the scanner.
+   */
+  public JspScanner(Reader reader) {
+    this.reader = reader;
+    this.buffer = new char[BUFFER_SIZE];
+    this.parameters = new LinkedHashSet<>();
+    this.pending = EOF;
+  }
+
+  /**
+   * Scan the JSP.
+   *
+   * @return Request parameter names, in reading order.
+   * @throws IOException If the JSP can not be read.
+   */
+  public Set<String> scan() throws IOException {
+    int current = read();
+    while (current != EOF) {
+      if (isIdentifierStart(current)) {
+        String identifier = readIdentifier(current);
+        if (GET_PARAMETER_METHODS.contains(identifier)) {
+          readGetParameterArgument();
+        } else if (expressionDepth > 0 && previous != '.' && PARAMETER_OBJECTS.contains(identifier)) {
+          readExpressionParameter();
+        }
+        previous = 'a';
+      } else if (!Character.isWhitespace(current)) {
+        if (current == '{' && (expressionDepth > 0 || previous == '$' || previous == '#')) {
+          ++expressionDepth;
+        } else if (current == '}' && expressionDepth > 0) {
+          --expressionDepth;
+        }
+        previous = current;
+      }
+      current = read();
+    }
+    return parameters;
+  }
+
+  /**
+   * Read the parameter name of a getParameter call, if it is a string literal.
+   *
+   * @throws IOException If the JSP can not be read.
+   */
+  private void readGetParameterArgument() throws IOException {
+    int current = skipWhitespace();
+    if (current == '(') {
+      current = skipWhitespace();
+      if (current == '"') {
+        addParameter(readLiteral('"'));
+      } else {
+        unread(current);
+      }
+    } else {
+      unread(current);
+    }
+  }
+
+  /**
+   * Read the parameter name following param or paramValues in an expression, .name or ['name'].
+   *
+   * @throws IOException If the JSP can not be read.
+   */
+  private void readExpressionParameter() throws IOException {
+    int current = skipWhitespace();
+    if (current == '.') {
+      current = skipWhitespace();
+      if (isIdentifierStart(current)) {
+        addParameter(readIdentifier(current));
+      } else {
+        unread(current);
+      }
+    } else if (current == '[') {
+      current = skipWhitespace();
+      if (current == '\'' || current == '"') {
+        addParameter(readLiteral(current));
+      } else {
+        unread(current);
+      }
+    } else {
+      unread(current);
+    }
+  }
+
+  /**
+   * Read an identifier.
+   *
+   * @param first First character, already read.
+   * @return Identifier, truncated to the maximum token length.
+   * @throws IOException If the JSP can not be read.
+   */
+  private String readIdentifier(int first) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    builder.append((char) first);
+    int current = read();
+    while (isIdentifierPart(current)) {
+      if (builder.length() < MAX_TOKEN_LENGTH) {
+        builder.append((char) current);
+      }
+      current = read();
+    }
+    unread(current);
+    return builder.toString();
+  }
+
+  /**
+   * Read a string literal, the opening quote being already read.
+   *
+   * @param quote Quote character.
+   * @return Literal content, or null if it is not closed on the same line or too long.
+   * @throws IOException If the JSP can not be read.
+   */
+  private String readLiteral(int quote) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    boolean truncated = false;
+    int current = read();
+    while (current != quote) {
+      if (current == EOF || current == '\n') {
+        return null;
+      }
+      if (current == '\\') {
+        current = read();
+        if (current == EOF) {
+          return null;
+        }
+      }
+      if (builder.length() < MAX_TOKEN_LENGTH) {
+        builder.append((char) current);
+      } else {
+        truncated = true;
+      }
+      current = read();
+    }
+    return truncated ? null : builder.toString();
+  }
+
+  private void addParameter(String parameter) {
+    if (parameter != null && !parameter.isEmpty()) {
+      parameters.add(parameter);
+    }
+  }
+
+  private int skipWhitespace() throws IOException {
+    int current = read();
+    while (current != EOF && Character.isWhitespace(current)) {
+      current = read();
+    }
+    return current;
+  }
+
+  private int read() throws IOException {
+    int result;
+    if (pending != EOF) {
+      result = pending;
+      pending = EOF;
+    } else {
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return EOF;
+        }
+      }
+      result = buffer[position++];
+    }
+    return result;
+  }
+
+  private void unread(int current) {
+    pending = current;
+  }
+
+  private static boolean isIdentifierStart(int current) {
+    return current != EOF && (Character.isLetter(current) || current == '_');
+  }
+
+  private static boolean isIdentifierPart(int current) {
+    return current != EOF && (Character.isLetterOrDigit(current) || current == '_');
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer.soap;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming parser of the SOAP endpoint descriptors, sun-jaxws.xml and cxf-servlet.xml.
+ *
+ * <p>
+ * Both descriptors are read the same way, namespaces being ignored: sun-jaxws.xml endpoint elements give an implementation class and an url pattern, CXF endpoint and server elements give an
+ * address and an implementor, either a class name, a reference to a bean or a nested bean.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class SoapDescriptorParser {
+
+  private final XMLInputFactory factory;
+
+  /**
+   * Default constructor.
+   */
+  public SoapDescriptorParser() {
+    factory = XMLInputFactory.newInstance();
+    // https://rules.sonarsource.com/java/RSPEC-2755
+    // prevent xxe, the DOCTYPE of Spring descriptors is skipped
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    try {
+      factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+      factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    } catch (IllegalArgumentException ex) {
+      //Not supported by this StAX implementation, DTD support is already disabled.
+    }
+  }
+
+  /**
+   * Parse a SOAP endpoint descriptor.
+   *
+   * @param inputStream Descriptor content.
+   * @return Addresses per implementation class name, in descriptor order.
+   * @throws XMLStreamException If the descriptor is not well formed.
+   */
+  public Map<String, List<String>> parse(InputStream inputStream) throws XMLStreamException {
+    XMLStreamReader reader;
+    //Factories are not guaranteed thread safe once configured.
+    synchronized (factory) {
+      reader = factory.createXMLStreamReader(inputStream);
+    }
+
+    //Implementors, possibly bean references, and their addresses.
+    List<String[]> endpoints = new ArrayList<>();
+    Map<String, String> beanClasses = new HashMap<>();
+    String contextAddress = null;
+    int contextDepth = -1;
+    int depth = 0;
+    try {
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          ++depth;
+          switch (reader.getLocalName()) {
+            case "endpoint":
+              String implementation = getAttribute(reader, "implementation", "implementorClass", "implementor");
+              String address = getAttribute(reader, "url-pattern", "address");
+              if (implementation != null) {
+                endpoints.add(new String[]{implementation, address});
+              } else if (contextDepth < 0) {
+                //Implementor given by a nested bean.
+                contextAddress = address;
+                contextDepth = depth;
+              }
+              break;
+            case "server":
+              if (contextDepth < 0) {
+                contextAddress = reader.getAttributeValue(null, "address");
+                contextDepth = depth;
+              }
+              break;
+            case "bean":
+              String beanClass = reader.getAttributeValue(null, "class");
+              if (reader.getAttributeValue(null, "id") != null && beanClass != null) {
+                beanClasses.put(reader.getAttributeValue(null, "id"), beanClass);
+              }
+              if (contextDepth >= 0 && beanClass != null) {
+                endpoints.add(new String[]{beanClass, contextAddress});
+              }
+              break;
+            case "ref":
+              if (contextDepth >= 0 && reader.getAttributeValue(null, "bean") != null) {
+                endpoints.add(new String[]{"#" + reader.getAttributeValue(null, "bean"), contextAddress});
+              }
+              break;
+            default:
+              break;
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          if (depth == contextDepth) {
+            contextAddress = null;
+            contextDepth = -1;
+          }
+          --depth;
+        }
+      }
+    } finally {
+      reader.close();
+    }
+
+    Map<String, List<String>> result = new LinkedHashMap<>();
+    for (String[] endpoint : endpoints) {
+      String implementation = endpoint[0].startsWith("#") ? beanClasses.get(endpoint[0].substring(1)) : endpoint[0];
+      if (implementation != null && endpoint[1] != null) {
+        result.computeIfAbsent(implementation.trim(), key -> new ArrayList<>()).add(endpoint[1].trim());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * First attribute set among several names.
+   *
+   * @param reader Reader positioned on a start element.
+   * @param names Attribute names, in priority order.
+   * @return Attribute value or null if none is set.
+   */
+  private static String getAttribute(XMLStreamReader reader, String... names) {
+    for (String name : names) {
+      String value = reader.getAttributeValue(null, name);
+      if (value != null && !value.isEmpty()) {
+        return value;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer.webxml;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content of a web.xml or web-fragment.xml deployment descriptor.
+ *
+ * <p>
+ * Mappings are kept apart from the declarations, since a descriptor may map a filter or a servlet declared by another one.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class WebDescriptor {
+
+  /**
+   * Ordering placeholder for the fragments not named, the others element.
+   */
+  public static final String OTHERS = "<others/>";
+
+  private final String source;
+  private final boolean fragment;
+  private String name;
+  private String version;
+  private boolean metadataComplete;
+  private final Map<String, Filter> filters;
+  private final Map<String, List<String>> filterMappings;
+  private final Map<String, Servlet> servlets;
+  private final Map<String, List<String>> servletMappings;
+  private final List<String> after;
+  private final List<String> before;
+  private List<String> absoluteOrdering;
+
+  /**
+   * WebDescriptor constructor.
+   *
+   * @param source Descriptor location, for instance WEB-INF/web.xml or the library name of a fragment.
+   * @param fragment True for a web-fragment.xml.
+   */
+  public WebDescriptor(String source, boolean fragment) {
+    this.source = source;
+    this.fragment = fragment;
+    this.filters = new LinkedHashMap<>();
+    this.filterMappings = new LinkedHashMap<>();
+    this.servlets = new LinkedHashMap<>();
+    this.servletMappings = new LinkedHashMap<>();
+    this.after = new ArrayList<>();
+    this.before = new ArrayList<>();
+  }
+
+  /**
+   * Descriptor location.
+   *
+   * @return Descriptor location.
+   */
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * True for a web-fragment.xml.
+   *
+   * @return True for a web-fragment.xml.
+   */
+  public boolean isFragment() {
+    return fragment;
+  }
+
+  /**
+   * Fragment name, referenced by the orderings.
+   *
+   * @return Fragment name or null if not named.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Fragment name, referenced by the orderings.
+   *
+   * @param name Fragment name.
+   */
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Version attribute of the root element.
+   *
+   * @return Descriptor version or null if not set.
+   */
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * Version attribute of the root element.
+   *
+   * @param version Descriptor version.
+   */
+  public void setVersion(String version) {
+    this.version = version;
+  }
+
+  /**
+   * True if the descriptor is complete: fragments and annotations are then ignored. Descriptors older than 2.5 are always complete.
+   *
+   * @return True if the descriptor is complete.
+   */
+  public boolean isMetadataComplete() {
+    boolean result = metadataComplete;
+    if (!result && version != null) {
+      try {
+        result = Double.parseDouble(version) < 2.5;
+      } catch (NumberFormatException ex) {
+        result = false;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * metadata-complete attribute of the root element.
+   *
+   * @param metadataComplete metadata-complete attribute.
+   */
+  public void setMetadataComplete(boolean metadataComplete) {
+    this.metadataComplete = metadataComplete;
+  }
+
+  /**
+   * Declared filters per name, in declaration order.
+   *
+   * @return Declared filters.
+   */
+  public Map<String, Filter> getFilters() {
+    return filters;
+  }
+
+  /**
+   * Declare a filter, the first declaration of a name wins.
+   *
+   * @param filter Filter.
+   */
+  public void addFilter(Filter filter) {
+    filters.putIfAbsent(filter.getFilterName(), filter);
+  }
+
+  /**
+   * Url patterns of the filter mappings per filter name, in declaration order.
+   *
+   * @return Filter mappings.
+   */
+  public Map<String, List<String>> getFilterMappings() {
+    return filterMappings;
+  }
+
+  /**
+   * Map a filter.
+   *
+   * @param filterName Filter name.
+   * @param urlPatterns Url patterns.
+   */
+  public void addFilterMapping(String filterName, List<String> urlPatterns) {
+    filterMappings.computeIfAbsent(filterName, key -> new ArrayList<>()).addAll(urlPatterns);
+  }
+
+  /**
+   * Declared servlets per name, in declaration order.
+   *
+   * @return Declared servlets.
+   */
+  public Map<String, Servlet> getServlets() {
+    return servlets;
+  }
+
+  /**
+   * Declare a servlet, the first declaration of a name wins.
+   *
+   * @param servlet Servlet.
+   */
+  public void addServlet(Servlet servlet) {
+    servlets.putIfAbsent(servlet.getServletName(), servlet);
+  }
+
+  /**
+   * Url patterns of the servlet mappings per servlet name, in declaration order.
+   *
+   * @return Servlet mappings.
+   */
+  public Map<String, List<String>> getServletMappings() {
+    return servletMappings;
+  }
+
+  /**
+   * Map a servlet.
+   *
+   * @param servletName Servlet name.
+   * @param urlPatterns Url patterns.
+   */
+  public void addServletMapping(String servletName, List<String> urlPatterns) {
+    servletMappings.computeIfAbsent(servletName, key -> new ArrayList<>()).addAll(urlPatterns);
+  }
+
+  /**
+   * Fragment names this fragment is ordered after, OTHERS standing for the fragments not named.
+   *
+   * @return Fragment names.
+   */
+  public List<String> getAfter() {
+    return after;
+  }
+
+  /**
+   * Fragment names this fragment is ordered before, OTHERS standing for the fragments not named.
+   *
+   * @return Fragment names.
+   */
+  public List<String> getBefore() {
+    return before;
+  }
+
+  /**
+   * Absolute ordering of the fragments declared by web.xml, OTHERS standing for the fragments not named.
+   *
+   * @return Fragment names or null if web.xml declares no absolute ordering.
+   */
+  public List<String> getAbsoluteOrdering() {
+    return absoluteOrdering;
+  }
+
+  /**
+   * Absolute ordering of the fragments declared by web.xml.
+   *
+   * @param absoluteOrdering Fragment names, OTHERS standing for the fragments not named.
+   */
+  public void setAbsoluteOrdering(List<String> absoluteOrdering) {
+    this.absoluteOrdering = absoluteOrdering;
+  }
+
+  @Override
+  public String toString() {
+    return (name == null) ? source : name + " (" + source + ")";
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer.webxml;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming web.xml and web-fragment.xml parser.
+ *
+ * <p>
+ * The descriptor is read with a StAX pull parser, filters and servlets are built straight from the events without keeping a document in memory. Namespaces are ignored, so that every version of
+ * the schema is read the same way.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class WebDescriptorParser {
+
+  private final XMLInputFactory factory;
+
+  /**
+   * Default constructor.
+   */
+  public WebDescriptorParser() {
+    factory = XMLInputFactory.newInstance();
+    // https://rules.sonarsource.com/java/RSPEC-2755
+    // prevent xxe, the DOCTYPE of old descriptors is skipped
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    try {
+      factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+      factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+    } catch (IllegalArgumentException ex) {
+      //Not supported by this StAX implementation, DTD support is already disabled.
+    }
+  }
+
+  /**
+   * Parse a deployment descriptor.
+   *
+   * @param inputStream Descriptor content.
+   * @param source Descriptor location.
+   * @return Descriptor, a fragment if the root element is web-fragment.
+   * @throws XMLStreamException If the descriptor is not well formed.
+   */
+  public WebDescriptor parse(InputStream inputStream, String source) throws XMLStreamException {
+    XMLStreamReader reader;
+    //Factories are not guaranteed thread safe once configured.
+    synchronized (factory) {
+      reader = factory.createXMLStreamReader(inputStream);
+    }
+    try {
+      if (nextElement(reader) != XMLStreamConstants.START_ELEMENT) {
+        throw new XMLStreamException("No root element in " + source);
+      }
+      WebDescriptor descriptor = new WebDescriptor(source, "web-fragment".equals(reader.getLocalName()));
+      descriptor.setVersion(reader.getAttributeValue(null, "version"));
+      descriptor.setMetadataComplete("true".equalsIgnoreCase(reader.getAttributeValue(null, "metadata-complete")));
+      while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+        switch (reader.getLocalName()) {
+          case "name":
+            descriptor.setName(reader.getElementText().trim());
+            break;
+          case "filter":
+            readFilter(reader, descriptor);
+            break;
+          case "filter-mapping":
+            readMapping(reader, "filter-name", descriptor, true);
+            break;
+          case "servlet":
+            readServlet(reader, descriptor);
+            break;
+          case "servlet-mapping":
+            readMapping(reader, "servlet-name", descriptor, false);
+            break;
+          case "ordering":
+            readOrdering(reader, descriptor);
+            break;
+          case "absolute-ordering":
+            List<String> names = new ArrayList<>();
+            readNames(reader, names);
+            descriptor.setAbsoluteOrdering(names);
+            break;
+          default:
+            skipElement(reader);
+            break;
+        }
+      }
+      return descriptor;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private void readFilter(XMLStreamReader reader, WebDescriptor descriptor) throws XMLStreamException {
+    String filterName = "";
+    String filterClass = "";
+    while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+      switch (reader.getLocalName()) {
+        case "filter-name":
+          filterName = reader.getElementText().trim();
+          break;
+        case "filter-class":
+          filterClass = reader.getElementText().trim();
+          break;
+        default:
+          skipElement(reader);
+          break;
+      }
+    }
+    descriptor.addFilter(new Filter(filterName, filterClass));
+  }
+
+  private void readServlet(XMLStreamReader reader, WebDescriptor descriptor) throws XMLStreamException {
+    String servletName = "";
+    String servletClass = "";
+    while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+      switch (reader.getLocalName()) {
+        case "servlet-name":
+          servletName = reader.getElementText().trim();
+          break;
+        case "servlet-class":
+          servletClass = reader.getElementText().trim();
+          break;
+        default:
+          skipElement(reader);
+          break;
+      }
+    }
+    descriptor.addServlet(new Servlet(servletName, servletClass));
+  }
+
+  /**
+   * Read a filter-mapping or a servlet-mapping.
+   *
+   * @param reader Reader positioned on the mapping start element.
+   * @param nameElement Name of the element holding the mapped name.
+   * @param descriptor Descriptor filled.
+   * @param filter True for a filter mapping.
+   * @throws XMLStreamException If the descriptor is not well formed.
+   */
+  private void readMapping(XMLStreamReader reader, String nameElement, WebDescriptor descriptor, boolean filter) throws XMLStreamException {
+    String name = "";
+    List<String> urlPatterns = new ArrayList<>();
+    while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+      if (nameElement.equals(reader.getLocalName())) {
+        name = reader.getElementText().trim();
+      } else if ("url-pattern".equals(reader.getLocalName())) {
+        urlPatterns.add(reader.getElementText().trim());
+      } else {
+        skipElement(reader);
+      }
+    }
+    if (filter) {
+      descriptor.addFilterMapping(name, urlPatterns);
+    } else {
+      descriptor.addServletMapping(name, urlPatterns);
+    }
+  }
+
+  private void readOrdering(XMLStreamReader reader, WebDescriptor descriptor) throws XMLStreamException {
+    while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+      switch (reader.getLocalName()) {
+        case "after":
+          readNames(reader, descriptor.getAfter());
+          break;
+        case "before":
+          readNames(reader, descriptor.getBefore());
+          break;
+        default:
+          skipElement(reader);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Read the name and others elements of an ordering.
+   *
+   * @param reader Reader positioned on the ordering start element.
+   * @param names Names filled, OTHERS standing for the others element.
+   * @throws XMLStreamException If the descriptor is not well formed.
+   */
+  private void readNames(XMLStreamReader reader, List<String> names) throws XMLStreamException {
+    while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+      switch (reader.getLocalName()) {
+        case "name":
+          names.add(reader.getElementText().trim());
+          break;
+        case "others":
+          names.add(WebDescriptor.OTHERS);
+          skipElement(reader);
+          break;
+        default:
+          skipElement(reader);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Move to the next start or end element, skipping text, comments and processing instructions.
+   *
+   * @param reader Reader.
+   * @return START_ELEMENT, END_ELEMENT or END_DOCUMENT.
+   * @throws XMLStreamException If the descriptor is not well formed.
+   */
+  private static int nextElement(XMLStreamReader reader) throws XMLStreamException {
+    int event;
+    do {
+      event = reader.next();
+    } while (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT && event != XMLStreamConstants.END_DOCUMENT);
+    return event;
+  }
+
+  /**
+   * Skip the current element and its content.
+   *
+   * @param reader Reader positioned on the element start.
+   * @throws XMLStreamException If the descriptor is not well formed.
+   */
+  private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        ++depth;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        --depth;
+      }
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer.webxml;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Order the web fragments as defined by the servlet specification, section 8.2.2.
+ *
+ * <p>
+ * The absolute ordering of web.xml wins when declared: named fragments in that order, the others at the others element, fragments left out being excluded. Otherwise each fragment relative
+ * ordering applies: fragments before others first, then the fragments without others, then fragments after others, named before and after constraints being honored inside and across those groups.
+ * Ties keep the library order.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class WebFragmentOrdering {
+
+  /**
+   * Private constructor.
+   */
+  private WebFragmentOrdering() {
+  }
+
+  /**
+   * Order the fragments.
+   *
+   * @param webXml web.xml descriptor, possibly declaring an absolute ordering.
+   * @param fragments Fragments, in library order.
+   * @return Fragments in merge order.
+   */
+  public static List<WebDescriptor> sort(WebDescriptor webXml, List<WebDescriptor> fragments) {
+    if (webXml != null && webXml.getAbsoluteOrdering() != null) {
+      return sortAbsolute(webXml.getAbsoluteOrdering(), fragments);
+    }
+    return sortRelative(fragments);
+  }
+
+  private static List<WebDescriptor> sortAbsolute(List<String> ordering, List<WebDescriptor> fragments) {
+    Map<String, WebDescriptor> named = new LinkedHashMap<>();
+    for (WebDescriptor fragment : fragments) {
+      if (fragment.getName() != null) {
+        named.putIfAbsent(fragment.getName(), fragment);
+      }
+    }
+    List<WebDescriptor> listed = new ArrayList<>();
+    for (String name : ordering) {
+      WebDescriptor fragment = named.get(name);
+      if (fragment != null && !listed.contains(fragment)) {
+        listed.add(fragment);
+      }
+    }
+
+    List<WebDescriptor> result = new ArrayList<>();
+    for (String name : ordering) {
+      if (WebDescriptor.OTHERS.equals(name)) {
+        for (WebDescriptor fragment : fragments) {
+          if (!listed.contains(fragment) && !result.contains(fragment)) {
+            result.add(fragment);
+          }
+        }
+      } else {
+        WebDescriptor fragment = named.get(name);
+        if (fragment != null && !result.contains(fragment)) {
+          result.add(fragment);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Topological sort of the relative orderings, picking among the fragments ready the one of the lowest group then library order.
+   *
+   * @param fragments Fragments, in library order.
+   * @return Ordered fragments, library order if the orderings are cyclic.
+   */
+  private static List<WebDescriptor> sortRelative(List<WebDescriptor> fragments) {
+    int count = fragments.size();
+    Map<String, Integer> indexes = new HashMap<>();
+    for (int i = 0; i < count; ++i) {
+      String name = fragments.get(i).getName();
+      if (name != null) {
+        indexes.putIfAbsent(name, i);
+      }
+    }
+
+    int[] groups = new int[count];
+    List<List<Integer>> successors = new ArrayList<>();
+    int[] predecessorCounts = new int[count];
+    for (int i = 0; i < count; ++i) {
+      successors.add(new ArrayList<>());
+    }
+    for (int i = 0; i < count; ++i) {
+      WebDescriptor fragment = fragments.get(i);
+      groups[i] = fragment.getBefore().contains(WebDescriptor.OTHERS) ? 0 : (fragment.getAfter().contains(WebDescriptor.OTHERS) ? 2 : 1);
+      for (String name : fragment.getAfter()) {
+        Integer predecessor = indexes.get(name);
+        if (predecessor != null && predecessor != i) {
+          successors.get(predecessor).add(i);
+          ++predecessorCounts[i];
+        }
+      }
+      for (String name : fragment.getBefore()) {
+        Integer successor = indexes.get(name);
+        if (successor != null && successor != i) {
+          successors.get(i).add(successor);
+          ++predecessorCounts[successor];
+        }
+      }
+    }
+
+    List<WebDescriptor> result = new ArrayList<>(count);
+    boolean[] done = new boolean[count];
+    for (int step = 0; step < count; ++step) {
+      int next = -1;
+      for (int i = 0; i < count; ++i) {
+        if (!done[i] && predecessorCounts[i] == 0 && (next < 0 || groups[i] < groups[next])) {
+          next = i;
+        }
+      }
+      if (next < 0) {
+        Logger.getLogger(WebFragmentOrdering.class.getName()).log(Level.WARNING, "Cyclic web fragment ordering, library order is used");
+        return new ArrayList<>(fragments);
+      }
+      done[next] = true;
+      result.add(fragments.get(next));
+      for (int successor : successors.get(next)) {
+        --predecessorCounts[successor];
+      }
+    }
+    return result;
+  }
+}
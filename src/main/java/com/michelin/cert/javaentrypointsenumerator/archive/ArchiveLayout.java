@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Archive layout enumeration, telling where classes and libraries are stored.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public enum ArchiveLayout {
+  /**
+   * Web archive, classes under WEB-INF/classes and libraries under WEB-INF/lib.
+   */
+  WAR("WEB-INF/classes/", "WEB-INF/lib/"),
+  /**
+   * Spring Boot executable jar, classes under BOOT-INF/classes and libraries under BOOT-INF/lib.
+   */
+  BOOT_JAR("BOOT-INF/classes/", "BOOT-INF/lib/");
+
+  private static final String BOOT_PREFIX = "BOOT-INF/";
+
+  private final String classesPrefix;
+  private final String libPrefix;
+
+  /**
+   * ArchiveLayout constructor.
+   *
+   * @param classesPrefix Prefix of the class entries.
+   * @param libPrefix Prefix of the library entries.
+   */
+  ArchiveLayout(String classesPrefix, String libPrefix) {
+    this.classesPrefix = classesPrefix;
+    this.libPrefix = libPrefix;
+  }
+
+  /**
+   * Prefix of the class entries.
+   *
+   * @return Prefix of the class entries, ending with a slash.
+   */
+  public String getClassesPrefix() {
+    return classesPrefix;
+  }
+
+  /**
+   * Prefix of the library entries.
+   *
+   * @return Prefix of the library entries, ending with a slash.
+   */
+  public String getLibPrefix() {
+    return libPrefix;
+  }
+
+  /**
+   * Layout of an indexed archive.
+   *
+   * @param index Archive index.
+   * @return BOOT_JAR if the archive has a BOOT-INF folder, WAR otherwise.
+   */
+  public static ArchiveLayout of(ZipIndex index) {
+    for (ZipIndexEntry entry : index.getEntries()) {
+      if (entry.getName().startsWith(BOOT_PREFIX)) {
+        return BOOT_JAR;
+      }
+    }
+    return WAR;
+  }
+
+  /**
+   * Layout of an archive file, read from its central directory.
+   *
+   * @param file Archive file.
+   * @return BOOT_JAR if the archive has a BOOT-INF folder, WAR otherwise.
+   * @throws IOException If the archive can not be read.
+   */
+  public static ArchiveLayout of(File file) throws IOException {
+    try ( ZipFile zipFile = new ZipFile(file)) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        if (entries.nextElement().getName().startsWith(BOOT_PREFIX)) {
+          return BOOT_JAR;
+        }
+      }
+    }
+    return WAR;
+  }
+}
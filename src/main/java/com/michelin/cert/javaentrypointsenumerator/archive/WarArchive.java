@@ -0,0 +1,280 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * War archive read in place, without extraction.
+ *
+ * <p>
+ * The war file is memory mapped and its central directory indexed. Libraries of WEB-INF/lib are indexed too: stored libraries are read through a slice of the mapping at their data offset, small
+ * compressed libraries are inflated once in memory and larger ones are inflated to a temporary file which is mapped in turn, so the heap does not hold the uncompressed libraries.
+ * </p>
+ *
+ * <p>
+ * Spring Boot executable jars are read the same way, from BOOT-INF/classes and BOOT-INF/lib, the layout being detected from the entries.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class WarArchive implements Closeable {
+
+  /**
+   * Largest compressed library inflated in memory, larger ones go through a temporary file.
+   */
+  private static final long MAX_IN_MEMORY_LIB_SIZE = 1 << 20;
+
+  private final File file;
+  private final ZipIndex index;
+  private final ArchiveLayout layout;
+  private final Map<String, ZipIndex> libs;
+  private final Map<String, Integer> libOffsets;
+  private final Map<String, ZipIndexEntry> classPath;
+  private final List<Path> tempFiles;
+
+  /**
+   * WarArchive constructor.
+   *
+   * @param file War file.
+   * @throws IOException If the war file can not be indexed.
+   */
+  public WarArchive(File file) throws IOException {
+    this.file = file;
+    this.libs = new LinkedHashMap<>();
+    this.libOffsets = new HashMap<>();
+    this.classPath = new HashMap<>();
+    this.tempFiles = new ArrayList<>();
+
+    try ( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Archive too large to be mapped : " + file.getAbsolutePath());
+      }
+      this.index = new ZipIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+    this.layout = ArchiveLayout.of(index);
+    String classesPrefix = layout.getClassesPrefix();
+
+    //WEB-INF/classes comes first in the class path.
+    for (ZipIndexEntry entry : index.getEntries()) {
+      if (!entry.isDirectory() && entry.getName().startsWith(classesPrefix)) {
+        classPath.putIfAbsent(entry.getName().substring(classesPrefix.length()), entry);
+      }
+    }
+
+    //Then every library, in archive order.
+    for (ZipIndexEntry entry : index.getEntries()) {
+      if (entry.isDirectory() || !entry.getName().startsWith(layout.getLibPrefix()) || !entry.getName().endsWith(".jar")) {
+        continue;
+      }
+      String libName = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+      try {
+        ZipIndex lib;
+        if (entry.getMethod() == ZipIndex.STORED) {
+          lib = new ZipIndex(index.getRawData(entry));
+          libOffsets.put(libName, index.getDataOffset(entry));
+        } else if (entry.getSize() <= MAX_IN_MEMORY_LIB_SIZE) {
+          lib = new ZipIndex(ByteBuffer.wrap(entry.getBytes()));
+        } else {
+          lib = new ZipIndex(inflateToTempFile(entry));
+        }
+        libs.put(libName, lib);
+        for (ZipIndexEntry libEntry : lib.getEntries()) {
+          if (!libEntry.isDirectory()) {
+            classPath.putIfAbsent(libEntry.getName(), libEntry);
+          }
+        }
+      } catch (IOException ex) {
+        Logger.getLogger(WarArchive.class.getName()).log(Level.WARNING, "Library not indexed : {0}", entry.getName());
+      }
+    }
+  }
+
+  /**
+   * Inflate a compressed library to a temporary file and map it.
+   *
+   * <p>
+   * The file is deleted right away where a mapped file can be deleted, when the archive is closed otherwise.
+   * </p>
+   *
+   * @param entry Library entry.
+   * @return Library content.
+   * @throws IOException If the library can not be inflated.
+   */
+  private ByteBuffer inflateToTempFile(ZipIndexEntry entry) throws IOException {
+    Path tempFile = Files.createTempFile("lib-", ".jar");
+    try {
+      try ( OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+        index.copyTo(entry, outputStream);
+      }
+      ByteBuffer result;
+      try ( FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.READ)) {
+        result = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      deleteTempFile(tempFile);
+      return result;
+    } catch (IOException ex) {
+      deleteTempFile(tempFile);
+      throw ex;
+    }
+  }
+
+  /**
+   * Delete a temporary file, or keep it to be deleted when the archive is closed.
+   *
+   * @param tempFile Temporary file.
+   */
+  private void deleteTempFile(Path tempFile) {
+    try {
+      Files.delete(tempFile);
+    } catch (IOException ex) {
+      synchronized (tempFiles) {
+        tempFiles.add(tempFile);
+      }
+    }
+  }
+
+  /**
+   * Delete the temporary files that could not be deleted while mapped. Libraries can not be read afterwards.
+   */
+  @Override
+  public void close() {
+    synchronized (tempFiles) {
+      for (Path tempFile : tempFiles) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException ex) {
+          tempFile.toFile().deleteOnExit();
+        }
+      }
+      tempFiles.clear();
+    }
+  }
+
+  /**
+   * War file.
+   *
+   * @return War file.
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Layout of the war file.
+   *
+   * @return Layout of the war file.
+   */
+  public ArchiveLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Index of the war file.
+   *
+   * @return Index of the war file.
+   */
+  public ZipIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Open an entry of the war file.
+   *
+   * @param entryName Entry name.
+   * @return Entry content or null if not found.
+   * @throws IOException If the entry can not be read.
+   */
+  public InputStream getInputStream(String entryName) throws IOException {
+    ZipIndexEntry entry = index.getEntry(entryName);
+    return (entry == null) ? null : entry.getInputStream();
+  }
+
+  /**
+   * Entries of WEB-INF/classes, or BOOT-INF/classes for a Spring Boot jar.
+   *
+   * @return Entries of the classes folder.
+   */
+  public List<ZipIndexEntry> getClassesEntries() {
+    List<ZipIndexEntry> result = new ArrayList<>();
+    for (ZipIndexEntry entry : index.getEntries()) {
+      if (!entry.isDirectory() && entry.getName().startsWith(layout.getClassesPrefix())) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Names of the indexed libraries.
+   *
+   * @return Names of the indexed libraries.
+   */
+  public Set<String> getLibNames() {
+    return Collections.unmodifiableSet(libs.keySet());
+  }
+
+  /**
+   * Index of a library.
+   *
+   * @param libName Library file name.
+   * @return Index of the library or null if not found.
+   */
+  public ZipIndex getLib(String libName) {
+    return libs.get(libName);
+  }
+
+  /**
+   * Offset of a stored library inside the war file.
+   *
+   * @param libName Library file name.
+   * @return Offset of the library or -1 if the library is compressed or not found.
+   */
+  public int getLibOffset(String libName) {
+    Integer offset = libOffsets.get(libName);
+    return (offset == null) ? -1 : offset;
+  }
+
+  /**
+   * Find a class path resource, WEB-INF/classes first then libraries.
+   *
+   * @param resourceName Resource name, for instance com/example/Example.class.
+   * @return Resource entry or null if not found.
+   */
+  public ZipIndexEntry findResource(String resourceName) {
+    return classPath.get(resourceName);
+  }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Index of a zip archive held in a buffer.
+ *
+ * <p>
+ * The central directory is read once, entries are then read by offset. The buffer can be a memory mapped file or a slice of another buffer, which allows stored nested archives to be read without
+ * any copy.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ZipIndex {
+
+  public static final int STORED = 0;
+  public static final int DEFLATED = 8;
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int END_SIGNATURE = 0x06054b50;
+  private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+  private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int ZIP64_EXTRA_TAG = 0x0001;
+  private static final int END_SIZE = 22;
+  private static final int ZIP64_LOCATOR_SIZE = 20;
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+  private static final int CHUNK_SIZE = 65536;
+
+  private final ByteBuffer buffer;
+  private final Map<String, ZipIndexEntry> entries;
+
+  /**
+   * ZipIndex constructor.
+   *
+   * @param buffer Archive content, from its current position to its limit.
+   * @throws IOException If the central directory can not be read.
+   */
+  public ZipIndex(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    this.entries = new LinkedHashMap<>();
+    try {
+      readCentralDirectory();
+    } catch (IndexOutOfBoundsException ex) {
+      throw new ZipException("Truncated central directory");
+    }
+  }
+
+  /**
+   * Whole archive content, without copy.
+   *
+   * @return Archive content, positioned at its start.
+   */
+  public ByteBuffer getContent() {
+    return buffer.duplicate();
+  }
+
+  /**
+   * All entries, in central directory order.
+   *
+   * @return All entries.
+   */
+  public Collection<ZipIndexEntry> getEntries() {
+    return Collections.unmodifiableCollection(entries.values());
+  }
+
+  /**
+   * Get an entry by name.
+   *
+   * @param name Entry name.
+   * @return Entry or null if not found.
+   */
+  public ZipIndexEntry getEntry(String name) {
+    return entries.get(name);
+  }
+
+  /**
+   * Offset of the entry data inside the archive.
+   *
+   * @param entry Entry.
+   * @return Offset of the entry data.
+   * @throws IOException If the local header is invalid or out of the archive.
+   */
+  public int getDataOffset(ZipIndexEntry entry) throws IOException {
+    int localHeader = toPosition(entry.getLocalHeaderOffset());
+    if (localHeader > buffer.limit() - 30 || buffer.getInt(localHeader) != LOCAL_HEADER_SIGNATURE) {
+      throw new ZipException("Invalid local header for " + entry.getName());
+    }
+    return localHeader + 30 + getUnsignedShort(localHeader + 26) + getUnsignedShort(localHeader + 28);
+  }
+
+  /**
+   * Raw (possibly compressed) data of an entry, without copy.
+   *
+   * @param entry Entry.
+   * @return Raw data of the entry.
+   * @throws IOException If the local header is invalid or the data out of the archive.
+   */
+  public ByteBuffer getRawData(ZipIndexEntry entry) throws IOException {
+    int start = getDataOffset(entry);
+    int compressedSize = toPosition(entry.getCompressedSize());
+    if (start > buffer.limit() || compressedSize > buffer.limit() - start) {
+      throw new ZipException("Data out of the archive for " + entry.getName());
+    }
+    ByteBuffer data = buffer.duplicate();
+    data.position(start);
+    data.limit(start + compressedSize);
+    return data.slice();
+  }
+
+  /**
+   * Read the whole content of an entry.
+   *
+   * @param entry Entry.
+   * @return Uncompressed content.
+   * @throws IOException If the entry can not be read.
+   */
+  public byte[] getBytes(ZipIndexEntry entry) throws IOException {
+    ByteBuffer raw = getRawData(entry);
+    byte[] result;
+    switch (entry.getMethod()) {
+      case STORED:
+        result = new byte[raw.remaining()];
+        raw.get(result);
+        break;
+      case DEFLATED:
+        result = inflate(raw, toPosition(entry.getSize()), entry.getName());
+        break;
+      default:
+        throw new ZipException("Unsupported compression method " + entry.getMethod() + " for " + entry.getName());
+    }
+    return result;
+  }
+
+  /**
+   * Write the uncompressed content of an entry to a stream, a chunk at a time.
+   *
+   * @param entry Entry.
+   * @param outputStream Output stream, left open.
+   * @throws IOException If the entry can not be read or the stream written.
+   */
+  public void copyTo(ZipIndexEntry entry, OutputStream outputStream) throws IOException {
+    ByteBuffer raw = getRawData(entry);
+    byte[] chunk = new byte[CHUNK_SIZE];
+    if (entry.getMethod() == STORED) {
+      while (raw.hasRemaining()) {
+        int length = Math.min(chunk.length, raw.remaining());
+        raw.get(chunk, 0, length);
+        outputStream.write(chunk, 0, length);
+      }
+      return;
+    }
+    if (entry.getMethod() != DEFLATED) {
+      throw new ZipException("Unsupported compression method " + entry.getMethod() + " for " + entry.getName());
+    }
+
+    byte[] input = new byte[CHUNK_SIZE];
+    Inflater inflater = new Inflater(true);
+    try {
+      boolean padded = false;
+      while (!inflater.finished()) {
+        if (inflater.needsInput()) {
+          if (raw.hasRemaining()) {
+            int length = Math.min(input.length, raw.remaining());
+            raw.get(input, 0, length);
+            inflater.setInput(input, 0, length);
+          } else if (!padded) {
+            //Raw deflate data may need an extra byte to signal its end.
+            padded = true;
+            inflater.setInput(new byte[1]);
+          } else {
+            throw new ZipException("Truncated entry " + entry.getName());
+          }
+        }
+        int read = inflater.inflate(chunk);
+        if (read == 0 && inflater.needsDictionary()) {
+          throw new ZipException("Corrupted entry " + entry.getName());
+        }
+        outputStream.write(chunk, 0, read);
+      }
+    } catch (DataFormatException ex) {
+      throw new ZipException("Corrupted entry " + entry.getName() + " : " + ex.getMessage());
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Open an entry.
+   *
+   * @param entry Entry.
+   * @return Uncompressed content stream.
+   * @throws IOException If the entry can not be read.
+   */
+  public InputStream getInputStream(ZipIndexEntry entry) throws IOException {
+    InputStream result;
+    if (entry.getMethod() == STORED) {
+      result = new ByteBufferInputStream(getRawData(entry));
+    } else {
+      result = new ByteArrayInputStream(getBytes(entry));
+    }
+    return result;
+  }
+
+  /**
+   * Read the central directory.
+   *
+   * @throws IOException If the central directory is invalid.
+   */
+  private void readCentralDirectory() throws IOException {
+    int end = findEnd();
+    long count = getUnsignedShort(end + 10);
+    long offset = getUnsignedInt(end + 16);
+
+    //Zip64 archives store the real values in a dedicated record.
+    if (count == 0xFFFF || offset == ZIP64_MAGIC) {
+      int locator = end - ZIP64_LOCATOR_SIZE;
+      if (locator >= 0 && buffer.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+        int zip64End = toPosition(buffer.getLong(locator + 8));
+        if (buffer.getInt(zip64End) != ZIP64_END_SIGNATURE) {
+          throw new ZipException("Invalid zip64 end of central directory");
+        }
+        count = buffer.getLong(zip64End + 32);
+        offset = buffer.getLong(zip64End + 48);
+      }
+    }
+
+    int position = toPosition(offset);
+    for (long i = 0; i < count; ++i) {
+      if (buffer.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+        throw new ZipException("Invalid central directory header");
+      }
+      final int method = getUnsignedShort(position + 10);
+      final long crc = getUnsignedInt(position + 16);
+      long compressedSize = getUnsignedInt(position + 20);
+      long size = getUnsignedInt(position + 24);
+      final int nameLength = getUnsignedShort(position + 28);
+      final int extraLength = getUnsignedShort(position + 30);
+      final int commentLength = getUnsignedShort(position + 32);
+      long localHeaderOffset = getUnsignedInt(position + 42);
+      final String name = getString(position + 46, nameLength);
+
+      //Zip64 extra field, values are only present when the header value overflowed.
+      int extra = position + 46 + nameLength;
+      int extraEnd = extra + extraLength;
+      while (extra + 4 <= extraEnd) {
+        int tag = getUnsignedShort(extra);
+        int dataSize = getUnsignedShort(extra + 2);
+        if (tag == ZIP64_EXTRA_TAG) {
+          int data = extra + 4;
+          if (size == ZIP64_MAGIC) {
+            size = buffer.getLong(data);
+            data += 8;
+          }
+          if (compressedSize == ZIP64_MAGIC) {
+            compressedSize = buffer.getLong(data);
+            data += 8;
+          }
+          if (localHeaderOffset == ZIP64_MAGIC) {
+            localHeaderOffset = buffer.getLong(data);
+          }
+        }
+        extra += 4 + dataSize;
+      }
+
+      entries.put(name, new ZipIndexEntry(this, name, method, crc, compressedSize, size, localHeaderOffset));
+      position += 46 + nameLength + extraLength + commentLength;
+    }
+  }
+
+  /**
+   * Find the end of central directory record.
+   *
+   * @return Position of the record.
+   * @throws IOException If the record is not found.
+   */
+  private int findEnd() throws IOException {
+    //The record is followed by a comment of at most 65535 bytes.
+    int lowest = Math.max(0, buffer.limit() - END_SIZE - 0xFFFF);
+    for (int position = buffer.limit() - END_SIZE; position >= lowest; --position) {
+      if (buffer.getInt(position) == END_SIGNATURE) {
+        return position;
+      }
+    }
+    throw new ZipException("End of central directory not found");
+  }
+
+  /**
+   * Inflate raw deflate data.
+   *
+   * @param raw Compressed data.
+   * @param size Uncompressed size.
+   * @param name Entry name.
+   * @return Uncompressed data.
+   * @throws IOException If the data is corrupted.
+   */
+  private static byte[] inflate(ByteBuffer raw, int size, String name) throws IOException {
+    byte[] compressed = new byte[raw.remaining()];
+    raw.get(compressed);
+    byte[] result = new byte[size];
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(compressed);
+      int filled = 0;
+      while (filled < size && !inflater.finished()) {
+        int read = inflater.inflate(result, filled, size - filled);
+        if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new ZipException("Truncated entry " + name);
+        }
+        filled += read;
+      }
+    } catch (DataFormatException ex) {
+      throw new ZipException("Corrupted entry " + name + " : " + ex.getMessage());
+    } finally {
+      inflater.end();
+    }
+    return result;
+  }
+
+  private int getUnsignedShort(int position) {
+    return buffer.getShort(position) & 0xFFFF;
+  }
+
+  private long getUnsignedInt(int position) {
+    return buffer.getInt(position) & 0xFFFFFFFFL;
+  }
+
+  private String getString(int position, int length) {
+    byte[] bytes = new byte[length];
+    ByteBuffer data = buffer.duplicate();
+    data.position(position);
+    data.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int toPosition(long offset) throws ZipException {
+    if (offset < 0 || offset > Integer.MAX_VALUE) {
+      throw new ZipException("Offset out of the addressable range : " + offset);
+    }
+    return (int) offset;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Central directory entry of an indexed zip archive.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ZipIndexEntry {
+
+  private final ZipIndex index;
+  private final String name;
+  private final int method;
+  private final long crc;
+  private final long compressedSize;
+  private final long size;
+  private final long localHeaderOffset;
+
+  /**
+   * ZipIndexEntry constructor.
+   *
+   * @param index Owning index.
+   * @param name Entry name.
+   * @param method Compression method.
+   * @param crc CRC32 of the uncompressed data.
+   * @param compressedSize Compressed size.
+   * @param size Uncompressed size.
+   * @param localHeaderOffset Offset of the local header inside the archive.
+   */
+  ZipIndexEntry(ZipIndex index, String name, int method, long crc, long compressedSize, long size, long localHeaderOffset) {
+    this.index = index;
+    this.name = name;
+    this.method = method;
+    this.crc = crc;
+    this.compressedSize = compressedSize;
+    this.size = size;
+    this.localHeaderOffset = localHeaderOffset;
+  }
+
+  /**
+   * Owning index.
+   *
+   * @return Owning index.
+   */
+  public ZipIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Entry name.
+   *
+   * @return Entry name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Compression method.
+   *
+   * @return Compression method.
+   */
+  public int getMethod() {
+    return method;
+  }
+
+  /**
+   * CRC32 of the uncompressed data.
+   *
+   * @return CRC32 of the uncompressed data.
+   */
+  public long getCrc() {
+    return crc;
+  }
+
+  /**
+   * Compressed size.
+   *
+   * @return Compressed size.
+   */
+  public long getCompressedSize() {
+    return compressedSize;
+  }
+
+  /**
+   * Uncompressed size.
+   *
+   * @return Uncompressed size.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Offset of the local header inside the archive.
+   *
+   * @return Offset of the local header.
+   */
+  public long getLocalHeaderOffset() {
+    return localHeaderOffset;
+  }
+
+  /**
+   * True if the entry is a directory.
+   *
+   * @return True if the entry is a directory.
+   */
+  public boolean isDirectory() {
+    return name.endsWith("/");
+  }
+
+  /**
+   * Open the entry content.
+   *
+   * @return Entry content.
+   * @throws IOException IOException.
+   */
+  public InputStream getInputStream() throws IOException {
+    return index.getInputStream(this);
+  }
+
+  /**
+   * Read the whole entry content.
+   *
+   * @return Entry content.
+   * @throws IOException IOException.
+   */
+  public byte[] getBytes() throws IOException {
+    return index.getBytes(this);
+  }
+}
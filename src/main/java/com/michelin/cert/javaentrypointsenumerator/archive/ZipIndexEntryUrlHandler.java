@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+
+/**
+ * URL handler serving an indexed zip entry.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ZipIndexEntryUrlHandler extends URLStreamHandler {
+
+  private final ZipIndexEntry entry;
+
+  /**
+   * ZipIndexEntryUrlHandler constructor.
+   *
+   * @param entry Entry served by the handler.
+   */
+  public ZipIndexEntryUrlHandler(ZipIndexEntry entry) {
+    this.entry = entry;
+  }
+
+  @Override
+  protected URLConnection openConnection(URL url) {
+    return new URLConnection(url) {
+      @Override
+      public void connect() {
+        connected = true;
+      }
+
+      @Override
+      public InputStream getInputStream() throws IOException {
+        return entry.getInputStream();
+      }
+
+      @Override
+      public long getContentLengthLong() {
+        return entry.getSize();
+      }
+    };
+  }
+}
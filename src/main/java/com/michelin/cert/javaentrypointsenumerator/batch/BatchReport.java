@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch report, wars analyzed or failed and the throughput of the batch.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class BatchReport {
+
+  private final List<String> failedWars;
+  private int analyzedWars;
+  private long warMillis;
+  private long elapsedMillis;
+
+  /**
+   * Default constructor.
+   */
+  public BatchReport() {
+    this.failedWars = new ArrayList<>();
+  }
+
+  /**
+   * Record an analyzed war.
+   *
+   * @param millis Time spent on the war.
+   */
+  public synchronized void addAnalyzed(long millis) {
+    ++analyzedWars;
+    warMillis += millis;
+  }
+
+  /**
+   * Record a failed war.
+   *
+   * @param name War name.
+   * @param millis Time spent on the war.
+   */
+  public synchronized void addFailed(String name, long millis) {
+    failedWars.add(name);
+    warMillis += millis;
+  }
+
+  /**
+   * Number of wars analyzed.
+   *
+   * @return Number of wars analyzed.
+   */
+  public synchronized int getAnalyzedWars() {
+    return analyzedWars;
+  }
+
+  /**
+   * Names of the wars whose analysis failed.
+   *
+   * @return Failed war names.
+   */
+  public synchronized List<String> getFailedWars() {
+    return new ArrayList<>(failedWars);
+  }
+
+  /**
+   * Time spent on the wars, added up over the workers, in milliseconds.
+   *
+   * @return Cumulated war time.
+   */
+  public synchronized long getWarMillis() {
+    return warMillis;
+  }
+
+  /**
+   * Wall-clock time of the whole batch.
+   *
+   * @return Elapsed time in milliseconds.
+   */
+  public synchronized long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * Wall-clock time of the whole batch.
+   *
+   * @param elapsedMillis Elapsed time in milliseconds.
+   */
+  public synchronized void setElapsedMillis(long elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  /**
+   * Wars completed per minute, analyzed or failed.
+   *
+   * @return Throughput in wars per minute.
+   */
+  public synchronized double getWarsPerMinute() {
+    return (elapsedMillis == 0) ? 0.0 : (analyzedWars + failedWars.size()) * 60000.0 / elapsedMillis;
+  }
+
+  @Override
+  public synchronized String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(String.format("%d war(s) analyzed, %d failed in %.1f s, %.1f wars/min (%.1f s of war analysis)%n",
+        analyzedWars, failedWars.size(), elapsedMillis / 1000.0, getWarsPerMinute(), warMillis / 1000.0));
+    for (String failedWar : failedWars) {
+      builder.append(String.format("Failed: %s%n", failedWar));
+    }
+    return builder.toString();
+  }
+}
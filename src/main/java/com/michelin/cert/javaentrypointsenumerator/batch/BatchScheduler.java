@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.batch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Batch scheduler, analyzing many wars in a single JVM.
+ *
+ * <p>
+ * Wars are submitted to a work-stealing pool, largest archive first so that the longest analyses do not end up last and leave the other workers idle. The pool size is the global limit of wars
+ * analyzed at once, the stage settings of the job being shared between them (see Analyze.forWar).
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class BatchScheduler {
+
+  private final int threads;
+
+  /**
+   * BatchScheduler constructor.
+   *
+   * @param threads Number of wars analyzed at once.
+   */
+  public BatchScheduler(int threads) {
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * Number of wars analyzed at once.
+   *
+   * @return Number of batch workers.
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Give each war a unique name, its file name without extension, suffixed when several wars share it.
+   *
+   * @param warFiles War files.
+   * @return Name per war file, in war order.
+   */
+  public static Map<File, String> getNames(List<File> warFiles) {
+    Map<File, String> result = new LinkedHashMap<>();
+    Set<String> names = new HashSet<>();
+    for (File warFile : warFiles) {
+      String baseName = warFile.getName();
+      int dot = baseName.lastIndexOf('.');
+      baseName = (dot > 0) ? baseName.substring(0, dot) : baseName;
+      String name = baseName;
+      for (int i = 2; !names.add(name); ++i) {
+        name = baseName + "-" + i;
+      }
+      result.put(warFile, name);
+    }
+    return result;
+  }
+
+  /**
+   * Analyze every war and wait for all of them. A war whose analysis throws, even an error, is reported as failed and the other wars go on.
+   *
+   * @param warFiles War files.
+   * @param task Analysis of one war.
+   * @return Batch report.
+   */
+  public BatchReport run(List<File> warFiles, WarTask task) {
+    BatchReport report = new BatchReport();
+    long start = System.nanoTime();
+    Map<File, String> names = getNames(warFiles);
+    List<File> orderedWars = new ArrayList<>(warFiles);
+    orderedWars.sort(Comparator.comparingLong(File::length).reversed());
+
+    //External submissions are taken in submission order.
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (File warFile : orderedWars) {
+        String name = names.get(warFile);
+        futures.add(pool.submit(() -> {
+          long warStart = System.nanoTime();
+          try {
+            task.analyze(warFile, name);
+            report.addAnalyzed((System.nanoTime() - warStart) / 1000000);
+          } catch (Throwable ex) {
+            //Errors included, a war failing must not stop the wait for the other ones.
+            Logger.getLogger(BatchScheduler.class.getName()).log(Level.SEVERE, "War analysis failed : " + warFile.getAbsolutePath(), ex);
+            report.addFailed(name, (System.nanoTime() - warStart) / 1000000);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException ex) {
+          throw new IllegalStateException("War task did not record its failure", ex.getCause());
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      Logger.getLogger(BatchScheduler.class.getName()).log(Level.SEVERE, "Batch interrupted");
+    } finally {
+      pool.shutdownNow();
+    }
+    report.setElapsedMillis((System.nanoTime() - start) / 1000000);
+    return report;
+  }
+
+  /**
+   * Analysis of one war of the batch.
+   */
+  public interface WarTask {
+
+    /**
+     * Analyze a war.
+     *
+     * @param warFile War file.
+     * @param name Unique name of the war in the batch.
+     * @throws Exception If the analysis fails, the other wars go on. Errors are reported the same way.
+     */
+    void analyze(File warFile, String name) throws Exception;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class loading report, classes and load time per jar.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ClassLoadingReport {
+
+  private final List<ClassLoadingUnit> units;
+  private int threads;
+  private long wallTime;
+
+  /**
+   * Default constructor.
+   */
+  public ClassLoadingReport() {
+    this.units = new ArrayList<>();
+    this.threads = 1;
+  }
+
+  /**
+   * Record a loading pass.
+   *
+   * @param passUnits Units loaded by the pass.
+   * @param passThreads Number of workers used.
+   * @param passWallTime Elapsed time of the pass in milliseconds.
+   */
+  synchronized void addPass(List<ClassLoadingUnit> passUnits, int passThreads, long passWallTime) {
+    this.units.addAll(passUnits);
+    this.threads = Math.max(this.threads, passThreads);
+    this.wallTime += passWallTime;
+  }
+
+  /**
+   * Loaded units, in loading order.
+   *
+   * @return Loaded units.
+   */
+  public synchronized List<ClassLoadingUnit> getUnits() {
+    return new ArrayList<>(units);
+  }
+
+  /**
+   * Elapsed loading time.
+   *
+   * @return Elapsed loading time in milliseconds.
+   */
+  public synchronized long getWallTime() {
+    return wallTime;
+  }
+
+  @Override
+  public synchronized String toString() {
+    //Slowest units first, to spot stragglers.
+    List<ClassLoadingUnit> orderedUnits = new ArrayList<>(units);
+    orderedUnits.sort(Comparator.comparingLong(ClassLoadingUnit::getLoadTime).reversed());
+    StringBuilder builder = new StringBuilder();
+    long classes = 0;
+    for (ClassLoadingUnit unit : orderedUnits) {
+      builder.append(String.format("%-40s %8d classes %8d ms%n", unit.getName(), unit.getClassCount(), unit.getLoadTime()));
+      classes += unit.getClassCount();
+    }
+    builder.append(String.format("%-40s %8d classes %8d ms with %d worker(s)%n", "total", classes, wallTime, threads));
+    return builder.toString();
+  }
+}
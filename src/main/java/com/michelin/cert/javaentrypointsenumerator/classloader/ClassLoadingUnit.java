@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Classes of one jar or one archive part, loaded by a single worker.
+ *
+ * <p>
+ * Results are kept in the unit, in entry order, and merged by the caller in unit order so the loading order does not depend on the number of workers.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ClassLoadingUnit {
+
+  private final String name;
+  private final long size;
+  private final Consumer<ClassLoadingUnit> loader;
+  private final Map<String, Class<?>> loadedClasses;
+  private final Map<String, ClassDescriptor> classDescriptors;
+  private long loadTime;
+
+  /**
+   * ClassLoadingUnit constructor.
+   *
+   * @param name Unit name, for instance the jar name.
+   * @param size Unit size in bytes, used to schedule the biggest units first.
+   * @param loader Loading action, filling the unit.
+   */
+  ClassLoadingUnit(String name, long size, Consumer<ClassLoadingUnit> loader) {
+    this.name = name;
+    this.size = size;
+    this.loader = loader;
+    this.loadedClasses = new LinkedHashMap<>();
+    this.classDescriptors = new LinkedHashMap<>();
+  }
+
+  /**
+   * Unit name.
+   *
+   * @return Unit name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Unit size in bytes.
+   *
+   * @return Unit size in bytes.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Number of classes loaded or scanned by the unit.
+   *
+   * @return Number of classes.
+   */
+  public int getClassCount() {
+    return classDescriptors.size();
+  }
+
+  /**
+   * Time spent loading the unit.
+   *
+   * @return Load time in milliseconds.
+   */
+  public long getLoadTime() {
+    return loadTime;
+  }
+
+  /**
+   * Load the unit and measure the time spent.
+   */
+  void load() {
+    long start = System.nanoTime();
+    loader.accept(this);
+    loadTime = (System.nanoTime() - start) / 1000000;
+  }
+
+  /**
+   * Record a loaded class.
+   *
+   * @param loadedClass Loaded class.
+   * @param classDescriptor Class descriptor.
+   */
+  void addClass(Class<?> loadedClass, ClassDescriptor classDescriptor) {
+    loadedClasses.put(classDescriptor.getName(), loadedClass);
+    classDescriptors.put(classDescriptor.getName(), classDescriptor);
+  }
+
+  /**
+   * Record a scanned class.
+   *
+   * @param classDescriptor Class descriptor.
+   */
+  void addClass(ClassDescriptor classDescriptor) {
+    classDescriptors.put(classDescriptor.getName(), classDescriptor);
+  }
+
+  /**
+   * Loaded classes, in entry order.
+   *
+   * @return Loaded classes by name.
+   */
+  Map<String, Class<?>> getLoadedClasses() {
+    return loadedClasses;
+  }
+
+  /**
+   * Class descriptors, in entry order.
+   *
+   * @return Class descriptors by name.
+   */
+  Map<String, ClassDescriptor> getClassDescriptors() {
+    return classDescriptors;
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.AnnotationDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ParameterDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Metadata of a class computed once per run: annotations and public methods, including the ones inherited from the supertypes, and public methods per annotation type.
+ *
+ * <p>
+ * Annotations are inherited per type: a class or method declaration carrying no annotation of a type inherits it from the first supertype declaration carrying one, in the order of
+ * TypeHierarchy.getSupertypes. Parameter annotations are inherited the same way, per parameter. Instances are immutable and shared by every analyzer.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ClassMetadata {
+
+  private final ClassDescriptor descriptor;
+  private final Map<String, AnnotationDescriptor> annotations;
+  private final List<MethodDescriptor> publicMethods;
+  private final Map<String, List<MethodDescriptor>> annotatedMethods;
+
+  /**
+   * ClassMetadata constructor.
+   *
+   * @param descriptor Class descriptor.
+   * @param supertypes Descriptors of all the supertypes, closest first.
+   */
+  public ClassMetadata(ClassDescriptor descriptor, List<ClassDescriptor> supertypes) {
+    this.descriptor = descriptor;
+
+    Map<String, AnnotationDescriptor> classAnnotations = new LinkedHashMap<>(descriptor.getAnnotations());
+    Map<String, MethodDescriptor> methods = new LinkedHashMap<>();
+    addPublicMethods(descriptor, methods);
+    for (ClassDescriptor supertype : supertypes) {
+      inherit(classAnnotations, supertype.getAnnotations());
+      addPublicMethods(supertype, methods);
+    }
+    this.annotations = Collections.unmodifiableMap(classAnnotations);
+    this.publicMethods = Collections.unmodifiableList(new ArrayList<>(methods.values()));
+
+    Map<String, List<MethodDescriptor>> methodsPerAnnotation = new LinkedHashMap<>();
+    for (MethodDescriptor method : this.publicMethods) {
+      for (String annotationType : method.getAnnotations().keySet()) {
+        methodsPerAnnotation.computeIfAbsent(annotationType, key -> new ArrayList<>()).add(method);
+      }
+    }
+    for (Map.Entry<String, List<MethodDescriptor>> entry : methodsPerAnnotation.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+    this.annotatedMethods = Collections.unmodifiableMap(methodsPerAnnotation);
+  }
+
+  /**
+   * Class descriptor.
+   *
+   * @return Class descriptor.
+   */
+  public ClassDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * Class annotations, including the ones inherited from the supertypes.
+   *
+   * @return Read-only annotations per type name.
+   */
+  public Map<String, AnnotationDescriptor> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * Class annotation, possibly inherited from a supertype.
+   *
+   * @param type Annotation type name.
+   * @return Annotation or null if not present.
+   */
+  public AnnotationDescriptor getAnnotation(String type) {
+    return annotations.get(type);
+  }
+
+  /**
+   * Public methods, including the inherited ones, like Class.getMethods(). Methods of java.lang.Object are left out.
+   *
+   * @return Read-only public methods, overriding methods first, with their inherited annotations.
+   */
+  public List<MethodDescriptor> getPublicMethods() {
+    return publicMethods;
+  }
+
+  /**
+   * Annotation types carried by at least one public method.
+   *
+   * @return Read-only annotation type names.
+   */
+  public Set<String> getMethodAnnotationTypes() {
+    return annotatedMethods.keySet();
+  }
+
+  /**
+   * Public methods carrying an annotation.
+   *
+   * @param annotationType Annotation type name.
+   * @return Read-only public methods carrying the annotation, empty if none.
+   */
+  public List<MethodDescriptor> getAnnotatedMethods(String annotationType) {
+    List<MethodDescriptor> result = annotatedMethods.get(annotationType);
+    return (result == null) ? Collections.<MethodDescriptor>emptyList() : result;
+  }
+
+  /**
+   * Add the public methods of a type, or merge the annotations of the methods already added that it declares as well.
+   *
+   * @param type Class or supertype descriptor.
+   * @param methods Public methods per signature.
+   */
+  private static void addPublicMethods(ClassDescriptor type, Map<String, MethodDescriptor> methods) {
+    for (MethodDescriptor method : type.getMethods()) {
+      if (method.isPublic()) {
+        MethodDescriptor overriding = methods.get(method.getSignature());
+        methods.put(method.getSignature(), (overriding == null) ? method : merge(overriding, method));
+      }
+    }
+  }
+
+  /**
+   * Merge the annotations an overridden method declaration passes on to the overriding one.
+   *
+   * @param overriding Overriding method.
+   * @param overridden Overridden method.
+   * @return Overriding method with the inherited annotations, or the overriding method itself if nothing is inherited.
+   */
+  private static MethodDescriptor merge(MethodDescriptor overriding, MethodDescriptor overridden) {
+    Map<String, AnnotationDescriptor> methodAnnotations = new LinkedHashMap<>(overriding.getAnnotations());
+    boolean inherited = inherit(methodAnnotations, overridden.getAnnotations());
+
+    List<ParameterDescriptor> parameters = new ArrayList<>(overriding.getParameters());
+    if (parameters.size() == overridden.getParameters().size()) {
+      for (int i = 0; i < parameters.size(); ++i) {
+        ParameterDescriptor parameter = parameters.get(i);
+        Map<String, AnnotationDescriptor> parameterAnnotations = new LinkedHashMap<>(parameter.getAnnotations());
+        if (inherit(parameterAnnotations, overridden.getParameters().get(i).getAnnotations())) {
+          parameters.set(i, new ParameterDescriptor(parameter.getName(), parameter.getType(), parameterAnnotations));
+          inherited = true;
+        }
+      }
+    }
+    if (!inherited) {
+      return overriding;
+    }
+    return new MethodDescriptor(overriding.getDeclaringClass(), overriding.getName(), overriding.getDescriptor(), overriding.getAccess(), methodAnnotations, parameters);
+  }
+
+  /**
+   * Add the annotations of a supertype declaration whose type is not present yet.
+   *
+   * @param annotations Annotations filled.
+   * @param inheritedAnnotations Annotations of the supertype declaration.
+   * @return True if an annotation was added.
+   */
+  private static boolean inherit(Map<String, AnnotationDescriptor> annotations, Map<String, AnnotationDescriptor> inheritedAnnotations) {
+    boolean result = false;
+    for (Map.Entry<String, AnnotationDescriptor> entry : inheritedAnnotations.entrySet()) {
+      if (!annotations.containsKey(entry.getKey())) {
+        annotations.put(entry.getKey(), entry.getValue());
+        result = true;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return descriptor.getName();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-run cache of class metadata, shared by the analyzers and safe for concurrent use.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ClassMetadataCache {
+
+  private final Map<String, ClassMetadata> metadata;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+
+  /**
+   * Default constructor.
+   */
+  public ClassMetadataCache() {
+    this.metadata = new ConcurrentHashMap<>();
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+  }
+
+  /**
+   * Get the metadata of a class, computing them on first access.
+   *
+   * <p>
+   * The computation may run outside of any lock, if two workers miss the same class at once the first stored metadata wins.
+   * </p>
+   *
+   * @param className Class name.
+   * @param compute Metadata computation.
+   * @return Class metadata.
+   */
+  public ClassMetadata get(String className, Function<String, ClassMetadata> compute) {
+    ClassMetadata result = metadata.get(className);
+    if (result != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+      result = compute.apply(className);
+      ClassMetadata previous = metadata.putIfAbsent(className, result);
+      if (previous != null) {
+        result = previous;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Number of classes cached.
+   *
+   * @return Number of classes cached.
+   */
+  public int size() {
+    return metadata.size();
+  }
+
+  /**
+   * Number of lookups served from the cache.
+   *
+   * @return Number of hits.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Number of lookups computing the metadata.
+   *
+   * @return Number of misses.
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  @Override
+  public String toString() {
+    long total = getHits() + getMisses();
+    return String.format("%d classes, %d hits, %d misses (hit ratio %.1f%%)", size(), getHits(), getMisses(), (total == 0) ? 0.0 : 100.0 * getHits() / total);
+  }
+}
@@ -16,15 +16,36 @@
 
 package com.michelin.cert.javaentrypointsenumerator.classloader;
 
+import com.michelin.cert.javaentrypointsenumerator.archive.WarArchive;
+import com.michelin.cert.javaentrypointsenumerator.archive.ZipIndex;
+import com.michelin.cert.javaentrypointsenumerator.archive.ZipIndexEntry;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassFileReader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ReflectionDescriptorFactory;
+import com.michelin.cert.javaentrypointsenumerator.classloader.index.DescriptorIndexCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
@@ -35,10 +56,23 @@ import java.util.logging.Logger;
  *
  * @author Maxime ESCOURBIAC
  */
-public class Classloader {
+public class Classloader implements Closeable {
 
-  private final URLClassLoader classLoader;
-  private final Map<String, Class> loadedClasses;
+  private final ClassLoader classLoader;
+  private final WarArchive archive;
+  private final Map<String, Class<?>> loadedClasses;
+  private final Map<String, ClassDescriptor> classDescriptors;
+  private final Map<String, ClassDescriptor> lookedUpDescriptors;
+  private ScanningMode scanningMode;
+  private ConstantPoolFilter prefilter;
+  private int loadingThreads;
+  private DescriptorIndexCache indexCache;
+  private final File classesJar;
+  private final ClassLoadingReport loadingReport;
+  private final ClassMetadataCache metadataCache;
+  private final MetaAnnotationGraph metaAnnotationGraph;
+  private final TypeHierarchy typeHierarchy;
+  private final Map<File, List<ClassDescriptor>> indexedJars;
 
   /**
    * Classloader constructor. 
@@ -48,6 +82,17 @@ public class Classloader {
    */
   public Classloader(File explodedWarFolder) throws IOException {
     this.loadedClasses = new LinkedHashMap<>();
+    this.classDescriptors = new LinkedHashMap<>();
+    this.lookedUpDescriptors = new ConcurrentHashMap<>();
+    this.scanningMode = ScanningMode.REFLECTION;
+    this.loadingThreads = 1;
+    this.loadingReport = new ClassLoadingReport();
+    this.metadataCache = new ClassMetadataCache();
+    this.metaAnnotationGraph = new MetaAnnotationGraph(this);
+    this.typeHierarchy = new TypeHierarchy(this);
+    this.indexedJars = new ConcurrentHashMap<>();
+    this.archive = null;
+    this.classesJar = new File(explodedWarFolder.getCanonicalPath(), "classes.jar");
 
     //Build classloader.
     File libFolder = new File(explodedWarFolder.getCanonicalPath() + File.separator + "jars");
@@ -60,14 +105,156 @@ public class Classloader {
     classLoader = URLClassLoader.newInstance(urls);
   }
 
+  /**
+   * Classloader constructor, classes are read straight from the war archive.
+   *
+   * @param archive War archive.
+   */
+  public Classloader(WarArchive archive) {
+    this.loadedClasses = new LinkedHashMap<>();
+    this.classDescriptors = new LinkedHashMap<>();
+    this.lookedUpDescriptors = new ConcurrentHashMap<>();
+    this.scanningMode = ScanningMode.REFLECTION;
+    this.loadingThreads = 1;
+    this.loadingReport = new ClassLoadingReport();
+    this.metadataCache = new ClassMetadataCache();
+    this.metaAnnotationGraph = new MetaAnnotationGraph(this);
+    this.typeHierarchy = new TypeHierarchy(this);
+    this.indexedJars = new ConcurrentHashMap<>();
+    this.archive = archive;
+    this.classesJar = null;
+    this.classLoader = new WarClassLoader(archive, ClassLoader.getSystemClassLoader());
+  }
+
+  /**
+   * War archive read in place.
+   *
+   * @return War archive or null if the war was exploded.
+   */
+  public WarArchive getArchive() {
+    return archive;
+  }
+
+  /**
+   * Class scanning mode.
+   *
+   * @return Class scanning mode.
+   */
+  public ScanningMode getScanningMode() {
+    return scanningMode;
+  }
+
+  /**
+   * Class scanning mode, to set before loading classes.
+   *
+   * @param scanningMode Class scanning mode.
+   */
+  public void setScanningMode(ScanningMode scanningMode) {
+    this.scanningMode = scanningMode;
+  }
+
+  /**
+   * Constant pool prefilter.
+   *
+   * @return Constant pool prefilter or null if every class is loaded.
+   */
+  public ConstantPoolFilter getPrefilter() {
+    return prefilter;
+  }
+
+  /**
+   * Constant pool prefilter, to set before loading classes. Rejected classes are neither loaded nor scanned.
+   *
+   * @param prefilter Constant pool prefilter or null to load every class.
+   */
+  public void setPrefilter(ConstantPoolFilter prefilter) {
+    this.prefilter = prefilter;
+  }
+
+  /**
+   * Number of workers loading classes, one jar at a time each.
+   *
+   * @return Number of loading workers.
+   */
+  public int getLoadingThreads() {
+    return loadingThreads;
+  }
+
+  /**
+   * Number of workers loading classes, to set before loading classes.
+   *
+   * @param loadingThreads Number of loading workers.
+   */
+  public void setLoadingThreads(int loadingThreads) {
+    this.loadingThreads = Math.max(1, loadingThreads);
+  }
+
+  /**
+   * Persistent jar index cache.
+   *
+   * @return Jar index cache or null if libraries are always loaded.
+   */
+  public DescriptorIndexCache getIndexCache() {
+    return indexCache;
+  }
+
+  /**
+   * Persistent jar index cache, to set before loading classes.
+   *
+   * <p>
+   * Libraries are then described from their index, built from their class files on the first run, and their classes are never loaded. The war own classes are always loaded.
+   * </p>
+   *
+   * @param indexCache Jar index cache or null to always load libraries.
+   */
+  public void setIndexCache(DescriptorIndexCache indexCache) {
+    this.indexCache = indexCache;
+  }
+
+  /**
+   * Class loading report, classes and load time per jar.
+   *
+   * @return Class loading report.
+   */
+  public ClassLoadingReport getLoadingReport() {
+    return loadingReport;
+  }
+
+  /**
+   * Class metadata cache shared by the analyzers.
+   *
+   * @return Class metadata cache.
+   */
+  public ClassMetadataCache getMetadataCache() {
+    return metadataCache;
+  }
+
+  /**
+   * Meta-annotation graph shared by the analyzers.
+   *
+   * @return Meta-annotation graph.
+   */
+  public MetaAnnotationGraph getMetaAnnotationGraph() {
+    return metaAnnotationGraph;
+  }
+
+  /**
+   * Supertype graph shared by the analyzers.
+   *
+   * @return Type hierarchy.
+   */
+  public TypeHierarchy getTypeHierarchy() {
+    return typeHierarchy;
+  }
+
   /**
    * Get class from loaded classes.
    *
    * @param className Class name.
    * @return Loaded class instances.
    */
-  public Class getClass(String className) {
-    Class loadedClass = null;
+  public Class<?> getClass(String className) {
+    Class<?> loadedClass = null;
     //Get class from loaded classes.
     if (loadedClasses.containsKey(className)) {
       loadedClass = loadedClasses.get(className);
@@ -87,50 +274,521 @@ public class Classloader {
    *
    * @return Loaded classes.
    */
-  public List<Class> getLoadedClasses() {
+  public List<Class<?>> getLoadedClasses() {
     return new ArrayList<>(loadedClasses.values());
   }
 
+  /**
+   * Descriptors of the loaded or scanned classes.
+   *
+   * @return Read-only view of the class descriptors, in loading order.
+   */
+  public Collection<ClassDescriptor> getClassDescriptors() {
+    return Collections.unmodifiableCollection(classDescriptors.values());
+  }
+
+  /**
+   * Get a class descriptor, from the loaded or scanned classes or from the class loader.
+   *
+   * @param className Class name.
+   * @return Class descriptor or null if the class is not found.
+   */
+  public ClassDescriptor getClassDescriptor(String className) {
+    ClassDescriptor result = classDescriptors.get(className);
+    if (result == null) {
+      result = lookedUpDescriptors.get(className);
+    }
+    if (result == null) {
+      if (scanningMode == ScanningMode.BYTECODE) {
+        result = readClassDescriptor(className);
+      } else {
+        Class<?> loadedClass = getClass(className);
+        result = (loadedClass == null) ? null : ReflectionDescriptorFactory.describe(loadedClass);
+      }
+      if (result != null) {
+        lookedUpDescriptors.put(className, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Metadata of a class, computed once per run and shared by the analyzers.
+   *
+   * @param classDescriptor Class descriptor.
+   * @return Class metadata.
+   */
+  public ClassMetadata getClassMetadata(ClassDescriptor classDescriptor) {
+    return metadataCache.get(classDescriptor.getName(), className -> new ClassMetadata(classDescriptor, typeHierarchy.getSupertypeDescriptors(classDescriptor)));
+  }
+
+  /**
+   * Public methods of a class, including the inherited ones, like Class.getMethods().
+   *
+   * <p>
+   * Methods of java.lang.Object are left out.
+   * </p>
+   *
+   * @param classDescriptor Class descriptor.
+   * @return Read-only public methods, overriding methods first, with their inherited annotations.
+   */
+  public List<MethodDescriptor> getPublicMethods(ClassDescriptor classDescriptor) {
+    return getClassMetadata(classDescriptor).getPublicMethods();
+  }
+
+  /**
+   * Jars already described from their class files, used instead of reading them again when they are loaded.
+   *
+   * @param jars Class descriptors per jar file, in entry order.
+   */
+  public void addIndexedJars(Map<File, List<ClassDescriptor>> jars) {
+    for (Map.Entry<File, List<ClassDescriptor>> jar : jars.entrySet()) {
+      try {
+        indexedJars.put(jar.getKey().getCanonicalFile(), jar.getValue());
+      } catch (IOException ex) {
+        Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Indexed jar ignored : {0}", jar.getKey().getAbsolutePath());
+      }
+    }
+  }
+
+  /**
+   * Release the jar files held by the class loader of an exploded war, or the temporary files of a war read in place. Classes can not be loaded afterwards.
+   *
+   * @throws IOException If a jar file can not be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    if (classLoader instanceof URLClassLoader) {
+      ((URLClassLoader) classLoader).close();
+    }
+    if (archive != null) {
+      archive.close();
+    }
+  }
+
   /**
    * Load class from JarFile.
    *
    * @param file File to load.
    */
   public void loadClassesFromJar(File file) {
-    try {
+    loadClassesFromJars(Collections.singletonList(file));
+  }
+
+  /**
+   * Load classes from several jar files, one unit of work per jar.
+   *
+   * @param files Files to load, in class path order.
+   */
+  public void loadClassesFromJars(List<File> files) {
+    List<ClassLoadingUnit> units = new ArrayList<>();
+    for (File file : files) {
       if (file.exists()) {
-        JarFile jarFile = new JarFile(file);
-        Enumeration<JarEntry> entries = jarFile.entries();
-
-        while (entries.hasMoreElements()) {
-          JarEntry je = entries.nextElement();
-          if (je.isDirectory() || je.getName().endsWith("_jsp.class") || !je.getName().endsWith(".class")) {
-            //Do not load compile jsp class.
-            continue;
+        units.add(new ClassLoadingUnit(file.getName(), file.length(), unit -> loadJar(file, unit)));
+      } else {
+        Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, "Jar file not found : {0}", file.getAbsolutePath());
+      }
+    }
+    loadUnits(units);
+  }
+
+  /**
+   * Load classes of WEB-INF/classes from the war archive.
+   */
+  public void loadClassesFromArchive() {
+    loadClassesFromArchive(Collections.<String>emptyList());
+  }
+
+  /**
+   * Load classes of WEB-INF/classes and of WEB-INF/lib libraries from the war archive, one unit of work per part. BOOT-INF/classes and BOOT-INF/lib are read for a Spring Boot jar.
+   *
+   * @param libNames Library file names.
+   */
+  public void loadClassesFromArchive(List<String> libNames) {
+    List<ClassLoadingUnit> units = new ArrayList<>();
+    String classesPrefix = archive.getLayout().getClassesPrefix();
+    units.add(createArchiveUnit(classesPrefix.substring(0, classesPrefix.length() - 1), archive.getClassesEntries(), classesPrefix.length()));
+    for (String libName : libNames) {
+      ZipIndex lib = archive.getLib(libName);
+      if (lib != null) {
+        units.add(createLibUnit(libName, lib));
+      } else {
+        Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, "Library not found in archive : {0}", libName);
+      }
+    }
+    loadUnits(units);
+  }
+
+  /**
+   * Load classes of a WEB-INF/lib library from the war archive.
+   *
+   * @param libName Library file name.
+   */
+  public void loadClassesFromArchiveLib(String libName) {
+    ZipIndex lib = archive.getLib(libName);
+    if (lib != null) {
+      loadUnits(Collections.singletonList(createLibUnit(libName, lib)));
+    } else {
+      Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, "Library not found in archive : {0}", libName);
+    }
+  }
+
+  /**
+   * Create a unit of work loading archive entries.
+   *
+   * @param name Unit name.
+   * @param entries Archive entries.
+   * @param prefixLength Length of the prefix to remove from entry names to get class path names.
+   * @return Unit of work.
+   */
+  private ClassLoadingUnit createArchiveUnit(String name, Collection<ZipIndexEntry> entries, int prefixLength) {
+    long size = 0;
+    for (ZipIndexEntry entry : entries) {
+      size += entry.getSize();
+    }
+    return new ClassLoadingUnit(name, size, unit -> {
+      for (ZipIndexEntry entry : entries) {
+        if (!entry.isDirectory()) {
+          loadClassEntry(entry.getName().substring(prefixLength), entry, unit);
+        }
+      }
+    });
+  }
+
+  /**
+   * Create a unit of work loading a library of the war archive, from the index cache when enabled.
+   *
+   * @param libName Library file name.
+   * @param lib Library index.
+   * @return Unit of work.
+   */
+  private ClassLoadingUnit createLibUnit(String libName, ZipIndex lib) {
+    if (indexCache == null) {
+      return createArchiveUnit(libName, lib.getEntries(), 0);
+    }
+    return new ClassLoadingUnit(libName, lib.getContent().remaining(), unit -> {
+      String sha256 = DescriptorIndexCache.hash(lib.getContent());
+      List<ClassDescriptor> indexedClasses = indexCache.get(sha256);
+      if (indexedClasses == null) {
+        indexedClasses = indexEntries(lib.getEntries());
+        indexCache.put(sha256, indexedClasses);
+      }
+      addIndexedClasses(indexedClasses, unit);
+    });
+  }
+
+  /**
+   * Describe every class of a jar file from its class files, through the index cache when one is given.
+   *
+   * @param file Jar file.
+   * @param indexCache Index cache or null to always read the jar.
+   * @return Class descriptors, in entry order.
+   * @throws IOException If the jar can not be read.
+   */
+  public static List<ClassDescriptor> describeJar(File file, DescriptorIndexCache indexCache) throws IOException {
+    if (indexCache == null) {
+      return indexJar(file);
+    }
+    String sha256 = DescriptorIndexCache.hash(file);
+    List<ClassDescriptor> result = indexCache.get(sha256);
+    if (result == null) {
+      result = indexJar(file);
+      indexCache.put(sha256, result);
+    }
+    return result;
+  }
+
+  /**
+   * Describe every class of a jar file from its class files.
+   *
+   * @param file Jar file.
+   * @return Class descriptors, in entry order.
+   * @throws IOException If the jar can not be read.
+   */
+  private static List<ClassDescriptor> indexJar(File file) throws IOException {
+    List<ClassDescriptor> result = new ArrayList<>();
+    try ( JarFile jarFile = new JarFile(file)) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        JarEntry je = entries.nextElement();
+        if (!je.isDirectory() && isClassEntry(je.getName())) {
+          try ( InputStream inputStream = jarFile.getInputStream(je)) {
+            result.add(ClassFileReader.read(readAllBytes(inputStream)));
+          } catch (IOException ex) {
+            Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class not indexed : {0}", je.getName());
           }
+        }
+      }
+    }
+    return result;
+  }
 
-          // -6 because of .class
-          String className = je.getName().substring(0, je.getName().length() - 6);
-          className = className.replace('/', '.');
-          try {
-            Class<?> loadedClass = this.classLoader.loadClass(className);
-            if (loadedClass != null) {
-              loadedClasses.put(className, loadedClass);
-            } else {
-              Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class was null : {0}", className);
-            }
-          } catch (ClassNotFoundException | NoClassDefFoundError ex) {
-            Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class not found : {0}", className);
-          } catch (Throwable ex) {
-            Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, "Class not loaded : {0}", className);
+  /**
+   * Describe every class of archive entries from their class files.
+   *
+   * @param entries Archive entries.
+   * @return Class descriptors, in entry order.
+   */
+  private List<ClassDescriptor> indexEntries(Collection<ZipIndexEntry> entries) {
+    List<ClassDescriptor> result = new ArrayList<>();
+    for (ZipIndexEntry entry : entries) {
+      if (!entry.isDirectory() && isClassEntry(entry.getName())) {
+        try {
+          result.add(ClassFileReader.read(entry.getBytes()));
+        } catch (IOException ex) {
+          Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class not indexed : {0}", entry.getName());
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Add indexed classes kept by the prefilter to a unit of work.
+   *
+   * @param indexedClasses Indexed classes.
+   * @param unit Unit of work filled.
+   */
+  private void addIndexedClasses(List<ClassDescriptor> indexedClasses, ClassLoadingUnit unit) {
+    for (ClassDescriptor indexedClass : indexedClasses) {
+      if (prefilter == null || prefilter.accepts(indexedClass)) {
+        unit.addClass(indexedClass);
+      }
+    }
+  }
+
+  /**
+   * Load units of work, in parallel if several workers are configured, then merge their classes in unit order.
+   *
+   * @param units Units of work.
+   */
+  private void loadUnits(List<ClassLoadingUnit> units) {
+    long start = System.nanoTime();
+    int workers = Math.min(loadingThreads, units.size());
+    if (workers > 1) {
+      loadUnitsParallel(units, workers);
+    } else {
+      for (ClassLoadingUnit unit : units) {
+        unit.load();
+      }
+    }
+    for (ClassLoadingUnit unit : units) {
+      loadedClasses.putAll(unit.getLoadedClasses());
+      classDescriptors.putAll(unit.getClassDescriptors());
+    }
+    loadingReport.addPass(units, Math.max(workers, 1), (System.nanoTime() - start) / 1000000);
+  }
+
+  /**
+   * Load units of work with a pool of workers sharing the parallel capable class loader.
+   *
+   * @param units Units of work.
+   * @param workers Number of workers.
+   */
+  private void loadUnitsParallel(List<ClassLoadingUnit> units, int workers) {
+    //Biggest units first to balance the workers.
+    List<ClassLoadingUnit> orderedUnits = new ArrayList<>(units);
+    orderedUnits.sort(Comparator.comparingLong(ClassLoadingUnit::getSize).reversed());
+    AtomicInteger nextUnit = new AtomicInteger();
+
+    ExecutorService executor = Executors.newFixedThreadPool(workers);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < workers; ++i) {
+        futures.add(executor.submit(() -> {
+          int index;
+          while ((index = nextUnit.getAndIncrement()) < orderedUnits.size()) {
+            orderedUnits.get(index).load();
+          }
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, "Class loading interrupted");
+    } catch (ExecutionException ex) {
+      Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, "Class loading worker failed", ex.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Load the classes of a jar file.
+   *
+   * @param file Jar file.
+   * @param unit Unit of work filled.
+   */
+  private void loadJar(File file, ClassLoadingUnit unit) {
+    try {
+      List<ClassDescriptor> indexedClasses = indexedJars.remove(file.getCanonicalFile());
+      if (indexedClasses == null && indexCache != null && !file.getCanonicalFile().equals(classesJar)) {
+        indexedClasses = describeJar(file, indexCache);
+      }
+      if (indexedClasses != null) {
+        addIndexedClasses(indexedClasses, unit);
+        return;
+      }
+    } catch (IOException ex) {
+      Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Jar not indexed, loaded instead : {0}", file.getAbsolutePath());
+    }
+    try ( JarFile jarFile = new JarFile(file)) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        JarEntry je = entries.nextElement();
+        if (je.isDirectory() || !isClassEntry(je.getName())) {
+          continue;
+        }
+        if (isReadingBytes()) {
+          try ( InputStream inputStream = jarFile.getInputStream(je)) {
+            processClass(je.getName(), readAllBytes(inputStream), unit);
           }
+        } else {
+          loadClass(je.getName(), unit);
         }
-      } else {
-        Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, "Jar file not found : {0}", file.getAbsolutePath());
       }
     } catch (IOException ex) {
       Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, null, ex);
     }
   }
 
+  /**
+   * Load or scan the class stored in an archive entry.
+   *
+   * @param entryName Class path entry name, for instance com/example/Example.class.
+   * @param entry Archive entry.
+   * @param unit Unit of work filled.
+   */
+  private void loadClassEntry(String entryName, ZipIndexEntry entry, ClassLoadingUnit unit) {
+    if (!isClassEntry(entryName)) {
+      return;
+    }
+    if (isReadingBytes()) {
+      try {
+        processClass(entryName, entry.getBytes(), unit);
+      } catch (IOException ex) {
+        Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class not read : {0}", entryName);
+      }
+    } else {
+      loadClass(entryName, unit);
+    }
+  }
+
+  /**
+   * Test if class bytes are needed before loading, to scan or to prefilter classes.
+   *
+   * @return True if class bytes are read.
+   */
+  private boolean isReadingBytes() {
+    return scanningMode == ScanningMode.BYTECODE || prefilter != null;
+  }
+
+  /**
+   * Prefilter then load or scan a class from its class file bytes.
+   *
+   * @param entryName Class path entry name, for instance com/example/Example.class.
+   * @param bytes Class file bytes.
+   * @param unit Unit of work filled.
+   */
+  private void processClass(String entryName, byte[] bytes, ClassLoadingUnit unit) {
+    if (prefilter != null && !prefilter.accepts(bytes)) {
+      return;
+    }
+    if (scanningMode == ScanningMode.BYTECODE) {
+      scanClass(entryName, bytes, unit);
+    } else {
+      loadClass(entryName, unit);
+    }
+  }
+
+  /**
+   * Test if a class path entry is a class to load.
+   *
+   * @param entryName Class path entry name.
+   * @return True if the entry is a class to load.
+   */
+  private static boolean isClassEntry(String entryName) {
+    //Do not load compile jsp class.
+    return entryName.endsWith(".class") && !entryName.endsWith("_jsp.class");
+  }
+
+  /**
+   * Load the class stored in a class path entry.
+   *
+   * @param entryName Class path entry name, for instance com/example/Example.class.
+   * @param unit Unit of work filled.
+   */
+  private void loadClass(String entryName, ClassLoadingUnit unit) {
+    // -6 because of .class
+    String className = entryName.substring(0, entryName.length() - 6);
+    className = className.replace('/', '.');
+    try {
+      Class<?> loadedClass = this.classLoader.loadClass(className);
+      if (loadedClass != null) {
+        unit.addClass(loadedClass, ReflectionDescriptorFactory.describe(loadedClass));
+      } else {
+        Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class was null : {0}", className);
+      }
+    } catch (ClassNotFoundException | NoClassDefFoundError ex) {
+      Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class not found : {0}", className);
+    } catch (Throwable ex) {
+      Logger.getLogger(Classloader.class.getName()).log(Level.SEVERE, "Class not loaded : {0}", className);
+    }
+  }
+
+  /**
+   * Describe a class from its class file bytes, without loading it.
+   *
+   * @param entryName Class path entry name, for instance com/example/Example.class.
+   * @param bytes Class file bytes.
+   * @param unit Unit of work filled.
+   */
+  private void scanClass(String entryName, byte[] bytes, ClassLoadingUnit unit) {
+    try {
+      unit.addClass(ClassFileReader.read(bytes));
+    } catch (IOException ex) {
+      Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class not scanned : {0}", entryName);
+    }
+  }
+
+  /**
+   * Describe a class of the class loader from its class file bytes.
+   *
+   * @param className Class name.
+   * @return Class descriptor or null if the class is not found.
+   */
+  private ClassDescriptor readClassDescriptor(String className) {
+    ClassDescriptor result = null;
+    try ( InputStream inputStream = classLoader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+      if (inputStream != null) {
+        result = ClassFileReader.read(readAllBytes(inputStream));
+      } else {
+        Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class not found in classloader: {0}", className);
+      }
+    } catch (IOException ex) {
+      Logger.getLogger(Classloader.class.getName()).log(Level.WARNING, "Class not scanned : {0}", className);
+    }
+    return result;
+  }
+
+  /**
+   * Read a whole stream.
+   *
+   * @param inputStream Stream to read.
+   * @return Stream content.
+   * @throws IOException IOException.
+   */
+  private static byte[] readAllBytes(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      outputStream.write(buffer, 0, read);
+    }
+    return outputStream.toByteArray();
+  }
+
 }
@@ -0,0 +1,524 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class prefilter working on the raw constant pool.
+ *
+ * <p>
+ * A class can only carry an annotation if the annotation descriptor, for instance Ljavax/ws/rs/Path;, is one of its Utf8 constants. The constant pool is walked without decoding any string, classes
+ * referencing none of the descriptors are rejected before being loaded or parsed.
+ * </p>
+ *
+ * <p>
+ * With a type hierarchy, rejected classes are accepted anyway if one of their supertypes carries one of the annotations, to find the annotations they inherit. Supertypes are checked once each.
+ * </p>
+ *
+ * <p>
+ * With a meta-annotation graph, rejected classes are accepted anyway if one of their type descriptors names a composed annotation, meta-annotated with one of the annotations, such as an in-house
+ * annotation carrying RestController. Referenced types are checked once each, a type carrying one of the annotations only adds false positives.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ConstantPoolFilter {
+
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final byte[] JAVA_PACKAGE = "java/".getBytes(StandardCharsets.UTF_8);
+
+  private final Set<String> annotationTypes;
+  private final byte[][] descriptors;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong inheritedHits;
+  private final AtomicLong composedHits;
+  private final Map<String, Boolean> annotatedSupertypes;
+  private final Map<String, Boolean> composedAnnotations;
+  private TypeHierarchy typeHierarchy;
+  private MetaAnnotationGraph metaAnnotationGraph;
+
+  /**
+   * ConstantPoolFilter constructor.
+   *
+   * @param annotationTypes Annotation class names, for instance javax.ws.rs.Path.
+   */
+  public ConstantPoolFilter(Collection<String> annotationTypes) {
+    this.annotationTypes = Collections.unmodifiableSet(new TreeSet<>(annotationTypes));
+    List<byte[]> descriptorList = new ArrayList<>();
+    for (String annotationType : this.annotationTypes) {
+      descriptorList.add(("L" + annotationType.replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8));
+    }
+    this.descriptors = descriptorList.toArray(new byte[descriptorList.size()][]);
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.inheritedHits = new AtomicLong();
+    this.composedHits = new AtomicLong();
+    this.annotatedSupertypes = new ConcurrentHashMap<>();
+    this.composedAnnotations = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Annotation class names looked for.
+   *
+   * @return Annotation class names.
+   */
+  public Set<String> getAnnotationTypes() {
+    return annotationTypes;
+  }
+
+  /**
+   * Type hierarchy resolving the supertypes of the rejected classes.
+   *
+   * @return Type hierarchy or null if supertypes are not checked.
+   */
+  public TypeHierarchy getTypeHierarchy() {
+    return typeHierarchy;
+  }
+
+  /**
+   * Type hierarchy resolving the supertypes of the rejected classes, to set before loading classes.
+   *
+   * @param typeHierarchy Type hierarchy or null to leave supertypes out.
+   */
+  public void setTypeHierarchy(TypeHierarchy typeHierarchy) {
+    this.typeHierarchy = typeHierarchy;
+  }
+
+  /**
+   * Meta-annotation graph resolving the composed annotations.
+   *
+   * @return Meta-annotation graph or null if only the annotations themselves are looked for.
+   */
+  public MetaAnnotationGraph getMetaAnnotationGraph() {
+    return metaAnnotationGraph;
+  }
+
+  /**
+   * Meta-annotation graph resolving the composed annotations, to set before loading classes.
+   *
+   * @param metaAnnotationGraph Meta-annotation graph or null to leave composed annotations out.
+   */
+  public void setMetaAnnotationGraph(MetaAnnotationGraph metaAnnotationGraph) {
+    this.metaAnnotationGraph = metaAnnotationGraph;
+  }
+
+  /**
+   * Test if a class file references one of the annotation descriptors.
+   *
+   * <p>
+   * Class files that can not be walked are accepted, to leave the error to the loader.
+   * </p>
+   *
+   * @param bytes Class file bytes.
+   * @return True if the class must be loaded.
+   */
+  public boolean accepts(byte[] bytes) {
+    boolean result;
+    try {
+      result = referencesDescriptor(bytes) || (metaAnnotationGraph != null && referencesComposedAnnotation(bytes))
+          || (typeHierarchy != null && inheritsAnnotation(getSupertypeNames(bytes)));
+    } catch (IndexOutOfBoundsException ex) {
+      result = true;
+    }
+    if (result) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+    return result;
+  }
+
+  /**
+   * Test if an already indexed class carries one of the annotations, on the class, its methods or their parameters.
+   *
+   * @param classDescriptor Class descriptor.
+   * @return True if the class must be kept.
+   */
+  public boolean accepts(ClassDescriptor classDescriptor) {
+    boolean result = carriesAnnotation(classDescriptor);
+    if (!result && typeHierarchy != null) {
+      List<String> supertypes = new ArrayList<>();
+      if (classDescriptor.getSuperName() != null) {
+        supertypes.add(classDescriptor.getSuperName());
+      }
+      supertypes.addAll(classDescriptor.getInterfaces());
+      result = inheritsAnnotation(supertypes);
+    }
+    if (result) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+    return result;
+  }
+
+  /**
+   * Number of classes accepted.
+   *
+   * @return Number of classes accepted.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Number of classes accepted only because one of their supertypes carries one of the annotations.
+   *
+   * @return Number of classes accepted through a supertype.
+   */
+  public long getInheritedHits() {
+    return inheritedHits.get();
+  }
+
+  /**
+   * Number of classes accepted only because they reference a composed annotation.
+   *
+   * @return Number of classes accepted through a composed annotation.
+   */
+  public long getComposedHits() {
+    return composedHits.get();
+  }
+
+  /**
+   * Number of classes rejected.
+   *
+   * @return Number of classes rejected.
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Walk the constant pool looking for one of the descriptors.
+   *
+   * @param bytes Class file bytes.
+   * @return True if one of the descriptors is found, or if the bytes are not a class file.
+   */
+  private boolean referencesDescriptor(byte[] bytes) {
+    if (getInt(bytes, 0) != MAGIC) {
+      return true;
+    }
+    int count = getUnsignedShort(bytes, 8);
+    int position = 10;
+    for (int i = 1; i < count; ++i) {
+      int tag = bytes[position] & 0xFF;
+      switch (tag) {
+        case 1:
+          //Utf8
+          int length = getUnsignedShort(bytes, position + 1);
+          if (matches(bytes, position + 3, length)) {
+            return true;
+          }
+          position += 3 + length;
+          break;
+        case 3:
+        case 4:
+          //Integer, Float
+          position += 5;
+          break;
+        case 5:
+        case 6:
+          //Long, Double, take two slots
+          position += 9;
+          ++i;
+          break;
+        case 7:
+        case 8:
+        case 16:
+        case 19:
+        case 20:
+          //Class, String, MethodType, Module, Package
+          position += 3;
+          break;
+        case 9:
+        case 10:
+        case 11:
+        case 12:
+        case 17:
+        case 18:
+          //Refs, NameAndType, Dynamic, InvokeDynamic
+          position += 5;
+          break;
+        case 15:
+          //MethodHandle
+          position += 4;
+          break;
+        default:
+          //Unknown constant, let the loader decide.
+          return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Walk the constant pool looking for the descriptor of a composed annotation.
+   *
+   * @param bytes Class file bytes.
+   * @return True if one of the type descriptors names a composed annotation.
+   */
+  private boolean referencesComposedAnnotation(byte[] bytes) {
+    int count = getUnsignedShort(bytes, 8);
+    int position = 10;
+    for (int i = 1; i < count; ++i) {
+      int tag = bytes[position] & 0xFF;
+      if (tag == 1) {
+        int length = getUnsignedShort(bytes, position + 1);
+        //Type descriptors only, JDK types carry none of the analyzed annotations.
+        if (length > 2 && bytes[position + 3] == 'L' && bytes[position + 2 + length] == ';' && !startsWith(bytes, position + 4, JAVA_PACKAGE)
+            && isComposedAnnotation(new String(bytes, position + 4, length - 2, StandardCharsets.UTF_8).replace('/', '.'))) {
+          composedHits.incrementAndGet();
+          return true;
+        }
+      } else if (tag == 5 || tag == 6) {
+        //Long, Double, take two slots
+        ++i;
+      }
+      position += getConstantSize(bytes, position);
+    }
+    return false;
+  }
+
+  /**
+   * Compare an Utf8 constant to the descriptors.
+   *
+   * @param bytes Class file bytes.
+   * @param offset Offset of the constant content.
+   * @param length Length of the constant content.
+   * @return True if the constant is one of the descriptors.
+   */
+  private boolean matches(byte[] bytes, int offset, int length) {
+    for (byte[] descriptor : descriptors) {
+      if (descriptor.length == length) {
+        int index = length - 1;
+        //Descriptors share their prefix, compare from the end.
+        while (index >= 0 && descriptor[index] == bytes[offset + index]) {
+          --index;
+        }
+        if (index < 0) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Test if a class carries one of the annotations, on the class, its methods or their parameters.
+   *
+   * @param classDescriptor Class descriptor.
+   * @return True if one of the annotations is found.
+   */
+  private boolean carriesAnnotation(ClassDescriptor classDescriptor) {
+    boolean result = referencesAnnotation(classDescriptor.getAnnotations().keySet());
+    for (int i = 0; !result && i < classDescriptor.getMethods().size(); ++i) {
+      MethodDescriptor method = classDescriptor.getMethods().get(i);
+      result = referencesAnnotation(method.getAnnotations().keySet());
+      for (int j = 0; !result && j < method.getParameters().size(); ++j) {
+        result = referencesAnnotation(method.getParameters().get(j).getAnnotations().keySet());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Test if one of the direct supertypes of a class, or one of their own supertypes, carries one of the annotations.
+   *
+   * @param supertypes Direct supertype names.
+   * @return True if an annotation is inherited.
+   */
+  private boolean inheritsAnnotation(List<String> supertypes) {
+    for (String supertype : supertypes) {
+      //JDK types carry none of the analyzed annotations.
+      if (!supertype.startsWith("java.") && annotatedSupertypes.computeIfAbsent(supertype, this::isAnnotatedSupertype)) {
+        inheritedHits.incrementAndGet();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isAnnotatedSupertype(String supertype) {
+    for (ClassDescriptor typeDescriptor : typeHierarchy.getTypeDescriptors(supertype)) {
+      if (carriesAnnotation(typeDescriptor)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Read the super class and interface names of a class file, walking its constant pool again.
+   *
+   * @param bytes Class file bytes.
+   * @return Direct supertype names.
+   */
+  private static List<String> getSupertypeNames(byte[] bytes) {
+    int count = getUnsignedShort(bytes, 8);
+    int[] offsets = new int[count];
+    int position = 10;
+    for (int i = 1; i < count; ++i) {
+      offsets[i] = position;
+      int tag = bytes[position] & 0xFF;
+      switch (tag) {
+        case 1:
+          position += 3 + getUnsignedShort(bytes, position + 1);
+          break;
+        case 5:
+        case 6:
+          position += 9;
+          ++i;
+          break;
+        case 7:
+        case 8:
+        case 16:
+        case 19:
+        case 20:
+          position += 3;
+          break;
+        case 15:
+          position += 4;
+          break;
+        default:
+          position += 5;
+          break;
+      }
+    }
+    //Skip the access flags and this class.
+    position += 4;
+    List<String> result = new ArrayList<>();
+    int superIndex = getUnsignedShort(bytes, position);
+    if (superIndex != 0) {
+      result.add(getClassName(bytes, offsets, superIndex));
+    }
+    int interfaceCount = getUnsignedShort(bytes, position + 2);
+    for (int i = 0; i < interfaceCount; ++i) {
+      result.add(getClassName(bytes, offsets, getUnsignedShort(bytes, position + 4 + 2 * i)));
+    }
+    return result;
+  }
+
+  private static String getClassName(byte[] bytes, int[] offsets, int classIndex) {
+    int utf8Offset = offsets[getUnsignedShort(bytes, offsets[classIndex] + 1)];
+    return new String(bytes, utf8Offset + 3, getUnsignedShort(bytes, utf8Offset + 1), StandardCharsets.UTF_8).replace('/', '.');
+  }
+
+  private boolean referencesAnnotation(Set<String> types) {
+    for (String type : types) {
+      if (annotationTypes.contains(type) || (metaAnnotationGraph != null && !type.startsWith("java.") && isComposedAnnotation(type))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Test if a type is meta-annotated with one of the annotations, once per type.
+   *
+   * @param type Type name.
+   * @return True if the type is a composed annotation.
+   */
+  private boolean isComposedAnnotation(String type) {
+    return composedAnnotations.computeIfAbsent(type, composedType -> {
+      for (String metaAnnotation : metaAnnotationGraph.getMetaAnnotations(composedType)) {
+        if (annotationTypes.contains(metaAnnotation)) {
+          return true;
+        }
+      }
+      return false;
+    });
+  }
+
+  /**
+   * Size of a constant pool entry.
+   *
+   * @param bytes Class file bytes.
+   * @param position Offset of the entry tag.
+   * @return Entry size in bytes.
+   */
+  private static int getConstantSize(byte[] bytes, int position) {
+    int result;
+    switch (bytes[position] & 0xFF) {
+      case 1:
+        //Utf8
+        result = 3 + getUnsignedShort(bytes, position + 1);
+        break;
+      case 5:
+      case 6:
+        //Long, Double
+        result = 9;
+        break;
+      case 7:
+      case 8:
+      case 16:
+      case 19:
+      case 20:
+        //Class, String, MethodType, Module, Package
+        result = 3;
+        break;
+      case 15:
+        //MethodHandle
+        result = 4;
+        break;
+      default:
+        //Integer, Float, Refs, NameAndType, Dynamic, InvokeDynamic
+        result = 5;
+        break;
+    }
+    return result;
+  }
+
+  private static boolean startsWith(byte[] bytes, int offset, byte[] prefix) {
+    if (offset + prefix.length > bytes.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; ++i) {
+      if (bytes[offset + i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int getUnsignedShort(byte[] bytes, int offset) {
+    return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+  }
+
+  private static int getInt(byte[] bytes, int offset) {
+    return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+  }
+
+  @Override
+  public String toString() {
+    long total = getHits() + getMisses();
+    return String.format("%d classes kept (%d through a supertype, %d through a composed annotation), %d skipped (hit ratio %.1f%%)", getHits(), getInheritedHits(), getComposedHits(), getMisses(), (total == 0) ? 0.0 : 100.0 * getHits() / total);
+  }
+}
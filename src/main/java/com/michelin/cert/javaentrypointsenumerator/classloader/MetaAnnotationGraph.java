@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Meta-annotation graph, transitive closure of the annotations carried by each annotation type.
+ *
+ * <p>
+ * Closures are computed once per annotation type and run, so that testing if an annotation is composed from another one is a single set lookup. Types of java.lang.annotation, such as Retention or
+ * Documented, are left out.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class MetaAnnotationGraph {
+
+  private static final String JAVA_LANG_ANNOTATION_PACKAGE = "java.lang.annotation.";
+
+  private final Classloader classloader;
+  private final Map<String, Set<String>> closures;
+
+  /**
+   * MetaAnnotationGraph constructor.
+   *
+   * @param classloader Classloader util instance, resolving the annotation types.
+   */
+  public MetaAnnotationGraph(Classloader classloader) {
+    this.classloader = classloader;
+    this.closures = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Annotation types carried by an annotation type, directly or through other meta-annotations.
+   *
+   * @param annotationType Annotation type name.
+   * @return Read-only meta-annotation type names, empty if the type is not found.
+   */
+  public Set<String> getMetaAnnotations(String annotationType) {
+    Set<String> result = closures.get(annotationType);
+    if (result == null) {
+      result = computeClosure(annotationType);
+      Set<String> previous = closures.putIfAbsent(annotationType, result);
+      if (previous != null) {
+        result = previous;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Test if an annotation type is another one or is meta-annotated with it, transitively.
+   *
+   * @param annotationType Annotation type name.
+   * @param target Meta-annotation type name.
+   * @return True if the annotation type stands for the target.
+   */
+  public boolean isAnnotatedWith(String annotationType, String target) {
+    return annotationType.equals(target) || getMetaAnnotations(annotationType).contains(target);
+  }
+
+  /**
+   * Number of annotation types resolved.
+   *
+   * @return Number of annotation types resolved.
+   */
+  public int size() {
+    return closures.size();
+  }
+
+  /**
+   * Walk the meta-annotations of an annotation type breadth first.
+   *
+   * @param annotationType Annotation type name.
+   * @return Read-only closure.
+   */
+  private Set<String> computeClosure(String annotationType) {
+    if (annotationType.startsWith(JAVA_LANG_ANNOTATION_PACKAGE)) {
+      return Collections.emptySet();
+    }
+    Set<String> result = new LinkedHashSet<>();
+    Deque<String> queue = new ArrayDeque<>();
+    queue.add(annotationType);
+    while (!queue.isEmpty()) {
+      String current = queue.poll();
+      Set<String> known = closures.get(current);
+      if (known != null && !current.equals(annotationType)) {
+        //Already resolved, reuse its closure.
+        result.addAll(known);
+        continue;
+      }
+      ClassDescriptor descriptor = classloader.getClassDescriptor(current);
+      if (descriptor == null) {
+        continue;
+      }
+      for (String metaAnnotation : descriptor.getAnnotations().keySet()) {
+        if (!metaAnnotation.startsWith(JAVA_LANG_ANNOTATION_PACKAGE) && result.add(metaAnnotation)) {
+          queue.add(metaAnnotation);
+        }
+      }
+    }
+    return Collections.unmodifiableSet(result);
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Supertype graph of the classes, memoized per type.
+ *
+ * <p>
+ * The supertypes of a class are built from the memoized supertypes of its direct supertypes, so the graph is walked once per type whatever the number of subclasses. java.lang.Object is left out.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class TypeHierarchy {
+
+  private static final String OBJECT_CLASS = "java.lang.Object";
+
+  private final Classloader classloader;
+  private final Map<String, List<String>> supertypes;
+
+  /**
+   * TypeHierarchy constructor.
+   *
+   * @param classloader Classloader util instance, resolving the supertypes.
+   */
+  public TypeHierarchy(Classloader classloader) {
+    this.classloader = classloader;
+    this.supertypes = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * All the supertypes of a class.
+   *
+   * @param classDescriptor Class descriptor.
+   * @return Read-only supertype names: the super class chain first, then the interfaces, each of them followed by its own supertypes.
+   */
+  public List<String> getSupertypes(ClassDescriptor classDescriptor) {
+    List<String> result = supertypes.get(classDescriptor.getName());
+    if (result == null) {
+      result = computeSupertypes(classDescriptor, new LinkedHashSet<>());
+    }
+    return result;
+  }
+
+  /**
+   * All the supertypes of a class, from its name.
+   *
+   * @param className Class name.
+   * @return Read-only supertype names, empty if the class is not found.
+   */
+  public List<String> getSupertypes(String className) {
+    List<String> result = supertypes.get(className);
+    if (result == null) {
+      ClassDescriptor classDescriptor = classloader.getClassDescriptor(className);
+      result = (classDescriptor == null) ? Collections.<String>emptyList() : getSupertypes(classDescriptor);
+    }
+    return result;
+  }
+
+  /**
+   * Descriptors of all the supertypes of a class, the ones not found being skipped.
+   *
+   * @param classDescriptor Class descriptor.
+   * @return Supertype descriptors, in the order of getSupertypes.
+   */
+  public List<ClassDescriptor> getSupertypeDescriptors(ClassDescriptor classDescriptor) {
+    List<String> names = getSupertypes(classDescriptor);
+    List<ClassDescriptor> result = new ArrayList<>(names.size());
+    for (String name : names) {
+      ClassDescriptor supertype = classloader.getClassDescriptor(name);
+      if (supertype != null) {
+        result.add(supertype);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Descriptors of a class and of all its supertypes, the ones not found being skipped.
+   *
+   * @param className Class name.
+   * @return Class descriptor then supertype descriptors, empty if the class is not found.
+   */
+  public List<ClassDescriptor> getTypeDescriptors(String className) {
+    List<ClassDescriptor> result = new ArrayList<>();
+    ClassDescriptor classDescriptor = classloader.getClassDescriptor(className);
+    if (classDescriptor != null) {
+      result.add(classDescriptor);
+      result.addAll(getSupertypeDescriptors(classDescriptor));
+    }
+    return result;
+  }
+
+  /**
+   * Number of types resolved.
+   *
+   * @return Number of types resolved.
+   */
+  public int size() {
+    return supertypes.size();
+  }
+
+  /**
+   * Build the supertypes of a class from the ones of its direct supertypes.
+   *
+   * @param classDescriptor Class descriptor.
+   * @param inProgress Types being resolved, guarding against cyclic class files.
+   * @return Read-only supertype names.
+   */
+  private List<String> computeSupertypes(ClassDescriptor classDescriptor, Set<String> inProgress) {
+    inProgress.add(classDescriptor.getName());
+    List<String> directSupertypes = new ArrayList<>();
+    if (classDescriptor.getSuperName() != null) {
+      directSupertypes.add(classDescriptor.getSuperName());
+    }
+    directSupertypes.addAll(classDescriptor.getInterfaces());
+
+    Set<String> result = new LinkedHashSet<>();
+    for (String directSupertype : directSupertypes) {
+      if (OBJECT_CLASS.equals(directSupertype) || inProgress.contains(directSupertype)) {
+        continue;
+      }
+      result.add(directSupertype);
+      List<String> inherited = supertypes.get(directSupertype);
+      if (inherited == null) {
+        ClassDescriptor supertype = classloader.getClassDescriptor(directSupertype);
+        inherited = (supertype == null) ? Collections.<String>emptyList() : computeSupertypes(supertype, inProgress);
+      }
+      result.addAll(inherited);
+    }
+    inProgress.remove(classDescriptor.getName());
+
+    List<String> computed = Collections.unmodifiableList(new ArrayList<>(result));
+    List<String> previous = supertypes.putIfAbsent(classDescriptor.getName(), computed);
+    return (previous == null) ? computed : previous;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader;
+
+import com.michelin.cert.javaentrypointsenumerator.archive.WarArchive;
+import com.michelin.cert.javaentrypointsenumerator.archive.ZipIndexEntry;
+import com.michelin.cert.javaentrypointsenumerator.archive.ZipIndexEntryUrlHandler;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Class loader serving classes and resources straight from a war archive.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class WarClassLoader extends ClassLoader {
+
+  static {
+    registerAsParallelCapable();
+  }
+
+  private final WarArchive archive;
+
+  /**
+   * WarClassLoader constructor.
+   *
+   * @param archive War archive.
+   * @param parent Parent class loader.
+   */
+  public WarClassLoader(WarArchive archive, ClassLoader parent) {
+    super(parent);
+    this.archive = archive;
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    ZipIndexEntry entry = archive.findResource(name.replace('.', '/') + ".class");
+    if (entry == null) {
+      throw new ClassNotFoundException(name);
+    }
+    try {
+      byte[] bytes = entry.getBytes();
+      definePackageOf(name);
+      return defineClass(name, bytes, 0, bytes.length);
+    } catch (IOException ex) {
+      throw new ClassNotFoundException(name, ex);
+    }
+  }
+
+  @Override
+  protected URL findResource(String name) {
+    URL result = null;
+    ZipIndexEntry entry = archive.findResource(name);
+    if (entry != null) {
+      try {
+        result = new URL("war", null, -1, "/" + name, new ZipIndexEntryUrlHandler(entry));
+      } catch (MalformedURLException ex) {
+        result = null;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  protected Enumeration<URL> findResources(String name) {
+    URL url = findResource(name);
+    return (url == null) ? Collections.<URL>emptyEnumeration() : Collections.enumeration(Collections.singletonList(url));
+  }
+
+  /**
+   * Define the package of a class if not already defined.
+   *
+   * <p>
+   * getPackage is deprecated since Java 9 in favor of getDefinedPackage, which Java 8, the target of this build, does not have. Looking the package up in the parents as well is harmless here: a
+   * package already defined by a parent is not defined again.
+   * </p>
+   *
+   * @param className Class name.
+   */
+  @SuppressWarnings("deprecation")
+  private void definePackageOf(String className) {
+    int lastDot = className.lastIndexOf('.');
+    if (lastDot > 0) {
+      String packageName = className.substring(0, lastDot);
+      if (getPackage(packageName) == null) {
+        try {
+          definePackage(packageName, null, null, null, null, null, null, null);
+        } catch (IllegalArgumentException ex) {
+          //Already defined by a concurrent load.
+        }
+      }
+    }
+  }
+}
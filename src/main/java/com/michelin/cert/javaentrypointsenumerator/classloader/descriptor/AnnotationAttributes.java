@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.descriptor;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Attribute accessors of an annotation type, resolved once per type into method handles.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class AnnotationAttributes {
+
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Annotation.class);
+
+  private static final ClassValue<AnnotationAttributes> ATTRIBUTES = new ClassValue<AnnotationAttributes>() {
+    @Override
+    protected AnnotationAttributes computeValue(Class<?> annotationType) {
+      return new AnnotationAttributes(annotationType);
+    }
+  };
+
+  private final String[] names;
+  private final MethodHandle[] accessors;
+
+  /**
+   * AnnotationAttributes constructor.
+   *
+   * @param annotationType Annotation type.
+   */
+  private AnnotationAttributes(Class<?> annotationType) {
+    List<String> nameList = new ArrayList<>();
+    List<MethodHandle> accessorList = new ArrayList<>();
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    for (Method attribute : annotationType.getDeclaredMethods()) {
+      if (attribute.getParameterCount() == 0) {
+        try {
+          if (!Modifier.isPublic(annotationType.getModifiers())) {
+            attribute.setAccessible(true);
+          }
+          accessorList.add(lookup.unreflect(attribute).asType(ACCESSOR_TYPE));
+          nameList.add(attribute.getName());
+        } catch (IllegalAccessException | RuntimeException ex) {
+          Logger.getLogger(AnnotationAttributes.class.getName()).log(Level.WARNING, "Attribute not accessible : {0}.{1}", new Object[]{annotationType.getName(), attribute.getName()});
+        }
+      }
+    }
+    this.names = nameList.toArray(new String[nameList.size()]);
+    this.accessors = accessorList.toArray(new MethodHandle[accessorList.size()]);
+  }
+
+  /**
+   * Attribute accessors of an annotation type.
+   *
+   * @param annotationType Annotation type.
+   * @return Attribute accessors, shared by every instance of the type.
+   */
+  public static AnnotationAttributes of(Class<? extends Annotation> annotationType) {
+    return ATTRIBUTES.get(annotationType);
+  }
+
+  /**
+   * Read the attribute values of an annotation instance, default values included.
+   *
+   * @param annotation Annotation instance of the type.
+   * @return Raw attribute values per name.
+   */
+  public Map<String, Object> read(Annotation annotation) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (int i = 0; i < accessors.length; ++i) {
+      try {
+        result.put(names[i], (Object) accessors[i].invokeExact(annotation));
+      } catch (Throwable ex) {
+        Logger.getLogger(AnnotationAttributes.class.getName()).log(Level.WARNING, "Attribute not read : {0}.{1}", new Object[]{annotation.annotationType().getName(), names[i]});
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.descriptor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Annotation descriptor.
+ *
+ * <p>
+ * Attribute values are kept as String for strings, enum constants and classes, as boxed primitives, as AnnotationDescriptor for nested annotations and as List for arrays.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class AnnotationDescriptor {
+
+  private final String type;
+  private final Map<String, Object> values;
+
+  /**
+   * AnnotationDescriptor constructor.
+   *
+   * @param type Annotation type name.
+   * @param values Attribute values.
+   */
+  public AnnotationDescriptor(String type, Map<String, Object> values) {
+    this.type = type;
+    this.values = Collections.unmodifiableMap(values);
+  }
+
+  /**
+   * Annotation type name.
+   *
+   * @return Annotation type name.
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Attribute values.
+   *
+   * @return Attribute values.
+   */
+  public Map<String, Object> getValues() {
+    return values;
+  }
+
+  /**
+   * Attribute value.
+   *
+   * @param name Attribute name.
+   * @return Attribute value or null if not set.
+   */
+  public Object getValue(String name) {
+    return values.get(name);
+  }
+
+  /**
+   * String, enum constant or class attribute value.
+   *
+   * @param name Attribute name.
+   * @return Attribute value or null if not set.
+   */
+  public String getString(String name) {
+    Object value = values.get(name);
+    if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      value = list.isEmpty() ? null : list.get(0);
+    }
+    return (value == null) ? null : value.toString();
+  }
+
+  /**
+   * String, enum constant or class array attribute value.
+   *
+   * <p>
+   * String arrays are returned as stored, without copy.
+   * </p>
+   *
+   * @param name Attribute name.
+   * @return Read-only attribute values, empty if not set.
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> getStrings(String name) {
+    List<String> result;
+    Object value = values.get(name);
+    if (value instanceof List) {
+      List<?> list = (List<?>) value;
+      if (containsStrings(list)) {
+        //Array values are already read-only lists.
+        result = (List<String>) list;
+      } else {
+        List<String> strings = new ArrayList<>(list.size());
+        for (Object element : list) {
+          strings.add(element.toString());
+        }
+        result = Collections.unmodifiableList(strings);
+      }
+    } else if (value != null) {
+      result = Collections.singletonList(value.toString());
+    } else {
+      result = Collections.emptyList();
+    }
+    return result;
+  }
+
+  /**
+   * Nested annotations attribute value.
+   *
+   * @param name Attribute name.
+   * @return Nested annotations, empty if not set.
+   */
+  public List<AnnotationDescriptor> getAnnotations(String name) {
+    List<AnnotationDescriptor> result = new ArrayList<>();
+    Object value = values.get(name);
+    if (value instanceof List) {
+      for (Object element : (List<?>) value) {
+        if (element instanceof AnnotationDescriptor) {
+          result.add((AnnotationDescriptor) element);
+        }
+      }
+    } else if (value instanceof AnnotationDescriptor) {
+      result.add((AnnotationDescriptor) value);
+    }
+    return result;
+  }
+
+  private static boolean containsStrings(List<?> list) {
+    for (Object element : list) {
+      if (!(element instanceof String)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "@" + type + values;
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.descriptor;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lightweight class descriptor, built from the class file bytes or from a loaded class.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ClassDescriptor {
+
+  /**
+   * Annotation type access flag, not exposed by java.lang.reflect.Modifier.
+   */
+  public static final int ACC_ANNOTATION = 0x2000;
+
+  private final String name;
+  private final String superName;
+  private final List<String> interfaces;
+  private final int access;
+  private final Map<String, AnnotationDescriptor> annotations;
+  private final List<MethodDescriptor> methods;
+
+  /**
+   * ClassDescriptor constructor.
+   *
+   * @param name Class name.
+   * @param superName Super class name, null for java.lang.Object and interfaces without super class.
+   * @param interfaces Implemented interface names.
+   * @param access Access flags.
+   * @param annotations Class annotations per type name.
+   * @param methods Declared methods.
+   */
+  public ClassDescriptor(String name, String superName, List<String> interfaces, int access, Map<String, AnnotationDescriptor> annotations, List<MethodDescriptor> methods) {
+    this.name = name;
+    this.superName = superName;
+    this.interfaces = Collections.unmodifiableList(interfaces);
+    this.access = access;
+    this.annotations = Collections.unmodifiableMap(annotations);
+    this.methods = Collections.unmodifiableList(methods);
+  }
+
+  /**
+   * Class name.
+   *
+   * @return Class name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Super class name.
+   *
+   * @return Super class name or null.
+   */
+  public String getSuperName() {
+    return superName;
+  }
+
+  /**
+   * Implemented interface names.
+   *
+   * @return Implemented interface names.
+   */
+  public List<String> getInterfaces() {
+    return interfaces;
+  }
+
+  /**
+   * Access flags.
+   *
+   * @return Access flags.
+   */
+  public int getAccess() {
+    return access;
+  }
+
+  /**
+   * Class annotations per type name.
+   *
+   * @return Class annotations.
+   */
+  public Map<String, AnnotationDescriptor> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * Class annotation.
+   *
+   * @param type Annotation type name.
+   * @return Annotation or null if not present.
+   */
+  public AnnotationDescriptor getAnnotation(String type) {
+    return annotations.get(type);
+  }
+
+  /**
+   * Declared methods, whatever their visibility.
+   *
+   * @return Declared methods.
+   */
+  public List<MethodDescriptor> getMethods() {
+    return methods;
+  }
+
+  /**
+   * True if the class is an interface.
+   *
+   * @return True if the class is an interface.
+   */
+  public boolean isInterface() {
+    return Modifier.isInterface(access);
+  }
+
+  /**
+   * True if the class is an annotation type.
+   *
+   * @return True if the class is an annotation type.
+   */
+  public boolean isAnnotation() {
+    return (access & ACC_ANNOTATION) != 0;
+  }
+
+  /**
+   * True if the class is abstract.
+   *
+   * @return True if the class is abstract.
+   */
+  public boolean isAbstract() {
+    return Modifier.isAbstract(access);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.descriptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class file reader building class descriptors straight from the class file bytes.
+ *
+ * <p>
+ * Only the constant pool, the class header, the method headers and the runtime visible annotation attributes are read. No class is defined in the JVM.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ClassFileReader {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private final byte[] bytes;
+  private int[] offsets;
+  private String[] strings;
+  private int position;
+
+  /**
+   * ClassFileReader constructor.
+   *
+   * @param bytes Class file bytes.
+   */
+  public ClassFileReader(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * Read a class file.
+   *
+   * @param bytes Class file bytes.
+   * @return Class descriptor.
+   * @throws IOException If the class file is invalid.
+   */
+  public static ClassDescriptor read(byte[] bytes) throws IOException {
+    return new ClassFileReader(bytes).readClass();
+  }
+
+  /**
+   * Read the class file.
+   *
+   * @return Class descriptor.
+   * @throws IOException If the class file is invalid.
+   */
+  public ClassDescriptor readClass() throws IOException {
+    try {
+      position = 0;
+      if (readInt() != MAGIC) {
+        throw new IOException("Not a class file");
+      }
+      //Skip minor and major versions.
+      position += 4;
+      readConstantPool();
+
+      final int access = readUnsignedShort();
+      final String name = toClassName(getClassName(readUnsignedShort()));
+      int superIndex = readUnsignedShort();
+      final String superName = (superIndex == 0) ? null : toClassName(getClassName(superIndex));
+      int interfaceCount = readUnsignedShort();
+      List<String> interfaces = new ArrayList<>(interfaceCount);
+      for (int i = 0; i < interfaceCount; ++i) {
+        interfaces.add(toClassName(getClassName(readUnsignedShort())));
+      }
+
+      //Skip fields.
+      int fieldCount = readUnsignedShort();
+      for (int i = 0; i < fieldCount; ++i) {
+        position += 6;
+        skipAttributes();
+      }
+
+      int methodCount = readUnsignedShort();
+      List<MethodDescriptor> methods = new ArrayList<>(methodCount);
+      for (int i = 0; i < methodCount; ++i) {
+        methods.add(readMethod(name));
+      }
+
+      Map<String, AnnotationDescriptor> annotations = new LinkedHashMap<>();
+      int attributeCount = readUnsignedShort();
+      for (int i = 0; i < attributeCount; ++i) {
+        String attributeName = getUtf8(readUnsignedShort());
+        int end = readInt() + position;
+        if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+          readAnnotations(annotations);
+        }
+        position = end;
+      }
+
+      return new ClassDescriptor(name, superName, interfaces, access, annotations, methods);
+    } catch (IndexOutOfBoundsException | IllegalArgumentException ex) {
+      throw new IOException("Invalid class file : " + ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Convert a field descriptor to a type name, for instance [Ljava/lang/String; to java.lang.String[].
+   *
+   * @param descriptor Field descriptor.
+   * @return Type name.
+   */
+  public static String toTypeName(String descriptor) {
+    return readType(descriptor, new int[]{0});
+  }
+
+  /**
+   * Parameter type names of a method descriptor.
+   *
+   * @param descriptor Method descriptor.
+   * @return Parameter type names.
+   */
+  public static List<String> getParameterTypes(String descriptor) {
+    List<String> result = new ArrayList<>();
+    int[] cursor = {1};
+    while (descriptor.charAt(cursor[0]) != ')') {
+      result.add(readType(descriptor, cursor));
+    }
+    return result;
+  }
+
+  /**
+   * Read a method header and its annotations.
+   *
+   * @param className Declaring class name.
+   * @return Method descriptor.
+   */
+  private MethodDescriptor readMethod(String className) throws IOException {
+    final int access = readUnsignedShort();
+    final String name = getUtf8(readUnsignedShort());
+    final String descriptor = getUtf8(readUnsignedShort());
+    List<String> parameterTypes = getParameterTypes(descriptor);
+    Map<String, AnnotationDescriptor> annotations = new LinkedHashMap<>();
+    List<Map<String, AnnotationDescriptor>> parameterAnnotations = Collections.emptyList();
+    String[] parameterNames = new String[parameterTypes.size()];
+
+    int attributeCount = readUnsignedShort();
+    for (int i = 0; i < attributeCount; ++i) {
+      String attributeName = getUtf8(readUnsignedShort());
+      int end = readInt() + position;
+      switch (attributeName) {
+        case "RuntimeVisibleAnnotations":
+          readAnnotations(annotations);
+          break;
+        case "RuntimeVisibleParameterAnnotations":
+          int parameterCount = readUnsignedByte();
+          parameterAnnotations = new ArrayList<>(parameterCount);
+          for (int j = 0; j < parameterCount; ++j) {
+            Map<String, AnnotationDescriptor> annotationsOfParameter = new LinkedHashMap<>();
+            readAnnotations(annotationsOfParameter);
+            parameterAnnotations.add(annotationsOfParameter);
+          }
+          break;
+        case "MethodParameters":
+          int nameCount = readUnsignedByte();
+          for (int j = 0; j < nameCount; ++j) {
+            int nameIndex = readUnsignedShort();
+            position += 2;
+            if (nameIndex != 0 && j < parameterNames.length) {
+              parameterNames[j] = getUtf8(nameIndex);
+            }
+          }
+          break;
+        default:
+          break;
+      }
+      position = end;
+    }
+
+    //Synthetic leading parameters may have no annotation entry.
+    int shift = parameterTypes.size() - parameterAnnotations.size();
+    List<ParameterDescriptor> parameters = new ArrayList<>(parameterTypes.size());
+    for (int i = 0; i < parameterTypes.size(); ++i) {
+      String parameterName = (parameterNames[i] != null) ? parameterNames[i] : "arg" + i;
+      Map<String, AnnotationDescriptor> annotationsOfParameter = (i >= shift) ? parameterAnnotations.get(i - shift) : Collections.<String, AnnotationDescriptor>emptyMap();
+      parameters.add(new ParameterDescriptor(parameterName, parameterTypes.get(i), annotationsOfParameter));
+    }
+    return new MethodDescriptor(className, name, descriptor, access, annotations, parameters);
+  }
+
+  /**
+   * Read an annotations attribute content.
+   *
+   * @param annotations Annotations per type name to fill.
+   */
+  private void readAnnotations(Map<String, AnnotationDescriptor> annotations) throws IOException {
+    int count = readUnsignedShort();
+    for (int i = 0; i < count; ++i) {
+      AnnotationDescriptor annotation = readAnnotation();
+      annotations.put(annotation.getType(), annotation);
+    }
+  }
+
+  /**
+   * Read an annotation structure.
+   *
+   * @return Annotation descriptor.
+   */
+  private AnnotationDescriptor readAnnotation() throws IOException {
+    String type = toTypeName(getUtf8(readUnsignedShort()));
+    int count = readUnsignedShort();
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (int i = 0; i < count; ++i) {
+      String name = getUtf8(readUnsignedShort());
+      values.put(name, readElementValue());
+    }
+    return new AnnotationDescriptor(type, values);
+  }
+
+  /**
+   * Read an annotation element value.
+   *
+   * @return Element value.
+   */
+  private Object readElementValue() throws IOException {
+    Object result;
+    int tag = readUnsignedByte();
+    switch (tag) {
+      case 'B':
+        result = (byte) getInteger(readUnsignedShort());
+        break;
+      case 'C':
+        result = (char) getInteger(readUnsignedShort());
+        break;
+      case 'S':
+        result = (short) getInteger(readUnsignedShort());
+        break;
+      case 'Z':
+        result = getInteger(readUnsignedShort()) != 0;
+        break;
+      case 'I':
+        result = getInteger(readUnsignedShort());
+        break;
+      case 'J':
+        result = getLong(readUnsignedShort());
+        break;
+      case 'F':
+        result = Float.intBitsToFloat(getInteger(readUnsignedShort()));
+        break;
+      case 'D':
+        result = Double.longBitsToDouble(getLong(readUnsignedShort()));
+        break;
+      case 's':
+        result = getUtf8(readUnsignedShort());
+        break;
+      case 'e':
+        //Enum type then constant name.
+        position += 2;
+        result = getUtf8(readUnsignedShort());
+        break;
+      case 'c':
+        result = toTypeName(getUtf8(readUnsignedShort()));
+        break;
+      case '@':
+        result = readAnnotation();
+        break;
+      case '[':
+        int count = readUnsignedShort();
+        List<Object> values = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+          values.add(readElementValue());
+        }
+        result = Collections.unmodifiableList(values);
+        break;
+      default:
+        throw new IOException("Invalid element value tag " + tag);
+    }
+    return result;
+  }
+
+  /**
+   * Read the constant pool offsets, strings are decoded lazily.
+   */
+  private void readConstantPool() throws IOException {
+    int count = readUnsignedShort();
+    offsets = new int[count];
+    strings = new String[count];
+    for (int i = 1; i < count; ++i) {
+      int tag = bytes[position] & 0xFF;
+      offsets[i] = position + 1;
+      switch (tag) {
+        case 1:
+          //Utf8
+          position += 3 + getUnsignedShortAt(position + 1);
+          break;
+        case 3:
+        case 4:
+          //Integer, Float
+          position += 5;
+          break;
+        case 5:
+        case 6:
+          //Long, Double, take two slots
+          position += 9;
+          ++i;
+          break;
+        case 7:
+        case 8:
+        case 16:
+        case 19:
+        case 20:
+          //Class, String, MethodType, Module, Package
+          position += 3;
+          break;
+        case 9:
+        case 10:
+        case 11:
+        case 12:
+        case 17:
+        case 18:
+          //Refs, NameAndType, Dynamic, InvokeDynamic
+          position += 5;
+          break;
+        case 15:
+          //MethodHandle
+          position += 4;
+          break;
+        default:
+          throw new IOException("Invalid constant pool tag " + tag);
+      }
+    }
+  }
+
+  /**
+   * Skip attributes of a field or method.
+   */
+  private void skipAttributes() {
+    int count = readUnsignedShort();
+    for (int i = 0; i < count; ++i) {
+      position += 2;
+      int length = readInt();
+      position += length;
+    }
+  }
+
+  /**
+   * Decode an Utf8 constant (modified UTF-8).
+   *
+   * @param index Constant pool index.
+   * @return Decoded string.
+   */
+  private String getUtf8(int index) {
+    String result = strings[index];
+    if (result == null) {
+      int start = offsets[index] + 2;
+      int end = start + getUnsignedShortAt(offsets[index]);
+      char[] chars = new char[end - start];
+      int count = 0;
+      int cursor = start;
+      while (cursor < end) {
+        int first = bytes[cursor++] & 0xFF;
+        if (first < 0x80) {
+          chars[count++] = (char) first;
+        } else if ((first & 0xE0) == 0xC0) {
+          chars[count++] = (char) (((first & 0x1F) << 6) | (bytes[cursor++] & 0x3F));
+        } else {
+          int second = bytes[cursor++] & 0x3F;
+          int third = bytes[cursor++] & 0x3F;
+          chars[count++] = (char) (((first & 0x0F) << 12) | (second << 6) | third);
+        }
+      }
+      result = new String(chars, 0, count);
+      strings[index] = result;
+    }
+    return result;
+  }
+
+  private String getClassName(int index) {
+    return getUtf8(getUnsignedShortAt(offsets[index]));
+  }
+
+  private int getInteger(int index) {
+    return getIntAt(offsets[index]);
+  }
+
+  private long getLong(int index) {
+    return ((long) getIntAt(offsets[index]) << 32) | (getIntAt(offsets[index] + 4) & 0xFFFFFFFFL);
+  }
+
+  private int readUnsignedByte() {
+    return bytes[position++] & 0xFF;
+  }
+
+  private int readUnsignedShort() {
+    int result = getUnsignedShortAt(position);
+    position += 2;
+    return result;
+  }
+
+  private int readInt() {
+    int result = getIntAt(position);
+    position += 4;
+    return result;
+  }
+
+  private int getUnsignedShortAt(int offset) {
+    return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+  }
+
+  private int getIntAt(int offset) {
+    return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+  }
+
+  private static String toClassName(String internalName) {
+    return internalName.replace('/', '.');
+  }
+
+  /**
+   * Read a type from a descriptor.
+   *
+   * @param descriptor Descriptor.
+   * @param cursor Current position in the descriptor, updated.
+   * @return Type name.
+   */
+  private static String readType(String descriptor, int[] cursor) {
+    int dimensions = 0;
+    while (descriptor.charAt(cursor[0]) == '[') {
+      ++dimensions;
+      ++cursor[0];
+    }
+    String result;
+    char tag = descriptor.charAt(cursor[0]++);
+    switch (tag) {
+      case 'B':
+        result = "byte";
+        break;
+      case 'C':
+        result = "char";
+        break;
+      case 'D':
+        result = "double";
+        break;
+      case 'F':
+        result = "float";
+        break;
+      case 'I':
+        result = "int";
+        break;
+      case 'J':
+        result = "long";
+        break;
+      case 'S':
+        result = "short";
+        break;
+      case 'Z':
+        result = "boolean";
+        break;
+      case 'V':
+        result = "void";
+        break;
+      case 'L':
+        int end = descriptor.indexOf(';', cursor[0]);
+        result = toClassName(descriptor.substring(cursor[0], end));
+        cursor[0] = end + 1;
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid descriptor " + descriptor);
+    }
+    StringBuilder builder = new StringBuilder(result);
+    for (int i = 0; i < dimensions; ++i) {
+      builder.append("[]");
+    }
+    return builder.toString();
+  }
+}
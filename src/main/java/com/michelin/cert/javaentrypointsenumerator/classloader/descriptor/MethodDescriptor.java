@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.descriptor;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Method descriptor.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class MethodDescriptor {
+
+  private final String declaringClass;
+  private final String name;
+  private final String descriptor;
+  private final int access;
+  private final Map<String, AnnotationDescriptor> annotations;
+  private final List<ParameterDescriptor> parameters;
+
+  /**
+   * MethodDescriptor constructor.
+   *
+   * @param declaringClass Declaring class name.
+   * @param name Method name.
+   * @param descriptor JVM method descriptor, for instance (Ljava/lang/String;)V.
+   * @param access Access flags.
+   * @param annotations Method annotations per type name.
+   * @param parameters Method parameters.
+   */
+  public MethodDescriptor(String declaringClass, String name, String descriptor, int access, Map<String, AnnotationDescriptor> annotations, List<ParameterDescriptor> parameters) {
+    this.declaringClass = declaringClass;
+    this.name = name;
+    this.descriptor = descriptor;
+    this.access = access;
+    this.annotations = Collections.unmodifiableMap(annotations);
+    this.parameters = Collections.unmodifiableList(parameters);
+  }
+
+  /**
+   * Declaring class name.
+   *
+   * @return Declaring class name.
+   */
+  public String getDeclaringClass() {
+    return declaringClass;
+  }
+
+  /**
+   * Method name.
+   *
+   * @return Method name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * JVM method descriptor.
+   *
+   * @return JVM method descriptor.
+   */
+  public String getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * Access flags.
+   *
+   * @return Access flags.
+   */
+  public int getAccess() {
+    return access;
+  }
+
+  /**
+   * Method annotations per type name.
+   *
+   * @return Method annotations.
+   */
+  public Map<String, AnnotationDescriptor> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * Method annotation.
+   *
+   * @param type Annotation type name.
+   * @return Annotation or null if not present.
+   */
+  public AnnotationDescriptor getAnnotation(String type) {
+    return annotations.get(type);
+  }
+
+  /**
+   * Method parameters.
+   *
+   * @return Method parameters.
+   */
+  public List<ParameterDescriptor> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Number of parameters.
+   *
+   * @return Number of parameters.
+   */
+  public int getParameterCount() {
+    return parameters.size();
+  }
+
+  /**
+   * True if the method is public.
+   *
+   * @return True if the method is public.
+   */
+  public boolean isPublic() {
+    return Modifier.isPublic(access);
+  }
+
+  /**
+   * True if the method is static.
+   *
+   * @return True if the method is static.
+   */
+  public boolean isStatic() {
+    return Modifier.isStatic(access);
+  }
+
+  /**
+   * Signature of the method, name and descriptor, used to match overridden methods.
+   *
+   * @return Signature of the method.
+   */
+  public String getSignature() {
+    return name + descriptor;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.descriptor;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Method parameter descriptor.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ParameterDescriptor {
+
+  private final String name;
+  private final String type;
+  private final Map<String, AnnotationDescriptor> annotations;
+
+  /**
+   * ParameterDescriptor constructor.
+   *
+   * @param name Parameter name, argN when the name is not available.
+   * @param type Parameter type name.
+   * @param annotations Parameter annotations per type name.
+   */
+  public ParameterDescriptor(String name, String type, Map<String, AnnotationDescriptor> annotations) {
+    this.name = name;
+    this.type = type;
+    this.annotations = Collections.unmodifiableMap(annotations);
+  }
+
+  /**
+   * Parameter name.
+   *
+   * @return Parameter name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Parameter type name.
+   *
+   * @return Parameter type name.
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Parameter annotations per type name.
+   *
+   * @return Parameter annotations.
+   */
+  public Map<String, AnnotationDescriptor> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * Parameter annotation.
+   *
+   * @param type Annotation type name.
+   * @return Annotation or null if not present.
+   */
+  public AnnotationDescriptor getAnnotation(String type) {
+    return annotations.get(type);
+  }
+}
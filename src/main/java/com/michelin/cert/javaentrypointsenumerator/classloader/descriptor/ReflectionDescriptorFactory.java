@@ -0,0 +1,170 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.descriptor;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Build class descriptors from loaded classes.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ReflectionDescriptorFactory {
+
+  /**
+   * Private constructor.
+   */
+  private ReflectionDescriptorFactory() {
+  }
+
+  /**
+   * Describe a loaded class.
+   *
+   * @param loadedClass Loaded class.
+   * @return Class descriptor.
+   */
+  public static ClassDescriptor describe(Class<?> loadedClass) {
+    //Like class files, interfaces extend java.lang.Object.
+    String superName = (loadedClass.getSuperclass() != null) ? loadedClass.getSuperclass().getName() : (loadedClass.isInterface() ? Object.class.getName() : null);
+    List<String> interfaces = new ArrayList<>();
+    for (Class<?> implemented : loadedClass.getInterfaces()) {
+      interfaces.add(implemented.getName());
+    }
+
+    List<MethodDescriptor> methods = new ArrayList<>();
+    try {
+      for (Method method : loadedClass.getDeclaredMethods()) {
+        methods.add(describe(method));
+      }
+    } catch (Throwable ex) {
+      Logger.getLogger(ReflectionDescriptorFactory.class.getName()).log(Level.WARNING, "Methods not described : {0}", loadedClass.getName());
+    }
+
+    return new ClassDescriptor(loadedClass.getName(), superName, interfaces, loadedClass.getModifiers(), describe(loadedClass.getDeclaredAnnotations()), methods);
+  }
+
+  /**
+   * Describe a method.
+   *
+   * @param method Method.
+   * @return Method descriptor.
+   */
+  private static MethodDescriptor describe(Method method) {
+    StringBuilder descriptor = new StringBuilder("(");
+    List<ParameterDescriptor> parameters = new ArrayList<>();
+    for (Parameter parameter : method.getParameters()) {
+      descriptor.append(getDescriptor(parameter.getType()));
+      parameters.add(new ParameterDescriptor(parameter.getName(), parameter.getType().getTypeName(), describe(parameter.getAnnotations())));
+    }
+    descriptor.append(')').append(getDescriptor(method.getReturnType()));
+    return new MethodDescriptor(method.getDeclaringClass().getName(), method.getName(), descriptor.toString(), method.getModifiers(), describe(method.getDeclaredAnnotations()), parameters);
+  }
+
+  /**
+   * Describe annotations.
+   *
+   * @param annotations Annotation instances.
+   * @return Annotation descriptors per type name.
+   */
+  private static Map<String, AnnotationDescriptor> describe(Annotation[] annotations) {
+    Map<String, AnnotationDescriptor> result = new LinkedHashMap<>();
+    for (Annotation annotation : annotations) {
+      result.put(annotation.annotationType().getName(), describe(annotation));
+    }
+    return result;
+  }
+
+  /**
+   * Describe an annotation instance, default values included.
+   *
+   * @param annotation Annotation instance.
+   * @return Annotation descriptor.
+   */
+  private static AnnotationDescriptor describe(Annotation annotation) {
+    Map<String, Object> values = AnnotationAttributes.of(annotation.annotationType()).read(annotation);
+    for (Map.Entry<String, Object> entry : values.entrySet()) {
+      entry.setValue(toValue(entry.getValue()));
+    }
+    return new AnnotationDescriptor(annotation.annotationType().getName(), values);
+  }
+
+  /**
+   * Convert an annotation attribute value to its descriptor representation.
+   *
+   * @param value Attribute value.
+   * @return Converted value.
+   */
+  private static Object toValue(Object value) {
+    Object result;
+    if (value instanceof Enum) {
+      result = ((Enum<?>) value).name();
+    } else if (value instanceof Class) {
+      result = ((Class<?>) value).getTypeName();
+    } else if (value instanceof Annotation) {
+      result = describe((Annotation) value);
+    } else if (value != null && value.getClass().isArray()) {
+      int length = Array.getLength(value);
+      List<Object> values = new ArrayList<>(length);
+      for (int i = 0; i < length; ++i) {
+        values.add(toValue(Array.get(value, i)));
+      }
+      result = Collections.unmodifiableList(values);
+    } else {
+      result = value;
+    }
+    return result;
+  }
+
+  /**
+   * JVM descriptor of a type.
+   *
+   * @param type Type.
+   * @return JVM descriptor.
+   */
+  private static String getDescriptor(Class<?> type) {
+    String result;
+    if (type.isArray()) {
+      result = type.getName().replace('.', '/');
+    } else if (type.isPrimitive()) {
+      switch (type.getName()) {
+        case "boolean":
+          result = "Z";
+          break;
+        case "long":
+          result = "J";
+          break;
+        default:
+          result = type.getName().substring(0, 1).toUpperCase();
+          break;
+      }
+    } else {
+      result = "L" + type.getName().replace('.', '/') + ";";
+    }
+    return result;
+  }
+}
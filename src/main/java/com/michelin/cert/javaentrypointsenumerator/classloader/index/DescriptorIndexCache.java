@@ -0,0 +1,321 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.index;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent cache of jar indexes, one file per jar named after the SHA-256 of the jar.
+ *
+ * <p>
+ * The same library shared by several wars is indexed once. The least recently used index files are evicted when the cache exceeds its size or entry limit, reading an index refreshes its
+ * modification time.
+ * </p>
+ *
+ * <p>
+ * The folder is listed once, when the cache is opened, into an in-memory view ordered from the least to the most recently used index. Reads and writes update the view, so evicting never lists the
+ * folder again. Index files written by concurrent runs after the opening join the view when they are read.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class DescriptorIndexCache {
+
+  private static final String EXTENSION = ".idx";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final File folder;
+  private final long maxSize;
+  private final int maxEntries;
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong evictions;
+  private final LinkedHashMap<String, Long> entries;
+  private long size;
+
+  /**
+   * DescriptorIndexCache constructor.
+   *
+   * @param folder Cache folder, created if missing.
+   * @param maxSize Maximum size of the cache in bytes, 0 for no limit.
+   * @param maxEntries Maximum number of index files, 0 for no limit.
+   * @throws IOException If the cache folder can not be created.
+   */
+  public DescriptorIndexCache(File folder, long maxSize, int maxEntries) throws IOException {
+    this.folder = folder;
+    this.maxSize = maxSize;
+    this.maxEntries = maxEntries;
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.evictions = new AtomicLong();
+    //Access order, least recently used first.
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    Files.createDirectories(folder.toPath());
+    loadEntries();
+  }
+
+  /**
+   * Cache folder.
+   *
+   * @return Cache folder.
+   */
+  public File getFolder() {
+    return folder;
+  }
+
+  /**
+   * SHA-256 of a jar file.
+   *
+   * @param file Jar file.
+   * @return Hexadecimal SHA-256.
+   * @throws IOException If the file can not be read.
+   */
+  public static String hash(File file) throws IOException {
+    MessageDigest digest = createDigest();
+    try ( InputStream inputStream = Files.newInputStream(file.toPath())) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * SHA-256 of a jar content.
+   *
+   * @param content Jar content, from its position to its limit.
+   * @return Hexadecimal SHA-256.
+   */
+  public static String hash(ByteBuffer content) {
+    MessageDigest digest = createDigest();
+    digest.update(content.duplicate());
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Read the index of a jar.
+   *
+   * @param sha256 SHA-256 of the jar.
+   * @return Class descriptors of the jar or null if the jar is not indexed.
+   */
+  public List<ClassDescriptor> get(String sha256) {
+    List<ClassDescriptor> result = null;
+    File indexFile = new File(folder, sha256 + EXTENSION);
+    if (!indexFile.isFile()) {
+      //Evicted by a concurrent run.
+      forget(sha256);
+    } else {
+      try ( DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath()), BUFFER_SIZE))) {
+        result = DescriptorIndexFormat.read(input);
+        //Most recently used, for this run and the next ones.
+        indexFile.setLastModified(System.currentTimeMillis());
+        touch(sha256, indexFile.length());
+      } catch (IOException ex) {
+        Logger.getLogger(DescriptorIndexCache.class.getName()).log(Level.WARNING, "Index file ignored : {0}", indexFile.getAbsolutePath());
+        result = null;
+      }
+    }
+    if (result != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+    return result;
+  }
+
+  /**
+   * Store the index of a jar, then evict the least recently used indexes if the cache is over its limits.
+   *
+   * @param sha256 SHA-256 of the jar.
+   * @param classDescriptors Class descriptors of the jar.
+   */
+  public void put(String sha256, List<ClassDescriptor> classDescriptors) {
+    Path target = new File(folder, sha256 + EXTENSION).toPath();
+    Path temporary = null;
+    try {
+      //Write aside then move, so concurrent runs never read a partial index.
+      temporary = Files.createTempFile(folder.toPath(), sha256, ".tmp");
+      try ( OutputStream outputStream = Files.newOutputStream(temporary);
+          DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE))) {
+        DescriptorIndexFormat.write(output, classDescriptors);
+      }
+      try {
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+      touchAndEvict(sha256, target.toFile().length());
+    } catch (IOException ex) {
+      Logger.getLogger(DescriptorIndexCache.class.getName()).log(Level.WARNING, "Index file not written : {0}", target);
+      if (temporary != null) {
+        temporary.toFile().delete();
+      }
+    }
+  }
+
+  /**
+   * Number of index files in the cache.
+   *
+   * @return Number of index files.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Size of the index files in the cache.
+   *
+   * @return Size in bytes.
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  /**
+   * List the index files once, from the least to the most recently used.
+   */
+  private synchronized void loadEntries() {
+    File[] files = folder.listFiles((dir, name) -> name.endsWith(EXTENSION));
+    if (files == null) {
+      return;
+    }
+    Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+    for (File indexFile : files) {
+      String name = indexFile.getName();
+      touch(name.substring(0, name.length() - EXTENSION.length()), indexFile.length());
+    }
+  }
+
+  /**
+   * Mark an index as the most recently used one.
+   *
+   * @param sha256 SHA-256 of the jar.
+   * @param length Index file length.
+   */
+  private synchronized void touch(String sha256, long length) {
+    Long previous = entries.put(sha256, length);
+    size += length - ((previous == null) ? 0 : previous);
+  }
+
+  /**
+   * Remove an index from the view.
+   *
+   * @param sha256 SHA-256 of the jar.
+   */
+  private synchronized void forget(String sha256) {
+    Long length = entries.remove(sha256);
+    if (length != null) {
+      size -= length;
+    }
+  }
+
+  /**
+   * Mark an index as the most recently used one, then evict the least recently used ones until the cache fits its limits. The most recently used index is always kept.
+   *
+   * @param sha256 SHA-256 of the jar.
+   * @param length Index file length.
+   */
+  private synchronized void touchAndEvict(String sha256, long length) {
+    touch(sha256, length);
+    Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+    while (entries.size() > 1 && ((maxSize > 0 && size > maxSize) || (maxEntries > 0 && entries.size() > maxEntries))) {
+      Map.Entry<String, Long> eldest = iterator.next();
+      //Gone files, evicted by a concurrent run, only leave the view.
+      if (new File(folder, eldest.getKey() + EXTENSION).delete()) {
+        evictions.incrementAndGet();
+      }
+      size -= eldest.getValue();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Number of jars read from the cache.
+   *
+   * @return Number of cache hits.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Number of jars indexed because they were not in the cache.
+   *
+   * @return Number of cache misses.
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Number of index files evicted.
+   *
+   * @return Number of evictions.
+   */
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      //SHA-256 is required on every Java platform.
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for (byte value : bytes) {
+      builder.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d jars from cache, %d jars indexed, %d index files evicted", getHits(), getMisses(), getEvictions());
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.index;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.AnnotationDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ParameterDescriptor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of a jar index file, the class descriptors of one jar.
+ *
+ * <p>
+ * Annotation values are written with the class file element value tags: B, C, S, Z, I, J, F, D for primitives, s for strings, enum constants and classes, @ for nested annotations and [ for arrays.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class DescriptorIndexFormat {
+
+  private static final int MAGIC = 0x4A454549;
+  private static final int VERSION = 1;
+
+  /**
+   * Private constructor.
+   */
+  private DescriptorIndexFormat() {
+  }
+
+  /**
+   * Write the class descriptors of a jar.
+   *
+   * @param output Output stream.
+   * @param classDescriptors Class descriptors.
+   * @throws IOException IOException.
+   */
+  public static void write(DataOutputStream output, List<ClassDescriptor> classDescriptors) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    output.writeInt(classDescriptors.size());
+    for (ClassDescriptor classDescriptor : classDescriptors) {
+      writeString(output, classDescriptor.getName());
+      writeNullableString(output, classDescriptor.getSuperName());
+      output.writeInt(classDescriptor.getInterfaces().size());
+      for (String implemented : classDescriptor.getInterfaces()) {
+        writeString(output, implemented);
+      }
+      output.writeInt(classDescriptor.getAccess());
+      writeAnnotations(output, classDescriptor.getAnnotations());
+      output.writeInt(classDescriptor.getMethods().size());
+      for (MethodDescriptor method : classDescriptor.getMethods()) {
+        writeString(output, method.getName());
+        writeString(output, method.getDescriptor());
+        output.writeInt(method.getAccess());
+        writeAnnotations(output, method.getAnnotations());
+        output.writeInt(method.getParameters().size());
+        for (ParameterDescriptor parameter : method.getParameters()) {
+          writeString(output, parameter.getName());
+          writeString(output, parameter.getType());
+          writeAnnotations(output, parameter.getAnnotations());
+        }
+      }
+    }
+  }
+
+  /**
+   * Read the class descriptors of a jar.
+   *
+   * @param input Input stream.
+   * @return Class descriptors.
+   * @throws IOException If the index is invalid.
+   */
+  public static List<ClassDescriptor> read(DataInputStream input) throws IOException {
+    if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+      throw new IOException("Unsupported index file");
+    }
+    int classCount = input.readInt();
+    List<ClassDescriptor> result = new ArrayList<>(classCount);
+    for (int i = 0; i < classCount; ++i) {
+      String name = readString(input);
+      String superName = readNullableString(input);
+      int interfaceCount = input.readInt();
+      List<String> interfaces = new ArrayList<>(interfaceCount);
+      for (int j = 0; j < interfaceCount; ++j) {
+        interfaces.add(readString(input));
+      }
+      int access = input.readInt();
+      Map<String, AnnotationDescriptor> annotations = readAnnotations(input);
+      int methodCount = input.readInt();
+      List<MethodDescriptor> methods = new ArrayList<>(methodCount);
+      for (int j = 0; j < methodCount; ++j) {
+        String methodName = readString(input);
+        String descriptor = readString(input);
+        int methodAccess = input.readInt();
+        Map<String, AnnotationDescriptor> methodAnnotations = readAnnotations(input);
+        int parameterCount = input.readInt();
+        List<ParameterDescriptor> parameters = new ArrayList<>(parameterCount);
+        for (int k = 0; k < parameterCount; ++k) {
+          parameters.add(new ParameterDescriptor(readString(input), readString(input), readAnnotations(input)));
+        }
+        methods.add(new MethodDescriptor(name, methodName, descriptor, methodAccess, methodAnnotations, parameters));
+      }
+      result.add(new ClassDescriptor(name, superName, interfaces, access, annotations, methods));
+    }
+    return result;
+  }
+
+  private static void writeAnnotations(DataOutputStream output, Map<String, AnnotationDescriptor> annotations) throws IOException {
+    output.writeInt(annotations.size());
+    for (AnnotationDescriptor annotation : annotations.values()) {
+      writeAnnotation(output, annotation);
+    }
+  }
+
+  private static Map<String, AnnotationDescriptor> readAnnotations(DataInputStream input) throws IOException {
+    int count = input.readInt();
+    Map<String, AnnotationDescriptor> result = new LinkedHashMap<>();
+    for (int i = 0; i < count; ++i) {
+      AnnotationDescriptor annotation = readAnnotation(input);
+      result.put(annotation.getType(), annotation);
+    }
+    return result;
+  }
+
+  private static void writeAnnotation(DataOutputStream output, AnnotationDescriptor annotation) throws IOException {
+    writeString(output, annotation.getType());
+    output.writeInt(annotation.getValues().size());
+    for (Map.Entry<String, Object> value : annotation.getValues().entrySet()) {
+      writeString(output, value.getKey());
+      writeValue(output, value.getValue());
+    }
+  }
+
+  private static AnnotationDescriptor readAnnotation(DataInputStream input) throws IOException {
+    String type = readString(input);
+    int count = input.readInt();
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (int i = 0; i < count; ++i) {
+      String name = readString(input);
+      values.put(name, readValue(input));
+    }
+    return new AnnotationDescriptor(type, values);
+  }
+
+  private static void writeValue(DataOutputStream output, Object value) throws IOException {
+    if (value instanceof Byte) {
+      output.writeByte('B');
+      output.writeByte((Byte) value);
+    } else if (value instanceof Character) {
+      output.writeByte('C');
+      output.writeChar((Character) value);
+    } else if (value instanceof Short) {
+      output.writeByte('S');
+      output.writeShort((Short) value);
+    } else if (value instanceof Boolean) {
+      output.writeByte('Z');
+      output.writeBoolean((Boolean) value);
+    } else if (value instanceof Integer) {
+      output.writeByte('I');
+      output.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      output.writeByte('J');
+      output.writeLong((Long) value);
+    } else if (value instanceof Float) {
+      output.writeByte('F');
+      output.writeFloat((Float) value);
+    } else if (value instanceof Double) {
+      output.writeByte('D');
+      output.writeDouble((Double) value);
+    } else if (value instanceof AnnotationDescriptor) {
+      output.writeByte('@');
+      writeAnnotation(output, (AnnotationDescriptor) value);
+    } else if (value instanceof List) {
+      List<?> values = (List<?>) value;
+      output.writeByte('[');
+      output.writeInt(values.size());
+      for (Object element : values) {
+        writeValue(output, element);
+      }
+    } else {
+      output.writeByte('s');
+      writeString(output, String.valueOf(value));
+    }
+  }
+
+  private static Object readValue(DataInputStream input) throws IOException {
+    Object result;
+    int tag = input.readUnsignedByte();
+    switch (tag) {
+      case 'B':
+        result = input.readByte();
+        break;
+      case 'C':
+        result = input.readChar();
+        break;
+      case 'S':
+        result = input.readShort();
+        break;
+      case 'Z':
+        result = input.readBoolean();
+        break;
+      case 'I':
+        result = input.readInt();
+        break;
+      case 'J':
+        result = input.readLong();
+        break;
+      case 'F':
+        result = input.readFloat();
+        break;
+      case 'D':
+        result = input.readDouble();
+        break;
+      case 's':
+        result = readString(input);
+        break;
+      case '@':
+        result = readAnnotation(input);
+        break;
+      case '[':
+        int count = input.readInt();
+        List<Object> values = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+          values.add(readValue(input));
+        }
+        result = Collections.unmodifiableList(values);
+        break;
+      default:
+        throw new IOException("Invalid value tag " + tag);
+    }
+    return result;
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    int length = input.readInt();
+    if (length < 0) {
+      throw new IOException("Invalid string length " + length);
+    }
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeNullableString(DataOutputStream output, String value) throws IOException {
+    output.writeBoolean(value != null);
+    if (value != null) {
+      writeString(output, value);
+    }
+  }
+
+  private static String readNullableString(DataInputStream input) throws IOException {
+    return input.readBoolean() ? readString(input) : null;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.entrypoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink forwarding every entrypoint to several sinks, in order.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class CompositeEntrypointSink implements EntrypointSink {
+
+  private final List<EntrypointSink> sinks;
+
+  /**
+   * CompositeEntrypointSink constructor.
+   *
+   * @param sinks Sinks, in forwarding order.
+   */
+  public CompositeEntrypointSink(List<EntrypointSink> sinks) {
+    this.sinks = new ArrayList<>(sinks);
+  }
+
+  @Override
+  public void addFilter(Filter filter) {
+    for (EntrypointSink sink : sinks) {
+      sink.addFilter(filter);
+    }
+  }
+
+  @Override
+  public void addServlet(Servlet servlet) {
+    for (EntrypointSink sink : sinks) {
+      sink.addServlet(servlet);
+    }
+  }
+
+  @Override
+  public void addRestEndpoint(RestEndpoint restEndpoint) {
+    for (EntrypointSink sink : sinks) {
+      sink.addRestEndpoint(restEndpoint);
+    }
+  }
+
+  @Override
+  public void addSoapEndpoint(SoapEndpoint soapEndpoint) {
+    for (EntrypointSink sink : sinks) {
+      sink.addSoapEndpoint(soapEndpoint);
+    }
+  }
+
+  @Override
+  public void addJsp(Jsp jsp) {
+    for (EntrypointSink sink : sinks) {
+      sink.addJsp(jsp);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.entrypoint;
+
+/**
+ * Entrypoints sink, receiving the entrypoints as the analyzers find them.
+ *
+ * <p>
+ * The analysis engine calls a sink from one thread at a time, sinks need not be thread-safe. A sink that is slow to consume holds back the analysis.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public interface EntrypointSink {
+
+  /**
+   * Add filter.
+   *
+   * @param filter Filter to add.
+   */
+  void addFilter(Filter filter);
+
+  /**
+   * Add servlet.
+   *
+   * @param servlet Servlet to add.
+   */
+  void addServlet(Servlet servlet);
+
+  /**
+   * Add REST endpoint.
+   *
+   * @param restEndpoint REST endpoint to add.
+   */
+  void addRestEndpoint(RestEndpoint restEndpoint);
+
+  /**
+   * Add SOAP endpoint.
+   *
+   * @param soapEndpoint SOAP endpoint to add.
+   */
+  void addSoapEndpoint(SoapEndpoint soapEndpoint);
+
+  /**
+   * Add JSP.
+   *
+   * @param jsp JSP to add.
+   */
+  void addJsp(Jsp jsp);
+}
@@ -22,13 +22,19 @@ import java.util.List;
 /**
  * Entrypoints class.
  *
+ * <p>
+ * Sink collecting every entrypoint, for the exports needing all of them at once.
+ * </p>
+ *
  * @author Maxime ESCOURBIAC
  */
-public class Entrypoints {
+public class Entrypoints implements EntrypointSink {
 
   private List<Filter> filters;
   private List<Servlet> servlets;
   private List<RestEndpoint> restEndpoints;
+  private List<SoapEndpoint> soapEndpoints;
+  private List<Jsp> jsps;
 
   /**
    * Default constructor.
@@ -37,6 +43,8 @@ public class Entrypoints {
     this.filters = new ArrayList<>();
     this.servlets = new ArrayList<>();
     this.restEndpoints = new ArrayList<>();
+    this.soapEndpoints = new ArrayList<>();
+    this.jsps = new ArrayList<>();
   }
 
   /**
@@ -93,11 +101,48 @@ public class Entrypoints {
     this.restEndpoints = restEndpoints;
   }
 
+  /**
+   * All SOAP endpoints.
+   *
+   * @return All SOAP endpoints.
+   */
+  public List<SoapEndpoint> getSoapEndpoints() {
+    return soapEndpoints;
+  }
+
+  /**
+   * All SOAP endpoints.
+   *
+   * @param soapEndpoints All SOAP endpoints.
+   */
+  public void setSoapEndpoints(List<SoapEndpoint> soapEndpoints) {
+    this.soapEndpoints = soapEndpoints;
+  }
+
+  /**
+   * All JSPs.
+   *
+   * @return All JSPs.
+   */
+  public List<Jsp> getJsps() {
+    return jsps;
+  }
+
+  /**
+   * All JSPs.
+   *
+   * @param jsps All JSPs.
+   */
+  public void setJsps(List<Jsp> jsps) {
+    this.jsps = jsps;
+  }
+
   /**
    * Add filter.
    *
    * @param filter Filter to add.
    */
+  @Override
   public void addFilter(Filter filter) {
     this.filters.add(filter);
   }
@@ -107,17 +152,75 @@ public class Entrypoints {
    *
    * @param servlet Servlet to add.
    */
+  @Override
   public void addServlet(Servlet servlet) {
     this.servlets.add(servlet);
   }
 
+  /**
+   * Add all the entrypoints of another collector, after the current ones.
+   *
+   * @param other Other collector.
+   */
+  public void addAll(Entrypoints other) {
+    this.filters.addAll(other.filters);
+    this.servlets.addAll(other.servlets);
+    this.restEndpoints.addAll(other.restEndpoints);
+    this.soapEndpoints.addAll(other.soapEndpoints);
+    this.jsps.addAll(other.jsps);
+  }
+
+  /**
+   * Push all the entrypoints to a sink, filters first then servlets, REST endpoints, SOAP endpoints and JSPs.
+   *
+   * @param sink Entrypoints sink.
+   */
+  public void pushTo(EntrypointSink sink) {
+    for (Filter filter : filters) {
+      sink.addFilter(filter);
+    }
+    for (Servlet servlet : servlets) {
+      sink.addServlet(servlet);
+    }
+    for (RestEndpoint restEndpoint : restEndpoints) {
+      sink.addRestEndpoint(restEndpoint);
+    }
+    for (SoapEndpoint soapEndpoint : soapEndpoints) {
+      sink.addSoapEndpoint(soapEndpoint);
+    }
+    for (Jsp jsp : jsps) {
+      sink.addJsp(jsp);
+    }
+  }
+
   /**
    * Add REST endpoint.
    *
    * @param restEndpoint REST endpoint to add.
    */
+  @Override
   public void addRestEndpoint(RestEndpoint restEndpoint) {
     this.restEndpoints.add(restEndpoint);
   }
 
+  /**
+   * Add SOAP endpoint.
+   *
+   * @param soapEndpoint SOAP endpoint to add.
+   */
+  @Override
+  public void addSoapEndpoint(SoapEndpoint soapEndpoint) {
+    this.soapEndpoints.add(soapEndpoint);
+  }
+
+  /**
+   * Add JSP.
+   *
+   * @param jsp JSP to add.
+   */
+  @Override
+  public void addJsp(Jsp jsp) {
+    this.jsps.add(jsp);
+  }
+
 }
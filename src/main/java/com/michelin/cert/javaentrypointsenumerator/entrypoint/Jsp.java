@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.entrypoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSP class.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class Jsp {
+
+  private String url;
+  private List<String> parameters;
+
+  /**
+   * Default constructor.
+   */
+  public Jsp() {
+    this.parameters = new ArrayList<>();
+  }
+
+  /**
+   * JSP constructor.
+   *
+   * @param url JSP url.
+   */
+  public Jsp(String url) {
+    this();
+    this.url = url;
+  }
+
+  /**
+   * JSP url.
+   *
+   * @return JSP url.
+   */
+  public String getUrl() {
+    return url;
+  }
+
+  /**
+   * JSP url.
+   *
+   * @param url JSP url.
+   */
+  public void setUrl(String url) {
+    this.url = url;
+  }
+
+  /**
+   * Names of the request parameters read by the JSP.
+   *
+   * @return Request parameter names.
+   */
+  public List<String> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Names of the request parameters read by the JSP.
+   *
+   * @param parameter Request parameter name.
+   */
+  public void addParameter(String parameter) {
+    if (!this.parameters.contains(parameter)) {
+      this.parameters.add(parameter);
+    }
+  }
+
+  /**
+   * Names of the request parameters read by the JSP.
+   *
+   * @param parameters Request parameter names.
+   */
+  public void setParameters(List<String> parameters) {
+    this.parameters = parameters;
+  }
+}
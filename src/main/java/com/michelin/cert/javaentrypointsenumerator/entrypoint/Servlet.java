@@ -19,7 +19,10 @@ package com.michelin.cert.javaentrypointsenumerator.entrypoint;
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Servlet class.
@@ -31,14 +34,14 @@ public class Servlet {
   private String servletName;
   private String servletClass;
   private List<String> urls;
-  private List<HttpMethod> methods;
+  private EnumSet<HttpMethod> methods;
 
   /**
    * Default constructor.
    */
   public Servlet() {
     this.urls = new ArrayList<>();
-    this.methods = new ArrayList<>();
+    this.methods = EnumSet.noneOf(HttpMethod.class);
   }
 
   /**
@@ -121,7 +124,7 @@ public class Servlet {
    *
    * @return Servlet http methods.
    */
-  public List<HttpMethod> getMethods() {
+  public Set<HttpMethod> getMethods() {
     return methods;
   }
 
@@ -131,9 +134,16 @@ public class Servlet {
    * @param method Servlet http methods.
    */
   public void addMethod(HttpMethod method) {
-    if (!this.methods.contains(method)) {
-      this.methods.add(method);
-    }
+    this.methods.add(method);
+  }
+
+  /**
+   * Servlet http methods.
+   *
+   * @param methods Servlet http methods to add.
+   */
+  public void addMethods(Collection<HttpMethod> methods) {
+    this.methods.addAll(methods);
   }
 
   /**
@@ -141,7 +151,8 @@ public class Servlet {
    *
    * @param methods Servlet http methods.
    */
-  public void setMethods(List<HttpMethod> methods) {
-    this.methods = methods;
+  public void setMethods(Collection<HttpMethod> methods) {
+    this.methods = EnumSet.noneOf(HttpMethod.class);
+    this.methods.addAll(methods);
   }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.entrypoint;
+
+/**
+ * SOAP endpoint class.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class SoapEndpoint {
+
+  private String className;
+  private String serviceName;
+  private String methodName;
+  private String operationName;
+  private String url;
+
+  /**
+   * Endpoint class name.
+   *
+   * @return Endpoint class name.
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Endpoint class name.
+   *
+   * @param className Endpoint class name.
+   */
+  public void setClassName(String className) {
+    this.className = className;
+  }
+
+  /**
+   * Endpoint service name.
+   *
+   * @return Endpoint service name.
+   */
+  public String getServiceName() {
+    return serviceName;
+  }
+
+  /**
+   * Endpoint service name.
+   *
+   * @param serviceName Endpoint service name.
+   */
+  public void setServiceName(String serviceName) {
+    this.serviceName = serviceName;
+  }
+
+  /**
+   * Endpoint method name.
+   *
+   * @return Endpoint method name.
+   */
+  public String getMethodName() {
+    return methodName;
+  }
+
+  /**
+   * Endpoint method name.
+   *
+   * @param methodName Endpoint method name.
+   */
+  public void setMethodName(String methodName) {
+    this.methodName = methodName;
+  }
+
+  /**
+   * Endpoint operation name.
+   *
+   * @return Endpoint operation name.
+   */
+  public String getOperationName() {
+    return operationName;
+  }
+
+  /**
+   * Endpoint operation name.
+   *
+   * @param operationName Endpoint operation name.
+   */
+  public void setOperationName(String operationName) {
+    this.operationName = operationName;
+  }
+
+  /**
+   * Endpoint url.
+   *
+   * @return Endpoint url.
+   */
+  public String getUrl() {
+    return url;
+  }
+
+  /**
+   * Endpoint url.
+   *
+   * @param url Endpoint url.
+   */
+  public void setUrl(String url) {
+    this.url = url;
+  }
+}
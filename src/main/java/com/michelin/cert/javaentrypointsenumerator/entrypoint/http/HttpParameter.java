@@ -24,7 +24,7 @@ package com.michelin.cert.javaentrypointsenumerator.entrypoint.http;
 public class HttpParameter {
 
   private String name;
-  private Class model;
+  private String model;
   private HttpParameterType type;
 
   public HttpParameter() {
@@ -38,11 +38,11 @@ public class HttpParameter {
     this.name = name;
   }
 
-  public Class getModel() {
+  public String getModel() {
     return model;
   }
 
-  public void setModel(Class model) {
+  public void setModel(String model) {
     this.model = model;
   }
 
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV exporter class.
+ *
+ * <p>
+ * Every entrypoint type shares the same columns: type, name, class, method, http method, url and parameters. Like the Excel sheets, filters get one row per url and servlets one row per url and http
+ * method. Parameters are separated by semicolons. Values are quoted as defined by RFC 4180.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class CsvExporter extends StreamingExporter {
+
+  private static final String HEADER = "type,name,class,method,http_method,url,parameters\r\n";
+
+  @Override
+  protected void writeHeader(Writer writer) throws IOException {
+    writer.write(HEADER);
+  }
+
+  @Override
+  protected void writeFilter(Writer writer, Filter filter) throws IOException {
+    for (String url : filter.getUrls()) {
+      writeRow(writer, "filter", filter.getFilterName(), filter.getFilterClass(), null, null, url, null);
+    }
+  }
+
+  @Override
+  protected void writeServlet(Writer writer, Servlet servlet) throws IOException {
+    for (String url : servlet.getUrls()) {
+      for (HttpMethod httpMethod : servlet.getMethods()) {
+        writeRow(writer, "servlet", servlet.getServletName(), servlet.getServletClass(), null, httpMethod.name(), url, null);
+      }
+    }
+  }
+
+  @Override
+  protected void writeRestEndpoint(Writer writer, RestEndpoint restEndpoint) throws IOException {
+    StringBuilder parameters = new StringBuilder();
+    for (HttpParameter httpParameter : restEndpoint.getParameters()) {
+      if (parameters.length() > 0) {
+        parameters.append(';');
+      }
+      parameters.append(httpParameter.getType()).append(' ').append(httpParameter.getModel()).append(' ').append(httpParameter.getName());
+    }
+    writeRow(writer, "rest", null, restEndpoint.getClassName(), restEndpoint.getMethodName(), (restEndpoint.getMethod() == null) ? null : restEndpoint.getMethod().name(),
+        restEndpoint.getUrl(), parameters.toString());
+  }
+
+  @Override
+  protected void writeSoapEndpoint(Writer writer, SoapEndpoint soapEndpoint) throws IOException {
+    writeRow(writer, "soap", soapEndpoint.getServiceName() + "#" + soapEndpoint.getOperationName(), soapEndpoint.getClassName(), soapEndpoint.getMethodName(), null, soapEndpoint.getUrl(), null);
+  }
+
+  @Override
+  protected void writeJsp(Writer writer, Jsp jsp) throws IOException {
+    writeRow(writer, "jsp", null, null, null, null, jsp.getUrl(), String.join(";", jsp.getParameters()));
+  }
+
+  private static void writeRow(Writer writer, String... values) throws IOException {
+    for (int i = 0; i < values.length; ++i) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeValue(writer, values[i]);
+    }
+    writer.write("\r\n");
+  }
+
+  /**
+   * Write a CSV value, quoted if it holds a comma, a quote or a line break.
+   *
+   * @param writer Writer.
+   * @param value Value, null written as an empty value.
+   * @throws IOException If the writer fails.
+   */
+  private static void writeValue(Writer writer, String value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    boolean quoted = false;
+    for (int i = 0; !quoted && i < value.length(); ++i) {
+      char character = value.charAt(i);
+      quoted = character == ',' || character == '"' || character == '\n' || character == '\r';
+    }
+    if (quoted) {
+      writer.write('"');
+      writer.write(value.replace("\"", "\"\""));
+      writer.write('"');
+    } else {
+      writer.write(value);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Sink appending each entrypoint to the sheet of its type as soon as it is received.
+ *
+ * <p>
+ * Every sheet is created up front and stays open, each one keeping its own window of rows in memory, older rows being flushed to temporary files. The workbook is written by {@link #write()}, the
+ * temporary files are deleted by {@link #close()}.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ExcelExportSink implements EntrypointSink, Closeable {
+
+  private final File outputFile;
+  private final SXSSFWorkbook workbook;
+  private final SXSSFSheet filterSheet;
+  private final SXSSFSheet servletSheet;
+  private final SXSSFSheet restEndpointSheet;
+  private final SXSSFSheet soapEndpointSheet;
+  private final SXSSFSheet jspSheet;
+  private int filterRows;
+  private int servletRows;
+  private int restEndpointRows;
+  private int soapEndpointRows;
+  private int jspRows;
+
+  /**
+   * ExcelExportSink constructor.
+   *
+   * @param outputFile Output file.
+   * @param rowWindow Number of rows per sheet kept in memory, -1 to keep every row.
+   * @param compressTempFiles True to compress the temporary files of the flushed rows.
+   */
+  public ExcelExportSink(File outputFile, int rowWindow, boolean compressTempFiles) {
+    this.outputFile = outputFile;
+    this.workbook = new SXSSFWorkbook(null, rowWindow, compressTempFiles);
+    this.filterSheet = workbook.createSheet("Filters");
+    this.servletSheet = workbook.createSheet("Servlets");
+    this.restEndpointSheet = workbook.createSheet("REST Endpoints");
+    this.soapEndpointSheet = workbook.createSheet("SOAP Endpoints");
+    this.jspSheet = workbook.createSheet("JSPs");
+  }
+
+  @Override
+  public void addFilter(Filter filter) {
+    for (String url : filter.getUrls()) {
+      addRow(filterSheet, filterRows++, filter.getFilterName(), filter.getFilterClass(), url);
+    }
+  }
+
+  @Override
+  public void addServlet(Servlet servlet) {
+    for (String url : servlet.getUrls()) {
+      for (HttpMethod httpMethod : servlet.getMethods()) {
+        addRow(servletSheet, servletRows++, servlet.getServletName(), servlet.getServletClass(), httpMethod.name(), url);
+      }
+    }
+  }
+
+  @Override
+  public void addRestEndpoint(RestEndpoint restEndpoint) {
+    Row row = addRow(restEndpointSheet, restEndpointRows++, restEndpoint.getClassName(), restEndpoint.getMethodName(), restEndpoint.getMethod().name(), restEndpoint.getUrl());
+    int columnCount = row.getLastCellNum();
+    for (HttpParameter httpParameter : restEndpoint.getParameters()) {
+      row.createCell(columnCount++).setCellValue(httpParameter.getType() + " " + httpParameter.getModel() + " " + httpParameter.getName());
+    }
+  }
+
+  @Override
+  public void addSoapEndpoint(SoapEndpoint soapEndpoint) {
+    addRow(soapEndpointSheet, soapEndpointRows++, soapEndpoint.getClassName(), soapEndpoint.getServiceName(), soapEndpoint.getMethodName(), soapEndpoint.getOperationName(), soapEndpoint.getUrl());
+  }
+
+  @Override
+  public void addJsp(Jsp jsp) {
+    Row row = addRow(jspSheet, jspRows++, jsp.getUrl());
+    int columnCount = row.getLastCellNum();
+    for (String parameter : jsp.getParameters()) {
+      row.createCell(columnCount++).setCellValue(parameter);
+    }
+  }
+
+  /**
+   * Write the workbook to the output file.
+   *
+   * @throws IOException If the file can not be written.
+   */
+  public void write() throws IOException {
+    try ( FileOutputStream outputStream = new FileOutputStream(outputFile)) {
+      workbook.write(outputStream);
+    }
+  }
+
+  /**
+   * Delete the temporary files of the flushed rows.
+   */
+  @Override
+  public void close() {
+    workbook.dispose();
+  }
+
+  /**
+   * Get the workbook being filled.
+   *
+   * @return Streamed workbook.
+   */
+  SXSSFWorkbook getWorkbook() {
+    return workbook;
+  }
+
+  /**
+   * Append a row at the end of a sheet.
+   *
+   * @param sheet Sheet.
+   * @param rowIndex Index of the row, the number of rows already in the sheet.
+   * @param values Cell values, in column order.
+   * @return Row created.
+   */
+  private static Row addRow(SXSSFSheet sheet, int rowIndex, String... values) {
+    Row row = sheet.createRow(rowIndex);
+    int columnCount = 0;
+    for (String value : values) {
+      row.createCell(columnCount++).setCellValue(value);
+    }
+    return row;
+  }
+}
@@ -17,99 +17,65 @@
 package com.michelin.cert.javaentrypointsenumerator.export;
 
 import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
-import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameter;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 /**
  * Excel exporter class.
  *
+ * <p>
+ * Sheets are streamed: only a window of rows is kept in memory, older rows are flushed to temporary files, so memory use does not grow with the number of rows. Rows are appended through an
+ * {@link ExcelExportSink}, which can be fed while the analysis runs.
+ * </p>
+ *
  * @author Maxime ESCOURBIAC
  */
 public class ExcelExporter extends Exporter {
 
-  @Override
-  public void export(File outputFile, Entrypoints inputs) {
-
-    XSSFWorkbook workbook = new XSSFWorkbook();
+  private final int rowWindow;
+  private final boolean compressTempFiles;
 
-    //Export filters.
-    XSSFSheet sheet = workbook.createSheet("Filters");
-    int rowCount = 0;
-    for (Filter filter : inputs.getFilters()) {
-      for (String url : filter.getUrls()) {
-        int columnCount = 0;
-        Row row = sheet.createRow(rowCount++);
-        Cell cell = row.createCell(columnCount++);
-        cell.setCellValue(filter.getFilterName());
-        cell = row.createCell(columnCount++);
-        cell.setCellValue(filter.getFilterClass());
-        cell = row.createCell(columnCount++);
-        cell.setCellValue(url);
-      }
-    }
-
-    //Export servlets.
-    sheet = workbook.createSheet("Servlets");
-    rowCount = 0;
-    for (Servlet servlet : inputs.getServlets()) {
-      for (String url : servlet.getUrls()) {
-        for (HttpMethod httpMethod : servlet.getMethods()) {
-          int columnCount = 0;
-          Row row = sheet.createRow(rowCount++);
-          Cell cell = row.createCell(columnCount++);
-          cell.setCellValue(servlet.getServletName());
-          cell = row.createCell(columnCount++);
-          cell.setCellValue(servlet.getServletClass());
-          cell = row.createCell(columnCount++);
-          cell.setCellValue(httpMethod.name());
-          cell = row.createCell(columnCount++);
-          cell.setCellValue(url);
-        }
-      }
-    }
+  /**
+   * Default constructor, keeping 100 rows per sheet in memory and compressing temporary files.
+   */
+  public ExcelExporter() {
+    this(SXSSFWorkbook.DEFAULT_WINDOW_SIZE, true);
+  }
 
-    //Export REST Endpoints.
-    sheet = workbook.createSheet("REST Endpoints");
-    rowCount = 0;
-    for (RestEndpoint restEndpoints : inputs.getRestEndpoints()) {
-      int columnCount = 0;
-      Row row = sheet.createRow(rowCount++);
-      Cell cell = row.createCell(columnCount++);
-      cell.setCellValue(restEndpoints.getClassName());
-      cell = row.createCell(columnCount++);
-      cell.setCellValue(restEndpoints.getMethodName());
-      cell = row.createCell(columnCount++);
-      cell.setCellValue(restEndpoints.getMethod().name());
-      cell = row.createCell(columnCount++);
-      cell.setCellValue(restEndpoints.getUrl());
-      for (HttpParameter httpParameter : restEndpoints.getParameters()) {
-        cell = row.createCell(columnCount++);
-        cell.setCellValue(httpParameter.getType() + " " + httpParameter.getModel().getName() + " " + httpParameter.getName());
-      }
-    }
+  /**
+   * ExcelExporter constructor.
+   *
+   * @param rowWindow Number of rows per sheet kept in memory, -1 to keep every row.
+   * @param compressTempFiles True to compress the temporary files of the flushed rows.
+   */
+  public ExcelExporter(int rowWindow, boolean compressTempFiles) {
+    this.rowWindow = rowWindow;
+    this.compressTempFiles = compressTempFiles;
+  }
 
-    try ( FileOutputStream outputStream = new FileOutputStream(outputFile)) {
-      workbook.write(outputStream);
-    } catch (FileNotFoundException ex) {
-      Logger.getLogger(ExcelExporter.class.getName()).log(Level.SEVERE, null, ex);
+  @Override
+  public void export(File outputFile, Entrypoints inputs) {
+    try ( ExcelExportSink sink = createSink(outputFile)) {
+      inputs.pushTo(sink);
+      sink.write();
     } catch (IOException ex) {
       Logger.getLogger(ExcelExporter.class.getName()).log(Level.SEVERE, null, ex);
     }
   }
 
+  /**
+   * Create a sink appending the entrypoints to a workbook as they are received, with the settings of this exporter.
+   *
+   * @param outputFile Output file.
+   * @return Excel sink, to be written then closed.
+   */
+  public ExcelExportSink createSink(File outputFile) {
+    return new ExcelExportSink(outputFile, rowWindow, compressTempFiles);
+  }
+
 }
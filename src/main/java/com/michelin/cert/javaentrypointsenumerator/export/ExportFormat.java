@@ -0,0 +1,38 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+/**
+ * Export format enumeration.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public enum ExportFormat {
+  /**
+   * Excel workbook, one sheet per entrypoint type.
+   */
+  XLSX,
+  /**
+   * JSON Lines, one JSON object per entrypoint.
+   */
+  JSONL,
+  /**
+   * CSV, one row per entrypoint url and http method.
+   */
+  CSV
+}
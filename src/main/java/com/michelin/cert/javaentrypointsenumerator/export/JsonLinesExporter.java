@@ -0,0 +1,181 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+
+/**
+ * JSON Lines exporter class.
+ *
+ * <p>
+ * Each entrypoint is written as one JSON object on its own line, its type given by the type member. Filters and servlets keep their urls and http methods as arrays.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class JsonLinesExporter extends StreamingExporter {
+
+  @Override
+  protected void writeFilter(Writer writer, Filter filter) throws IOException {
+    writer.write("{\"type\":\"filter\",\"name\":");
+    writeString(writer, filter.getFilterName());
+    writer.write(",\"class\":");
+    writeString(writer, filter.getFilterClass());
+    writer.write(",\"urls\":");
+    writeStrings(writer, filter.getUrls());
+    writer.write("}\n");
+  }
+
+  @Override
+  protected void writeServlet(Writer writer, Servlet servlet) throws IOException {
+    writer.write("{\"type\":\"servlet\",\"name\":");
+    writeString(writer, servlet.getServletName());
+    writer.write(",\"class\":");
+    writeString(writer, servlet.getServletClass());
+    writer.write(",\"methods\":[");
+    boolean first = true;
+    for (HttpMethod httpMethod : servlet.getMethods()) {
+      if (!first) {
+        writer.write(',');
+      }
+      writeString(writer, httpMethod.name());
+      first = false;
+    }
+    writer.write("],\"urls\":");
+    writeStrings(writer, servlet.getUrls());
+    writer.write("}\n");
+  }
+
+  @Override
+  protected void writeRestEndpoint(Writer writer, RestEndpoint restEndpoint) throws IOException {
+    writer.write("{\"type\":\"rest\",\"class\":");
+    writeString(writer, restEndpoint.getClassName());
+    writer.write(",\"method\":");
+    writeString(writer, restEndpoint.getMethodName());
+    writer.write(",\"httpMethod\":");
+    writeString(writer, (restEndpoint.getMethod() == null) ? null : restEndpoint.getMethod().name());
+    writer.write(",\"url\":");
+    writeString(writer, restEndpoint.getUrl());
+    writer.write(",\"parameters\":[");
+    boolean first = true;
+    for (HttpParameter httpParameter : restEndpoint.getParameters()) {
+      if (!first) {
+        writer.write(',');
+      }
+      writer.write("{\"type\":");
+      writeString(writer, (httpParameter.getType() == null) ? null : httpParameter.getType().name());
+      writer.write(",\"model\":");
+      writeString(writer, httpParameter.getModel());
+      writer.write(",\"name\":");
+      writeString(writer, httpParameter.getName());
+      writer.write('}');
+      first = false;
+    }
+    writer.write("]}\n");
+  }
+
+  @Override
+  protected void writeSoapEndpoint(Writer writer, SoapEndpoint soapEndpoint) throws IOException {
+    writer.write("{\"type\":\"soap\",\"class\":");
+    writeString(writer, soapEndpoint.getClassName());
+    writer.write(",\"service\":");
+    writeString(writer, soapEndpoint.getServiceName());
+    writer.write(",\"method\":");
+    writeString(writer, soapEndpoint.getMethodName());
+    writer.write(",\"operation\":");
+    writeString(writer, soapEndpoint.getOperationName());
+    writer.write(",\"url\":");
+    writeString(writer, soapEndpoint.getUrl());
+    writer.write("}\n");
+  }
+
+  @Override
+  protected void writeJsp(Writer writer, Jsp jsp) throws IOException {
+    writer.write("{\"type\":\"jsp\",\"url\":");
+    writeString(writer, jsp.getUrl());
+    writer.write(",\"parameters\":");
+    writeStrings(writer, jsp.getParameters());
+    writer.write("}\n");
+  }
+
+  private static void writeStrings(Writer writer, Collection<String> values) throws IOException {
+    writer.write('[');
+    boolean first = true;
+    for (String value : values) {
+      if (!first) {
+        writer.write(',');
+      }
+      writeString(writer, value);
+      first = false;
+    }
+    writer.write(']');
+  }
+
+  /**
+   * Write a JSON string, escaping quotes, backslashes and control characters.
+   *
+   * @param writer Writer.
+   * @param value String value, null written as null.
+   * @throws IOException If the writer fails.
+   */
+  private static void writeString(Writer writer, String value) throws IOException {
+    if (value == null) {
+      writer.write("null");
+      return;
+    }
+    writer.write('"');
+    for (int i = 0; i < value.length(); ++i) {
+      char character = value.charAt(i);
+      switch (character) {
+        case '"':
+          writer.write("\\\"");
+          break;
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '\r':
+          writer.write("\\r");
+          break;
+        case '\t':
+          writer.write("\\t");
+          break;
+        default:
+          if (character < 0x20) {
+            writer.write(String.format("\\u%04x", (int) character));
+          } else {
+            writer.write(character);
+          }
+          break;
+      }
+    }
+    writer.write('"');
+  }
+}
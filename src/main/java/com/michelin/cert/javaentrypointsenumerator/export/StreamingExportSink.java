@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sink writing each entrypoint to text exporters as soon as it is received.
+ *
+ * <p>
+ * Headers are written when the sink is created. The first writer failure stops every output, it is thrown back by {@link #flush()}.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class StreamingExportSink implements EntrypointSink {
+
+  private final Map<Writer, StreamingExporter> targets;
+  private IOException failure;
+
+  /**
+   * StreamingExportSink constructor.
+   *
+   * @param targets Exporter per writer.
+   * @throws IOException If a header can not be written.
+   */
+  public StreamingExportSink(Map<Writer, StreamingExporter> targets) throws IOException {
+    this.targets = new LinkedHashMap<>(targets);
+    for (Map.Entry<Writer, StreamingExporter> target : this.targets.entrySet()) {
+      target.getValue().writeHeader(target.getKey());
+    }
+  }
+
+  @Override
+  public void addFilter(Filter filter) {
+    write(filter, StreamingExporter::writeFilter);
+  }
+
+  @Override
+  public void addServlet(Servlet servlet) {
+    write(servlet, StreamingExporter::writeServlet);
+  }
+
+  @Override
+  public void addRestEndpoint(RestEndpoint restEndpoint) {
+    write(restEndpoint, StreamingExporter::writeRestEndpoint);
+  }
+
+  @Override
+  public void addSoapEndpoint(SoapEndpoint soapEndpoint) {
+    write(soapEndpoint, StreamingExporter::writeSoapEndpoint);
+  }
+
+  @Override
+  public void addJsp(Jsp jsp) {
+    write(jsp, StreamingExporter::writeJsp);
+  }
+
+  /**
+   * Flush the writers. Writers are not closed.
+   *
+   * @throws IOException If a writer failed, now or while writing an entrypoint.
+   */
+  public void flush() throws IOException {
+    if (failure != null) {
+      throw failure;
+    }
+    for (Writer writer : targets.keySet()) {
+      writer.flush();
+    }
+  }
+
+  private <T> void write(T entrypoint, EntrypointWriter<T> entrypointWriter) {
+    if (failure != null) {
+      return;
+    }
+    try {
+      for (Map.Entry<Writer, StreamingExporter> target : targets.entrySet()) {
+        entrypointWriter.write(target.getValue(), target.getKey(), entrypoint);
+      }
+    } catch (IOException ex) {
+      failure = ex;
+    }
+  }
+
+  /**
+   * Write method of an entrypoint type.
+   *
+   * @param <T> Entrypoint type.
+   */
+  private interface EntrypointWriter<T> {
+
+    void write(StreamingExporter exporter, Writer writer, T entrypoint) throws IOException;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Text exporter class, writing each entrypoint straight to a writer.
+ *
+ * <p>
+ * Entrypoints are written one by one, without building any intermediate document. Several exporters can be fed in a single pass over the entrypoints, or while the analysis runs through a
+ * {@link StreamingExportSink}.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public abstract class StreamingExporter extends Exporter {
+
+  @Override
+  public void export(File outputFile, Entrypoints entrypoints) {
+    try ( BufferedWriter writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+      exportAll(entrypoints, Collections.<Writer, StreamingExporter>singletonMap(writer, this));
+    } catch (IOException ex) {
+      Logger.getLogger(StreamingExporter.class.getName()).log(Level.SEVERE, null, ex);
+    }
+  }
+
+  /**
+   * Export entrypoints to several writers in a single pass. Writers are flushed, not closed.
+   *
+   * @param entrypoints Entrypoints to export.
+   * @param targets Exporter per writer.
+   * @throws IOException If a writer fails.
+   */
+  public static void exportAll(Entrypoints entrypoints, Map<Writer, StreamingExporter> targets) throws IOException {
+    StreamingExportSink sink = new StreamingExportSink(targets);
+    entrypoints.pushTo(sink);
+    sink.flush();
+  }
+
+  /**
+   * Write what comes before the entrypoints.
+   *
+   * @param writer Writer.
+   * @throws IOException If the writer fails.
+   */
+  protected void writeHeader(Writer writer) throws IOException {
+  }
+
+  /**
+   * Write a filter.
+   *
+   * @param writer Writer.
+   * @param filter Filter.
+   * @throws IOException If the writer fails.
+   */
+  protected abstract void writeFilter(Writer writer, Filter filter) throws IOException;
+
+  /**
+   * Write a servlet.
+   *
+   * @param writer Writer.
+   * @param servlet Servlet.
+   * @throws IOException If the writer fails.
+   */
+  protected abstract void writeServlet(Writer writer, Servlet servlet) throws IOException;
+
+  /**
+   * Write a REST endpoint.
+   *
+   * @param writer Writer.
+   * @param restEndpoint REST endpoint.
+   * @throws IOException If the writer fails.
+   */
+  protected abstract void writeRestEndpoint(Writer writer, RestEndpoint restEndpoint) throws IOException;
+
+  /**
+   * Write a SOAP endpoint.
+   *
+   * @param writer Writer.
+   * @param soapEndpoint SOAP endpoint.
+   * @throws IOException If the writer fails.
+   */
+  protected abstract void writeSoapEndpoint(Writer writer, SoapEndpoint soapEndpoint) throws IOException;
+
+  /**
+   * Write a JSP.
+   *
+   * @param writer Writer.
+   * @param jsp JSP.
+   * @throws IOException If the writer fails.
+   */
+  protected abstract void writeJsp(Writer writer, Jsp jsp) throws IOException;
+}
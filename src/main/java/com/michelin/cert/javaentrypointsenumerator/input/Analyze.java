@@ -16,6 +16,9 @@
 
 package com.michelin.cert.javaentrypointsenumerator.input;
 
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.export.ExportFormat;
+
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -38,15 +41,49 @@ import org.jdom2.input.SAXBuilder;
 public class Analyze {
 
   private File warFile;
+  private final List<File> warFiles;
+  private boolean batch;
+  private int batchThreads;
   private File explodedWarLocation;
   private File outputFile;
   private final List<String> libsToAnalyze;
+  private final List<Output> outputs;
+  private int extractionThreads;
+  private boolean extractWar;
+  private boolean incrementalExtraction;
+  private ScanningMode scanningMode;
+  private boolean classPrefilter;
+  private int loadingThreads;
+  private int analysisThreads;
+  private int indexingThreads;
+  private int pipelineQueueDepth;
+  private File indexCacheLocation;
+  private int indexCacheMaxSize;
+  private int indexCacheMaxEntries;
+  private int excelRowWindow;
+  private boolean excelCompressTempFiles;
 
   /**
    * Private constructor.
    */
   private Analyze() {
+    this.warFiles = new ArrayList<>();
+    this.batchThreads = 1;
     this.libsToAnalyze = new ArrayList<>();
+    this.outputs = new ArrayList<>();
+    this.extractionThreads = 1;
+    this.extractWar = true;
+    this.incrementalExtraction = true;
+    this.scanningMode = ScanningMode.REFLECTION;
+    this.classPrefilter = true;
+    this.loadingThreads = 1;
+    this.analysisThreads = 1;
+    this.indexingThreads = 0;
+    this.pipelineQueueDepth = 8;
+    this.indexCacheMaxSize = 512;
+    this.indexCacheMaxEntries = 0;
+    this.excelRowWindow = 100;
+    this.excelCompressTempFiles = true;
   }
 
   /**
@@ -58,6 +95,33 @@ public class Analyze {
     return this.warFile;
   }
 
+  /**
+   * War files of a batch job, the war file location first if set.
+   *
+   * @return War files to analyze.
+   */
+  public List<File> getWarFiles() {
+    return this.warFiles;
+  }
+
+  /**
+   * True if the job lists several wars, analyzed one by one with their own class loader and outputs.
+   *
+   * @return True for a batch job.
+   */
+  public boolean isBatch() {
+    return this.batch;
+  }
+
+  /**
+   * Number of wars analyzed at once in a batch job. The stage settings are then the budget of the whole batch, shared between the wars analyzed at once.
+   *
+   * @return Number of batch workers.
+   */
+  public int getBatchThreads() {
+    return this.batchThreads;
+  }
+
   /**
    * Exploded War location.
    *
@@ -68,14 +132,37 @@ public class Analyze {
   }
 
   /**
-   * Export location.
+   * Excel export location.
    *
-   * @return Export location.
+   * @return Excel export location, null if not set.
    */
   public File getOutputFile() {
     return this.outputFile;
   }
 
+  /**
+   * Outputs of the analysis, the Excel export location first if set.
+   *
+   * @return Outputs of the analysis.
+   */
+  public List<Output> getOutputs() {
+    return this.outputs;
+  }
+
+  /**
+   * True if one of the outputs is the standard output.
+   *
+   * @return True if one of the outputs is the standard output.
+   */
+  public boolean isStandardOutputUsed() {
+    for (Output output : outputs) {
+      if (output.isStandardOutput()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Additional libraries to analyze.
    *
@@ -85,6 +172,187 @@ public class Analyze {
     return this.libsToAnalyze;
   }
 
+  /**
+   * Number of workers used to extract the war file.
+   *
+   * @return Number of extraction workers.
+   */
+  public int getExtractionThreads() {
+    return this.extractionThreads;
+  }
+
+  /**
+   * True if the war file is exploded before the analysis, false if it is read in place.
+   *
+   * @return True if the war file is exploded.
+   */
+  public boolean isExtractWar() {
+    return this.extractWar;
+  }
+
+  /**
+   * True if only the entries changed since the previous extraction are extracted again.
+   *
+   * @return True if the extraction is incremental.
+   */
+  public boolean isIncrementalExtraction() {
+    return this.incrementalExtraction;
+  }
+
+  /**
+   * Class scanning mode, reflection loads every class while bytecode only reads class files.
+   *
+   * @return Class scanning mode.
+   */
+  public ScanningMode getScanningMode() {
+    return this.scanningMode;
+  }
+
+  /**
+   * True if classes referencing none of the analyzed annotations are skipped before being loaded.
+   *
+   * @return True if classes are prefiltered.
+   */
+  public boolean isClassPrefilter() {
+    return this.classPrefilter;
+  }
+
+  /**
+   * Number of workers loading classes, one jar at a time each.
+   *
+   * @return Number of loading workers.
+   */
+  public int getLoadingThreads() {
+    return this.loadingThreads;
+  }
+
+  /**
+   * Number of workers running the analyzers.
+   *
+   * @return Number of analysis workers.
+   */
+  public int getAnalysisThreads() {
+    return this.analysisThreads;
+  }
+
+  /**
+   * Number of workers describing the analyzed libraries while the war is extracted.
+   *
+   * @return Number of indexing workers, 0 to describe the libraries when loading them.
+   */
+  public int getIndexingThreads() {
+    return this.indexingThreads;
+  }
+
+  /**
+   * Maximum number of items waiting between two pipeline stages.
+   *
+   * @return Queue depth.
+   */
+  public int getPipelineQueueDepth() {
+    return this.pipelineQueueDepth;
+  }
+
+  /**
+   * Folder of the persistent jar index cache.
+   *
+   * @return Folder of the jar index cache or null if libraries are always loaded.
+   */
+  public File getIndexCacheLocation() {
+    return this.indexCacheLocation;
+  }
+
+  /**
+   * Maximum size of the jar index cache.
+   *
+   * @return Maximum size in megabytes, 0 for no limit.
+   */
+  public int getIndexCacheMaxSize() {
+    return this.indexCacheMaxSize;
+  }
+
+  /**
+   * Maximum number of jars in the index cache.
+   *
+   * @return Maximum number of jars, 0 for no limit.
+   */
+  public int getIndexCacheMaxEntries() {
+    return this.indexCacheMaxEntries;
+  }
+
+  /**
+   * Number of rows per sheet kept in memory by the Excel export, the others being flushed to temporary files.
+   *
+   * @return Number of rows, -1 to keep every row in memory.
+   */
+  public int getExcelRowWindow() {
+    return this.excelRowWindow;
+  }
+
+  /**
+   * True if the temporary files of the Excel export are compressed.
+   *
+   * @return True if the temporary files are compressed.
+   */
+  public boolean isExcelCompressTempFiles() {
+    return this.excelCompressTempFiles;
+  }
+
+  /**
+   * Job of one war of a batch, with its own exploded war folder and outputs in a sub-folder named after the war. Standard outputs are dropped, wars being analyzed concurrently.
+   *
+   * <p>
+   * Each war keeps its own stage pools, the extraction, loading, indexing and analysis threads being divided by the number of wars analyzed at once, one at least. The threads of the batch thus
+   * stay within the stage settings of the job, or within the number of wars analyzed at once when a setting is lower.
+   * </p>
+   *
+   * @param warFile War file.
+   * @param name Sub-folder name, unique in the batch.
+   * @return Single war job.
+   */
+  public Analyze forWar(File warFile, String name) {
+    Analyze result = new Analyze();
+    result.warFile = warFile;
+    result.warFiles.add(warFile);
+    result.explodedWarLocation = (explodedWarLocation == null) ? null : new File(explodedWarLocation, name);
+    for (Output output : outputs) {
+      if (!output.isStandardOutput()) {
+        File file = new File(new File(output.getFile().getAbsoluteFile().getParentFile(), name), output.getFile().getName());
+        result.outputs.add(new Output(output.getFormat(), file));
+        if (output.getFile().equals(outputFile)) {
+          result.outputFile = file;
+        }
+      }
+    }
+    result.libsToAnalyze.addAll(libsToAnalyze);
+    result.extractionThreads = shareThreads(extractionThreads);
+    result.extractWar = extractWar;
+    result.incrementalExtraction = incrementalExtraction;
+    result.scanningMode = scanningMode;
+    result.classPrefilter = classPrefilter;
+    result.loadingThreads = shareThreads(loadingThreads);
+    result.analysisThreads = shareThreads(analysisThreads);
+    result.indexingThreads = (indexingThreads == 0) ? 0 : shareThreads(indexingThreads);
+    result.pipelineQueueDepth = pipelineQueueDepth;
+    result.indexCacheLocation = indexCacheLocation;
+    result.indexCacheMaxSize = indexCacheMaxSize;
+    result.indexCacheMaxEntries = indexCacheMaxEntries;
+    result.excelRowWindow = excelRowWindow;
+    result.excelCompressTempFiles = excelCompressTempFiles;
+    return result;
+  }
+
+  /**
+   * Share of the threads of a stage for one war of a batch.
+   *
+   * @param threads Threads of the stage for the whole batch.
+   * @return Threads of the stage for one war, one at least.
+   */
+  private int shareThreads(int threads) {
+    int concurrentWars = Math.max(1, Math.min(batchThreads, warFiles.size()));
+    return Math.max(1, threads / concurrentWars);
+  }
+
   /**
    * Load analyze from XML file.
    *
@@ -105,17 +373,125 @@ public class Analyze {
       Document doc = sax.build(xmlFile);
       Element rootNode = doc.getRootElement();
 
-      analyze.warFile = new File(rootNode.getChildText("war-file-location"));
-      analyze.explodedWarLocation = new File(rootNode.getChildText("exploded-war-location"));
-      analyze.outputFile = new File(rootNode.getChildText("output-file-location"));
+      String warFile = rootNode.getChildTextTrim("war-file-location");
+      if (warFile != null && !warFile.isEmpty()) {
+        analyze.warFile = new File(warFile);
+        analyze.warFiles.add(analyze.warFile);
+      }
+      Element wars = rootNode.getChild("wars");
+      if (wars != null) {
+        analyze.batch = true;
+        for (Element war : wars.getChildren("war")) {
+          for (File file : WarLocator.locate(war.getTextTrim())) {
+            if (!analyze.warFiles.contains(file)) {
+              analyze.warFiles.add(file);
+            }
+          }
+        }
+        analyze.batchThreads = getInt(rootNode, "batch-threads", analyze.batchThreads);
+      }
+      String explodedWarLocation = rootNode.getChildText("exploded-war-location");
+      analyze.explodedWarLocation = (explodedWarLocation == null) ? null : new File(explodedWarLocation);
+      String outputFile = rootNode.getChildTextTrim("output-file-location");
+      if (outputFile != null && !outputFile.isEmpty()) {
+        analyze.outputFile = new File(outputFile);
+        analyze.outputs.add(new Output(ExportFormat.XLSX, analyze.outputFile));
+      }
+      Element outputs = rootNode.getChild("outputs");
+      if (outputs != null) {
+        for (Element output : outputs.getChildren("output")) {
+          readOutput(analyze, output);
+        }
+      }
       Element libs = rootNode.getChild("lib-to-analyze");
       for (Element lib : libs.getChildren("lib")) {
         analyze.libsToAnalyze.add(lib.getText());
       }
+      analyze.extractionThreads = getInt(rootNode, "extraction-threads", analyze.extractionThreads);
+      analyze.extractWar = getBoolean(rootNode, "extract-war", analyze.extractWar);
+      analyze.incrementalExtraction = getBoolean(rootNode, "incremental-extraction", analyze.incrementalExtraction);
+      analyze.classPrefilter = getBoolean(rootNode, "class-prefilter", analyze.classPrefilter);
+      analyze.loadingThreads = getInt(rootNode, "loading-threads", analyze.loadingThreads);
+      analyze.analysisThreads = getInt(rootNode, "analysis-threads", analyze.analysisThreads);
+      analyze.indexingThreads = getInt(rootNode, "indexing-threads", analyze.indexingThreads);
+      analyze.pipelineQueueDepth = getInt(rootNode, "pipeline-queue-depth", analyze.pipelineQueueDepth);
+      if (analyze.pipelineQueueDepth < 1) {
+        Logger.getLogger(Analyze.class.getName()).log(Level.WARNING, "Invalid value for pipeline-queue-depth : {0}", analyze.pipelineQueueDepth);
+        analyze.pipelineQueueDepth = 8;
+      }
+      String indexCacheLocation = rootNode.getChildTextTrim("index-cache-location");
+      analyze.indexCacheLocation = (indexCacheLocation == null || indexCacheLocation.isEmpty()) ? null : new File(indexCacheLocation);
+      analyze.indexCacheMaxSize = getInt(rootNode, "index-cache-max-size", analyze.indexCacheMaxSize);
+      analyze.indexCacheMaxEntries = getInt(rootNode, "index-cache-max-entries", analyze.indexCacheMaxEntries);
+      analyze.excelRowWindow = getInt(rootNode, "excel-row-window", analyze.excelRowWindow);
+      if (analyze.excelRowWindow == 0 || analyze.excelRowWindow < -1) {
+        Logger.getLogger(Analyze.class.getName()).log(Level.WARNING, "Invalid value for excel-row-window : {0}", analyze.excelRowWindow);
+        analyze.excelRowWindow = 100;
+      }
+      analyze.excelCompressTempFiles = getBoolean(rootNode, "excel-compress-temp-files", analyze.excelCompressTempFiles);
+      String scanningMode = rootNode.getChildTextTrim("class-scanning");
+      if (scanningMode != null && !scanningMode.isEmpty()) {
+        try {
+          analyze.scanningMode = ScanningMode.valueOf(scanningMode.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+          Logger.getLogger(Analyze.class.getName()).log(Level.WARNING, "Invalid value for class-scanning : {0}", scanningMode);
+        }
+      }
     } catch (JDOMException | IOException ex) {
       Logger.getLogger(Analyze.class.getName()).log(Level.SEVERE, null, ex);
       analyze = null;
     }
     return analyze;
   }
+
+  /**
+   * Read an output element, its format attribute and its location, - standing for the standard output.
+   *
+   * @param analyze Analyze filled.
+   * @param output Output element.
+   */
+  private static void readOutput(Analyze analyze, Element output) {
+    String format = output.getAttributeValue("format", "");
+    String location = output.getTextTrim();
+    try {
+      File file = Output.STANDARD_OUTPUT.equals(location) ? null : new File(location);
+      analyze.outputs.add(new Output(ExportFormat.valueOf(format.trim().toUpperCase()), file));
+    } catch (IllegalArgumentException ex) {
+      Logger.getLogger(Analyze.class.getName()).log(Level.WARNING, "Invalid output format : {0}", format);
+    }
+  }
+
+  /**
+   * Read an optional integer child.
+   *
+   * @param element Parent element.
+   * @param name Child name.
+   * @param defaultValue Value used when the child is missing.
+   * @return Child value.
+   */
+  private static int getInt(Element element, String name, int defaultValue) {
+    int result = defaultValue;
+    String value = element.getChildTextTrim(name);
+    if (value != null && !value.isEmpty()) {
+      try {
+        result = Integer.parseInt(value);
+      } catch (NumberFormatException ex) {
+        Logger.getLogger(Analyze.class.getName()).log(Level.WARNING, "Invalid value for {0} : {1}", new Object[]{name, value});
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Read an optional boolean child.
+   *
+   * @param element Parent element.
+   * @param name Child name.
+   * @param defaultValue Value used when the child is missing.
+   * @return Child value.
+   */
+  private static boolean getBoolean(Element element, String name, boolean defaultValue) {
+    String value = element.getChildTextTrim(name);
+    return (value == null || value.isEmpty()) ? defaultValue : Boolean.parseBoolean(value);
+  }
 }
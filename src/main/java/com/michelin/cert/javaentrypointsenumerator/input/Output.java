@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.input;
+
+import com.michelin.cert.javaentrypointsenumerator.export.ExportFormat;
+
+import java.io.File;
+
+/**
+ * Output of the analysis.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class Output {
+
+  /**
+   * Location standing for the standard output.
+   */
+  public static final String STANDARD_OUTPUT = "-";
+
+  private final ExportFormat format;
+  private final File file;
+
+  /**
+   * Output constructor.
+   *
+   * @param format Export format.
+   * @param file Output file, null for the standard output.
+   */
+  public Output(ExportFormat format, File file) {
+    this.format = format;
+    this.file = file;
+  }
+
+  /**
+   * Export format.
+   *
+   * @return Export format.
+   */
+  public ExportFormat getFormat() {
+    return format;
+  }
+
+  /**
+   * Output file.
+   *
+   * @return Output file, null for the standard output.
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * True if the output is the standard output.
+   *
+   * @return True if the output is the standard output.
+   */
+  public boolean isStandardOutput() {
+    return file == null;
+  }
+}
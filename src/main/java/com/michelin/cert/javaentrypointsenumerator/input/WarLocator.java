@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.input;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolution of the war locations of a batch job.
+ *
+ * <p>
+ * A location is a war file, a folder whose war files are all analyzed, or a glob such as apps/&#42;&#42;/&#42;.war. Globs are walked from their longest folder prefix without wildcard.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class WarLocator {
+
+  private static final String WAR_EXTENSION = ".war";
+  private static final String GLOB_CHARACTERS = "*?[{";
+
+  /**
+   * Private constructor.
+   */
+  private WarLocator() {
+  }
+
+  /**
+   * Resolve a war location.
+   *
+   * @param location War file, folder or glob.
+   * @return War files, sorted by path. Empty if nothing matches.
+   */
+  public static List<File> locate(String location) {
+    List<File> result = new ArrayList<>();
+    try {
+      if (isGlob(location)) {
+        result.addAll(locateGlob(location));
+      } else {
+        File file = new File(location);
+        if (file.isDirectory()) {
+          File[] wars = file.listFiles((dir, name) -> name.endsWith(WAR_EXTENSION));
+          if (wars != null) {
+            Collections.addAll(result, wars);
+          }
+        } else if (file.isFile()) {
+          result.add(file);
+        }
+      }
+    } catch (IOException ex) {
+      Logger.getLogger(WarLocator.class.getName()).log(Level.SEVERE, "War location not read : " + location, ex);
+    }
+    if (result.isEmpty()) {
+      Logger.getLogger(WarLocator.class.getName()).log(Level.WARNING, "No war found at : {0}", location);
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Walk the folder prefix of a glob, keeping the regular files it matches.
+   *
+   * @param glob Glob.
+   * @return Matching files.
+   * @throws IOException If the folder can not be walked.
+   */
+  private static List<File> locateGlob(String glob) throws IOException {
+    String normalizedGlob = glob.replace(File.separatorChar, '/');
+    int wildcard = 0;
+    while (GLOB_CHARACTERS.indexOf(normalizedGlob.charAt(wildcard)) < 0) {
+      ++wildcard;
+    }
+    int slash = normalizedGlob.lastIndexOf('/', wildcard);
+    Path root = Paths.get((slash < 0) ? "." : normalizedGlob.substring(0, slash + 1));
+    if (!Files.isDirectory(root)) {
+      return Collections.emptyList();
+    }
+    //Match the paths relative to the folder prefix, the prefix itself may not be normalized.
+    PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + normalizedGlob.substring(slash + 1));
+    try ( Stream<Path> paths = Files.walk(root)) {
+      return paths.filter(path -> Files.isRegularFile(path) && matcher.matches(root.relativize(path)))
+          .map(Path::toFile)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static boolean isGlob(String location) {
+    for (char character : GLOB_CHARACTERS.toCharArray()) {
+      if (location.indexOf(character) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
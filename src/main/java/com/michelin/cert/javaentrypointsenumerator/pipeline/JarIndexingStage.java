@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.pipeline;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.index.DescriptorIndexCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pipeline stage describing the analyzed libraries from their class files as soon as they are extracted.
+ *
+ * <p>
+ * The extraction workers submit each extracted jar to a bounded queue, indexing workers describe the jars while the rest of the war is still being extracted and the classes jar generated. The class
+ * loader then adds the indexed classes instead of reading the jars again. Loading itself waits for the whole class path: the prefilter and the analyzers resolve supertypes and meta-annotations across
+ * jars.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class JarIndexingStage {
+
+  private final int threads;
+  private final DescriptorIndexCache indexCache;
+  private final StageQueue<File> queue;
+  private final Map<File, List<ClassDescriptor>> indexedJars;
+  private final List<Future<Void>> workers;
+  private ExecutorService executor;
+
+  /**
+   * JarIndexingStage constructor.
+   *
+   * @param threads Number of indexing workers.
+   * @param queueDepth Maximum number of extracted jars waiting to be indexed.
+   * @param indexCache Index cache or null to always read the jars.
+   */
+  public JarIndexingStage(int threads, int queueDepth, DescriptorIndexCache indexCache) {
+    this.threads = Math.max(1, threads);
+    this.indexCache = indexCache;
+    this.queue = new StageQueue<>("Jar indexing queue", queueDepth);
+    this.indexedJars = new ConcurrentHashMap<>();
+    this.workers = new ArrayList<>();
+  }
+
+  /**
+   * Number of indexing workers.
+   *
+   * @return Number of indexing workers.
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Queue between the extraction and the indexing workers.
+   *
+   * @return Jar queue.
+   */
+  public StageQueue<File> getQueue() {
+    return queue;
+  }
+
+  /**
+   * Start the indexing workers.
+   */
+  public synchronized void start() {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(threads);
+      for (int i = 0; i < threads; ++i) {
+        workers.add(executor.submit(() -> {
+          File jar;
+          while ((jar = queue.take()) != null) {
+            index(jar);
+          }
+          return null;
+        }));
+      }
+    }
+  }
+
+  /**
+   * Submit an extracted jar, waiting while the queue is full.
+   *
+   * @param jar Jar file.
+   */
+  public void submit(File jar) {
+    try {
+      queue.put(jar);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      Logger.getLogger(JarIndexingStage.class.getName()).log(Level.WARNING, "Jar not indexed : {0}", jar.getAbsolutePath());
+    }
+  }
+
+  /**
+   * Close the queue and wait for the indexing workers.
+   *
+   * @return Class descriptors per indexed jar. Jars missing from it are read by the class loader.
+   */
+  public synchronized Map<File, List<ClassDescriptor>> finish() {
+    queue.close();
+    try {
+      for (Future<Void> worker : workers) {
+        worker.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      Logger.getLogger(JarIndexingStage.class.getName()).log(Level.SEVERE, "Jar indexing interrupted");
+    } catch (ExecutionException ex) {
+      Logger.getLogger(JarIndexingStage.class.getName()).log(Level.SEVERE, "Jar indexing worker failed", ex.getCause());
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+    return indexedJars;
+  }
+
+  /**
+   * Describe a jar, leaving it to the class loader on failure.
+   *
+   * @param jar Jar file.
+   */
+  private void index(File jar) {
+    try {
+      indexedJars.put(jar, Classloader.describeJar(jar, indexCache));
+    } catch (IOException ex) {
+      Logger.getLogger(JarIndexingStage.class.getName()).log(Level.WARNING, "Jar not indexed : {0}", jar.getAbsolutePath());
+    }
+  }
+}
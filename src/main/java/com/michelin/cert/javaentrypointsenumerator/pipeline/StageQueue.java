@@ -0,0 +1,224 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.pipeline;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue between two pipeline stages.
+ *
+ * <p>
+ * Producers block while the queue is full, so a slow stage holds back the stage feeding it. Once closed, consumers drain the remaining items then get null. The queue keeps its depth metrics: maximum
+ * and mean depth seen by the producers, and the time producers and consumers spent waiting for each other.
+ * </p>
+ *
+ * @param <T> Item type.
+ * @author Maxime ESCOURBIAC
+ */
+public class StageQueue<T> {
+
+  private final String name;
+  private final int capacity;
+  private final Deque<T> items;
+  private final ReentrantLock lock;
+  private final Condition notFull;
+  private final Condition notEmpty;
+  private boolean closed;
+  private long puts;
+  private long depthSum;
+  private int maxDepth;
+  private long producerWaitNanos;
+  private long consumerWaitNanos;
+
+  /**
+   * StageQueue constructor.
+   *
+   * @param name Queue name, for the metrics.
+   * @param capacity Maximum number of items waiting, at least 1.
+   */
+  public StageQueue(String name, int capacity) {
+    this.name = name;
+    this.capacity = Math.max(1, capacity);
+    this.items = new ArrayDeque<>();
+    this.lock = new ReentrantLock();
+    this.notFull = lock.newCondition();
+    this.notEmpty = lock.newCondition();
+  }
+
+  /**
+   * Add an item, waiting while the queue is full.
+   *
+   * @param item Item.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  public void put(T item) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Queue closed : " + name);
+      }
+      long start = System.nanoTime();
+      while (items.size() == capacity) {
+        notFull.await();
+      }
+      producerWaitNanos += System.nanoTime() - start;
+      items.addLast(item);
+      ++puts;
+      depthSum += items.size();
+      maxDepth = Math.max(maxDepth, items.size());
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Remove the next item, waiting while the queue is empty and not closed.
+   *
+   * @return Next item or null if the queue is closed and drained.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  public T take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      long start = System.nanoTime();
+      while (items.isEmpty() && !closed) {
+        notEmpty.await();
+      }
+      consumerWaitNanos += System.nanoTime() - start;
+      T result = items.pollFirst();
+      if (result != null) {
+        notFull.signal();
+      }
+      return result;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Close the queue: no more items are added, consumers are woken up.
+   */
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Queue name.
+   *
+   * @return Queue name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Maximum number of items waiting.
+   *
+   * @return Queue capacity.
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Number of items added.
+   *
+   * @return Number of items added.
+   */
+  public long getPuts() {
+    lock.lock();
+    try {
+      return puts;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Maximum number of items waiting at once.
+   *
+   * @return Maximum depth.
+   */
+  public int getMaxDepth() {
+    lock.lock();
+    try {
+      return maxDepth;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Mean number of items waiting, right after each item is added.
+   *
+   * @return Mean depth.
+   */
+  public double getMeanDepth() {
+    lock.lock();
+    try {
+      return (puts == 0) ? 0.0 : (double) depthSum / puts;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Time producers spent waiting for room, in milliseconds.
+   *
+   * @return Producer wait time.
+   */
+  public long getProducerWaitMillis() {
+    lock.lock();
+    try {
+      return TimeUnit.NANOSECONDS.toMillis(producerWaitNanos);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Time consumers spent waiting for items, in milliseconds.
+   *
+   * @return Consumer wait time.
+   */
+  public long getConsumerWaitMillis() {
+    lock.lock();
+    try {
+      return TimeUnit.NANOSECONDS.toMillis(consumerWaitNanos);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: %d items, depth max %d/%d mean %.1f, producers waited %d ms, consumers waited %d ms",
+        name, getPuts(), getMaxDepth(), capacity, getMeanDepth(), getProducerWaitMillis(), getConsumerWaitMillis());
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Extractor tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ExtractorTest {
+
+  private static final String CLASS_ENTRY = "WEB-INF/classes/app/Home.class";
+  private static final String RESOURCE_ENTRY = "style.css";
+  private static final long OLD_TIME = 1000000000000L;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File war;
+  private File outputFolder;
+
+  @Before
+  public void setUp() throws IOException {
+    war = new File(folder.getRoot(), "app.war");
+    outputFolder = folder.newFolder("exploded");
+  }
+
+  @Test
+  public void unchangedEntriesAreKept() throws IOException {
+    writeWar(CLASS_ENTRY, "class", RESOURCE_ENTRY, "body {}");
+    new Extractor(war, outputFolder, 1, true).extract();
+    File target = target(RESOURCE_ENTRY);
+    assertTrue(target.setLastModified(OLD_TIME));
+
+    ExtractionReport report = new Extractor(war, outputFolder, 1, true).extract();
+    assertEquals(1, report.getUnchanged(ExtractionBucket.RESOURCES));
+    assertEquals(1, report.getUnchanged(ExtractionBucket.CLASSES));
+    assertEquals(OLD_TIME, target.lastModified());
+  }
+
+  @Test
+  public void changedEntriesAreRewritten() throws IOException {
+    writeWar(CLASS_ENTRY, "class", RESOURCE_ENTRY, "body {}");
+    new Extractor(war, outputFolder, 1, true).extract();
+
+    //Same size, other content.
+    writeWar(CLASS_ENTRY, "class", RESOURCE_ENTRY, "div {}");
+    ExtractionReport report = new Extractor(war, outputFolder, 1, true).extract();
+    assertEquals(0, report.getUnchanged(ExtractionBucket.RESOURCES));
+    assertEquals(1, report.getUnchanged(ExtractionBucket.CLASSES));
+    assertArrayEquals("div {}".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(target(RESOURCE_ENTRY).toPath()));
+  }
+
+  @Test
+  public void removedEntriesAreDeleted() throws IOException {
+    writeWar(CLASS_ENTRY, "class", RESOURCE_ENTRY, "body {}");
+    new Extractor(war, outputFolder, 1, true).extract();
+    assertTrue(target(RESOURCE_ENTRY).exists());
+
+    writeWar(CLASS_ENTRY, "class");
+    ExtractionReport report = new Extractor(war, outputFolder, 1, true).extract();
+    assertEquals(1, report.getDeleted(ExtractionBucket.RESOURCES));
+    assertFalse(target(RESOURCE_ENTRY).exists());
+    assertTrue(target(CLASS_ENTRY).exists());
+  }
+
+  @Test
+  public void fullExtractionRewritesEntriesAndDeletesRemovedOnes() throws IOException {
+    writeWar(CLASS_ENTRY, "class", RESOURCE_ENTRY, "body {}");
+    new Extractor(war, outputFolder).extract();
+    assertTrue(target(CLASS_ENTRY).setLastModified(OLD_TIME));
+
+    writeWar(CLASS_ENTRY, "class");
+    ExtractionReport report = new Extractor(war, outputFolder).extract();
+    assertEquals(0, report.getUnchanged(ExtractionBucket.CLASSES));
+    assertEquals(1, report.getDeleted(ExtractionBucket.RESOURCES));
+    assertFalse(target(RESOURCE_ENTRY).exists());
+    assertTrue(target(CLASS_ENTRY).lastModified() != OLD_TIME);
+  }
+
+  @Test
+  public void manifestEntriesOutsideTheOutputFolderAreIgnored() throws IOException {
+    writeWar(CLASS_ENTRY, "class");
+    new Extractor(war, outputFolder, 1, true).extract();
+    File victim = folder.newFile("victim.txt");
+    File manifest = new File(outputFolder, ".extraction-manifest");
+    Files.write(manifest.toPath(), "RESOURCES\t1\t1\t1\t../victim.txt\tvictim.txt\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+    for (boolean incremental : new boolean[]{true, false}) {
+      ExtractionReport report = new Extractor(war, outputFolder, 1, incremental).extract();
+      assertTrue(report.isCompleted());
+      assertEquals(0, report.getDeleted(ExtractionBucket.RESOURCES));
+      assertTrue(victim.exists());
+    }
+  }
+
+  /**
+   * Write the war file.
+   *
+   * @param entries Name and content of each entry.
+   * @throws IOException IOException.
+   */
+  private void writeWar(String... entries) throws IOException {
+    Map<String, String> contents = new LinkedHashMap<>();
+    for (int i = 0; i < entries.length; i += 2) {
+      contents.put(entries[i], entries[i + 1]);
+    }
+    try ( ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(war))) {
+      for (Map.Entry<String, String> entry : contents.entrySet()) {
+        outputStream.putNextEntry(new ZipEntry(entry.getKey()));
+        outputStream.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+        outputStream.closeEntry();
+      }
+    }
+  }
+
+  /**
+   * File extracted from an entry.
+   *
+   * @param entryName Entry name.
+   * @return Extracted file.
+   */
+  private File target(String entryName) {
+    for (ExtractionBucket bucket : ExtractionBucket.values()) {
+      if (bucket.accepts(entryName)) {
+        return new File(outputFolder, bucket.getTargetPath(entryName));
+      }
+    }
+    throw new IllegalArgumentException(entryName);
+  }
+
+}
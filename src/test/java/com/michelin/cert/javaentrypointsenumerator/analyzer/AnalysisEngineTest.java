@@ -0,0 +1,149 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.michelin.cert.javaentrypointsenumerator.ExtractionBucket;
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * AnalysisEngine tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class AnalysisEngineTest {
+
+  private static final int THREADS = 4;
+  private static final int JSPS = 20;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void globalAnalysesFanOutFromTheEngineWorkers() throws IOException {
+    File explodedWarFolder = folder.newFolder();
+    try ( Classloader classloader = AnalyzerFixture.create(explodedWarFolder, ScanningMode.BYTECODE)) {
+      List<Analyzer> analyzers = new ArrayList<>();
+      for (int i = 0; i < THREADS; ++i) {
+        analyzers.add(new FanOutAnalyzer(classloader, explodedWarFolder, "/fan" + i));
+      }
+      AnalysisEngine engine = new AnalysisEngine(classloader, analyzers);
+      engine.setThreads(THREADS);
+      Entrypoints entrypoints = new Entrypoints();
+      engine.run(entrypoints);
+
+      assertEquals(Arrays.asList("/fan0 [0, 1, 2, 3]", "/fan1 [0, 1, 2, 3]", "/fan2 [0, 1, 2, 3]", "/fan3 [0, 1, 2, 3]"), render(entrypoints));
+    }
+  }
+
+  @Test
+  public void entrypointsKeepTheirOrderOnSeveralWorkers() throws IOException {
+    File explodedWarFolder = folder.newFolder();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < JSPS; ++i) {
+      String name = String.format("page%02d.jsp", i);
+      File jsp = new File(explodedWarFolder, ExtractionBucket.JSPS.getLocation() + "/" + name);
+      jsp.getParentFile().mkdirs();
+      Files.write(jsp.toPath(), ("<% String value = request.getParameter(\"p" + i + "\"); %>").getBytes(StandardCharsets.UTF_8));
+      expected.add("/" + name + " [p" + i + "]");
+    }
+
+    try ( Classloader classloader = AnalyzerFixture.create(explodedWarFolder, ScanningMode.BYTECODE)) {
+      for (int threads = 1; threads <= THREADS; threads += THREADS - 1) {
+        List<Analyzer> analyzers = Arrays.asList(new JspAnalyzer(classloader, explodedWarFolder), new FanOutAnalyzer(classloader, explodedWarFolder, "/fan"));
+        AnalysisEngine engine = new AnalysisEngine(classloader, analyzers);
+        engine.setThreads(threads);
+        //The fan out analyzer needs as many workers as the engine, it only completes if the engine propagates its number of threads.
+        assertEquals(threads, analyzers.get(1).getThreads());
+        Entrypoints entrypoints = new Entrypoints();
+        engine.run(entrypoints);
+
+        List<String> jsps = render(entrypoints);
+        assertEquals("threads " + threads, expected, jsps.subList(0, JSPS));
+        assertEquals("threads " + threads, (threads == 1) ? "/fan [0]" : "/fan [0, 1, 2, 3]", jsps.get(JSPS));
+      }
+    }
+  }
+
+  /**
+   * Render JSPs as their url followed by their parameters.
+   *
+   * @param entrypoints Entrypoints.
+   * @return One line per JSP.
+   */
+  private static List<String> render(Entrypoints entrypoints) {
+    List<String> result = new ArrayList<>();
+    for (Jsp jsp : entrypoints.getJsps()) {
+      result.add(jsp.getUrl() + " " + jsp.getParameters());
+    }
+    return result;
+  }
+
+  /**
+   * Analyzer whose global analysis runs one task per worker, every task waiting for all of them.
+   */
+  private static class FanOutAnalyzer extends Analyzer {
+
+    private final String url;
+
+    FanOutAnalyzer(Classloader classloader, File outputFolder, String url) {
+      super(classloader, outputFolder);
+      this.url = url;
+    }
+
+    @Override
+    public void analyze(EntrypointSink entrypoints) {
+      CountDownLatch started = new CountDownLatch(getThreads());
+      List<Callable<String>> tasks = new ArrayList<>();
+      for (int i = 0; i < getThreads(); ++i) {
+        final String index = Integer.toString(i);
+        tasks.add(() -> {
+          started.countDown();
+          assertTrue(started.await(10, TimeUnit.SECONDS));
+          return index;
+        });
+      }
+      Jsp jsp = new Jsp(url);
+      for (String parameter : invokeAll(tasks)) {
+        jsp.addParameter(parameter);
+      }
+      entrypoints.addJsp(jsp);
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exploded war holding a few compiled test classes, to run analyzers on.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+final class AnalyzerFixture {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  /**
+   * Private constructor.
+   */
+  private AnalyzerFixture() {
+  }
+
+  /**
+   * Build an exploded war whose classes.jar holds the given classes, and load them.
+   *
+   * @param explodedWarFolder Empty exploded war folder.
+   * @param scanningMode Scanning mode.
+   * @param classes Classes packed in classes.jar.
+   * @return Classloader with the classes loaded.
+   * @throws IOException IOException.
+   */
+  static Classloader load(File explodedWarFolder, ScanningMode scanningMode, Class<?>... classes) throws IOException {
+    Classloader classloader = create(explodedWarFolder, scanningMode, classes);
+    classloader.loadClassesFromJar(new File(explodedWarFolder, "classes.jar"));
+    return classloader;
+  }
+
+  /**
+   * Build an exploded war whose classes.jar holds the given classes, without loading them yet.
+   *
+   * @param explodedWarFolder Empty exploded war folder.
+   * @param scanningMode Scanning mode.
+   * @param classes Classes packed in classes.jar.
+   * @return Classloader of the exploded war, classes.jar not loaded.
+   * @throws IOException IOException.
+   */
+  static Classloader create(File explodedWarFolder, ScanningMode scanningMode, Class<?>... classes) throws IOException {
+    File classesJar = new File(explodedWarFolder, "classes.jar");
+    if (!new File(explodedWarFolder, "jars").mkdirs()) {
+      throw new IOException("Folder not created : " + explodedWarFolder);
+    }
+    try ( ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(classesJar))) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      for (Class<?> loadedClass : classes) {
+        String entryName = loadedClass.getName().replace('.', '/') + ".class";
+        outputStream.putNextEntry(new ZipEntry(entryName));
+        try ( InputStream inputStream = loadedClass.getClassLoader().getResourceAsStream(entryName)) {
+          int read;
+          while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+          }
+        }
+        outputStream.closeEntry();
+      }
+    }
+
+    Classloader classloader = new Classloader(explodedWarFolder);
+    classloader.setScanningMode(scanningMode);
+    return classloader;
+  }
+
+  /**
+   * Run analyzers over the loaded classes.
+   *
+   * @param classloader Classloader with the classes loaded.
+   * @param analyzers Analyzers.
+   * @return Entrypoints found.
+   */
+  static Entrypoints analyze(Classloader classloader, Analyzer... analyzers) {
+    List<Analyzer> analyzerList = Arrays.asList(analyzers);
+    Entrypoints entrypoints = new Entrypoints();
+    new AnalysisEngine(classloader, analyzerList).run(entrypoints);
+    return entrypoints;
+  }
+
+}
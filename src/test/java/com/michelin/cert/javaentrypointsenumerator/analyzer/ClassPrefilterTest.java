@@ -0,0 +1,250 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ConstantPoolFilter;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Class prefilter tests, the analyzers must report the same entrypoints with the prefilter on and off.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ClassPrefilterTest {
+
+  private static final Class<?>[] CLASSES = {
+    ApiController.class, FetchMapping.class, ComposedController.class,
+    AbstractController.class, InheritingController.class,
+    Resource.class, ResourceImpl.class,
+    Plain.class
+  };
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * In-house composed controller annotation.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.TYPE)
+  @RestController
+  @RequestMapping
+  public @interface ApiController {
+
+    /**
+     * Base path.
+     *
+     * @return Base path.
+     */
+    @AliasFor(annotation = RequestMapping.class, attribute = "path")
+    String[] value() default {};
+  }
+
+  /**
+   * In-house composed mapping annotation.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.METHOD)
+  @RequestMapping(method = RequestMethod.GET)
+  public @interface FetchMapping {
+
+    /**
+     * Path.
+     *
+     * @return Path.
+     */
+    @AliasFor(annotation = RequestMapping.class, attribute = "path")
+    String[] value() default {};
+  }
+
+  /**
+   * Controller only carrying the in-house composed annotations.
+   */
+  @ApiController("/composed")
+  public static class ComposedController {
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @FetchMapping("/items")
+    public String items() {
+      return "";
+    }
+  }
+
+  /**
+   * Abstract controller.
+   */
+  @RestController
+  @RequestMapping("/base")
+  public abstract static class AbstractController {
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @GetMapping("/ping")
+    public String ping() {
+      return "";
+    }
+  }
+
+  /**
+   * Controller inheriting all its annotations.
+   */
+  public static class InheritingController extends AbstractController {
+  }
+
+  /**
+   * Resource interface.
+   */
+  @Path("/api")
+  public interface Resource {
+
+    /**
+     * Resource method.
+     *
+     * @return Response.
+     */
+    @GET
+    String get();
+  }
+
+  /**
+   * Resource implementation, inheriting all its annotations.
+   */
+  public static class ResourceImpl implements Resource {
+
+    @Override
+    public String get() {
+      return "";
+    }
+  }
+
+  /**
+   * Class carrying none of the annotations.
+   */
+  public static class Plain {
+
+    /**
+     * Method.
+     *
+     * @return Value.
+     */
+    public String value() {
+      return "";
+    }
+  }
+
+  @Test
+  public void prefilterKeepsTheEntrypointsOfComposedAndInheritedAnnotations() throws IOException {
+    for (ScanningMode scanningMode : ScanningMode.values()) {
+      List<String> unfiltered = analyze(scanningMode, false);
+      List<String> prefiltered = analyze(scanningMode, true);
+
+      assertEquals(scanningMode.toString(), unfiltered, prefiltered);
+      assertTrue(scanningMode.toString(), unfiltered.contains(ComposedController.class.getName() + ".items GET /composed/items []"));
+      assertTrue(scanningMode.toString(), unfiltered.contains(InheritingController.class.getName() + ".ping GET /base/ping []"));
+      assertTrue(scanningMode.toString(), unfiltered.contains(ResourceImpl.class.getName() + ".get GET /api []"));
+      assertEquals(scanningMode.toString(), 3, unfiltered.size());
+    }
+  }
+
+  @Test
+  public void prefilterSkipsTheClassesCarryingNoClassAnnotation() throws IOException {
+    for (ScanningMode scanningMode : ScanningMode.values()) {
+      File explodedWarFolder = folder.newFolder();
+      try ( Classloader classloader = AnalyzerFixture.create(explodedWarFolder, scanningMode, CLASSES)) {
+        ConstantPoolFilter prefilter = new AnalysisEngine(classloader, Arrays.asList(createAnalyzers(classloader))).createPrefilter();
+        assertNotNull(prefilter);
+        classloader.setPrefilter(prefilter);
+        classloader.loadClassesFromJar(new File(explodedWarFolder, "classes.jar"));
+
+        //Method annotations are only looked for on the kept classes, the mapping annotation definition is skipped as well.
+        assertEquals(scanningMode.toString(), 2, prefilter.getMisses());
+        assertEquals(scanningMode.toString(), CLASSES.length - 2, prefilter.getHits());
+        assertEquals(scanningMode.toString(), 2, prefilter.getInheritedHits());
+        assertEquals(scanningMode.toString(), 1, prefilter.getComposedHits());
+      }
+    }
+  }
+
+  /**
+   * Load the fixture classes, with or without the prefilter, and analyze them.
+   *
+   * @param scanningMode Scanning mode.
+   * @param prefiltered True to prefilter the classes.
+   * @return Sorted rest endpoints, one line each.
+   */
+  private List<String> analyze(ScanningMode scanningMode, boolean prefiltered) throws IOException {
+    File explodedWarFolder = folder.newFolder();
+    try ( Classloader classloader = AnalyzerFixture.create(explodedWarFolder, scanningMode, CLASSES)) {
+      Analyzer[] analyzers = createAnalyzers(classloader);
+      if (prefiltered) {
+        classloader.setPrefilter(new AnalysisEngine(classloader, Arrays.asList(analyzers)).createPrefilter());
+      }
+      classloader.loadClassesFromJar(new File(explodedWarFolder, "classes.jar"));
+      List<String> result = new ArrayList<>();
+      for (RestEndpoint restEndpoint : AnalyzerFixture.analyze(classloader, analyzers).getRestEndpoints()) {
+        List<String> parameters = new ArrayList<>();
+        for (HttpParameter parameter : restEndpoint.getParameters()) {
+          parameters.add(parameter.getName() + " " + parameter.getType());
+        }
+        result.add(restEndpoint.getClassName() + "." + restEndpoint.getMethodName() + " " + restEndpoint.getMethod() + " " + restEndpoint.getUrl() + " " + parameters);
+      }
+      Collections.sort(result);
+      return result;
+    }
+  }
+
+  private Analyzer[] createAnalyzers(Classloader classloader) {
+    return new Analyzer[]{new RestEndpointAnalyzer(classloader, folder.getRoot()), new SpringbootRestEndpointAnalyzer(classloader, folder.getRoot())};
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.michelin.cert.javaentrypointsenumerator.ExtractionBucket;
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JspAnalyzer tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class JspAnalyzerTest {
+
+  private static final int THREADS = 4;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void tasksRunConcurrentlyOnTheAnalyzerPool() throws IOException {
+    File explodedWarFolder = folder.newFolder();
+    try ( Classloader classloader = AnalyzerFixture.create(explodedWarFolder, ScanningMode.BYTECODE)) {
+      JspAnalyzer analyzer = new JspAnalyzer(classloader, explodedWarFolder);
+      analyzer.setThreads(THREADS);
+
+      //Every task waits for all of them, they only complete if they run at the same time, and the first one completes last.
+      CountDownLatch started = new CountDownLatch(THREADS);
+      List<Callable<Integer>> tasks = new ArrayList<>();
+      for (int i = 0; i < THREADS; ++i) {
+        final int index = i;
+        tasks.add(() -> {
+          started.countDown();
+          assertTrue(started.await(10, TimeUnit.SECONDS));
+          if (index == 0) {
+            Thread.sleep(50);
+          }
+          return index;
+        });
+      }
+      tasks.add(() -> {
+        throw new IOException("Failed task");
+      });
+
+      assertEquals(Arrays.asList(0, 1, 2, 3, null), analyzer.invokeAll(tasks));
+    }
+  }
+
+  @Test
+  public void jspsAreReportedInFileOrder() throws IOException {
+    File explodedWarFolder = folder.newFolder();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 20; ++i) {
+      String name = String.format("pages/page%02d.jsp", i);
+      File jsp = new File(explodedWarFolder, ExtractionBucket.JSPS.getLocation() + "/" + name);
+      jsp.getParentFile().mkdirs();
+      Files.write(jsp.toPath(), ("<% String value = request.getParameter(\"p" + i + "\"); %>").getBytes(StandardCharsets.UTF_8));
+      expected.add("/" + name + " [p" + i + "]");
+    }
+    File hidden = new File(explodedWarFolder, ExtractionBucket.JSPS.getLocation() + "/WEB-INF/hidden.jsp");
+    hidden.getParentFile().mkdirs();
+    Files.write(hidden.toPath(), "hidden".getBytes(StandardCharsets.UTF_8));
+
+    try ( Classloader classloader = AnalyzerFixture.create(explodedWarFolder, ScanningMode.BYTECODE)) {
+      for (int threads = 1; threads <= THREADS; threads += THREADS - 1) {
+        JspAnalyzer analyzer = new JspAnalyzer(classloader, explodedWarFolder);
+        analyzer.setThreads(threads);
+        Entrypoints entrypoints = new Entrypoints();
+        analyzer.analyze(entrypoints);
+
+        List<String> jsps = new ArrayList<>();
+        for (Jsp jsp : entrypoints.getJsps()) {
+          jsps.add(jsp.getUrl() + " " + jsp.getParameters());
+        }
+        assertEquals("threads " + threads, expected, jsps);
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import static org.junit.Assert.assertEquals;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
+
+import java.io.IOException;
+import java.util.List;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * RestEndpointAnalyzer tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class RestEndpointAnalyzerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Resource interface.
+   */
+  @Path("/api")
+  public interface Api {
+
+    /**
+     * Resource method.
+     *
+     * @return Response.
+     */
+    @GET
+    String get();
+  }
+
+  /**
+   * Resource implementation.
+   */
+  public static class ApiImpl implements Api {
+
+    @Override
+    public String get() {
+      return "";
+    }
+  }
+
+  @Test
+  public void interfaceResourceIsReportedOnceThroughItsImplementation() throws IOException {
+    for (ScanningMode scanningMode : ScanningMode.values()) {
+      try ( Classloader classloader = AnalyzerFixture.load(folder.newFolder(), scanningMode, Api.class, ApiImpl.class)) {
+        List<RestEndpoint> restEndpoints = AnalyzerFixture.analyze(classloader, new RestEndpointAnalyzer(classloader, folder.getRoot())).getRestEndpoints();
+
+        assertEquals(scanningMode.toString(), 1, restEndpoints.size());
+        assertEquals(ApiImpl.class.getName(), restEndpoints.get(0).getClassName());
+        assertEquals("get", restEndpoints.get(0).getMethodName());
+        assertEquals(HttpMethod.GET, restEndpoints.get(0).getMethod());
+        assertEquals("/api", restEndpoints.get(0).getUrl());
+      }
+    }
+  }
+
+}
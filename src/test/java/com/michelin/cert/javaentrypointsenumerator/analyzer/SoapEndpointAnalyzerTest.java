@@ -0,0 +1,191 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import static org.junit.Assert.assertEquals;
+
+import com.michelin.cert.javaentrypointsenumerator.ExtractionBucket;
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.jws.WebMethod;
+import javax.jws.WebService;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * SoapEndpointAnalyzer tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class SoapEndpointAnalyzerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Service endpoint interface.
+   */
+  @WebService
+  public interface Orders {
+
+    /**
+     * Operation.
+     *
+     * @return Orders.
+     */
+    String list();
+
+    /**
+     * Renamed operation.
+     *
+     * @param id Identifier.
+     * @return Order.
+     */
+    @WebMethod(operationName = "fetch")
+    String get(String id);
+  }
+
+  /**
+   * Implementation declared in sun-jaxws.xml, its operations are the ones of its endpoint interface.
+   */
+  @WebService(endpointInterface = "com.michelin.cert.javaentrypointsenumerator.analyzer.SoapEndpointAnalyzerTest$Orders")
+  public static class OrdersImpl implements Orders {
+
+    @Override
+    public String list() {
+      return "";
+    }
+
+    @Override
+    public String get(String id) {
+      return id;
+    }
+
+    /**
+     * Public method missing from the endpoint interface.
+     */
+    public void reset() {
+    }
+  }
+
+  /**
+   * Implementation declared in cxf-servlet.xml.
+   */
+  @WebService(serviceName = "Billing")
+  public static class BillingImpl {
+
+    /**
+     * Operation.
+     */
+    public void pay() {
+    }
+
+    /**
+     * Excluded operation.
+     */
+    @WebMethod(exclude = true)
+    public void internal() {
+    }
+
+    /**
+     * Static methods are not operations.
+     */
+    public static void helper() {
+    }
+  }
+
+  /**
+   * Implementation declared by no descriptor.
+   */
+  @WebService
+  public static class Undeclared {
+
+    /**
+     * Operation.
+     *
+     * @return Response.
+     */
+    public String ping() {
+      return "";
+    }
+  }
+
+  @Test
+  public void addressesComeFromTheDescriptors() throws IOException {
+    for (ScanningMode scanningMode : ScanningMode.values()) {
+      File explodedWarFolder = folder.newFolder();
+      writeWarEntry(explodedWarFolder, "WEB-INF/web.xml", "<web-app>"
+          + "<servlet><servlet-name>cxf</servlet-name><servlet-class>org.apache.cxf.transport.servlet.CXFServlet</servlet-class></servlet>"
+          + "<servlet-mapping><servlet-name>cxf</servlet-name><url-pattern>/services/*</url-pattern></servlet-mapping>"
+          + "</web-app>");
+      writeWarEntry(explodedWarFolder, "WEB-INF/sun-jaxws.xml", "<endpoints xmlns=\"http://java.sun.com/xml/ns/jax-ws/ri/runtime\" version=\"2.0\">"
+          + "<endpoint name=\"orders\" implementation=\"" + OrdersImpl.class.getName() + "\" url-pattern=\"/orders\"/>"
+          + "</endpoints>");
+      writeWarEntry(explodedWarFolder, "WEB-INF/cxf-servlet.xml", "<beans xmlns=\"http://www.springframework.org/schema/beans\" xmlns:jaxws=\"http://cxf.apache.org/jaxws\">"
+          + "<jaxws:endpoint id=\"billing\" implementor=\"" + BillingImpl.class.getName() + "\" address=\"/billing\"/>"
+          + "</beans>");
+
+      try ( Classloader classloader = AnalyzerFixture.load(explodedWarFolder, scanningMode, Orders.class, OrdersImpl.class, BillingImpl.class, Undeclared.class)) {
+        WebXmlAnalyzer webXmlAnalyzer = new WebXmlAnalyzer(classloader, explodedWarFolder);
+        List<String> soapEndpoints = new ArrayList<>();
+        for (SoapEndpoint soapEndpoint : AnalyzerFixture.analyze(classloader, new SoapEndpointAnalyzer(classloader, explodedWarFolder, webXmlAnalyzer)).getSoapEndpoints()) {
+          String simpleName = soapEndpoint.getClassName().substring(soapEndpoint.getClassName().lastIndexOf('$') + 1);
+          soapEndpoints.add(simpleName + "." + soapEndpoint.getMethodName() + " " + soapEndpoint.getOperationName() + " " + soapEndpoint.getServiceName() + " " + soapEndpoint.getUrl());
+        }
+        Collections.sort(soapEndpoints);
+
+        assertEquals(scanningMode.toString(), Arrays.asList(
+            "BillingImpl.pay pay Billing /services/billing",
+            "OrdersImpl.get fetch OrdersImplService /orders",
+            "OrdersImpl.list list OrdersImplService /orders",
+            "Undeclared.ping ping UndeclaredService /UndeclaredService"
+        ), soapEndpoints);
+      }
+    }
+  }
+
+  /**
+   * Write a war entry where the extraction puts it.
+   *
+   * @param explodedWarFolder Exploded war folder.
+   * @param entryName War entry name.
+   * @param content Entry content.
+   */
+  private static void writeWarEntry(File explodedWarFolder, String entryName, String content) throws IOException {
+    for (ExtractionBucket bucket : ExtractionBucket.values()) {
+      if (bucket.accepts(entryName)) {
+        File file = new File(explodedWarFolder, bucket.getTargetPath(entryName));
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return;
+      }
+    }
+  }
+
+}
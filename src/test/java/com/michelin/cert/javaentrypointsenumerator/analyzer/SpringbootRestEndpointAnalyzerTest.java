@@ -0,0 +1,288 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import static org.junit.Assert.assertEquals;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * SpringbootRestEndpointAnalyzer tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class SpringbootRestEndpointAnalyzerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Abstract controller.
+   */
+  @RestController
+  @RequestMapping("/base")
+  public abstract static class AbstractController {
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @GetMapping("/ping")
+    public String ping() {
+      return "";
+    }
+  }
+
+  /**
+   * Concrete controller.
+   */
+  public static class PingController extends AbstractController {
+  }
+
+  @Test
+  public void abstractControllerIsReportedOnceThroughItsSubclass() throws IOException {
+    for (ScanningMode scanningMode : ScanningMode.values()) {
+      try ( Classloader classloader = AnalyzerFixture.load(folder.newFolder(), scanningMode, AbstractController.class, PingController.class)) {
+        List<RestEndpoint> restEndpoints = AnalyzerFixture.analyze(classloader, new SpringbootRestEndpointAnalyzer(classloader, folder.getRoot())).getRestEndpoints();
+
+        assertEquals(scanningMode.toString(), 1, restEndpoints.size());
+        assertEquals(PingController.class.getName(), restEndpoints.get(0).getClassName());
+        assertEquals("/base/ping", restEndpoints.get(0).getUrl());
+      }
+    }
+  }
+
+  /**
+   * In-house intermediate mapping annotation.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+  @RequestMapping(method = RequestMethod.GET)
+  public @interface MidMapping {
+
+    /**
+     * Path.
+     *
+     * @return Path.
+     */
+    @AliasFor(annotation = RequestMapping.class, attribute = "path")
+    String[] route() default {};
+  }
+
+  /**
+   * Composed annotation aliasing RequestMapping directly, skipping the intermediate annotation.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.METHOD)
+  @MidMapping
+  public @interface SkippingMapping {
+
+    /**
+     * Path.
+     *
+     * @return Path.
+     */
+    @AliasFor(annotation = RequestMapping.class, attribute = "path")
+    String[] value() default {};
+  }
+
+  /**
+   * Composed annotation aliasing the path through the intermediate annotation.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.METHOD)
+  @MidMapping
+  public @interface RoutedMapping {
+
+    /**
+     * Path.
+     *
+     * @return Path.
+     */
+    @AliasFor(annotation = MidMapping.class, attribute = "route")
+    String[] value() default {};
+  }
+
+  /**
+   * Composed annotation naming the aliased attribute with value instead of attribute.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.METHOD)
+  @RequestMapping(method = RequestMethod.POST)
+  public @interface ValueAliasMapping {
+
+    /**
+     * Path.
+     *
+     * @return Path.
+     */
+    @AliasFor(annotation = RequestMapping.class, value = "path")
+    String[] target() default {};
+  }
+
+  /**
+   * Composed annotation aliasing the attribute of the same name.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.METHOD)
+  @RequestMapping(method = RequestMethod.PUT)
+  public @interface SameNameMapping {
+
+    /**
+     * Path.
+     *
+     * @return Path.
+     */
+    @AliasFor(annotation = RequestMapping.class)
+    String[] path() default {};
+  }
+
+  /**
+   * Annotation of a meta-annotation cycle, reaching RequestMapping after its cyclic meta-annotation.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+  @CycleB
+  @RequestMapping(method = RequestMethod.DELETE)
+  public @interface CycleA {
+  }
+
+  /**
+   * Annotation of a meta-annotation cycle.
+   */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+  @CycleA
+  public @interface CycleB {
+  }
+
+  /**
+   * Controller using the composed annotations.
+   */
+  @RestController
+  @RequestMapping("/alias")
+  public static class AliasController {
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @SkippingMapping("/skipping")
+    public String skipping() {
+      return "";
+    }
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @RoutedMapping("/routed")
+    public String routed() {
+      return "";
+    }
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @MidMapping(route = "/mid")
+    public String mid() {
+      return "";
+    }
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @ValueAliasMapping(target = "/value")
+    public String value() {
+      return "";
+    }
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @SameNameMapping(path = "/same")
+    public String same() {
+      return "";
+    }
+
+    /**
+     * Handler method.
+     *
+     * @return Response.
+     */
+    @CycleB
+    public String cycle() {
+      return "";
+    }
+  }
+
+  @Test
+  public void composedAnnotationsResolveTheirAliases() throws IOException {
+    for (ScanningMode scanningMode : ScanningMode.values()) {
+      try ( Classloader classloader = AnalyzerFixture.load(folder.newFolder(), scanningMode, MidMapping.class, SkippingMapping.class, RoutedMapping.class,
+          ValueAliasMapping.class, SameNameMapping.class, CycleA.class, CycleB.class, AliasController.class)) {
+        List<String> restEndpoints = new ArrayList<>();
+        for (RestEndpoint restEndpoint : AnalyzerFixture.analyze(classloader, new SpringbootRestEndpointAnalyzer(classloader, folder.getRoot())).getRestEndpoints()) {
+          restEndpoints.add(restEndpoint.getMethodName() + " " + restEndpoint.getMethod() + " " + restEndpoint.getUrl());
+        }
+        Collections.sort(restEndpoints);
+
+        assertEquals(scanningMode.toString(), Arrays.asList(
+            //Bounded by the composition depth, the cycle still reaches RequestMapping.
+            "cycle DELETE /alias",
+            "mid GET /alias/mid",
+            "routed GET /alias/routed",
+            "same PUT /alias/same",
+            "skipping GET /alias/skipping",
+            "value POST /alias/value"
+        ), restEndpoints);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.analyzer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.michelin.cert.javaentrypointsenumerator.ExtractionBucket;
+import com.michelin.cert.javaentrypointsenumerator.analyzer.webxml.WebDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.Classloader;
+import com.michelin.cert.javaentrypointsenumerator.classloader.ScanningMode;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * WebXmlAnalyzer tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class WebXmlAnalyzerTest {
+
+  private static final String WEB_XML = "WEB-INF/web.xml";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void analyzeLeavesTheSharedDescriptorsUntouched() throws IOException {
+    File explodedWarFolder = folder.newFolder();
+    File webXml = null;
+    for (ExtractionBucket bucket : ExtractionBucket.values()) {
+      if (webXml == null && bucket.accepts(WEB_XML)) {
+        webXml = new File(explodedWarFolder, bucket.getTargetPath(WEB_XML));
+      }
+    }
+    Files.createDirectories(webXml.getParentFile().toPath());
+    Files.write(webXml.toPath(), ("<web-app>"
+        + "<filter><filter-name>auth</filter-name><filter-class>app.AuthFilter</filter-class></filter>"
+        + "<filter-mapping><filter-name>auth</filter-name><url-pattern>/*</url-pattern></filter-mapping>"
+        + "<servlet><servlet-name>home</servlet-name><servlet-class>app.HomeServlet</servlet-class></servlet>"
+        + "<servlet-mapping><servlet-name>home</servlet-name><url-pattern>/home</url-pattern></servlet-mapping>"
+        + "</web-app>").getBytes(StandardCharsets.UTF_8));
+
+    try ( Classloader classloader = AnalyzerFixture.load(explodedWarFolder, ScanningMode.BYTECODE)) {
+      WebXmlAnalyzer webXmlAnalyzer = new WebXmlAnalyzer(classloader, explodedWarFolder);
+      for (int run = 0; run < 2; ++run) {
+        Entrypoints entrypoints = new Entrypoints();
+        webXmlAnalyzer.analyze(entrypoints);
+
+        assertEquals(1, entrypoints.getFilters().size());
+        assertEquals(Collections.singletonList("/*"), entrypoints.getFilters().get(0).getUrls());
+        assertEquals(1, entrypoints.getServlets().size());
+        assertEquals(Collections.singletonList("/home"), entrypoints.getServlets().get(0).getUrls());
+      }
+
+      WebDescriptor descriptor = webXmlAnalyzer.getDescriptors().get(0);
+      assertTrue(descriptor.getFilters().get("auth").getUrls().isEmpty());
+      assertTrue(descriptor.getServlets().get("home").getUrls().isEmpty());
+    }
+  }
+
+  @Test
+  public void fragmentsAreReadInLibraryOrderOnSeveralWorkers() throws IOException {
+    File explodedWarFolder = folder.newFolder();
+    File jarsFolder = new File(explodedWarFolder, ExtractionBucket.JARS.getLocation());
+    try ( Classloader classloader = AnalyzerFixture.create(explodedWarFolder, ScanningMode.BYTECODE)) {
+      List<String> expected = new ArrayList<>();
+      for (int i = 0; i < 12; ++i) {
+        String libName = String.format("lib%02d.jar", i);
+        writeJar(new File(jarsFolder, libName), "<web-fragment><servlet><servlet-name>s" + i + "</servlet-name><servlet-class>app.S" + i
+            + "</servlet-class></servlet></web-fragment>");
+        expected.add(libName + " [s" + i + "]");
+      }
+      //Neither a library without fragment nor an invalid fragment is kept.
+      writeJar(new File(jarsFolder, "lib20.jar"), null);
+      writeJar(new File(jarsFolder, "lib21.jar"), "<web-app></web-app>");
+
+      for (int threads = 1; threads <= 4; threads += 3) {
+        WebXmlAnalyzer webXmlAnalyzer = new WebXmlAnalyzer(classloader, explodedWarFolder);
+        webXmlAnalyzer.setThreads(threads);
+        List<String> fragments = new ArrayList<>();
+        for (WebDescriptor descriptor : webXmlAnalyzer.getDescriptors()) {
+          fragments.add(descriptor.getSource() + " " + descriptor.getServlets().keySet());
+        }
+        assertEquals("threads " + threads, expected, fragments);
+      }
+    }
+  }
+
+  /**
+   * Write a library jar.
+   *
+   * @param jar Jar file.
+   * @param webFragment Content of META-INF/web-fragment.xml, or null for none.
+   */
+  private static void writeJar(File jar, String webFragment) throws IOException {
+    try ( ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(jar))) {
+      outputStream.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+      outputStream.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+      outputStream.closeEntry();
+      if (webFragment != null) {
+        outputStream.putNextEntry(new ZipEntry("META-INF/web-fragment.xml"));
+        outputStream.write(webFragment.getBytes(StandardCharsets.UTF_8));
+        outputStream.closeEntry();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.archive;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+/**
+ * ZipIndex tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ZipIndexTest {
+
+  private static final int END_SIZE = 22;
+  private static final byte[] TEXT = "Lorem ipsum dolor sit amet, lorem ipsum dolor sit amet.".getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  public void readsStoredAndDeflatedEntries() throws IOException {
+    ZipIndex index = new ZipIndex(ByteBuffer.wrap(zip(null, "stored.txt", TEXT, ZipEntry.STORED, "deflated.txt", TEXT, ZipEntry.DEFLATED)));
+
+    ZipIndexEntry stored = index.getEntry("stored.txt");
+    assertEquals(ZipIndex.STORED, stored.getMethod());
+    assertArrayEquals(TEXT, stored.getBytes());
+    assertArrayEquals(TEXT, read(stored.getInputStream()));
+
+    ZipIndexEntry deflated = index.getEntry("deflated.txt");
+    assertEquals(ZipIndex.DEFLATED, deflated.getMethod());
+    assertEquals(TEXT.length, deflated.getSize());
+    assertArrayEquals(TEXT, deflated.getBytes());
+    assertArrayEquals(TEXT, read(deflated.getInputStream()));
+    ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    index.copyTo(deflated, copy);
+    assertArrayEquals(TEXT, copy.toByteArray());
+
+    assertEquals(Arrays.asList("stored.txt", "deflated.txt"), Arrays.asList(index.getEntries().stream().map(ZipIndexEntry::getName).toArray()));
+    assertNull(index.getEntry("missing.txt"));
+  }
+
+  @Test
+  public void readsNestedStoredArchiveWithoutCopy() throws IOException {
+    byte[] nested = zip(null, "nested.txt", TEXT, ZipEntry.DEFLATED);
+    ZipIndex index = new ZipIndex(ByteBuffer.wrap(zip(null, "WEB-INF/lib/nested.jar", nested, ZipEntry.STORED)));
+
+    ByteBuffer rawData = index.getRawData(index.getEntry("WEB-INF/lib/nested.jar"));
+    assertEquals(nested.length, rawData.remaining());
+    ZipIndex nestedIndex = new ZipIndex(rawData);
+    assertArrayEquals(TEXT, nestedIndex.getEntry("nested.txt").getBytes());
+  }
+
+  @Test
+  public void findsEndRecordBeforeComment() throws IOException {
+    ZipIndex index = new ZipIndex(ByteBuffer.wrap(zip("archive comment", "stored.txt", TEXT, ZipEntry.STORED)));
+    assertArrayEquals(TEXT, index.getEntry("stored.txt").getBytes());
+  }
+
+  @Test
+  public void readsZip64EntryCount() throws IOException {
+    Object[] entries = new Object[3 * (0xFFFF + 2)];
+    for (int i = 0; i < entries.length; i += 3) {
+      entries[i] = "entry" + (i / 3);
+      entries[i + 1] = new byte[0];
+      entries[i + 2] = ZipEntry.STORED;
+    }
+    ZipIndex index = new ZipIndex(ByteBuffer.wrap(zip(null, entries)));
+    assertEquals(0xFFFF + 2, index.getEntries().size());
+    assertNotNull(index.getEntry("entry" + (0xFFFF + 1)));
+  }
+
+  @Test
+  public void rejectsTruncatedArchives() {
+    byte[] archive = zip(null, "stored.txt", TEXT, ZipEntry.STORED, "deflated.txt", TEXT, ZipEntry.DEFLATED);
+    for (int length : new int[]{0, 10, archive.length / 2, archive.length - END_SIZE / 2}) {
+      assertRejected(Arrays.copyOf(archive, length));
+    }
+  }
+
+  @Test
+  public void rejectsCentralDirectoryOutsideTheBuffer() {
+    byte[] archive = zip(null, "stored.txt", TEXT, ZipEntry.STORED);
+    ByteBuffer end = ByteBuffer.wrap(archive).order(ByteOrder.LITTLE_ENDIAN);
+    end.putInt(archive.length - END_SIZE + 16, archive.length + 100);
+    assertRejected(archive);
+  }
+
+  @Test
+  public void rejectsEntryDataOutsideTheBuffer() throws IOException {
+    byte[] archive = zip(null, "stored.txt", TEXT, ZipEntry.STORED);
+    ByteBuffer buffer = ByteBuffer.wrap(archive).order(ByteOrder.LITTLE_ENDIAN);
+    int centralDirectory = buffer.getInt(archive.length - END_SIZE + 16);
+
+    //Local header offset past the end.
+    byte[] badOffset = archive.clone();
+    ByteBuffer.wrap(badOffset).order(ByteOrder.LITTLE_ENDIAN).putInt(centralDirectory + 42, archive.length + 100);
+    assertEntryRejected(new ZipIndex(ByteBuffer.wrap(badOffset)).getEntry("stored.txt"));
+
+    //Compressed size past the end.
+    byte[] badSize = archive.clone();
+    ByteBuffer.wrap(badSize).order(ByteOrder.LITTLE_ENDIAN).putInt(centralDirectory + 20, archive.length * 2);
+    assertEntryRejected(new ZipIndex(ByteBuffer.wrap(badSize)).getEntry("stored.txt"));
+  }
+
+  /**
+   * Build a zip archive.
+   *
+   * @param comment Archive comment or null.
+   * @param entries Name, content and method of each entry.
+   * @return Archive content.
+   */
+  private static byte[] zip(String comment, Object... entries) {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    try ( ZipOutputStream outputStream = new ZipOutputStream(result)) {
+      if (comment != null) {
+        outputStream.setComment(comment);
+      }
+      for (int i = 0; i < entries.length; i += 3) {
+        byte[] content = (byte[]) entries[i + 1];
+        ZipEntry entry = new ZipEntry((String) entries[i]);
+        entry.setMethod((Integer) entries[i + 2]);
+        if (entry.getMethod() == ZipEntry.STORED) {
+          CRC32 crc = new CRC32();
+          crc.update(content);
+          entry.setCrc(crc.getValue());
+          entry.setSize(content.length);
+          entry.setCompressedSize(content.length);
+        }
+        outputStream.putNextEntry(entry);
+        outputStream.write(content);
+        outputStream.closeEntry();
+      }
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+    return result.toByteArray();
+  }
+
+  private static byte[] read(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    byte[] buffer = new byte[16];
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      result.write(buffer, 0, read);
+    }
+    return result.toByteArray();
+  }
+
+  private static void assertRejected(byte[] archive) {
+    try {
+      new ZipIndex(ByteBuffer.wrap(archive));
+      fail("Archive of " + archive.length + " bytes accepted");
+    } catch (ZipException ex) {
+      assertNotNull(ex.getMessage());
+    } catch (IOException ex) {
+      fail("Unexpected " + ex);
+    }
+  }
+
+  private static void assertEntryRejected(ZipIndexEntry entry) {
+    try {
+      entry.getBytes();
+      fail("Entry read");
+    } catch (ZipException ex) {
+      assertNotNull(ex.getMessage());
+    } catch (IOException ex) {
+      fail("Unexpected " + ex);
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.batch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * BatchScheduler tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class BatchSchedulerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void failedWarsDoNotStopTheBatch() throws IOException {
+    List<File> warFiles = new ArrayList<>();
+    for (String name : Arrays.asList("app", "error", "exception", "other", "app")) {
+      File warFile = new File(folder.newFolder(), name + ".war");
+      Files.write(warFile.toPath(), new byte[warFiles.size()]);
+      warFiles.add(warFile);
+    }
+    List<String> analyzed = Collections.synchronizedList(new ArrayList<>());
+
+    for (int threads = 1; threads <= 2; ++threads) {
+      analyzed.clear();
+      BatchReport report = new BatchScheduler(threads).run(warFiles, (warFile, name) -> {
+        if ("error".equals(name)) {
+          throw new StackOverflowError("Failed war");
+        } else if ("exception".equals(name)) {
+          throw new IOException("Failed war");
+        }
+        analyzed.add(name);
+      });
+
+      Collections.sort(analyzed);
+      assertEquals("threads " + threads, Arrays.asList("app", "app-2", "other"), analyzed);
+      assertEquals("threads " + threads, 3, report.getAnalyzedWars());
+      List<String> failed = new ArrayList<>(report.getFailedWars());
+      Collections.sort(failed);
+      assertEquals("threads " + threads, Arrays.asList("error", "exception"), failed);
+    }
+  }
+
+  @Test
+  public void namesAreUnique() {
+    List<File> warFiles = Arrays.asList(new File("a/app.war"), new File("b/app.war"), new File("c/app"), new File("d/.war"));
+    assertEquals(Arrays.asList("app", "app-2", "app-3", ".war"), new ArrayList<>(BatchScheduler.getNames(warFiles).values()));
+  }
+}
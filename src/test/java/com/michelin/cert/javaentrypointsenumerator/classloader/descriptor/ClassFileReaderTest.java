@@ -0,0 +1,217 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.descriptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * ClassFileReader tests, the descriptors read from the class files must match the ones built by reflection.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ClassFileReaderTest {
+
+  private static final String[] CLASSES = {"fixture.Sample", "fixture.Tag", "fixture.Nested", "fixture.Kind"};
+
+  private static final String TAG = "@Tag(value = \"%s\", numbers = {1, 2}, kind = Kind.TWO, type = String[].class,"
+      + " nested = @Nested(names = {\"a\", \"b\"}, kinds = {Kind.ONE, Kind.TWO}),"
+      + " nestedArray = {@Nested(names = {}, kinds = {}), @Nested(names = \"c\", kinds = Kind.ONE)},"
+      + " big = 9876543210L, ratio = 0.25d, letter = '\\u00e9', tiny = -1, small = 300, flag = true, fraction = 1.5f)";
+
+  private static final String SOURCE = "package fixture;\n"
+      + "import java.lang.annotation.*;\n"
+      + "import java.util.*;\n"
+      + "@Retention(RetentionPolicy.RUNTIME) @interface Tag {\n"
+      + "  String value(); int[] numbers(); Kind kind(); Class<?> type(); Nested nested(); Nested[] nestedArray();\n"
+      + "  long big() default 1L; double ratio() default 2d; char letter(); byte tiny(); short small(); boolean flag(); float fraction();\n"
+      + "}\n"
+      + "@Retention(RetentionPolicy.RUNTIME) @interface Nested { String[] names(); Kind[] kinds(); }\n"
+      + "enum Kind { ONE, TWO }\n"
+      + String.format(TAG, "class") + "\n"
+      + "public abstract class Sample extends AbstractList<String> implements Runnable, java.io.Serializable {\n"
+      + "  public static final long BIG = 1234567890123L;\n"
+      + "  public static final double RATIO = 0.5d;\n"
+      + "  private static final long serialVersionUID = 42L;\n"
+      + "  private final long total = System.nanoTime() + BIG;\n"
+      + "  " + String.format(TAG, "method") + "\n"
+      + "  public static long compute(" + String.format(TAG, "parameter") + " long first, double second, @Nested(names = \"rest\", kinds = {}) String... rest) {\n"
+      + "    return first + BIG + (long) (second * RATIO) + 3000000000L + Double.doubleToLongBits(0.125d);\n"
+      + "  }\n"
+      + "  protected synchronized double[][] matrix(List<? extends Number> values, int[] indexes, Map<String, Object> options) { return new double[0][]; }\n"
+      + "  @Override public String get(int index) { return String.valueOf(total + index); }\n"
+      + "  @Override public void run() { Runnable task = () -> compute(1L, 2d); task.run(); }\n"
+      + "  abstract Object pending();\n"
+      + "}\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void matchesReflectionWithParameterNames() throws Exception {
+    assertParity(compile("-parameters"));
+  }
+
+  @Test
+  public void matchesReflectionWithoutParameterNames() throws Exception {
+    assertParity(compile("-g:none"));
+  }
+
+  @Test
+  public void readsParameterNamesAndNestedValues() throws Exception {
+    File classes = compile("-parameters");
+    ClassDescriptor sample = read(classes, "fixture.Sample");
+    MethodDescriptor compute = sample.getMethods().stream().filter(method -> "compute".equals(method.getName())).findFirst().orElse(null);
+    assertNotNull(compute);
+    assertEquals("(JD[Ljava/lang/String;)J", compute.getDescriptor());
+    assertEquals(Arrays.asList("first", "second", "rest"), compute.getParameters().stream().map(ParameterDescriptor::getName).collect(Collectors.toList()));
+    assertEquals(Arrays.asList("long", "double", "java.lang.String[]"), compute.getParameters().stream().map(ParameterDescriptor::getType).collect(Collectors.toList()));
+
+    AnnotationDescriptor tag = compute.getParameters().get(0).getAnnotation("fixture.Tag");
+    assertEquals("parameter", tag.getString("value"));
+    assertEquals(9876543210L, tag.getValue("big"));
+    assertEquals(0.25d, tag.getValue("ratio"));
+    assertEquals("java.lang.String[]", tag.getValue("type"));
+    assertEquals("TWO", tag.getValue("kind"));
+    assertEquals(Arrays.asList("a", "b"), tag.getAnnotations("nested").get(0).getStrings("names"));
+    assertEquals(Arrays.asList("c"), tag.getAnnotations("nestedArray").get(1).getStrings("names"));
+    assertTrue(compute.getParameters().get(1).getAnnotations().isEmpty());
+    assertEquals(Arrays.asList("rest"), compute.getParameters().get(2).getAnnotation("fixture.Nested").getStrings("names"));
+  }
+
+  /**
+   * Compare the descriptors read from the class files with the ones built by reflection.
+   *
+   * @param classes Compiled classes folder.
+   */
+  private static void assertParity(File classes) throws Exception {
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, ClassFileReaderTest.class.getClassLoader())) {
+      for (String name : CLASSES) {
+        assertEquals(name, render(ReflectionDescriptorFactory.describe(loader.loadClass(name))), render(read(classes, name)));
+      }
+    }
+  }
+
+  /**
+   * Compile the fixture sources.
+   *
+   * @param option Compiler option.
+   * @return Compiled classes folder.
+   */
+  private File compile(String option) throws IOException {
+    File sources = folder.newFolder();
+    File classes = folder.newFolder();
+    File source = new File(sources, "fixture/Sample.java");
+    source.getParentFile().mkdirs();
+    Files.write(source.toPath(), SOURCE.getBytes(StandardCharsets.UTF_8));
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertNotNull("A JDK is required", compiler);
+    assertEquals(0, compiler.run(null, null, null, option, "-encoding", "UTF-8", "-d", classes.getPath(), source.getPath()));
+    return classes;
+  }
+
+  /**
+   * Read a compiled class file.
+   *
+   * @param classes Compiled classes folder.
+   * @param name Class name.
+   * @return Class descriptor.
+   */
+  private static ClassDescriptor read(File classes, String name) throws IOException {
+    return ClassFileReader.read(Files.readAllBytes(new File(classes, name.replace('.', '/') + ".class").toPath()));
+  }
+
+  /**
+   * Render a class descriptor in a canonical form, methods sorted and constructors ignored as reflection does not report them.
+   * Access flags are reduced to the modifiers reflection reports.
+   *
+   * @param descriptor Class descriptor.
+   * @return Canonical form.
+   */
+  private static String render(ClassDescriptor descriptor) {
+    StringBuilder result = new StringBuilder();
+    result.append(descriptor.getName()).append(" extends ").append(descriptor.getSuperName())
+        .append(" implements ").append(descriptor.getInterfaces())
+        .append(" access ").append(descriptor.getAccess() & (Modifier.classModifiers() | Modifier.INTERFACE | ClassDescriptor.ACC_ANNOTATION))
+        .append(' ').append(render(descriptor.getAnnotations())).append('\n');
+    List<String> methods = new ArrayList<>();
+    for (MethodDescriptor method : descriptor.getMethods()) {
+      if (!method.getName().startsWith("<")) {
+        StringBuilder line = new StringBuilder();
+        line.append(method.getDeclaringClass()).append('.').append(method.getName()).append(method.getDescriptor())
+            .append(" access ").append(method.getAccess() & Modifier.methodModifiers())
+            .append(' ').append(render(method.getAnnotations()));
+        for (ParameterDescriptor parameter : method.getParameters()) {
+          line.append("\n  ").append(parameter.getType()).append(' ').append(parameter.getName()).append(' ').append(render(parameter.getAnnotations()));
+        }
+        methods.add(line.toString());
+      }
+    }
+    methods.sort(null);
+    methods.forEach(method -> result.append(method).append('\n'));
+    return result.toString();
+  }
+
+  /**
+   * Render annotations in a canonical form, attributes sorted by name and values tagged with their type.
+   *
+   * @param annotations Annotations per type name.
+   * @return Canonical form.
+   */
+  private static String render(Map<String, AnnotationDescriptor> annotations) {
+    Map<String, String> result = new TreeMap<>();
+    annotations.forEach((type, annotation) -> result.put(type, render(annotation)));
+    return result.toString();
+  }
+
+  private static String render(Object value) {
+    String result;
+    if (value instanceof AnnotationDescriptor) {
+      AnnotationDescriptor annotation = (AnnotationDescriptor) value;
+      Map<String, String> values = new TreeMap<>();
+      annotation.getValues().forEach((name, attribute) -> values.put(name, render(attribute)));
+      result = "@" + annotation.getType() + values;
+    } else if (value instanceof List) {
+      result = ((List<?>) value).stream().map(ClassFileReaderTest::render).collect(Collectors.toList()).toString();
+    } else {
+      result = value + ":" + value.getClass().getSimpleName();
+    }
+    return result;
+  }
+}
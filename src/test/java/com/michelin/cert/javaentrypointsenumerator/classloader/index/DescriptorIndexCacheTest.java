@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.AnnotationDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * DescriptorIndexCache tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class DescriptorIndexCacheTest {
+
+  private static final String A = "aaaa";
+  private static final String B = "bbbb";
+  private static final String C = "cccc";
+  private static final String D = "dddd";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void countsHitsAndMisses() throws IOException {
+    DescriptorIndexCache cache = new DescriptorIndexCache(folder.getRoot(), 0, 0);
+
+    assertNull(cache.get(A));
+    cache.put(A, index("app.A"));
+    List<ClassDescriptor> result = cache.get(A);
+
+    assertNotNull(result);
+    assertEquals("app.A", result.get(0).getName());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(0, cache.getEvictions());
+    assertEquals(1, cache.size());
+    assertEquals(new File(folder.getRoot(), A + ".idx").length(), cache.getSize());
+    assertEquals("1 jars from cache, 1 jars indexed, 0 index files evicted", cache.toString());
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedEntries() throws IOException {
+    DescriptorIndexCache cache = new DescriptorIndexCache(folder.getRoot(), 0, 2);
+    cache.put(A, index("app.A"));
+    cache.put(B, index("app.B"));
+    //A becomes the most recently used.
+    assertNotNull(cache.get(A));
+    cache.put(C, index("app.C"));
+
+    assertTrue(exists(A));
+    assertFalse(exists(B));
+    assertTrue(exists(C));
+    assertEquals(1, cache.getEvictions());
+    assertEquals(2, cache.size());
+    assertNull(cache.get(B));
+  }
+
+  @Test
+  public void evictsBySizeAndKeepsTheLastIndex() throws IOException {
+    DescriptorIndexCache probe = new DescriptorIndexCache(folder.newFolder(), 0, 0);
+    probe.put(A, index("app.A"));
+    long length = probe.getSize();
+
+    DescriptorIndexCache cache = new DescriptorIndexCache(folder.getRoot(), 2 * length, 0);
+    cache.put(A, index("app.A"));
+    cache.put(B, index("app.B"));
+    cache.put(C, index("app.C"));
+
+    assertFalse(exists(A));
+    assertTrue(exists(B));
+    assertTrue(exists(C));
+    assertEquals(2 * length, cache.getSize());
+
+    //An index bigger than the cache is kept alone.
+    DescriptorIndexCache tiny = new DescriptorIndexCache(folder.getRoot(), 1, 0);
+    tiny.put(D, index("app.D"));
+    assertFalse(exists(B));
+    assertFalse(exists(C));
+    assertTrue(exists(D));
+    assertEquals(1, tiny.size());
+    assertEquals(2, tiny.getEvictions());
+  }
+
+  @Test
+  public void opensTheFolderInModificationOrder() throws IOException {
+    DescriptorIndexCache previousRun = new DescriptorIndexCache(folder.getRoot(), 0, 0);
+    previousRun.put(A, index("app.A"));
+    previousRun.put(B, index("app.B"));
+    previousRun.put(C, index("app.C"));
+    long now = System.currentTimeMillis();
+    assertTrue(new File(folder.getRoot(), A + ".idx").setLastModified(now - 1000));
+    assertTrue(new File(folder.getRoot(), B + ".idx").setLastModified(now - 3000));
+    assertTrue(new File(folder.getRoot(), C + ".idx").setLastModified(now - 2000));
+
+    DescriptorIndexCache cache = new DescriptorIndexCache(folder.getRoot(), 0, 2);
+    assertEquals(3, cache.size());
+    cache.put(D, index("app.D"));
+
+    assertTrue(exists(A));
+    assertFalse(exists(B));
+    assertFalse(exists(C));
+    assertTrue(exists(D));
+    assertEquals(2, cache.getEvictions());
+  }
+
+  @Test
+  public void evictsFromTheViewWithoutListingTheFolder() throws IOException {
+    DescriptorIndexCache cache = new DescriptorIndexCache(folder.getRoot(), 0, 1);
+    //Written by a concurrent run after the opening, neither counted nor evicted until it is read.
+    Files.write(new File(folder.getRoot(), "ffff.idx").toPath(), "foreign".getBytes(StandardCharsets.UTF_8));
+    cache.put(A, index("app.A"));
+    cache.put(B, index("app.B"));
+
+    assertTrue(exists("ffff"));
+    assertFalse(exists(A));
+    assertTrue(exists(B));
+    assertEquals(1, cache.size());
+
+    //Evicted by a concurrent run, the view forgets it.
+    assertTrue(new File(folder.getRoot(), B + ".idx").delete());
+    assertNull(cache.get(B));
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getSize());
+  }
+
+  private boolean exists(String sha256) {
+    return new File(folder.getRoot(), sha256 + ".idx").isFile();
+  }
+
+  private static List<ClassDescriptor> index(String className) {
+    return Collections.singletonList(new ClassDescriptor(className, "java.lang.Object", Collections.<String>emptyList(), 1,
+        Collections.<String, AnnotationDescriptor>emptyMap(), Collections.<MethodDescriptor>emptyList()));
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.classloader.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.AnnotationDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ClassDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.MethodDescriptor;
+import com.michelin.cert.javaentrypointsenumerator.classloader.descriptor.ParameterDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+/**
+ * DescriptorIndexFormat tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class DescriptorIndexFormatTest {
+
+  @Test
+  public void readsWhatIsWritten() throws IOException {
+    Map<String, Object> nestedValues = new LinkedHashMap<>();
+    nestedValues.put("names", Arrays.asList("a", "b"));
+    AnnotationDescriptor nested = new AnnotationDescriptor("app.Nested", nestedValues);
+
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("byte", (byte) -1);
+    values.put("char", 'é');
+    values.put("short", (short) 300);
+    values.put("boolean", true);
+    values.put("int", 42);
+    values.put("long", 9876543210L);
+    values.put("float", 1.5f);
+    values.put("double", 0.25d);
+    values.put("string", "/api/été");
+    values.put("nested", nested);
+    values.put("array", Arrays.asList(nested, nested));
+    values.put("empty", Collections.emptyList());
+    AnnotationDescriptor annotation = new AnnotationDescriptor("app.Tag", values);
+
+    ParameterDescriptor parameter = new ParameterDescriptor("id", "java.lang.String", Collections.singletonMap("app.Nested", nested));
+    MethodDescriptor method = new MethodDescriptor("app.Api", "get", "(Ljava/lang/String;)Ljava/lang/String;", 1, Collections.singletonMap("app.Tag", annotation),
+        Collections.singletonList(parameter));
+    ClassDescriptor api = new ClassDescriptor("app.Api", "java.lang.Object", Arrays.asList("java.io.Serializable", "java.lang.Runnable"), 0x21,
+        Collections.singletonMap("app.Tag", annotation), Collections.singletonList(method));
+    ClassDescriptor module = new ClassDescriptor("module-info", null, Collections.<String>emptyList(), 0x8000,
+        Collections.<String, AnnotationDescriptor>emptyMap(), Collections.<MethodDescriptor>emptyList());
+
+    List<ClassDescriptor> result = DescriptorIndexFormat.read(new DataInputStream(new ByteArrayInputStream(write(Arrays.asList(api, module)))));
+
+    assertEquals(2, result.size());
+    ClassDescriptor readApi = result.get(0);
+    assertEquals("app.Api", readApi.getName());
+    assertEquals("java.lang.Object", readApi.getSuperName());
+    assertEquals(Arrays.asList("java.io.Serializable", "java.lang.Runnable"), readApi.getInterfaces());
+    assertEquals(0x21, readApi.getAccess());
+    assertEquals(render(annotation), render(readApi.getAnnotation("app.Tag")));
+
+    MethodDescriptor readMethod = readApi.getMethods().get(0);
+    assertEquals("app.Api", readMethod.getDeclaringClass());
+    assertEquals("get", readMethod.getName());
+    assertEquals("(Ljava/lang/String;)Ljava/lang/String;", readMethod.getDescriptor());
+    assertEquals(1, readMethod.getAccess());
+    assertEquals("id", readMethod.getParameters().get(0).getName());
+    assertEquals("java.lang.String", readMethod.getParameters().get(0).getType());
+    assertEquals(Arrays.asList("a", "b"), readMethod.getParameters().get(0).getAnnotation("app.Nested").getStrings("names"));
+
+    assertNull(result.get(1).getSuperName());
+    assertEquals(0x8000, result.get(1).getAccess());
+  }
+
+  @Test
+  public void rejectsInvalidIndexes() throws IOException {
+    byte[] valid = write(Collections.singletonList(new ClassDescriptor("app.Api", "java.lang.Object", Collections.<String>emptyList(), 1,
+        Collections.singletonMap("app.Tag", new AnnotationDescriptor("app.Tag", Collections.<String, Object>singletonMap("value", "/api"))),
+        Collections.<MethodDescriptor>emptyList())));
+
+    byte[] badMagic = valid.clone();
+    badMagic[0] = 0;
+    assertInvalid(badMagic);
+
+    byte[] badVersion = valid.clone();
+    badVersion[7] = 2;
+    assertInvalid(badVersion);
+
+    //First string length, the class name.
+    byte[] badLength = valid.clone();
+    badLength[12] = (byte) 0xFF;
+    assertInvalid(badLength);
+
+    //Tag of the annotation value, right after its name.
+    byte[] badTag = valid.clone();
+    badTag[valid.length - 9 - 4] = 'X';
+    assertInvalid(badTag);
+
+    assertInvalid(Arrays.copyOf(valid, valid.length - 1));
+  }
+
+  /**
+   * Write class descriptors to a byte array.
+   *
+   * @param classDescriptors Class descriptors.
+   * @return Index bytes.
+   */
+  private static byte[] write(List<ClassDescriptor> classDescriptors) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try ( DataOutputStream output = new DataOutputStream(bytes)) {
+      DescriptorIndexFormat.write(output, classDescriptors);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void assertInvalid(byte[] bytes) {
+    try {
+      DescriptorIndexFormat.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+      fail("Invalid index read");
+    } catch (IOException ex) {
+      //Expected, EOFException included.
+    }
+  }
+
+  /**
+   * Render a value with the type of each element, annotation attributes kept in order.
+   *
+   * @param value Annotation value.
+   * @return Rendered value.
+   */
+  private static String render(Object value) {
+    String result;
+    if (value instanceof AnnotationDescriptor) {
+      AnnotationDescriptor annotation = (AnnotationDescriptor) value;
+      result = "@" + annotation.getType() + annotation.getValues().entrySet().stream().map(entry -> entry.getKey() + "=" + render(entry.getValue())).collect(Collectors.toList());
+    } else if (value instanceof List) {
+      result = ((List<?>) value).stream().map(DescriptorIndexFormatTest::render).collect(Collectors.toList()).toString();
+    } else {
+      result = value + ":" + value.getClass().getSimpleName();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import static org.junit.Assert.assertEquals;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameterType;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * CsvExporter tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class CsvExporterTest {
+
+  private static final String HEADER = "type,name,class,method,http_method,url,parameters\r\n";
+
+  @Test
+  public void plainValuesAreNotQuoted() throws IOException {
+    Entrypoints entrypoints = new Entrypoints();
+    Filter filter = new Filter("auth", "app.AuthFilter");
+    filter.addUrl("/secure/*");
+    entrypoints.addFilter(filter);
+    Servlet servlet = new Servlet("home", "app.HomeServlet");
+    servlet.addUrl("/home");
+    servlet.addMethod(HttpMethod.GET);
+    servlet.addMethod(HttpMethod.POST);
+    entrypoints.addServlet(servlet);
+    SoapEndpoint soapEndpoint = new SoapEndpoint();
+    soapEndpoint.setClassName("app.Billing");
+    soapEndpoint.setServiceName("BillingService");
+    soapEndpoint.setMethodName("pay");
+    soapEndpoint.setOperationName("Pay");
+    soapEndpoint.setUrl("/services/billing");
+    entrypoints.addSoapEndpoint(soapEndpoint);
+
+    assertEquals(HEADER
+        + "filter,auth,app.AuthFilter,,,/secure/*,\r\n"
+        + "servlet,home,app.HomeServlet,,GET,/home,\r\n"
+        + "servlet,home,app.HomeServlet,,POST,/home,\r\n"
+        + "soap,BillingService#Pay,app.Billing,pay,,/services/billing,\r\n", export(entrypoints));
+  }
+
+  @Test
+  public void valuesAreQuotedAsRfc4180() throws IOException {
+    Entrypoints entrypoints = new Entrypoints();
+    entrypoints.addRestEndpoint(restEndpoint("/items/{a,b}"));
+    entrypoints.addRestEndpoint(restEndpoint("/say/\"hi\""));
+    entrypoints.addRestEndpoint(restEndpoint("/lines/a\r\nb"));
+    entrypoints.addRestEndpoint(restEndpoint("/line/a\nb"));
+    entrypoints.addRestEndpoint(restEndpoint("/return/a\rb"));
+    entrypoints.addRestEndpoint(restEndpoint("/\",\""));
+
+    assertEquals(HEADER
+        + "rest,,app.Resource,get,GET,\"/items/{a,b}\",PATH java.lang.String id\r\n"
+        + "rest,,app.Resource,get,GET,\"/say/\"\"hi\"\"\",PATH java.lang.String id\r\n"
+        + "rest,,app.Resource,get,GET,\"/lines/a\r\nb\",PATH java.lang.String id\r\n"
+        + "rest,,app.Resource,get,GET,\"/line/a\nb\",PATH java.lang.String id\r\n"
+        + "rest,,app.Resource,get,GET,\"/return/a\rb\",PATH java.lang.String id\r\n"
+        + "rest,,app.Resource,get,GET,\"/\"\",\"\"\",PATH java.lang.String id\r\n", export(entrypoints));
+  }
+
+  @Test
+  public void otherCharactersAreWrittenAsIs() throws IOException {
+    Entrypoints entrypoints = new Entrypoints();
+    entrypoints.addRestEndpoint(restEndpoint("/tab/a\tb"));
+    entrypoints.addRestEndpoint(restEndpoint("/bell/a\u0007b"));
+    entrypoints.addRestEndpoint(restEndpoint("/caf\u00e9/\u65e5\u672c/\ud83d\ude00"));
+    entrypoints.addRestEndpoint(restEndpoint("/single/'quote';semicolon"));
+
+    assertEquals(HEADER
+        + "rest,,app.Resource,get,GET,/tab/a\tb,PATH java.lang.String id\r\n"
+        + "rest,,app.Resource,get,GET,/bell/a\u0007b,PATH java.lang.String id\r\n"
+        + "rest,,app.Resource,get,GET,/caf\u00e9/\u65e5\u672c/\ud83d\ude00,PATH java.lang.String id\r\n"
+        + "rest,,app.Resource,get,GET,/single/'quote';semicolon,PATH java.lang.String id\r\n", export(entrypoints));
+  }
+
+  @Test
+  public void parametersAreJoinedBySemicolons() throws IOException {
+    Entrypoints entrypoints = new Entrypoints();
+    RestEndpoint restEndpoint = restEndpoint("/search");
+    HttpParameter httpParameter = new HttpParameter();
+    httpParameter.setType(HttpParameterType.REQUEST);
+    httpParameter.setModel("java.util.Map<java.lang.String, java.lang.Integer>");
+    httpParameter.setName("filters");
+    restEndpoint.setParameters(Arrays.asList(restEndpoint.getParameters().get(0), httpParameter));
+    entrypoints.addRestEndpoint(restEndpoint);
+    Jsp jsp = new Jsp("/search.jsp");
+    jsp.addParameter("q");
+    jsp.addParameter("page");
+    entrypoints.addJsp(jsp);
+
+    assertEquals(HEADER
+        + "rest,,app.Resource,get,GET,/search,\"PATH java.lang.String id;REQUEST java.util.Map<java.lang.String, java.lang.Integer> filters\"\r\n"
+        + "jsp,,,,,/search.jsp,q;page\r\n", export(entrypoints));
+  }
+
+  /**
+   * Build a REST endpoint with a single path parameter.
+   *
+   * @param url Endpoint url.
+   * @return REST endpoint.
+   */
+  static RestEndpoint restEndpoint(String url) {
+    RestEndpoint restEndpoint = new RestEndpoint();
+    restEndpoint.setClassName("app.Resource");
+    restEndpoint.setMethodName("get");
+    restEndpoint.setMethod(HttpMethod.GET);
+    restEndpoint.setUrl(url);
+    HttpParameter httpParameter = new HttpParameter();
+    httpParameter.setType(HttpParameterType.PATH);
+    httpParameter.setModel("java.lang.String");
+    httpParameter.setName("id");
+    restEndpoint.setParameters(Collections.singletonList(httpParameter));
+    return restEndpoint;
+  }
+
+  /**
+   * Export entrypoints to a string.
+   *
+   * @param entrypoints Entrypoints.
+   * @return CSV document.
+   * @throws IOException IOException.
+   */
+  private static String export(Entrypoints entrypoints) throws IOException {
+    StringWriter writer = new StringWriter();
+    StreamingExporter.exportAll(entrypoints, Collections.<Writer, StreamingExporter>singletonMap(writer, new CsvExporter()));
+    return writer.toString();
+  }
+
+}
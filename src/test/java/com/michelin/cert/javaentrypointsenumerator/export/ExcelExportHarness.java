@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.SoapEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpParameterType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Excel export harness, writing synthetic entrypoints through an ExcelExportSink.
+ *
+ * <p>
+ * Every entrypoint lands in a known sheet, so a test can compare the streamed workbook with the in-memory one (row window -1) or check which rows were flushed.
+ * </p>
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public final class ExcelExportHarness {
+
+  private static final int ENTRYPOINTS_PER_CLASS = 50;
+  private static final int REST_ENDPOINTS_PER_OTHER = 10;
+
+  /**
+   * Private constructor.
+   */
+  private ExcelExportHarness() {
+  }
+
+  /**
+   * Export synthetic entrypoints through an ExcelExportSink.
+   *
+   * @param outputFile Output file.
+   * @param rows Number of REST endpoints.
+   * @param rowWindow Number of rows per sheet kept in memory, -1 to keep every row.
+   * @throws IOException If the workbook can not be written.
+   */
+  public static void export(File outputFile, int rows, int rowWindow) throws IOException {
+    try ( ExcelExportSink sink = new ExcelExportSink(outputFile, rowWindow, false)) {
+      populate(sink, rows);
+      sink.write();
+    }
+  }
+
+  /**
+   * Push synthetic entrypoints to a sink: REST endpoints, plus one filter, servlet, SOAP endpoint and JSP every ten REST endpoints.
+   *
+   * @param sink Entrypoints sink.
+   * @param rows Number of REST endpoints.
+   */
+  public static void populate(EntrypointSink sink, int rows) {
+    for (int i = 0; i < rows; ++i) {
+      String className = "app.Resource" + (i / ENTRYPOINTS_PER_CLASS);
+      RestEndpoint restEndpoint = new RestEndpoint();
+      restEndpoint.setClassName(className);
+      restEndpoint.setMethodName("get" + i);
+      restEndpoint.setMethod(HttpMethod.GET);
+      restEndpoint.setUrl("/items/" + i);
+      HttpParameter httpParameter = new HttpParameter();
+      httpParameter.setType(HttpParameterType.PATH);
+      httpParameter.setModel("java.lang.String");
+      httpParameter.setName("id");
+      restEndpoint.setParameters(Collections.singletonList(httpParameter));
+      sink.addRestEndpoint(restEndpoint);
+
+      if (i % REST_ENDPOINTS_PER_OTHER == 0) {
+        Filter filter = new Filter("filter" + i, "app.Filter" + i);
+        filter.addUrl("/filtered/" + i + "/*");
+        sink.addFilter(filter);
+        Servlet servlet = new Servlet("servlet" + i, "app.Servlet" + i);
+        servlet.addUrl("/servlet/" + i);
+        servlet.addMethod(HttpMethod.GET);
+        servlet.addMethod(HttpMethod.POST);
+        sink.addServlet(servlet);
+        SoapEndpoint soapEndpoint = new SoapEndpoint();
+        soapEndpoint.setClassName(className);
+        soapEndpoint.setServiceName("Service" + i);
+        soapEndpoint.setMethodName("call" + i);
+        soapEndpoint.setOperationName("Call" + i);
+        soapEndpoint.setUrl("/services/" + i);
+        sink.addSoapEndpoint(soapEndpoint);
+        Jsp jsp = new Jsp("/page" + i + ".jsp");
+        jsp.addParameter("q");
+        sink.addJsp(jsp);
+      }
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * ExcelExportSink tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class ExcelExportSinkTest {
+
+  private static final int ROWS = 2000;
+  private static final int ROW_WINDOW = 100;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void streamedWorkbookMatchesInMemoryWorkbook() throws IOException {
+    File inMemoryFile = folder.newFile("in-memory.xlsx");
+    Entrypoints entrypoints = new Entrypoints();
+    ExcelExportHarness.populate(entrypoints, ROWS);
+    new ExcelExporter(-1, false).export(inMemoryFile, entrypoints);
+
+    File streamedFile = folder.newFile("streamed.xlsx");
+    ExcelExportHarness.export(streamedFile, ROWS, 10);
+
+    List<String> expected = read(inMemoryFile);
+    //REST endpoints, then a filter, two servlet methods, a SOAP endpoint and a JSP every ten, plus the sheet names.
+    assertEquals(ROWS + 5 * ROWS / 10 + 5, expected.size());
+    assertEquals(expected, read(streamedFile));
+  }
+
+  @Test
+  public void rowsBeyondTheWindowAreFlushed() throws IOException {
+    try ( ExcelExportSink sink = new ExcelExportSink(folder.newFile("streamed.xlsx"), ROW_WINDOW, false)) {
+      ExcelExportHarness.populate(sink, ROWS);
+      SXSSFSheet sheet = sink.getWorkbook().getSheet("REST Endpoints");
+      assertEquals(ROWS - ROW_WINDOW - 1, sheet.getLastFlushedRowNum());
+      assertNull(sheet.getRow(0));
+      assertNull(sheet.getRow(ROWS - ROW_WINDOW - 1));
+      assertEquals("/items/" + (ROWS - ROW_WINDOW), sheet.getRow(ROWS - ROW_WINDOW).getCell(3).getStringCellValue());
+      assertEquals("/items/" + (ROWS - 1), sheet.getRow(ROWS - 1).getCell(3).getStringCellValue());
+    }
+  }
+
+  @Test
+  public void inMemoryWorkbookKeepsEveryRow() throws IOException {
+    try ( ExcelExportSink sink = new ExcelExportSink(folder.newFile("in-memory.xlsx"), -1, false)) {
+      ExcelExportHarness.populate(sink, ROWS);
+      SXSSFSheet sheet = sink.getWorkbook().getSheet("REST Endpoints");
+      assertEquals(-1, sheet.getLastFlushedRowNum());
+      assertEquals("/items/0", sheet.getRow(0).getCell(3).getStringCellValue());
+    }
+  }
+
+  /**
+   * Read every cell of a workbook.
+   *
+   * @param file Workbook file.
+   * @return One line per row, prefixed by the sheet name.
+   * @throws IOException IOException.
+   */
+  private static List<String> read(File file) throws IOException {
+    List<String> result = new ArrayList<>();
+    try ( XSSFWorkbook workbook = new XSSFWorkbook(file.getAbsolutePath())) {
+      for (Sheet sheet : workbook) {
+        result.add("# " + sheet.getSheetName());
+        for (Row row : sheet) {
+          StringBuilder line = new StringBuilder().append(row.getRowNum());
+          for (Cell cell : row) {
+            line.append(" | ").append(cell.getStringCellValue());
+          }
+          result.add(line.toString());
+        }
+      }
+    }
+    return result;
+  }
+
+}
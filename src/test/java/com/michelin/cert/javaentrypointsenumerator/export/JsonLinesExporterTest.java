@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import static org.junit.Assert.assertEquals;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Filter;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.RestEndpoint;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Servlet;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.http.HttpMethod;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * JsonLinesExporter tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class JsonLinesExporterTest {
+
+  @Test
+  public void entrypointsAreWrittenOnePerLine() throws IOException {
+    Entrypoints entrypoints = new Entrypoints();
+    Filter filter = new Filter("auth", "app.AuthFilter");
+    filter.addUrl("/secure/*");
+    filter.addUrl("/admin/*");
+    entrypoints.addFilter(filter);
+    Servlet servlet = new Servlet("home", "app.HomeServlet");
+    servlet.addUrl("/home");
+    servlet.addMethod(HttpMethod.POST);
+    servlet.addMethod(HttpMethod.GET);
+    entrypoints.addServlet(servlet);
+    entrypoints.addRestEndpoint(CsvExporterTest.restEndpoint("/items/{id}"));
+    RestEndpoint restEndpoint = new RestEndpoint();
+    restEndpoint.setClassName("app.Resource");
+    restEndpoint.setMethodName("any");
+    entrypoints.addRestEndpoint(restEndpoint);
+    Jsp jsp = new Jsp("/search.jsp");
+    jsp.addParameter("q");
+    entrypoints.addJsp(jsp);
+
+    assertEquals("{\"type\":\"filter\",\"name\":\"auth\",\"class\":\"app.AuthFilter\",\"urls\":[\"/secure/*\",\"/admin/*\"]}\n"
+        + "{\"type\":\"servlet\",\"name\":\"home\",\"class\":\"app.HomeServlet\",\"methods\":[\"GET\",\"POST\"],\"urls\":[\"/home\"]}\n"
+        + "{\"type\":\"rest\",\"class\":\"app.Resource\",\"method\":\"get\",\"httpMethod\":\"GET\",\"url\":\"/items/{id}\","
+        + "\"parameters\":[{\"type\":\"PATH\",\"model\":\"java.lang.String\",\"name\":\"id\"}]}\n"
+        + "{\"type\":\"rest\",\"class\":\"app.Resource\",\"method\":\"any\",\"httpMethod\":null,\"url\":null,\"parameters\":[]}\n"
+        + "{\"type\":\"jsp\",\"url\":\"/search.jsp\",\"parameters\":[\"q\"]}\n", export(entrypoints));
+  }
+
+  @Test
+  public void stringsAreEscaped() throws IOException {
+    assertEquals("\"/say/\\\"hi\\\"\"", url("/say/\"hi\""));
+    assertEquals("\"c:\\\\path\"", url("c:\\path"));
+    assertEquals("\"a\\r\\nb\\tc\"", url("a\r\nb\tc"));
+    assertEquals("\"\\u0000\\u0007\\u001f \"", url("\u0000\u0007\u001f "));
+    assertEquals("\"/a,b/{c}/[d]/'e'/\u007f\"", url("/a,b/{c}/[d]/'e'/\u007f"));
+  }
+
+  @Test
+  public void nonAsciiCharactersAreWrittenAsIs() throws IOException {
+    assertEquals("\"/caf\u00e9/\u65e5\u672c/\ud83d\ude00/\u2028\"", url("/caf\u00e9/\u65e5\u672c/\ud83d\ude00/\u2028"));
+  }
+
+  /**
+   * Export a JSP and return its url member.
+   *
+   * @param url JSP url.
+   * @return JSON string written for the url.
+   * @throws IOException IOException.
+   */
+  private static String url(String url) throws IOException {
+    Entrypoints entrypoints = new Entrypoints();
+    entrypoints.addJsp(new Jsp(url));
+    String line = export(entrypoints);
+    String prefix = "{\"type\":\"jsp\",\"url\":";
+    String suffix = ",\"parameters\":[]}\n";
+    assertEquals(prefix, line.substring(0, prefix.length()));
+    assertEquals(suffix, line.substring(line.length() - suffix.length()));
+    return line.substring(prefix.length(), line.length() - suffix.length());
+  }
+
+  /**
+   * Export entrypoints to a string.
+   *
+   * @param entrypoints Entrypoints.
+   * @return JSON Lines document.
+   * @throws IOException IOException.
+   */
+  private static String export(Entrypoints entrypoints) throws IOException {
+    StringWriter writer = new StringWriter();
+    StreamingExporter.exportAll(entrypoints, Collections.<Writer, StreamingExporter>singletonMap(writer, new JsonLinesExporter()));
+    return writer.toString();
+  }
+
+}
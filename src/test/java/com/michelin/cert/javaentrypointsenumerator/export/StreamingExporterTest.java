@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Michelin CERT (https://cert.michelin.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.michelin.cert.javaentrypointsenumerator.export;
+
+import static org.junit.Assert.assertEquals;
+
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.EntrypointSink;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Entrypoints;
+import com.michelin.cert.javaentrypointsenumerator.entrypoint.Jsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * StreamingExporter tests.
+ *
+ * @author Maxime ESCOURBIAC
+ */
+public class StreamingExporterTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void singlePassFeedsEveryWriter() throws IOException {
+    Entrypoints entrypoints = new Entrypoints();
+    ExcelExportHarness.populate(entrypoints, 100);
+    CountingEntrypoints counted = new CountingEntrypoints();
+    counted.addAll(entrypoints);
+
+    StringWriter csvWriter = new StringWriter();
+    StringWriter jsonLinesWriter = new StringWriter();
+    Map<Writer, StreamingExporter> targets = new LinkedHashMap<>();
+    targets.put(csvWriter, new CsvExporter());
+    targets.put(jsonLinesWriter, new JsonLinesExporter());
+    StreamingExporter.exportAll(counted, targets);
+
+    //Each entrypoint is read once, whatever the number of outputs.
+    assertEquals(1, counted.getPasses());
+    assertEquals(export(entrypoints, new CsvExporter()), csvWriter.toString());
+    assertEquals(export(entrypoints, new JsonLinesExporter()), jsonLinesWriter.toString());
+  }
+
+  @Test
+  public void exportWritesUtf8File() throws IOException {
+    Entrypoints entrypoints = new Entrypoints();
+    entrypoints.addJsp(new Jsp("/caf\u00e9.jsp"));
+    entrypoints.addRestEndpoint(CsvExporterTest.restEndpoint("/items/{a,b}"));
+    File outputFile = folder.newFile("entrypoints.csv");
+
+    new CsvExporter().export(outputFile, entrypoints);
+
+    assertEquals(export(entrypoints, new CsvExporter()), new String(Files.readAllBytes(outputFile.toPath()), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Export entrypoints to a string, on their own.
+   *
+   * @param entrypoints Entrypoints.
+   * @param exporter Exporter.
+   * @return Document written.
+   * @throws IOException IOException.
+   */
+  private static String export(Entrypoints entrypoints, StreamingExporter exporter) throws IOException {
+    StringWriter writer = new StringWriter();
+    StreamingExporter.exportAll(entrypoints, Collections.<Writer, StreamingExporter>singletonMap(writer, exporter));
+    return writer.toString();
+  }
+
+  /**
+   * Entrypoints counting the passes over them.
+   */
+  private static class CountingEntrypoints extends Entrypoints {
+
+    private int passes;
+
+    @Override
+    public void pushTo(EntrypointSink sink) {
+      ++passes;
+      super.pushTo(sink);
+    }
+
+    public int getPasses() {
+      return passes;
+    }
+  }
+
+}